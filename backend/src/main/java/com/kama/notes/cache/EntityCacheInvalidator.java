@@ -0,0 +1,123 @@
+package com.kama.notes.cache;
+
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.utils.TransactionUtils;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * EntityCacheInvalidator
+ *
+ * 实体缓存失效组件：负责删除 Redis 中的共享缓存，并通过 Redis pub/sub 通知所有节点清除本地缓存。
+ *
+ * 说明：
+ * - 在事务中调用 invalidate 时，失效动作注册到事务提交之后执行，
+ *   避免事务提交前其他请求把旧数据重新读入缓存；不在事务中时立即执行；
+ * - 本节点会先直接清除本地缓存，再广播消息；本节点收到自己发出的消息时重复清除一次，无副作用；
+ * - pub/sub 为至多一次投递，消息丢失时依赖本地缓存的短 TTL 兜底。
+ */
+@Log4j2
+@Component
+public class EntityCacheInvalidator implements MessageListener {
+
+    private static final String SEPARATOR = ":";
+
+    private final Map<String, TwoTierCache<?, ?>> caches;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public EntityCacheInvalidator(List<TwoTierCache<?, ?>> caches,
+                                  StringRedisTemplate stringRedisTemplate,
+                                  RedisMessageListenerContainer listenerContainer) {
+        this.caches = caches.stream()
+                .collect(Collectors.toMap(TwoTierCache::getName, Function.identity()));
+        this.stringRedisTemplate = stringRedisTemplate;
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKey.entityCacheInvalidateChannel()));
+    }
+
+    /**
+     * 使指定实体的缓存失效（所有节点）
+     *
+     * @param cacheName 缓存名称
+     * @param id        实体主键
+     */
+    public void invalidate(String cacheName, Object id) {
+        TransactionUtils.afterCommit(() -> doInvalidate(cacheName, id));
+    }
+
+    private void doInvalidate(String cacheName, Object id) {
+        TwoTierCache<?, ?> cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(String.valueOf(id));
+        }
+        try {
+            stringRedisTemplate.delete(RedisKey.entityCache(cacheName, id));
+            stringRedisTemplate.convertAndSend(RedisKey.entityCacheInvalidateChannel(), cacheName + SEPARATOR + id);
+        } catch (Exception e) {
+            log.warn("实体缓存失效广播失败, cache: {}, id: {}", cacheName, id, e);
+        }
+    }
+
+    /**
+     * 批量使实体缓存失效（所有节点），一次 DEL 删除全部 Redis 键，广播通过 pipeline 发送
+     *
+     * @param cacheName 缓存名称
+     * @param ids       实体主键
+     */
+    public void invalidateAll(String cacheName, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> doInvalidateAll(cacheName, ids));
+    }
+
+    private void doInvalidateAll(String cacheName, Collection<?> ids) {
+        TwoTierCache<?, ?> cache = caches.get(cacheName);
+        if (cache != null) {
+            ids.forEach(id -> cache.evictLocal(String.valueOf(id)));
+        }
+        try {
+            stringRedisTemplate.delete(ids.stream().map(id -> RedisKey.entityCache(cacheName, id)).toList());
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (Object id : ids) {
+                    stringConnection.publish(RedisKey.entityCacheInvalidateChannel(), cacheName + SEPARATOR + id);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("实体缓存批量失效广播失败, cache: {}, count: {}", cacheName, ids.size(), e);
+        }
+    }
+
+    /**
+     * 接收失效广播，消息格式为 "{cacheName}:{id}"
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int index = body.indexOf(SEPARATOR);
+        if (index <= 0) {
+            log.warn("实体缓存失效消息格式非法: {}", body);
+            return;
+        }
+        TwoTierCache<?, ?> cache = caches.get(body.substring(0, index));
+        if (cache != null) {
+            cache.evictLocal(body.substring(index + 1));
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.kama.notes.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * TwoTierCache
+ *
+ * 两级读穿透（read-through）实体缓存：进程内 Caffeine 本地缓存 + Redis 共享缓存，最后回源数据库。
+ *
+ * 读取流程（getAll）：
+ * 1. 先批量查询本地缓存；
+ * 2. 本地未命中的 key 通过一次 MGET 批量查询 Redis，命中后回填本地缓存；
+ * 3. Redis 仍未命中的 key 交给 loader 批量回源（通常是 Mapper 的 findByIdBatch），
+ *    结果通过 pipeline 写入 Redis 并回填本地缓存。
+ *
+ * 说明：
+ * - 本地缓存有容量上限与写入后过期时间（TTL），作为跨节点失效广播丢失时的兜底；
+ * - Redis 过期时间附加最多 10% 的随机抖动，避免同一批数据同时过期；
+ * - Redis 不可用时直接降级为回源数据库，不影响业务正确性；
+ * - 失效由 EntityCacheInvalidator 统一处理（删除 Redis 键 + pub/sub 广播清除各节点本地缓存）；
+ * - 本地缓存中的实例在多个请求间共享，getAll 返回的是 copier 生成的副本，调用方修改返回值不会影响缓存；
+ * - 缓存内容在 TTL 内可能滞后于数据库，不能用于权限判断（例如管理员校验），权限判断应直接读取数据库。
+ *
+ * 指标：
+ * - 本地缓存：cache.gets{cache=..., result=hit|miss}、cache.evictions、cache.size 等（CaffeineCacheMetrics）；
+ * - Redis 层：entity.cache.redis.gets{cache=..., result=hit|miss}；
+ * - 回源：entity.cache.loads{cache=...}。
+ *
+ * @param <K> 主键类型
+ * @param <V> 实体类型
+ */
+@Log4j2
+public class TwoTierCache<K, V> {
+
+    private final String name;
+
+    private final Class<V> valueType;
+
+    /**
+     * 将失效广播中的字符串主键解析为 K
+     */
+    private final Function<String, K> keyParser;
+
+    /**
+     * 生成返回给调用方的副本
+     */
+    private final UnaryOperator<V> copier;
+
+    private final Cache<K, V> localCache;
+
+    private final Duration redisTtl;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Counter redisHitCounter;
+
+    private final Counter redisMissCounter;
+
+    private final Counter loadCounter;
+
+    public TwoTierCache(String name,
+                        Class<V> valueType,
+                        Function<String, K> keyParser,
+                        UnaryOperator<V> copier,
+                        long localMaxSize,
+                        Duration localTtl,
+                        Duration redisTtl,
+                        StringRedisTemplate stringRedisTemplate,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
+        this.name = name;
+        this.valueType = valueType;
+        this.keyParser = keyParser;
+        this.copier = copier;
+        this.redisTtl = redisTtl;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, name);
+
+        this.redisHitCounter = Counter.builder("entity.cache.redis.gets")
+                .tag("cache", name).tag("result", "hit").register(meterRegistry);
+        this.redisMissCounter = Counter.builder("entity.cache.redis.gets")
+                .tag("cache", name).tag("result", "miss").register(meterRegistry);
+        this.loadCounter = Counter.builder("entity.cache.loads")
+                .tag("cache", name).register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 批量读取实体
+     *
+     * @param keys   主键集合，可包含重复值
+     * @param loader 回源函数：传入缓存未命中的主键列表，返回 主键 -> 实体 的映射（不存在的主键可缺省）
+     * @return 主键 -> 实体副本 的映射，不包含数据库中不存在的主键
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<K, V> result = getAllShared(keys, loader);
+        result.replaceAll((key, value) -> copier.apply(value));
+        return result;
+    }
+
+    /**
+     * 读取实体，返回的实例与本地缓存共享
+     */
+    private Map<K, V> getAllShared(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        Set<K> distinctKeys = new LinkedHashSet<>(keys);
+        Map<K, V> result = new HashMap<>(localCache.getAllPresent(distinctKeys));
+        if (result.size() == distinctKeys.size()) {
+            return result;
+        }
+
+        List<K> localMissed = new ArrayList<>();
+        for (K key : distinctKeys) {
+            if (!result.containsKey(key)) {
+                localMissed.add(key);
+            }
+        }
+
+        List<K> redisMissed = readFromRedis(localMissed, result);
+        if (redisMissed.isEmpty()) {
+            return result;
+        }
+
+        loadCounter.increment(redisMissed.size());
+        Map<K, V> loaded = loader.apply(redisMissed);
+        if (!loaded.isEmpty()) {
+            localCache.putAll(loaded);
+            writeToRedis(loaded);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    /**
+     * 清除本节点的本地缓存条目（由失效广播调用）
+     *
+     * @param rawKey 字符串形式的主键
+     */
+    public void evictLocal(String rawKey) {
+        try {
+            localCache.invalidate(keyParser.apply(rawKey));
+        } catch (RuntimeException e) {
+            log.warn("缓存失效消息主键非法, cache: {}, key: {}", name, rawKey);
+        }
+    }
+
+    /**
+     * 通过 MGET 批量读取 Redis，命中的结果写入 result 并回填本地缓存
+     *
+     * @return Redis 中未命中的主键
+     */
+    private List<K> readFromRedis(List<K> keys, Map<K, V> result) {
+        List<String> redisKeys = keys.stream().map(key -> RedisKey.entityCache(name, key)).toList();
+
+        List<String> values;
+        try {
+            values = stringRedisTemplate.opsForValue().multiGet(redisKeys);
+        } catch (Exception e) {
+            log.warn("读取 Redis 实体缓存失败，降级回源数据库, cache: {}", name, e);
+            return keys;
+        }
+
+        List<K> missed = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            String json = values == null ? null : values.get(i);
+            V value = json == null ? null : deserialize(json);
+            if (value == null) {
+                missed.add(keys.get(i));
+            } else {
+                result.put(keys.get(i), value);
+                localCache.put(keys.get(i), value);
+            }
+        }
+
+        redisHitCounter.increment(keys.size() - missed.size());
+        redisMissCounter.increment(missed.size());
+        return missed;
+    }
+
+    /**
+     * 通过 pipeline 批量写入 Redis，过期时间附加随机抖动
+     */
+    private void writeToRedis(Map<K, V> values) {
+        long baseSeconds = redisTtl.getSeconds();
+        long jitterBound = Math.max(1, baseSeconds / 10);
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (Map.Entry<K, V> entry : values.entrySet()) {
+                    String json = serialize(entry.getValue());
+                    if (json != null) {
+                        long ttl = baseSeconds + ThreadLocalRandom.current().nextLong(jitterBound);
+                        stringConnection.setEx(RedisKey.entityCache(name, entry.getKey()), ttl, json);
+                    }
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("写入 Redis 实体缓存失败, cache: {}", name, e);
+        }
+    }
+
+    private String serialize(V value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            log.warn("序列化实体缓存失败, cache: {}", name, e);
+            return null;
+        }
+    }
+
+    private V deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, valueType);
+        } catch (Exception e) {
+            log.warn("反序列化实体缓存失败，按未命中处理, cache: {}", name, e);
+            return null;
+        }
+    }
+}
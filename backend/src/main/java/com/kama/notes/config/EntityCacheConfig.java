@@ -0,0 +1,86 @@
+package com.kama.notes.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kama.notes.cache.TwoTierCache;
+import com.kama.notes.model.entity.Note;
+import com.kama.notes.model.entity.Question;
+import com.kama.notes.model.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * EntityCacheConfig
+ *
+ * 实体两级缓存配置类。
+ *
+ * 说明：
+ * - userCache：笔记列表、评论列表、消息列表中批量查询作者/发送者信息时使用；
+ * - questionCache：笔记列表中批量查询所属问题信息时使用；
+ * - noteCache：笔记搜索结果按 ID 回填笔记内容时使用，笔记修改、删除及计数写回后失效；
+ * - 三者共用同一组容量与过期时间配置，缓存名称同时用作 Redis 键前缀与指标标签；
+ * - 实体字段均为不可变类型（包装类型、String、LocalDate/LocalDateTime），返回副本时浅拷贝即可。
+ *
+ * 配置项（application.yaml）：
+ * - cache.entity.local-max-size / local-ttl-seconds / redis-ttl-seconds
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    public static final String USER_CACHE = "user";
+
+    public static final String QUESTION_CACHE = "question";
+
+    public static final String NOTE_CACHE = "note";
+
+    @Value("${cache.entity.local-max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${cache.entity.local-ttl-seconds:60}")
+    private long localTtlSeconds;
+
+    @Value("${cache.entity.redis-ttl-seconds:1800}")
+    private long redisTtlSeconds;
+
+    @Bean
+    public TwoTierCache<Long, User> userCache(StringRedisTemplate stringRedisTemplate,
+                                              ObjectMapper objectMapper,
+                                              MeterRegistry meterRegistry) {
+        return new TwoTierCache<>(USER_CACHE, User.class, Long::valueOf, shallowCopy(User::new),
+                localMaxSize, Duration.ofSeconds(localTtlSeconds), Duration.ofSeconds(redisTtlSeconds),
+                stringRedisTemplate, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public TwoTierCache<Integer, Question> questionCache(StringRedisTemplate stringRedisTemplate,
+                                                         ObjectMapper objectMapper,
+                                                         MeterRegistry meterRegistry) {
+        return new TwoTierCache<>(QUESTION_CACHE, Question.class, Integer::valueOf, shallowCopy(Question::new),
+                localMaxSize, Duration.ofSeconds(localTtlSeconds), Duration.ofSeconds(redisTtlSeconds),
+                stringRedisTemplate, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public TwoTierCache<Integer, Note> noteCache(StringRedisTemplate stringRedisTemplate,
+                                                 ObjectMapper objectMapper,
+                                                 MeterRegistry meterRegistry) {
+        return new TwoTierCache<>(NOTE_CACHE, Note.class, Integer::valueOf, shallowCopy(Note::new),
+                localMaxSize, Duration.ofSeconds(localTtlSeconds), Duration.ofSeconds(redisTtlSeconds),
+                stringRedisTemplate, objectMapper, meterRegistry);
+    }
+
+    private static <T> UnaryOperator<T> shallowCopy(Supplier<T> factory) {
+        return source -> {
+            T copy = factory.get();
+            BeanUtils.copyProperties(source, copy);
+            return copy;
+        };
+    }
+}
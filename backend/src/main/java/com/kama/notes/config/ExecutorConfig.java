@@ -0,0 +1,143 @@
+package com.kama.notes.config;
+
+import com.kama.notes.scope.RequestContextTaskDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * ExecutorConfig
+ *
+ * 业务线程池配置类。
+ *
+ * 说明：
+ * - queryExecutor：用于并行执行彼此独立的只读查询（例如笔记列表中作者、问题、点赞、收藏信息的批量查询），
+ *   请求的总耗时由最慢的一次查询决定，而不是多次查询耗时之和；
+ * - 线程池有界（最大线程数 + 有界队列），饱和时使用 CallerRunsPolicy 由调用线程自行执行，起到背压作用，
+ *   不会无限堆积任务，也不会丢弃任务；
+ * - 通过 RequestContextTaskDecorator 将 RequestScopeData 与 MDC(traceId) 传递到工作线程；
+ * - 通过 Micrometer 的 ExecutorServiceMetrics 暴露活跃线程数、队列长度、已完成任务数等指标
+ *   （/actuator/metrics/executor.active?tag=name:query 等）。
+ *
+ * - federatedSearchExecutor：用于聚合搜索中并行查询笔记、问题、用户三个数据源，与 queryExecutor 隔离；
+ *   饱和时拒绝提交（AbortPolicy），被拒绝的数据源按失败返回，不能像 CallerRunsPolicy 那样在请求线程中同步执行，
+ *   否则各数据源的超时控制在高负载时失效，一个慢数据源就会拖慢整个聚合搜索；
+ *
+ * - searchIndexExecutor：用于全量重建笔记检索列时并行处理各个 ID 区间，线程数即并行度上限，
+ *   分词为 CPU 密集型任务，与查询线程池隔离，避免重建期间影响接口响应。
+ *
+ * 配置项（application.yaml）：
+ * - executor.query.core-size / max-size / queue-capacity
+ * - executor.federated-search.core-size / max-size / queue-capacity
+ * - executor.search-index.parallelism
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${executor.query.core-size:8}")
+    private int queryCoreSize;
+
+    @Value("${executor.query.max-size:16}")
+    private int queryMaxSize;
+
+    @Value("${executor.query.queue-capacity:256}")
+    private int queryQueueCapacity;
+
+    @Value("${executor.federated-search.core-size:8}")
+    private int federatedSearchCoreSize;
+
+    @Value("${executor.federated-search.max-size:16}")
+    private int federatedSearchMaxSize;
+
+    @Value("${executor.federated-search.queue-capacity:64}")
+    private int federatedSearchQueueCapacity;
+
+    @Value("${executor.search-index.parallelism:4}")
+    private int searchIndexParallelism;
+
+    /**
+     * 创建并行查询线程池。
+     *
+     * @param meterRegistry 指标注册中心，由 Actuator 自动配置
+     * @return 已初始化并注册指标的线程池
+     */
+    @Bean
+    public ThreadPoolTaskExecutor queryExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(queryCoreSize);
+        executor.setMaxPoolSize(queryMaxSize);
+        executor.setQueueCapacity(queryQueueCapacity);
+        executor.setThreadNamePrefix("query-");
+        // 队列满时由调用线程执行，保证任务不丢失并形成背压
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // 传递请求作用域数据与 traceId
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        // 应用关闭时等待已提交的任务执行完毕
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "query", Tags.empty())
+                .bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * 创建聚合搜索线程池。
+     *
+     * 队列满且线程数达到上限时抛出 TaskRejectedException，由调用方将该数据源记为失败，
+     * 请求线程只负责提交与等待，耗时始终受各数据源的超时时间约束。
+     *
+     * @param meterRegistry 指标注册中心
+     * @return 已初始化并注册指标的线程池
+     */
+    @Bean
+    public ThreadPoolTaskExecutor federatedSearchExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(federatedSearchCoreSize);
+        executor.setMaxPoolSize(federatedSearchMaxSize);
+        executor.setQueueCapacity(federatedSearchQueueCapacity);
+        executor.setThreadNamePrefix("federated-search-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(new RequestContextTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "federated-search", Tags.empty())
+                .bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * 创建检索列重建线程池。
+     *
+     * 队列容量与线程数相同，提交方在队列满时自行执行任务（CallerRunsPolicy），
+     * 同时在处理中的区间数不超过 2 * parallelism + 1，不会一次性把全部区间读入内存。
+     *
+     * @param meterRegistry 指标注册中心
+     * @return 已初始化并注册指标的线程池
+     */
+    @Bean
+    public ThreadPoolTaskExecutor searchIndexExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(searchIndexParallelism);
+        executor.setMaxPoolSize(searchIndexParallelism);
+        executor.setQueueCapacity(searchIndexParallelism);
+        executor.setThreadNamePrefix("search-index-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "search-index", Tags.empty())
+                .bindTo(meterRegistry);
+        return executor;
+    }
+}
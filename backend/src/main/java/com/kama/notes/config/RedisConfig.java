@@ -5,6 +5,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -18,6 +19,7 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
  *   便于存储复杂对象并在不同语言/平台间保持兼容性。
  * - hash 相关的 key/value 也分别使用 StringRedisSerializer 和 GenericJackson2JsonRedisSerializer。
  * - stringRedisTemplate 提供了基于字符串操作的简便模板，适用于只存取字符串场景。
+ * - redisMessageListenerContainer 为 Redis pub/sub 订阅容器，各业务组件自行向其注册频道监听（例如实体缓存失效广播）。
  *
  * 注意事项：
  * - GenericJackson2JsonRedisSerializer 使用 Jackson 进行序列化，若希望自定义 ObjectMapper（例如开启类型信息或安全配置），
@@ -65,4 +67,17 @@ public class RedisConfig {
     public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
         return new StringRedisTemplate(redisConnectionFactory);
     }
+
+    /**
+     * 创建 Redis pub/sub 消息监听容器。
+     *
+     * @param redisConnectionFactory Redis 连接工厂，由 Spring 注入
+     * @return RedisMessageListenerContainer 实例
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
 }
@@ -1,5 +1,6 @@
 package com.kama.notes.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -7,6 +8,9 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -35,12 +39,21 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * Actuator 独立管理端口（仅监听本机），未配置时为 -1
+     */
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     /**
      * 配置 SecurityFilterChain。
      *
      * 行为要点：
      * - 启用 CORS 并禁用 CSRF；
-     * - 对 /api/** 允许所有访问，其它请求需认证；
+     * - 对 /api/** 以及健康检查（/actuator/health、/livez、/readyz）允许所有访问；
+     * - 指标等其它 Actuator 端点包含缓存键、线程池、查询耗时等内部信息，只允许通过管理端口访问，
+     *   管理端口仅监听本机，由部署在本机的监控采集；
+     * - 其它请求需认证；
      * - 禁用内置表单登录和 HTTP Basic（通常在使用 JWT 时禁用默认认证方式）。
      *
      * 提示：
@@ -57,6 +70,8 @@ public class SecurityConfig {
             .csrf().disable()
             .authorizeRequests()
                 .antMatchers("/api/**").permitAll()
+                .antMatchers("/actuator/health", "/livez", "/readyz").permitAll()
+                .requestMatchers(new AndRequestMatcher(new AntPathRequestMatcher("/actuator/**"), onManagementPort())).permitAll()
                 .anyRequest().authenticated()
             .and()
             .formLogin().disable()
@@ -65,6 +80,13 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * 请求是否来自 Actuator 管理端口
+     */
+    private RequestMatcher onManagementPort() {
+        return request -> managementPort > 0 && request.getLocalPort() == managementPort;
+    }
+
     /**
      * 提供 CORS 配置源。
      *
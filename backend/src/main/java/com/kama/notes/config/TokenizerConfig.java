@@ -0,0 +1,81 @@
+package com.kama.notes.config;
+
+import com.kama.notes.search.JiebaTokenizer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenizerConfig
+ *
+ * 分词器配置类。
+ *
+ * 说明：
+ * - 在容器启动时即开始在后台加载 Jieba 词典，而不是等到第一次搜索时才加载，消除首次搜索的数秒停顿；
+ * - 分词器为全局单例（SearchUtils 的静态方法同样使用它），这里将其注册为 Bean，
+ *   需要保证词典加载顺序的组件（例如笔记索引）可以直接注入；
+ * - 通过 Micrometer 暴露指标：
+ *   search.tokenizer.texts / search.tokenizer.tokens（分词的文本数、词元数，取速率即为每秒词元数）、
+ *   search.tokenizer.cache{result=hit|miss}、search.tokenizer.cache.size、
+ *   search.tokenizer.segment（实际执行分词的次数与耗时）。
+ *
+ * 配置项（application.yaml）：
+ * - search.tokenizer.cache-size：分词结果缓存的最大条数；
+ * - search.tokenizer.user-dicts：额外的自定义词典文件路径，逗号分隔，每行 "词 词频"。
+ */
+@Configuration
+public class TokenizerConfig {
+
+    @Value("${search.tokenizer.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${search.tokenizer.user-dicts:}")
+    private String userDictionaries;
+
+    /**
+     * 启动词典加载并注册分词指标。
+     *
+     * @param meterRegistry 指标注册中心
+     * @return 全局分词器
+     */
+    @Bean
+    public JiebaTokenizer jiebaTokenizer(MeterRegistry meterRegistry) {
+        JiebaTokenizer tokenizer = JiebaTokenizer.getInstance();
+        List<Path> paths = Arrays.stream(userDictionaries.split(","))
+                .filter(path -> !path.isBlank())
+                .map(path -> Paths.get(path.trim()))
+                .toList();
+        tokenizer.start(cacheSize, paths);
+
+        FunctionCounter.builder("search.tokenizer.texts", tokenizer, JiebaTokenizer::getTextCount)
+                .description("分词的文本数")
+                .register(meterRegistry);
+        FunctionCounter.builder("search.tokenizer.tokens", tokenizer, JiebaTokenizer::getTokenCount)
+                .description("分词产生的词元数")
+                .register(meterRegistry);
+        FunctionCounter.builder("search.tokenizer.cache", tokenizer, JiebaTokenizer::getCacheHitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("search.tokenizer.cache", tokenizer, JiebaTokenizer::getCacheMissCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("search.tokenizer.cache.size", tokenizer, JiebaTokenizer::getCacheSize)
+                .register(meterRegistry);
+        FunctionTimer.builder("search.tokenizer.segment", tokenizer,
+                        t -> t.getTextCount() - t.getCacheHitCount(),
+                        JiebaTokenizer::getSegmentNanos, TimeUnit.NANOSECONDS)
+                .description("实际执行分词（未命中缓存）的次数与耗时")
+                .register(meterRegistry);
+        return tokenizer;
+    }
+}
@@ -0,0 +1,103 @@
+package com.kama.notes.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kama.notes.interceptor.StompAuthChannelInterceptor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+import java.util.List;
+
+/**
+ * WebSocketConfig
+ *
+ * 站内消息实时推送配置（STOMP over WebSocket），用于替代前端定时轮询未读数接口。
+ *
+ * 说明：
+ * - 端点为 /api/ws（位于 SecurityConfig 放行的 /api/** 之下），鉴权在 STOMP CONNECT 帧中完成，
+ *   见 StompAuthChannelInterceptor；
+ * - 使用内置的简单 broker，推送地址为 /user/queue/notifications，由用户目的地解析到具体会话；
+ * - 多节点部署时每个节点只持有部分连接，跨节点分发由 MessagePushListener 通过 Redis pub/sub 完成，
+ *   因此无需引入外部 STOMP broker；
+ * - 消息转换器使用 Spring Boot 配置的 ObjectMapper，保证推送与 HTTP 接口返回的 JSON 格式（如时间字段）一致；
+ * - 心跳使用独立的调度线程池，不与 @Scheduled 定时任务共用，索引重建等耗时任务不会推迟心跳导致客户端断开。
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer, DisposableBean {
+
+    /**
+     * 推送给单个用户的目的地（客户端订阅时需加上 /user 前缀）
+     */
+    public static final String NOTIFICATION_DESTINATION = "/queue/notifications";
+
+    @Value("${websocket.allowed-origins:http://localhost:5173,http://127.0.0.1:5173}")
+    private String[] allowedOrigins;
+
+    @Value("${websocket.heartbeat-ms:25000}")
+    private long heartbeatMs;
+
+    @Value("${websocket.heartbeat-pool-size:2}")
+    private int heartbeatPoolSize;
+
+    @Autowired
+    private StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    /**
+     * broker 心跳专用调度器，不注册为 Bean，避免与定时任务使用的 taskScheduler 冲突
+     */
+    private ThreadPoolTaskScheduler heartbeatScheduler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/api/ws")
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(heartbeatPoolSize);
+        heartbeatScheduler.setThreadNamePrefix("ws-heartbeat-");
+        heartbeatScheduler.setDaemon(true);
+        heartbeatScheduler.initialize();
+
+        registry.enableSimpleBroker("/queue")
+                .setHeartbeatValue(new long[]{heartbeatMs, heartbeatMs})
+                .setTaskScheduler(heartbeatScheduler);
+        registry.setApplicationDestinationPrefixes("/app");
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        messageConverters.add(converter);
+        return false;
+    }
+
+    @Override
+    public void destroy() {
+        if (heartbeatScheduler != null) {
+            heartbeatScheduler.shutdown();
+        }
+    }
+}
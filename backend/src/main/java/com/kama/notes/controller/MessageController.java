@@ -3,12 +3,17 @@ package com.kama.notes.controller;
 import com.kama.notes.annotation.NeedLogin;
 import com.kama.notes.model.base.ApiResponse;
 import com.kama.notes.model.base.EmptyVO;
+import com.kama.notes.model.dto.message.CreateBroadcastBody;
+import com.kama.notes.model.dto.message.MessageQueryParams;
 import com.kama.notes.model.request.message.ReadMessageBatchRequest;
 import com.kama.notes.model.vo.message.MessageVO;
+import com.kama.notes.model.vo.message.UnreadCountByType;
+import com.kama.notes.service.BroadcastService;
 import com.kama.notes.service.MessageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.validation.Valid;
 import java.util.List;
 
 /**
@@ -17,10 +22,11 @@ import java.util.List;
  * 消息相关 REST 控制器。
  *
  * 提供的功能：
- * - 获取当前用户的消息列表；
+ * - 获取当前用户的消息列表与归档消息列表；
  * - 标记单条/多条/全部消息为已读；
  * - 删除消息；
- * - 查询未读消息数量。
+ * - 查询未读消息数量（总数及按类型分组）；
+ * - 管理员发布面向全体用户的系统广播。
  *
  * 说明：
  * - 部分接口需要用户登录（通过 @NeedLogin 或拦截器保证），具体鉴权在拦截器或切面中实现；
@@ -34,19 +40,41 @@ public class MessageController {
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private BroadcastService broadcastService;
+
     /**
      * 获取消息列表。
      *
      * 说明：
      * - 返回当前登录用户的消息列表，数据类型为 List<MessageVO>。
+     * - 按 (created_at, message_id) 倒序游标分页，支持按类型（type）、已读状态（isRead）过滤；
+     *   首次请求不传 cursor，之后原样回传响应中的 pagination.nextCursor。
      * - 使用 @NeedLogin 注解确保请求方已登录。
      *
+     * @param params 过滤条件、每页大小与游标
      * @return ApiResponse 包含消息视图对象列表
      */
     @GetMapping
     @NeedLogin
-    public ApiResponse<List<MessageVO>> getMessages() {
-        return messageService.getMessages();
+    public ApiResponse<List<MessageVO>> getMessages(@Valid MessageQueryParams params) {
+        return messageService.getMessages(params);
+    }
+
+    /**
+     * 获取归档消息列表。
+     *
+     * 说明：
+     * - 超过保留期的已读消息由定时任务从收件箱迁移到归档表，可通过此接口继续查看；
+     * - 分页与过滤方式与 GET /api/messages 相同。
+     *
+     * @param params 过滤条件、每页大小与游标
+     * @return ApiResponse 包含归档消息视图对象列表
+     */
+    @GetMapping("/archive")
+    @NeedLogin
+    public ApiResponse<List<MessageVO>> getArchivedMessages(@Valid MessageQueryParams params) {
+        return messageService.getArchivedMessages(params);
     }
 
     /**
@@ -107,4 +135,31 @@ public class MessageController {
     public ApiResponse<Integer> getUnreadCount() {
         return messageService.getUnreadCount();
     }
+
+    /**
+     * 获取当前用户按消息类型分组的未读消息数量。
+     *
+     * @return ApiResponse<List<UnreadCountByType>> 各消息类型（点赞、评论、系统）的未读数量
+     */
+    @GetMapping("/unread/count/type")
+    @NeedLogin
+    public ApiResponse<List<UnreadCountByType>> getUnreadCountByType() {
+        return messageService.getUnreadCountByType();
+    }
+
+    /**
+     * 发布系统广播（仅管理员）。
+     *
+     * 说明：
+     * - 广播只写入一行记录，所有用户在查询消息列表与未读数时合并读取，发布开销与用户数无关；
+     * - 广播在消息列表中以 messageId 为负数的系统消息出现，可按普通消息的接口标记已读。
+     *
+     * @param body 广播内容
+     * @return ApiResponse<Integer> 新广播的 ID
+     */
+    @PostMapping("/broadcasts")
+    @NeedLogin
+    public ApiResponse<Integer> publishBroadcast(@Valid @RequestBody CreateBroadcastBody body) {
+        return broadcastService.publishBroadcast(body);
+    }
 }
@@ -1,11 +1,21 @@
 package com.kama.notes.controller;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,7 +23,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.kama.notes.model.base.ApiResponse;
 import com.kama.notes.model.base.EmptyVO;
@@ -21,11 +33,12 @@ import com.kama.notes.model.dto.note.CreateNoteRequest;
 import com.kama.notes.model.dto.note.NoteQueryParams;
 import com.kama.notes.model.dto.note.UpdateNoteRequest;
 import com.kama.notes.model.vo.note.CreateNoteVO;
-import com.kama.notes.model.vo.note.DownloadNoteVO;
 import com.kama.notes.model.vo.note.NoteHeatMapItem;
 import com.kama.notes.model.vo.note.NoteRankListItem;
 import com.kama.notes.model.vo.note.NoteVO;
 import com.kama.notes.model.vo.note.Top3Count;
+import com.kama.notes.scope.RequestScopeData;
+import com.kama.notes.service.NoteExportService;
 import com.kama.notes.service.NoteService;
 
 import lombok.extern.log4j.Log4j2;
@@ -37,13 +50,15 @@ import lombok.extern.log4j.Log4j2;
  *
  * 设计要点：
  * - 请求/返回统一使用 ApiResponse<T>，便于前端统一处理状态与消息；
- * - 入参使用 javax.validation 进行基础校验（@Valid、@Min 等）；
+ * - 入参使用 javax.validation 进行基础校验（@Valid、@Min 等），类上的 @Validated 使方法参数上的约束生效，
+ *   校验失败由 ParamExceptionHandler 返回 400；
  * - 控制器仅负责路由与参数校验，业务逻辑与事务应在 NoteService 层实现；
  * - 建议对需要登录/权限的接口配合拦截器或 @NeedLogin 注解使用。
  *
  * 路径前缀：/api
  */
 @Log4j2
+@Validated
 @RestController
 @RequestMapping("/api")
 public class NoteController {
@@ -52,12 +67,19 @@ public class NoteController {
     @Autowired
     private NoteService noteService;
 
+    @Autowired
+    private NoteExportService noteExportService;
+
+    @Autowired
+    private RequestScopeData requestScopeData;
+
     /**
      * 查询笔记列表
      *
      * 行为：
      * - 根据 NoteQueryParams 提供的筛选与分页参数返回笔记列表；
-     * - 参数使用 @Valid 校验，Service 层负责更复杂的校验与权限判断。
+     * - 参数使用 @Valid 校验，Service 层负责更复杂的校验与权限判断；
+     * - 传入 cursor 参数时启用游标分页（首页传空字符串），响应的 pagination.nextCursor 用于请求下一页。
      *
      * 返回：
      * - ApiResponse.data 为 List<NoteVO>（可能为空列表）。
@@ -127,17 +149,44 @@ public class NoteController {
     }
 
     /**
-     * 导出/下载笔记
+     * 流式导出当前用户的全部笔记
      *
      * 行为说明：
-     * - 返回用于下载的对象（DownloadNoteVO），具体格式（zip、md、html）由 Service 决定；
-     * - 建议对大文件导出使用异步处理或流式响应以避免阻塞。
+     * - format=md（默认）：返回一个 Markdown 文件；format=zip：返回 zip 压缩包，每个二级分类一个 Markdown 文件；
+     * - 使用 StreamingResponseBody 在异步线程中边读边写，笔记通过数据库游标逐行读取，内存占用与笔记数量无关；
+     * - 返回的是文件而非 ApiResponse，因此不使用 @NeedLogin（其失败时返回 ApiResponse），未登录时直接返回 401。
      *
-     * @return ApiResponse 包含下载信息（如下载链接或文件元信息）
+     * @param format 导出格式：md 或 zip
+     * @return 以附件形式下载的文件流
      */
-    @GetMapping("/notes/download")
-    public ApiResponse<DownloadNoteVO> downloadNote() {
-        return noteService.downloadNote();
+    @GetMapping("/notes/export")
+    public ResponseEntity<StreamingResponseBody> exportNotes(
+            @RequestParam(defaultValue = "md")
+            @Pattern(regexp = "md|zip", message = "format 只能为 md 或 zip") String format) {
+
+        Long userId = requestScopeData.getUserId();
+        if (!requestScopeData.isLogin() || userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        boolean zip = "zip".equals(format);
+        String filename = "卡码笔记" + System.currentTimeMillis() + (zip ? ".zip" : ".md");
+
+        StreamingResponseBody body = outputStream -> {
+            if (zip) {
+                noteExportService.writeZip(userId, outputStream);
+            } else {
+                noteExportService.writeMarkdown(userId,
+                        new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8).build().toString())
+                .contentType(zip ? MediaType.parseMediaType("application/zip")
+                        : new MediaType("text", "markdown", StandardCharsets.UTF_8))
+                .body(body);
     }
 
     /**
@@ -145,7 +194,7 @@ public class NoteController {
      *
      * 行为：
      * - 返回用于展示的排行列表（NoteRankListItem），如按浏览/点赞/收藏等维度排序；
-     * - 排行数据的计算可由定时任务或实时聚合实现，Service 层负责具体策略。
+     * - 排行数据由 NoteRankService 在笔记创建/删除时增量维护在 Redis 有序集合中，冷启动时从数据库重建。
      *
      * @return ApiResponse 包含排行列表
      */
@@ -1,12 +1,20 @@
 package com.kama.notes.controller;
 
+import com.kama.notes.annotation.NeedLogin;
 import com.kama.notes.model.base.ApiResponse;
 import com.kama.notes.model.entity.Note;
 import com.kama.notes.model.entity.User;
+import com.kama.notes.model.vo.search.FacetedNoteSearchVO;
+import com.kama.notes.model.vo.search.SearchReindexStatusVO;
+import com.kama.notes.model.vo.search.TrendingKeywordVO;
+import com.kama.notes.model.vo.search.UnifiedSearchVO;
+import com.kama.notes.service.HotKeywordService;
 import com.kama.notes.service.SearchService;
+import com.kama.notes.service.SearchVectorService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import java.util.List;
 
@@ -27,6 +35,29 @@ public class SearchController {
 
     private final SearchService searchService;
 
+    private final SearchVectorService searchVectorService;
+
+    private final HotKeywordService hotKeywordService;
+
+    /**
+     * 聚合搜索
+     *
+     * 说明：
+     * - 一次请求并行搜索笔记、问题、用户，替代分别调用三个搜索接口；
+     * - 每个数据源单独限时，超时或失败的分区 status 为 timeout / error 且结果为空，其余分区正常返回；
+     * - 分区按与关键词的匹配程度排序。
+     *
+     * 参数：
+     * - keyword: 搜索关键字（必传）；
+     * - limit: 每个分区的最大条数，默认 5，范围 1-10。
+     */
+    @GetMapping
+    public ApiResponse<UnifiedSearchVO> searchAll(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "5") @Min(1) @Max(10) Integer limit) {
+        return searchService.searchAll(keyword, limit);
+    }
+
     /**
      * 搜索笔记
      *
@@ -64,6 +95,31 @@ public class SearchController {
         return searchService.searchUsers(keyword, page, pageSize);
     }
 
+    /**
+     * 带分面的笔记搜索
+     *
+     * 用途：
+     * - 搜索结果页的筛选与下钻：返回当前页笔记，以及筛选后全部命中笔记按问题分类、难度、标签的数量。
+     *
+     * 参数：
+     * - keyword: 搜索关键字（必传）；
+     * - categoryId / difficulty / tagId: 筛选条件，可选，取值来自返回的分面；categoryId 可以是父分类，匹配其下所有子分类；
+     * - page / pageSize: 分页参数。
+     *
+     * 返回：
+     * - ApiResponse.data.notes 为当前页笔记，data.facets 为分面统计，pagination.total 为筛选后的命中数。
+     */
+    @GetMapping("/notes/faceted")
+    public ApiResponse<FacetedNoteSearchVO> searchNotesWithFacets(
+            @RequestParam String keyword,
+            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) @Min(1) @Max(3) Integer difficulty,
+            @RequestParam(required = false) Integer tagId,
+            @RequestParam(defaultValue = "1") @Min(1) Integer page,
+            @RequestParam(defaultValue = "20") @Min(1) Integer pageSize) {
+        return searchService.searchNotesWithFacets(keyword, categoryId, difficulty, tagId, page, pageSize);
+    }
+
     /**
      * 按标签和关键字搜索笔记
      *
@@ -86,4 +142,43 @@ public class SearchController {
             @RequestParam(defaultValue = "20") @Min(1) Integer pageSize) {
         return searchService.searchNotesByTag(keyword, tag, page, pageSize);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 热门搜索
+     *
+     * 参数：
+     * - scope: 统计范围，note（笔记，默认）、question（问题）、user（用户，仅管理员）；
+     * - limit: 返回条数，默认 10，范围 1-50。
+     *
+     * 返回：
+     * - ApiResponse.data 为最近一段时间（默认 1 小时）按估计搜索次数倒序的关键词，结果每 10 秒左右刷新。
+     */
+    @GetMapping("/trending")
+    public ApiResponse<List<TrendingKeywordVO>> getTrending(
+            @RequestParam(defaultValue = "note") String scope,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) Integer limit) {
+        return hotKeywordService.getTrending(scope, limit);
+    }
+
+    /**
+     * 全量重建笔记检索列（仅管理员）
+     *
+     * 说明：
+     * - 在后台按 ID 区间并行分词并回写 search_vector，接口立即返回；
+     * - 同一节点同时只能执行一个重建任务，进度通过 GET 同一路径查询。
+     */
+    @PostMapping("/admin/reindex")
+    @NeedLogin
+    public ApiResponse<SearchReindexStatusVO> startReindex() {
+        return searchVectorService.startReindex();
+    }
+
+    /**
+     * 查询本节点检索列重建进度（仅管理员）
+     */
+    @GetMapping("/admin/reindex")
+    @NeedLogin
+    public ApiResponse<SearchReindexStatusVO> getReindexStatus() {
+        return searchVectorService.getReindexStatus();
+    }
+}
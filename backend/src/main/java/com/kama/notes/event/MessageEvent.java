@@ -14,7 +14,8 @@ import org.springframework.context.ApplicationEvent;
  * - 包含三部分核心信息：
  *   1. message：要传递的消息载体（MessageVO），包含消息内容、来源等视图层所需信息；
  *   2. receiverId：接收者的用户 ID，便于在监听器中过滤或路由到目标用户；
- *   3. eventType：事件类型字符串（例如 "COMMENT"、"LIKE"、"SYSTEM"），便于监听器按类型分流处理；
+ *   3. eventType：事件类型字符串（例如 "COMMENT"、"LIKE"、"SYSTEM"、"READ"），便于监听器按类型分流处理；
+ *   4. unreadDelta：该事件引起的接收者未读数变化量，新消息为 +1，标记已读为负数；
  * - 推荐通过静态工厂方法创建不同类型的事件，避免直接使用构造器从而统一 eventType 值。
  *
  * 使用建议：
@@ -32,7 +33,7 @@ public class MessageEvent extends ApplicationEvent {
     private final MessageVO message;
 
     /**
-     * 接收消息的用户 ID，监听器可根据此字段将消息路由到特定用户或队列。
+     * 接收消息的用户 ID，监听器可根据此字段将消息路由到特定用户或队列；为 null 表示面向全体用户的系统广播。
      */
     private final Long receiverId;
 
@@ -41,8 +42,14 @@ public class MessageEvent extends ApplicationEvent {
      */
     private final String eventType;
 
+    /**
+     * 接收者未读消息数的变化量，客户端据此增量更新角标，无需轮询未读数接口。
+     */
+    private final Integer unreadDelta;
+
     /**
      * 构造器：内部使用，推荐使用静态工厂方法创建具体类型的事件。
+     * 新消息默认为未读，未读数变化量为 +1。
      *
      * @param source     事件源（通常为发布者对象）
      * @param message    消息视图对象
@@ -50,10 +57,24 @@ public class MessageEvent extends ApplicationEvent {
      * @param eventType  事件类型标识
      */
     public MessageEvent(Object source, MessageVO message, Long receiverId, String eventType) {
+        this(source, message, receiverId, eventType, 1);
+    }
+
+    /**
+     * 构造器：显式指定未读数变化量。
+     *
+     * @param source      事件源（通常为发布者对象）
+     * @param message     消息视图对象，可为 null（例如仅同步未读数的事件）
+     * @param receiverId  接收者用户 ID
+     * @param eventType   事件类型标识
+     * @param unreadDelta 未读数变化量
+     */
+    public MessageEvent(Object source, MessageVO message, Long receiverId, String eventType, Integer unreadDelta) {
         super(source);
         this.message = message;
         this.receiverId = receiverId;
         this.eventType = eventType;
+        this.unreadDelta = unreadDelta;
     }
 
     /**
@@ -91,4 +112,40 @@ public class MessageEvent extends ApplicationEvent {
     public static MessageEvent createSystemEvent(Object source, MessageVO message, Long receiverId) {
         return new MessageEvent(source, message, receiverId, "SYSTEM");
     }
-} 
\ No newline at end of file
+
+    /**
+     * 创建已读类型的事件：不携带消息内容，仅用于同步接收者在其它页面/设备上的未读数。
+     *
+     * @param source     事件源
+     * @param receiverId 接收者用户 ID
+     * @param readCount  本次由未读变为已读的消息条数
+     * @return MessageEvent 实例，eventType 为 "READ"，unreadDelta 为 -readCount
+     */
+    public static MessageEvent createReadEvent(Object source, Long receiverId, int readCount) {
+        return new MessageEvent(source, null, receiverId, "READ", -readCount);
+    }
+
+    /**
+     * 创建点赞合并类型的消息事件：新的点赞合并到了接收者已有的未读点赞通知中，
+     * 推送更新后的通知内容，接收者的未读数不变。
+     *
+     * @param source     事件源
+     * @param message    合并后的消息内容
+     * @param receiverId 接收者用户 ID
+     * @return MessageEvent 实例，eventType 为 "LIKE"，unreadDelta 为 0
+     */
+    public static MessageEvent createLikeMergedEvent(Object source, MessageVO message, Long receiverId) {
+        return new MessageEvent(source, message, receiverId, "LIKE", 0);
+    }
+
+    /**
+     * 创建系统广播类型的消息事件：面向全体用户，不指定接收者，推送给所有在线用户。
+     *
+     * @param source  事件源
+     * @param message 广播内容，messageId 为 -broadcastId
+     * @return MessageEvent 实例，eventType 为 "SYSTEM"，receiverId 为 null
+     */
+    public static MessageEvent createBroadcastEvent(Object source, MessageVO message) {
+        return new MessageEvent(source, message, null, "SYSTEM");
+    }
+}
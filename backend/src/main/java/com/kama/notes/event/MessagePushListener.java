@@ -0,0 +1,113 @@
+package com.kama.notes.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kama.notes.config.WebSocketConfig;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.model.vo.message.MessagePushVO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * MessagePushListener
+ *
+ * 站内消息实时推送：监听 MessageEvent，在事务提交后经 Redis pub/sub 广播到所有节点，
+ * 再由持有接收者 WebSocket 会话的节点通过 STOMP 推送给客户端。
+ *
+ * 说明：
+ * - 使用 AFTER_COMMIT 阶段监听，保证客户端收到推送时消息已可查询，事务回滚则不推送；
+ *   fallbackExecution = true 使在事务外发布的事件也能立即推送；
+ * - 每个节点只在本地存在该用户的会话时才投递，其余节点收到广播后直接忽略；
+ * - receiverId 为 null 的系统广播由每个节点推送给本地的全部在线用户；
+ * - Redis 不可用时退化为仅推送本节点的会话，不影响消息本身的写入；
+ * - pub/sub 为至多一次投递，推送丢失时客户端在重新连接后会拉取一次未读数进行校正。
+ */
+@Log4j2
+@Component
+public class MessagePushListener implements MessageListener {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final SimpUserRegistry simpUserRegistry;
+
+    private final ObjectMapper objectMapper;
+
+    public MessagePushListener(StringRedisTemplate stringRedisTemplate,
+                               SimpMessagingTemplate messagingTemplate,
+                               SimpUserRegistry simpUserRegistry,
+                               ObjectMapper objectMapper,
+                               RedisMessageListenerContainer listenerContainer) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+        this.objectMapper = objectMapper;
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKey.messagePushChannel()));
+    }
+
+    /**
+     * 事务提交后把消息事件广播到所有节点
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageEvent(MessageEvent event) {
+        PushEnvelope envelope = new PushEnvelope(event.getReceiverId(), MessagePushVO.of(event));
+        try {
+            stringRedisTemplate.convertAndSend(RedisKey.messagePushChannel(),
+                    objectMapper.writeValueAsString(envelope));
+        } catch (Exception e) {
+            log.warn("消息推送广播失败，仅推送本节点会话, receiverId: {}", event.getReceiverId(), e);
+            deliver(envelope);
+        }
+    }
+
+    /**
+     * 接收广播并推送给本节点上的接收者会话
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            deliver(objectMapper.readValue(message.getBody(), PushEnvelope.class));
+        } catch (Exception e) {
+            log.warn("消息推送处理失败", e);
+        }
+    }
+
+    private void deliver(PushEnvelope envelope) {
+        if (envelope.getReceiverId() == null) {
+            for (SimpUser simpUser : simpUserRegistry.getUsers()) {
+                messagingTemplate.convertAndSendToUser(simpUser.getName(),
+                        WebSocketConfig.NOTIFICATION_DESTINATION, envelope.getPush());
+            }
+            return;
+        }
+        String user = String.valueOf(envelope.getReceiverId());
+        if (simpUserRegistry.getUser(user) == null) {
+            return;
+        }
+        messagingTemplate.convertAndSendToUser(user, WebSocketConfig.NOTIFICATION_DESTINATION, envelope.getPush());
+    }
+
+    /**
+     * 节点间广播的消息体
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PushEnvelope {
+        private Long receiverId;
+        private MessagePushVO push;
+    }
+}
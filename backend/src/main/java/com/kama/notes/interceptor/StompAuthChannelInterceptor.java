@@ -0,0 +1,68 @@
+package com.kama.notes.interceptor;
+
+import com.kama.notes.utils.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * StompAuthChannelInterceptor
+ *
+ * WebSocket（STOMP）入站消息拦截器，复用 HTTP 接口的 JWT 完成连接鉴权。
+ *
+ * 说明：
+ * - 浏览器原生 WebSocket 握手无法设置自定义请求头，因此 token 放在 STOMP CONNECT 帧的
+ *   Authorization 头中（格式与 HTTP 相同，可带 "Bearer " 前缀）；
+ * - 校验通过后把用户 ID 作为会话的 Principal，后续按 /user/{userId}/... 进行点对点推送；
+ * - 校验失败时抛出异常，STOMP 会向客户端返回 ERROR 帧并关闭连接；
+ * - 只允许订阅 /user/ 开头的用户私有目的地，禁止直接订阅 broker 上的共享目的地。
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final String USER_DESTINATION_PREFIX = "/user/";
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String token = accessor.getFirstNativeHeader(AUTHORIZATION_HEADER);
+            if (token == null) {
+                throw new MessageDeliveryException("未登录");
+            }
+            token = token.replace(BEARER_PREFIX, "");
+            Long userId = jwtUtil.validateToken(token) ? jwtUtil.getUserIdFromToken(token) : null;
+            if (userId == null) {
+                throw new MessageDeliveryException("token 无效或已过期");
+            }
+            String name = String.valueOf(userId);
+            Principal principal = () -> name;
+            accessor.setUser(principal);
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            String destination = accessor.getDestination();
+            if (destination == null || !destination.startsWith(USER_DESTINATION_PREFIX)) {
+                throw new MessageDeliveryException("不允许订阅该地址: " + destination);
+            }
+        }
+        return message;
+    }
+}
@@ -66,32 +66,4 @@ public interface CommentMapper {
      * @return 评论数量
      */
     int countByQueryParam(@Param("params") CommentQueryParams params);
-
-    /**
-     * 增加评论点赞数
-     *
-     * @param commentId 评论ID
-     */
-    void incrementLikeCount(Integer commentId);
-
-    /**
-     * 减少评论点赞数
-     *
-     * @param commentId 评论ID
-     */
-    void decrementLikeCount(Integer commentId);
-
-    /**
-     * 增加评论回复数
-     *
-     * @param commentId 评论ID
-     */
-    void incrementReplyCount(Integer commentId);
-
-    /**
-     * 减少评论回复数
-     *
-     * @param commentId 评论ID
-     */
-    void decrementReplyCount(Integer commentId);
 } 
\ No newline at end of file
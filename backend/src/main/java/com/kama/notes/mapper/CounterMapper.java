@@ -0,0 +1,40 @@
+package com.kama.notes.mapper;
+
+import com.kama.notes.model.dto.counter.CounterDelta;
+import com.kama.notes.model.enums.counter.CounterType;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface CounterMapper {
+    /**
+     * 批量累加计数列（单条 UPDATE ... CASE 语句），结果小于 0 时置为 0
+     *
+     * @param type   计数器类型，决定表名与列名
+     * @param deltas 增量列表，不能为空
+     * @return 更新的记录数
+     */
+    int applyDeltas(@Param("type") CounterType type,
+                    @Param("deltas") List<CounterDelta> deltas);
+
+    /**
+     * 记录已刷新的批次号（INSERT IGNORE），用于保证同一批次只写入一次
+     *
+     * @param batchId     批次号
+     * @param counterType 计数器类型
+     * @return 1 表示首次写入，0 表示该批次已经写入过
+     */
+    int insertFlushLog(@Param("batchId") String batchId,
+                       @Param("counterType") String counterType);
+
+    /**
+     * 删除指定时间之前的批次记录
+     *
+     * @param before 截止时间
+     * @return 删除的记录数
+     */
+    int deleteFlushLogBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,67 @@
+package com.kama.notes.mapper;
+
+import com.kama.notes.model.dto.message.MessageQueryParams;
+import com.kama.notes.model.entity.Message;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface MessageArchiveMapper {
+    /**
+     * 沿 idx_created_at 按 (created_at, message_id) 升序查找待归档的已读消息，只返回 message_id 与 created_at。
+     * 不加锁，真正迁移前由 lockReadByIds 重新确认并锁定
+     *
+     * @param before         创建时间早于该时间的消息可归档
+     * @param afterCreatedAt 上一批最后一条的创建时间，为 null 表示从头开始
+     * @param afterMessageId 上一批最后一条的 messageId
+     * @param limit          最多返回的条数
+     * @return 待归档消息（仅 messageId、createdAt）
+     */
+    List<Message> selectArchivable(@Param("before") LocalDateTime before,
+                                   @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                   @Param("afterMessageId") Integer afterMessageId,
+                                   @Param("limit") int limit);
+
+    /**
+     * 按主键锁定仍为已读的消息（SELECT ... FOR UPDATE SKIP LOCKED），必须在事务中调用
+     *
+     * @param messageIds 消息 ID 列表
+     * @return 锁定成功的消息 ID
+     */
+    List<Integer> lockReadByIds(@Param("messageIds") List<Integer> messageIds);
+
+    /**
+     * 将消息复制到归档表，已归档过的消息被忽略
+     *
+     * @param messageIds 消息 ID 列表
+     * @return 影响行数
+     */
+    int copyToArchive(@Param("messageIds") List<Integer> messageIds);
+
+    /**
+     * 从 message 表删除已归档的消息
+     *
+     * @param messageIds 消息 ID 列表
+     * @return 影响行数
+     */
+    int deleteFromMessage(@Param("messageIds") List<Integer> messageIds);
+
+    /**
+     * 归档消息游标分页查询，排序与收件箱一致
+     *
+     * @param userId          接收者 ID
+     * @param params          类型、时间范围等过滤条件
+     * @param cursorCreatedAt 上一页最后一条的创建时间，为 null 表示第一页
+     * @param cursorMessageId 上一页最后一条的 messageId
+     * @param limit           最多返回的条数
+     * @return 归档消息列表
+     */
+    List<Message> selectByCursor(@Param("userId") Long userId,
+                                 @Param("params") MessageQueryParams params,
+                                 @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                 @Param("cursorMessageId") Long cursorMessageId,
+                                 @Param("limit") int limit);
+}
@@ -1,11 +1,13 @@
 package com.kama.notes.mapper;
 
 import com.kama.notes.model.dto.message.MessageQueryParams;
+import com.kama.notes.model.dto.message.ReceiverUnreadCount;
 import com.kama.notes.model.entity.Message;
 import com.kama.notes.model.vo.message.UnreadCountByType;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,7 +23,29 @@ public interface MessageMapper {
      */
     int insert(Message message);
 
-    List<Message> selectByUserId(Long userId);
+    /**
+     * 批量插入消息（单条多行 INSERT），自增主键回填到每个元素的 messageId
+     *
+     * @param messages 消息列表，不能为空
+     * @return 影响行数
+     */
+    int insertBatch(List<Message> messages);
+
+    /**
+     * 收件箱游标分页查询：按 (created_at, message_id) 倒序，返回位于游标之后的最多 limit 条消息
+     *
+     * @param userId          接收者 ID
+     * @param params          类型、已读状态、时间范围等过滤条件
+     * @param cursorCreatedAt 上一页最后一条消息的创建时间，为 null 表示第一页
+     * @param cursorMessageId 上一页最后一条消息的 ID
+     * @param limit           最大条数
+     * @return 消息列表
+     */
+    List<Message> selectByCursor(@Param("userId") Long userId,
+                                 @Param("params") MessageQueryParams params,
+                                 @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                 @Param("cursorMessageId") Long cursorMessageId,
+                                 @Param("limit") int limit);
 
     /**
      * 根据参数查询消息列表
@@ -47,7 +71,7 @@ public interface MessageMapper {
      *
      * @param messageId 消息ID
      * @param userId 用户ID
-     * @return 影响行数
+     * @return 影响行数（仅统计由未读变为已读的消息）
      */
     int markAsRead(@Param("messageId") Integer messageId, @Param("userId") Long userId);
 
@@ -61,6 +85,8 @@ public interface MessageMapper {
 
     /**
      * 批量标记消息为已读
+     *
+     * @return 影响行数（仅统计由未读变为已读的消息）
      */
     int markAsReadBatch(@Param("messageIds") List<Integer> messageIds, @Param("userId") Long userId);
 
@@ -88,4 +114,43 @@ public interface MessageMapper {
      * @return 各类型未读消息数量
      */
     List<UnreadCountByType> countUnreadByType(@Param("userId") Long userId);
-} 
\ No newline at end of file
+
+    /**
+     * 锁定并返回指定接收者待标记为已读的未读消息类型（SELECT ... FOR UPDATE）
+     *
+     * 在标记已读的同一事务中调用，锁住这些行直到事务结束，
+     * 保证并发的重复标记只会有一个事务看到它们处于未读状态，未读计数不会被重复扣减。
+     *
+     * @param userId     接收者 ID
+     * @param messageIds 消息 ID 列表，为 null 表示该用户的全部未读消息
+     * @return 每条未读消息的类型
+     */
+    List<Integer> selectUnreadTypesForUpdate(@Param("userId") Long userId,
+                                             @Param("messageIds") List<Integer> messageIds);
+
+    /**
+     * 批量统计多个接收者按类型分组的未读消息数（未读计数对账使用）
+     *
+     * @param userIds 接收者 ID 列表
+     * @return 接收者、类型与未读数，未读数为 0 的组合不返回
+     */
+    List<ReceiverUnreadCount> countUnreadByReceivers(@Param("userIds") List<Long> userIds);
+
+    /**
+     * 查找并锁定可合并的通知行（SELECT ... FOR UPDATE），必须在事务中调用
+     *
+     * @param keys  待合并消息的接收者与合并键（只使用 receiverId、aggregateKey 两个字段）
+     * @param since 合并窗口起点，早于该时间的通知不再合并
+     * @return 每个 (接收者, 合并键) 最新的一条未读通知
+     */
+    List<Message> selectOpenAggregatesForUpdate(@Param("keys") List<Message> keys,
+                                                @Param("since") LocalDateTime since);
+
+    /**
+     * 更新合并后的通知行：最近触发人、触发人次、最近触发用户列表，并把创建时间更新为当前时间
+     *
+     * @param message 合并后的消息（messageId、senderId、actorCount、recentActorIds）
+     * @return 影响行数
+     */
+    int updateAggregate(Message message);
+}
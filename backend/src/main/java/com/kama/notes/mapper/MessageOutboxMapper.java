@@ -0,0 +1,67 @@
+package com.kama.notes.mapper;
+
+import com.kama.notes.model.entity.MessageOutbox;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface MessageOutboxMapper {
+    /**
+     * 写入发件箱记录（INSERT IGNORE），幂等键已存在时忽略
+     *
+     * @param outbox 发件箱记录
+     * @return 1 表示写入成功，0 表示该业务事件已存在
+     */
+    int insertIgnore(MessageOutbox outbox);
+
+    /**
+     * 领取到期的待投递记录（SELECT ... FOR UPDATE SKIP LOCKED），必须在事务中调用
+     *
+     * 被其他节点领取（锁定）的记录会被跳过，多节点并行投递时互不重复。
+     *
+     * @param limit 最多领取的条数
+     * @return 待投递记录，按 outbox_id 升序
+     */
+    List<MessageOutbox> claimPending(@Param("limit") int limit);
+
+    /**
+     * 按 ID 领取单条待投递记录（SELECT ... FOR UPDATE SKIP LOCKED），必须在事务中调用
+     *
+     * @param outboxId 发件箱记录ID
+     * @return 仍处于待投递状态且未被其他节点锁定时返回该记录，否则返回 null
+     */
+    MessageOutbox claimById(@Param("outboxId") Long outboxId);
+
+    /**
+     * 标记为已投递
+     *
+     * @param outboxIds 发件箱记录ID列表
+     * @return 更新的记录数
+     */
+    int markDispatched(@Param("outboxIds") List<Long> outboxIds);
+
+    /**
+     * 记录一次投递失败：失败次数 +1，并设置下次投递时间；达到最大次数时标记为失败
+     *
+     * @param outboxId      发件箱记录ID
+     * @param nextAttemptAt 下次可投递时间
+     * @param maxAttempts   最大投递次数
+     * @param lastError     失败原因
+     * @return 更新的记录数
+     */
+    int markAttemptFailed(@Param("outboxId") Long outboxId,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("maxAttempts") int maxAttempts,
+                          @Param("lastError") String lastError);
+
+    /**
+     * 删除指定时间之前已投递的记录
+     *
+     * @param before 截止时间
+     * @return 删除的记录数
+     */
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,91 @@
+package com.kama.notes.mapper;
+
+import com.kama.notes.model.vo.note.NoteHeatMapItem;
+import com.kama.notes.model.vo.note.Top3Count;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface NoteDailyAuthorStatsMapper {
+    /**
+     * 作者当天提交笔记数加一（记录不存在时插入）
+     *
+     * @param statDate 统计日期
+     * @param authorId 作者 ID
+     * @return 影响行数
+     */
+    int incrementNoteCount(@Param("statDate") LocalDate statDate,
+                           @Param("authorId") Long authorId);
+
+    /**
+     * 作者某天提交笔记数减一，最小为 0
+     *
+     * @param statDate 统计日期（笔记创建日期）
+     * @param authorId 作者 ID
+     * @return 影响行数
+     */
+    int decrementNoteCount(@Param("statDate") LocalDate statDate,
+                           @Param("authorId") Long authorId);
+
+    /**
+     * 查询作者从指定日期起每天的提交数与当日排名（热力图）
+     *
+     * @param authorId  作者 ID
+     * @param startDate 起始日期（包含）
+     * @return 热力图数据，按日期升序
+     */
+    List<NoteHeatMapItem> findHeatMap(@Param("authorId") Long authorId,
+                                      @Param("startDate") LocalDate startDate);
+
+    /**
+     * 统计作者上个月与本月进入当日前三名的天数
+     *
+     * @param authorId       作者 ID
+     * @param lastMonthStart 上个月第一天
+     * @param thisMonthStart 本月第一天
+     * @return Top3 次数
+     */
+    Top3Count findTop3Count(@Param("authorId") Long authorId,
+                            @Param("lastMonthStart") LocalDate lastMonthStart,
+                            @Param("thisMonthStart") LocalDate thisMonthStart);
+
+    /**
+     * 查询指定日期之前尚未计算排名的日期
+     *
+     * @param before 截止日期（不包含）
+     * @return 日期列表
+     */
+    List<LocalDate> findUnfinalizedDates(@Param("before") LocalDate before);
+
+    /**
+     * 删除某天的全部统计记录
+     *
+     * @param statDate 统计日期
+     * @return 删除行数
+     */
+    int deleteByDate(@Param("statDate") LocalDate statDate);
+
+    /**
+     * 从笔记表重新统计某天每个作者的提交数并写入
+     *
+     * @param statDate 统计日期
+     * @param start    当天起始时间（包含）
+     * @param end      次日起始时间（不包含）
+     * @return 插入行数
+     */
+    int insertFromNotes(@Param("statDate") LocalDate statDate,
+                        @Param("start") LocalDateTime start,
+                        @Param("end") LocalDateTime end);
+
+    /**
+     * 计算并保存某天每个作者的排名（RANK()，提交数相同名次相同）
+     *
+     * @param statDate 统计日期
+     * @return 更新行数
+     */
+    int updateRanks(@Param("statDate") LocalDate statDate);
+}
@@ -1,13 +1,16 @@
 package com.kama.notes.mapper;
 
 import com.kama.notes.model.dto.note.NoteQueryParams;
+import com.kama.notes.model.dto.search.NoteFacetRow;
+import com.kama.notes.model.dto.search.NoteSearchVector;
 import com.kama.notes.model.entity.Note;
-import com.kama.notes.model.vo.note.NoteHeatMapItem;
+import com.kama.notes.model.vo.note.NoteExportItem;
 import com.kama.notes.model.vo.note.NoteRankListItem;
-import com.kama.notes.model.vo.note.Top3Count;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
@@ -41,6 +44,20 @@ public interface NoteMapper {
                                  @Param("offset") int offset,
                                  @Param("limit") int limit);
 
+    /**
+     * 根据查询参数和游标获取笔记列表（keyset 分页，不使用 OFFSET）
+     *
+     * @param params          查询参数，用于过滤笔记，order 决定游标方向（默认 desc）
+     * @param cursorCreatedAt 上一页最后一条笔记的创建时间，为 null 表示第一页
+     * @param cursorNoteId    上一页最后一条笔记的 ID，为 null 表示第一页
+     * @param limit           本次读取条数
+     * @return 按 (created_at, note_id) 排序的笔记列表
+     */
+    List<Note> findByCursor(@Param("params") NoteQueryParams params,
+                            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                            @Param("cursorNoteId") Long cursorNoteId,
+                            @Param("limit") int limit);
+
     /**
      * 根据用户ID和问题ID查询笔记
      *
@@ -86,36 +103,22 @@ public interface NoteMapper {
     int update(Note note);
 
     /**
-     * 点赞笔记
+     * 查询尚未计算折叠标记（need_collapsed 为 NULL）的历史笔记，按 note_id 升序
      *
-     * @param noteId 笔记ID，用于标识要点赞的笔记
-     * @return 点赞成功记录数
+     * @param afterNoteId 只查询 note_id 大于该值的笔记，用于分批遍历
+     * @param limit       本批最大条数
+     * @return 仅包含 noteId 与 content 的笔记列表
      */
-    int likeNote(@Param("noteId") Integer noteId);
+    List<Note> findDisplayPending(@Param("afterNoteId") Integer afterNoteId,
+                                  @Param("limit") int limit);
 
     /**
-     * 取消点赞笔记
+     * 批量更新笔记的折叠标记与简介（不修改 updated_at）
      *
-     * @param noteId 笔记ID，用于标识要取消点赞的笔记
-     * @return 取消点赞成功记录数
-     */
-    int unlikeNote(@Param("noteId") Integer noteId);
-
-    /**
-     * 收藏笔记
-     *
-     * @param noteId 笔记ID，用于标识要收藏的笔记
-     * @return 收藏结果
-     */
-    int collectNote(@Param("noteId") Integer noteId);
-
-    /**
-     * 取消收藏笔记
-     *
-     * @param noteId 笔记ID，用于标识要取消收藏的笔记
-     * @return 取消收藏结果
+     * @param notes 包含 noteId、needCollapsed、displayContent 的笔记列表，不能为空
+     * @return 更新成功记录数
      */
-    int unCollectNote(@Param("noteId") Integer noteId);
+    int updateDisplayBatch(@Param("notes") List<Note> notes);
 
     /**
      * 根据笔记ID删除笔记
@@ -126,25 +129,24 @@ public interface NoteMapper {
     int deleteById(@Param("noteId") Integer noteId);
 
     /**
-     * 每日笔记提交数排行榜
+     * 以游标方式读取作者的全部笔记及其问题、分类信息，用于流式导出
      *
-     * @return 排行榜数组
-     */
-    List<NoteRankListItem> submitNoteRank();
-
-    /**
-     * 提交热力图
+     * 需在事务（或手动管理的 SqlSession）中遍历，遍历结束前不能关闭连接。
      *
-     * @return 用户提交热力图信息
+     * @param authorId 作者 ID
+     * @return 按一级分类、二级分类、问题 ID 排序的游标
      */
-    List<NoteHeatMapItem> submitNoteHeatMap(@Param("authorId") Long authorId);
+    Cursor<NoteExportItem> findExportItemsByAuthorId(@Param("authorId") Long authorId);
 
     /**
-     * 用户提交 top3Count
+     * 统计时间范围内每个作者提交的笔记数，用于重建每日笔记排行榜
      *
-     * @return 用户提交 top3Count
+     * @param start 起始时间（包含）
+     * @param end   结束时间（不包含）
+     * @return 仅包含 userId 与 noteCount 的列表
      */
-    Top3Count submitNoteTop3Count(@Param("authorId") Long authorId);
+    List<NoteRankListItem> countNotesByAuthorBetween(@Param("start") LocalDateTime start,
+                                                     @Param("end") LocalDateTime end);
 
     /**
      * 当日笔记数
@@ -166,33 +168,17 @@ public interface NoteMapper {
     int getTotalNoteCount();
 
     /**
-     * 增加笔记评论数
-     *
-     * @param noteId 笔记ID
-     */
-    void incrementCommentCount(@Param("noteId") Integer noteId);
-
-    /**
-     * 减少笔记评论数
-     *
-     * @param noteId 笔记ID
-     */
-    void decrementCommentCount(@Param("noteId") Integer noteId);
-
-    /**
-     * 搜索笔记
+     * 全文检索笔记，只返回按相关度排序的笔记 ID，笔记内容由调用方从实体缓存回填
      *
      * @param keyword 关键词
      * @param limit 限制数量
-     * @param offset 偏移量
-     * @return 笔记列表
+     * @return 笔记 ID 列表，相关度相同时 ID 大（较新）的在前
      */
-    List<Note> searchNotes(@Param("keyword") String keyword,
-                          @Param("limit") int limit,
-                          @Param("offset") int offset);
+    List<Integer> searchNoteIds(@Param("keyword") String keyword,
+                                @Param("limit") int limit);
 
     /**
-     * 根据标签搜索笔记
+     * 根据标签搜索笔记：内容匹配关键词，且带有名称包含 tag 的标签
      *
      * @param keyword 关键词
      * @param tag 标签
@@ -204,4 +190,88 @@ public interface NoteMapper {
                                @Param("tag") String tag,
                                @Param("limit") int limit,
                                @Param("offset") int offset);
+
+    /**
+     * 以游标方式读取笔记 ID 与内容，用于建立全文检索索引
+     *
+     * 需在事务（或手动管理的 SqlSession）中遍历，遍历结束前不能关闭连接。
+     *
+     * @param updatedSince 只读取该时间及之后更新过的笔记，为 null 时读取全部笔记
+     * @return 笔记游标（仅 noteId、content）
+     */
+    Cursor<Note> scanForSearchIndex(@Param("updatedSince") LocalDateTime updatedSince);
+
+    /**
+     * 以游标方式读取全部笔记的分面字段（问题分类、问题难度、标签），用于建立笔记分面索引
+     *
+     * @return 按笔记 ID 升序的游标，每个标签一行
+     */
+    Cursor<NoteFacetRow> scanForFacetIndex();
+
+    /**
+     * 以游标方式读取全部笔记 ID，用于剔除索引快照中已被删除的笔记
+     *
+     * @return 笔记 ID 游标
+     */
+    Cursor<Integer> scanNoteIds();
+
+    /**
+     * 根据 ID 批量查询笔记
+     *
+     * @param noteIds 笔记 ID 列表
+     * @return 笔记列表（顺序不保证与参数一致）
+     */
+    List<Note> findByIds(@Param("noteIds") List<Integer> noteIds);
+
+    /**
+     * 按等待时间先后读取 search_vector 待更新的笔记
+     *
+     * @param limit 最多返回的条数
+     * @return 待分词的笔记（noteId、contentVersion、content）
+     */
+    List<NoteSearchVector> findSearchPending(@Param("limit") int limit);
+
+    /**
+     * 读取 ID 区间内的笔记，用于全量重建 search_vector
+     *
+     * @param fromNoteId 起始 ID（包含）
+     * @param toNoteId   结束 ID（包含）
+     * @return 区间内的笔记（noteId、contentVersion、content）
+     */
+    List<NoteSearchVector> findSearchVectorRange(@Param("fromNoteId") int fromNoteId,
+                                                 @Param("toNoteId") int toNoteId);
+
+    /**
+     * 将 ID 区间内的笔记标记为 search_vector 待处理，分词词典变化后由增量回写任务重新分词。
+     * 已处于待处理状态的笔记保留原标记时间，不修改 updated_at
+     *
+     * @param fromNoteId 起始 ID（包含）
+     * @param toNoteId   结束 ID（包含）
+     * @return 更新的行数
+     */
+    int markSearchPendingRange(@Param("fromNoteId") int fromNoteId,
+                               @Param("toNoteId") int toNoteId);
+
+    /**
+     * 批量回写 search_vector 并清除待处理标记。只更新内容版本未变化的笔记，不修改 updated_at
+     *
+     * @param notes 分词结果
+     * @return 实际更新的行数
+     */
+    int updateSearchVectorBatch(@Param("notes") List<NoteSearchVector> notes);
+
+    /**
+     * @return 最早的 search_vector 待处理时间，没有待处理笔记时返回 null
+     */
+    LocalDateTime findOldestSearchPending();
+
+    /**
+     * @return search_vector 待处理的笔记数
+     */
+    int countSearchPending();
+
+    /**
+     * @return 最大笔记 ID，没有笔记时返回 null
+     */
+    Integer findMaxNoteId();
 }
@@ -52,26 +52,27 @@ public interface QuestionMapper {
     Question findByTitle(@Param("title") String title);
 
     /**
-     * 根据关键字搜索问题
+     * 根据关键字搜索问题，联想索引加载完成前使用
      *
-     * @param keyword 关键字，用于匹配问题标题或内容
-     * @return 匹配关键字的问题列表
+     * @param keyword 关键字，用于匹配问题标题
+     * @param limit   最多返回的问题数
+     * @return 匹配关键字的问题列表，按浏览量倒序
      */
-    List<Question> findByKeyword(@Param("keyword") String keyword);
+    List<Question> findByKeyword(@Param("keyword") String keyword, @Param("limit") int limit);
 
     /**
-     * 更新问题
-     * @param question 问题对象，包含要更新的问题信息
-     * @return 更新成功返回1，否则返回0
+     * 查询全部问题的联想索引字段（ID、标题、考点、浏览量）
+     *
+     * @return 问题列表
      */
-    int update(@Param("question") Question question);
+    List<Question> findAllForSuggest();
 
     /**
-     * 更新问题的浏览次数
-     * @param questionId 问题ID
+     * 更新问题
+     * @param question 问题对象，包含要更新的问题信息
      * @return 更新成功返回1，否则返回0
      */
-    int incrementViewCount(@Param("questionId") Integer questionId);
+    int update(@Param("question") Question question);
 
     /**
      * 根据查询参数统计问题的数量
@@ -96,6 +97,14 @@ public interface QuestionMapper {
      */
     int deleteByCategoryId(Integer categoryId);
 
+    /**
+     * 查询指定分类下的全部问题 ID，用于批量删除后清除问题的实体缓存
+     *
+     * @param categoryIds 分类ID列表，不能为空
+     * @return 问题 ID 列表
+     */
+    List<Integer> findIdsByCategoryIdBatch(@Param("categoryIds") List<Integer> categoryIds);
+
     /**
      * 批量删除指定分类ID的实体
      * 通过分类ID列表来删除实体，主要用于批量操作场景
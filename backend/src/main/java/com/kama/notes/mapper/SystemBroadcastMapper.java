@@ -0,0 +1,84 @@
+package com.kama.notes.mapper;
+
+import com.kama.notes.model.dto.message.MessageQueryParams;
+import com.kama.notes.model.entity.SystemBroadcast;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface SystemBroadcastMapper {
+    /**
+     * 插入广播
+     *
+     * @param broadcast 广播实体，插入后回填 broadcastId
+     * @return 影响行数
+     */
+    int insert(SystemBroadcast broadcast);
+
+    /**
+     * 收件箱游标分页查询广播，排序与消息一致：按 created_at 倒序，同一时间按 broadcast_id 升序
+     * （广播在收件箱中的 messageId 为 -broadcastId，按 messageId 倒序即 broadcast_id 升序）
+     *
+     * @param params          已读状态、时间范围等过滤条件
+     * @param watermark       用户的已读水位线，用于按已读状态过滤
+     * @param cursorCreatedAt 上一页最后一条的创建时间，为 null 表示第一页
+     * @param cursorMessageId 上一页最后一条的 messageId（消息为正数，广播为负数）
+     * @param limit           最多返回的条数
+     * @return 广播列表
+     */
+    List<SystemBroadcast> selectByCursor(@Param("params") MessageQueryParams params,
+                                         @Param("watermark") int watermark,
+                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                         @Param("cursorMessageId") Long cursorMessageId,
+                                         @Param("limit") int limit);
+
+    /**
+     * 查询全部广播 ID（升序），用于本地缓存并计算未读数
+     *
+     * @return 广播 ID 列表
+     */
+    List<Integer> selectAllIds();
+
+    /**
+     * 查询最大广播 ID
+     *
+     * @return 最大广播 ID，没有广播时返回 null
+     */
+    Integer selectMaxId();
+
+    /**
+     * 查询没有水位线记录的用户的初始水位线：注册之前发布的广播视为已读
+     *
+     * @param userId 用户 ID
+     * @return 注册时间之前发布的最大广播 ID，没有时返回 0
+     */
+    Integer selectInitialWatermark(@Param("userId") Long userId);
+
+    /**
+     * 查询用户的已读水位线
+     *
+     * @param userId 用户 ID
+     * @return 已读到的最大广播 ID，没有记录时返回 null
+     */
+    Integer selectWatermark(@Param("userId") Long userId);
+
+    /**
+     * 查询并锁定用户的已读水位线（SELECT ... FOR UPDATE），必须在事务中调用
+     *
+     * @param userId 用户 ID
+     * @return 已读到的最大广播 ID，没有记录时返回 null
+     */
+    Integer selectWatermarkForUpdate(@Param("userId") Long userId);
+
+    /**
+     * 推进用户的已读水位线，只会增大不会回退
+     *
+     * @param userId      用户 ID
+     * @param broadcastId 新的水位线
+     * @return 影响行数
+     */
+    int upsertWatermark(@Param("userId") Long userId, @Param("broadcastId") int broadcastId);
+}
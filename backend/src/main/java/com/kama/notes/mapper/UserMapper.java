@@ -4,6 +4,7 @@ import com.kama.notes.model.dto.user.UserQueryParam;
 import com.kama.notes.model.entity.User;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
 
@@ -112,4 +113,13 @@ public interface UserMapper {
     List<User> searchUsers(@Param("keyword") String keyword,
                           @Param("limit") int limit,
                           @Param("offset") int offset);
+
+    /**
+     * 以游标方式读取全部用户的检索字段，用于建立用户搜索索引
+     *
+     * 需在事务（或手动管理的 SqlSession）中遍历，遍历结束前不能关闭连接。
+     *
+     * @return 用户游标（仅 userId、account、username、email、isAdmin、isBanned）
+     */
+    Cursor<User> scanForSearchIndex();
 }
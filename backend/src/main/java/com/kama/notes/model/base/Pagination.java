@@ -2,6 +2,7 @@ package com.kama.notes.model.base;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * Pagination
@@ -11,12 +12,14 @@ import lombok.Data;
  * 字段说明：
  * - page: 当前页码（从 1 开始，接口层/调用方应保证合法性）；
  * - pageSize: 每页记录数（用于计算偏移量或返回给前端展示）；
- * - total: 总记录数（用于前端计算总页数或显示总数）。
+ * - total: 总记录数（用于前端计算总页数或显示总数）；
+ * - nextCursor: 游标分页模式下的下一页游标（为 null 表示没有更多数据，普通分页模式下恒为 null）。
  *
  * 使用场景：
  * - 与 PaginationApiResponse/分页查询结果一起返回，或作为 Service/Mapper 层的分页参数载体。
  */
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class Pagination {
     /**
@@ -33,4 +36,20 @@ public class Pagination {
      * 总记录数
      */
     private Integer total;  // 总记录数
+
+    /**
+     * 下一页游标（不透明字符串，客户端原样回传即可）
+     */
+    private String nextCursor;
+
+    /**
+     * 普通（页码）分页构造函数，nextCursor 为 null
+     *
+     * @param page     当前页码
+     * @param pageSize 每页记录数
+     * @param total    总记录数
+     */
+    public Pagination(Integer page, Integer pageSize, Integer total) {
+        this(page, pageSize, total, null);
+    }
 }
@@ -0,0 +1,23 @@
+package com.kama.notes.model.dto.counter;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 计数器增量DTO：某一行记录的计数列待累加的值
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CounterDelta {
+    /*
+     * 记录主键（note_id / comment_id / question_id）
+     */
+    private Integer id;
+
+    /*
+     * 待累加的增量，可以为负数
+     */
+    private Long delta;
+}
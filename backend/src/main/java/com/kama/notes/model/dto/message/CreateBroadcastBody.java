@@ -0,0 +1,26 @@
+package com.kama.notes.model.dto.message;
+
+import lombok.Data;
+import org.hibernate.validator.constraints.Length;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * CreateBroadcastBody
+ *
+ * 发布系统广播的请求 DTO，广播对全体用户可见，只写入一行 system_broadcast 记录。
+ */
+@Data
+public class CreateBroadcastBody {
+
+    /**
+     * 广播内容
+     *
+     * 校验规则：
+     * - 不能为空（@NotBlank）
+     * - 长度限制：1 - 2000（@Length）
+     */
+    @NotBlank(message = "content 不能为空")
+    @Length(max = 2000, min = 1, message = "content 长度在 1 - 2000 之间")
+    private String content;
+}
@@ -1,8 +1,10 @@
 package com.kama.notes.model.dto.message;
 
 import lombok.Data;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 /**
@@ -11,9 +13,9 @@ import java.time.LocalDateTime;
 @Data
 public class MessageQueryParams {
     /**
-     * 消息类型
+     * 消息类型，取值见 MessageType（1-点赞，2-评论，3-系统）
      */
-    private String type;
+    private Integer type;
 
     /**
      * 是否已读
@@ -40,6 +42,7 @@ public class MessageQueryParams {
      * 每页大小
      */
     @Min(value = 1, message = "每页大小必须大于0")
+    @Max(value = 100, message = "每页大小不能超过100")
     private Integer pageSize = 10;
 
     /**
@@ -51,4 +54,11 @@ public class MessageQueryParams {
      * 排序方向，默认降序
      */
     private String sortOrder = "desc";
+
+    /**
+     * 游标（keyset 分页），按 (created_at, message_id) 倒序翻页，忽略 page 与排序参数；
+     * 为空表示第一页，之后原样回传上一页返回的 nextCursor
+     */
+    @Size(max = 128, message = "游标长度不能超过128")
+    private String cursor;
 } 
\ No newline at end of file
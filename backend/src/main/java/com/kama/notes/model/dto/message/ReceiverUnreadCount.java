@@ -0,0 +1,25 @@
+package com.kama.notes.model.dto.message;
+
+import lombok.Data;
+
+/**
+ * 按接收者与消息类型分组的未读消息数，用于未读计数对账
+ */
+@Data
+public class ReceiverUnreadCount {
+
+    /**
+     * 接收者 ID
+     */
+    private Long receiverId;
+
+    /**
+     * 消息类型
+     */
+    private Integer type;
+
+    /**
+     * 未读消息数
+     */
+    private Integer count;
+}
@@ -6,6 +6,7 @@ import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
 
 /**
  * 笔记查询参数DTO
@@ -78,4 +79,12 @@ public class NoteQueryParams {
     @Min(value = 1, message = "每页大小必须大于等于1")
     @Max(value = 200, message = "每页大小不能超过100")
     private Integer pageSize = 10;
+
+    /*
+     * 游标（keyset 分页）
+     * 不为 null 时启用游标分页模式：忽略 page，按 (created_at, note_id) 排序，
+     * 空字符串表示第一页，之后原样回传上一页返回的 nextCursor。
+     */
+    @Size(max = 128, message = "游标长度不能超过128")
+    private String cursor;
 }
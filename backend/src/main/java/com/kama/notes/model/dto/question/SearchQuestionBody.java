@@ -3,6 +3,8 @@ package com.kama.notes.model.dto.question;
 import lombok.Data;
 import org.hibernate.validator.constraints.Length;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 
@@ -12,5 +14,11 @@ public class SearchQuestionBody {
     @NotEmpty(message = "keyword 不能为空")
     @Length(min = 1, max = 32, message = "keyword 长度在 1 和 32 范围内")
     private String keyword;
-    // TODO: 后续需要完善，添加分页功能
+
+    /**
+     * 最多返回的联想结果数，不传时为 10
+     */
+    @Min(value = 1, message = "limit 必须为正整数")
+    @Max(value = 10, message = "limit 不能超过 10")
+    private Integer limit;
 }
@@ -0,0 +1,40 @@
+package com.kama.notes.model.dto.search;
+
+import lombok.Data;
+
+/**
+ * NoteFacetRow
+ *
+ * 建立笔记分面索引时读取的一行：笔记所属问题的分类、难度，以及笔记的一个标签。
+ *
+ * 说明：
+ * - 笔记有多个标签时对应多行，没有标签时只有一行且 tagId、tagName 为 null；
+ * - 行按 noteId 升序返回，同一笔记的行相邻。
+ */
+@Data
+public class NoteFacetRow {
+    /**
+     * 笔记 ID
+     */
+    private Integer noteId;
+
+    /**
+     * 问题所属分类 ID
+     */
+    private Integer categoryId;
+
+    /**
+     * 问题难度：1=简单, 2=中等, 3=困难
+     */
+    private Integer difficulty;
+
+    /**
+     * 标签 ID
+     */
+    private Integer tagId;
+
+    /**
+     * 标签名称
+     */
+    private String tagName;
+}
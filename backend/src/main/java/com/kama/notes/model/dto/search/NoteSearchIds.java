@@ -0,0 +1,37 @@
+package com.kama.notes.model.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * NoteSearchIds
+ *
+ * 笔记搜索结果缓存项：只保存排好序的笔记 ID，不保存笔记内容。
+ *
+ * 说明：
+ * - versions 与 noteIds 一一对应，为写入缓存时各笔记的搜索版本号，读取时与当前版本号比对，
+ *   任一笔记被修改或删除后缓存项失效；
+ * - complete 表示检索结果已全部取出，为 false 时 noteIds 只是前若干名，翻页超出范围需要重新检索。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSearchIds {
+    /**
+     * 按相关度排序的笔记 ID
+     */
+    private List<Integer> noteIds;
+
+    /**
+     * 写入缓存时各笔记的版本号
+     */
+    private List<Long> versions;
+
+    /**
+     * 是否已包含全部检索结果
+     */
+    private boolean complete;
+}
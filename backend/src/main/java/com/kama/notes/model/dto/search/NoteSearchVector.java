@@ -0,0 +1,34 @@
+package com.kama.notes.model.dto.search;
+
+import lombok.Data;
+
+/**
+ * NoteSearchVector
+ *
+ * 笔记检索列的读写载体：读取笔记内容与内容版本，分词后按版本条件回写 search_vector。
+ *
+ * 说明：
+ * - 不使用 Note 实体，避免 search_vector 等内部字段随笔记出现在接口返回中。
+ */
+@Data
+public class NoteSearchVector {
+    /**
+     * 笔记 ID
+     */
+    private Integer noteId;
+
+    /**
+     * 读取时的内容版本，回写时作为条件
+     */
+    private Integer contentVersion;
+
+    /**
+     * 笔记内容
+     */
+    private String content;
+
+    /**
+     * 分词后以空格连接的词元
+     */
+    private String searchVector;
+}
@@ -48,6 +48,21 @@ public class Message {
      */
     private Boolean isRead;
 
+    /**
+     * 合并键，非 null 表示可合并的通知（目前仅点赞，格式 LIKE:{targetType}:{targetId}）
+     */
+    private String aggregateKey;
+
+    /**
+     * 合并的触发人次，未合并的消息为 1
+     */
+    private Integer actorCount;
+
+    /**
+     * 最近的触发用户ID，逗号分隔，最新的在前
+     */
+    private String recentActorIds;
+
     /**
      * 创建时间
      */
@@ -0,0 +1,83 @@
+package com.kama.notes.model.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 消息发件箱实体类
+ *
+ * 业务事务中写入的待投递通知，由 MessageOutboxTask 异步转换为 message 记录。
+ */
+@Data
+public class MessageOutbox {
+    /**
+     * 发件箱记录ID
+     */
+    private Long outboxId;
+
+    /**
+     * 幂等键，同一业务事件只投递一次
+     */
+    private String idempotencyKey;
+
+    /**
+     * 接收者ID
+     */
+    private Long receiverId;
+
+    /**
+     * 发送者ID
+     */
+    private Long senderId;
+
+    /**
+     * 消息类型
+     */
+    private Integer type;
+
+    /**
+     * 目标ID
+     */
+    private Integer targetId;
+
+    /**
+     * 目标类型
+     */
+    private Integer targetType;
+
+    /**
+     * 消息内容
+     */
+    private String content;
+
+    /**
+     * 状态，见 OutboxStatus
+     */
+    private Integer status;
+
+    /**
+     * 已失败的投递次数
+     */
+    private Integer attempts;
+
+    /**
+     * 下次可投递时间
+     */
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * 最近一次投递失败原因
+     */
+    private String lastError;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
@@ -33,6 +33,16 @@ public class Note {
      */
     private String content;
 
+    /**
+     * 列表展示时是否需要折叠（写入时计算，为 null 表示历史数据尚未回填）
+     */
+    private Boolean needCollapsed;
+
+    /**
+     * 折叠时展示的简介（写入时计算，不需要折叠时为 null）
+     */
+    private String displayContent;
+
     /**
      * 点赞数
      */
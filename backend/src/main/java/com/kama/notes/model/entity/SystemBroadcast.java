@@ -0,0 +1,38 @@
+package com.kama.notes.model.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 系统广播实体类
+ *
+ * 面向全体用户的系统通知，每条广播只保存一行，查询收件箱时按用户的已读水位线合并展示。
+ */
+@Data
+public class SystemBroadcast {
+    /**
+     * 广播ID
+     */
+    private Integer broadcastId;
+
+    /**
+     * 发布者ID
+     */
+    private Long senderId;
+
+    /**
+     * 广播内容
+     */
+    private String content;
+
+    /**
+     * 发布时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,55 @@
+package com.kama.notes.model.enums.counter;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * CounterType
+ *
+ * 写缓冲计数器类型，每种类型对应一张表中的一个计数列。
+ *
+ * 说明：
+ * - table / idColumn / countColumn 会以 ${} 方式拼接进 CounterMapper 的 SQL，
+ *   只能取自本枚举中的常量，不能来自用户输入；
+ * - 枚举名同时作为 Redis 键的一部分，修改枚举名会导致未刷新的增量无法被识别。
+ */
+@Getter
+@AllArgsConstructor
+public enum CounterType {
+
+    /**
+     * 笔记点赞数
+     */
+    NOTE_LIKE("note", "note_id", "like_count"),
+
+    /**
+     * 笔记收藏数
+     */
+    NOTE_COLLECT("note", "note_id", "collect_count"),
+
+    /**
+     * 笔记评论数
+     */
+    NOTE_COMMENT("note", "note_id", "comment_count"),
+
+    /**
+     * 评论点赞数
+     */
+    COMMENT_LIKE("comment", "comment_id", "like_count"),
+
+    /**
+     * 评论回复数
+     */
+    COMMENT_REPLY("comment", "comment_id", "reply_count"),
+
+    /**
+     * 问题浏览量
+     */
+    QUESTION_VIEW("question", "question_id", "view_count");
+
+    private final String table;
+
+    private final String idColumn;
+
+    private final String countColumn;
+}
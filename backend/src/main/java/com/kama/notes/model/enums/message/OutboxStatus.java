@@ -0,0 +1,23 @@
+package com.kama.notes.model.enums.message;
+
+/**
+ * OutboxStatus
+ *
+ * 消息发件箱记录状态常量定义，对应 message_outbox.status 字段。
+ */
+public class OutboxStatus {
+    /**
+     * 待投递（包括等待重试）
+     */
+    public static final Integer PENDING = 0;
+
+    /**
+     * 已投递，对应的 message 记录已生成
+     */
+    public static final Integer DISPATCHED = 1;
+
+    /**
+     * 超过最大重试次数，不再投递
+     */
+    public static final Integer FAILED = 2;
+}
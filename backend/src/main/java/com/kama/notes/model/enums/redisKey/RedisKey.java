@@ -45,4 +45,285 @@ public class RedisKey {
     public static String emailTaskQueue() {
         return "queue:email:task";
     }
+
+    /**
+     * 生成实体缓存（用户、问题等）在 Redis 中的键名。
+     *
+     * 格式：cache:entity:{cacheName}:{id}
+     *
+     * @param cacheName 缓存名称，例如 user、question
+     * @param id        实体主键
+     * @return 实体缓存键名
+     */
+    public static String entityCache(String cacheName, Object id) {
+        return "cache:entity:" + cacheName + ":" + id;
+    }
+
+    /**
+     * 生成实体缓存失效广播所使用的 Redis pub/sub 频道名。
+     *
+     * 格式：channel:cache:entity:invalidate
+     * 用途：某个节点修改实体后在该频道发布 "{cacheName}:{id}"，所有节点据此清除本地缓存。
+     *
+     * @return 失效广播频道名
+     */
+    public static String entityCacheInvalidateChannel() {
+        return "channel:cache:entity:invalidate";
+    }
+
+    /**
+     * 生成计数器待刷新增量哈希的键名。
+     *
+     * 格式：counter:delta:{counterType}，field 为记录主键，value 为累计增量
+     *
+     * @param counterType 计数器类型名
+     * @return 增量哈希键名
+     */
+    public static String counterDelta(String counterType) {
+        return "counter:delta:" + counterType;
+    }
+
+    /**
+     * 生成计数器正在刷新的增量哈希的键名。
+     *
+     * 格式：counter:flushing:{counterType}
+     * 用途：刷新时先将 counter:delta 重命名为该键，写库成功后再删除；进程崩溃时该键保留，重启后继续刷新。
+     *
+     * @param counterType 计数器类型名
+     * @return 刷新中增量哈希键名
+     */
+    public static String counterFlushing(String counterType) {
+        return "counter:flushing:" + counterType;
+    }
+
+    /**
+     * 生成计数器刷新分布式锁的键名。
+     *
+     * 格式：lock:counter:flush
+     *
+     * @return 刷新锁键名
+     */
+    public static String counterFlushLock() {
+        return "lock:counter:flush";
+    }
+
+    /**
+     * 生成每日笔记提交排行榜有序集合的键名。
+     *
+     * 格式：rank:note:daily:{date}，member 为作者 ID，score 为当天提交的笔记数
+     *
+     * @param date 日期，格式 yyyy-MM-dd
+     * @return 当日排行榜键名
+     */
+    public static String noteDailyRank(String date) {
+        return "rank:note:daily:" + date;
+    }
+
+    /**
+     * 生成每日笔记提交排行榜已从数据库重建完成的标记键名。
+     *
+     * 格式：rank:note:daily:{date}:ready
+     * 用途：有序集合为空时 Redis 不保存该键，需要单独的标记区分"当天无人提交"与"尚未重建"。
+     *
+     * @param date 日期，格式 yyyy-MM-dd
+     * @return 重建完成标记键名
+     */
+    public static String noteDailyRankReady(String date) {
+        return "rank:note:daily:" + date + ":ready";
+    }
+
+    /**
+     * 生成站内消息实时推送的 Redis pub/sub 频道名。
+     *
+     * 格式：channel:message:push
+     * 用途：消息事务提交后广播到所有节点，由持有接收者 WebSocket 会话的节点负责推送。
+     *
+     * @return 推送频道名
+     */
+    public static String messagePushChannel() {
+        return "channel:message:push";
+    }
+
+    /**
+     * 生成用户未读消息计数哈希的键名。
+     *
+     * 格式：message:unread:{userId}，field 为消息类型（MessageType），value 为该类型的未读数
+     *
+     * @param userId 接收者用户 ID
+     * @return 未读计数键名
+     */
+    public static String messageUnread(Long userId) {
+        return "message:unread:" + userId;
+    }
+
+    /**
+     * 生成匹配所有未读消息计数哈希的模式，用于对账任务 SCAN。
+     *
+     * @return 键名匹配模式
+     */
+    public static String messageUnreadPattern() {
+        return "message:unread:*";
+    }
+
+    /**
+     * 生成未读计数对账任务分布式锁的键名。
+     *
+     * 格式：lock:message:unread:reconcile
+     *
+     * @return 对账锁键名
+     */
+    public static String messageUnreadReconcileLock() {
+        return "lock:message:unread:reconcile";
+    }
+
+    /**
+     * 生成用户系统广播已读水位线缓存的键名。
+     *
+     * 格式：message:broadcast:watermark:{userId}，value 为已读到的最大广播 ID
+     *
+     * @param userId 用户 ID
+     * @return 水位线缓存键名
+     */
+    public static String messageBroadcastWatermark(Long userId) {
+        return "message:broadcast:watermark:" + userId;
+    }
+
+    /**
+     * 生成笔记全文检索索引变更广播所使用的 Redis pub/sub 频道名。
+     *
+     * 格式：channel:search:note:index
+     * 用途：笔记创建、修改、删除后在该频道发布笔记 ID，所有节点据此重新索引该笔记。
+     *
+     * @return 索引变更频道名
+     */
+    public static String noteSearchIndexChannel() {
+        return "channel:search:note:index";
+    }
+
+    /**
+     * 生成笔记搜索结果缓存的键名。
+     *
+     * 格式：search:note:ids:{queryHash}，value 为按相关度排序的笔记 ID 及缓存时各笔记的版本号（JSON）
+     * 说明：queryHash 为归一化查询（分词、去重、排序后的词元）的 MD5，语义相同的查询共用同一缓存项。
+     *
+     * @param queryHash 归一化查询的摘要
+     * @return 搜索结果缓存键名
+     */
+    public static String noteSearchIds(String queryHash) {
+        return "search:note:ids:" + queryHash;
+    }
+
+    /**
+     * 生成笔记搜索版本号的键名。
+     *
+     * 格式：search:note:version:{noteId}，value 为自增版本号，键不存在时视为 0
+     * 用途：笔记修改或删除后递增，包含该笔记的搜索结果缓存在下次读取时因版本号不一致而失效。
+     *
+     * @param noteId 笔记 ID
+     * @return 版本号键名
+     */
+    public static String noteSearchVersion(Integer noteId) {
+        return "search:note:version:" + noteId;
+    }
+
+    /**
+     * 生成读穿透缓存回源锁的键名。
+     *
+     * 格式：lock:cache:{cacheKey}
+     * 用途：缓存未命中或提前刷新时，同一时刻只有持锁的节点回源，其他节点返回旧值或等待结果写入。
+     *
+     * @param cacheKey 缓存键
+     * @return 回源锁键名
+     */
+    public static String cacheLoadLock(String cacheKey) {
+        return "lock:cache:" + cacheKey;
+    }
+
+    /**
+     * 生成问题联想索引变更广播所使用的 Redis pub/sub 频道名。
+     *
+     * 格式：channel:search:question:suggest
+     * 用途：问题创建、修改、删除后发布通知，所有节点据此重建联想索引。
+     *
+     * @return 联想索引变更频道名
+     */
+    public static String questionSuggestChannel() {
+        return "channel:search:question:suggest";
+    }
+
+    /**
+     * 生成用户搜索索引变更广播所使用的 Redis pub/sub 频道名。
+     *
+     * 格式：channel:search:user:index
+     * 用途：用户注册、修改资料后在该频道发布用户 ID，所有节点据此重新索引该用户。
+     *
+     * @return 索引变更频道名
+     */
+    public static String userSearchIndexChannel() {
+        return "channel:search:user:index";
+    }
+
+    /**
+     * 生成搜索热词 Count-Min Sketch 的键名（Hash，字段为 "行:列"，值为计数）。
+     *
+     * 格式：search:hot:sketch:{scope}:{window}
+     * 用途：各节点定时把本地统计按单元格累加到该时间窗口的矩阵中，合并为全局统计。
+     *
+     * @param scope  统计范围（SearchScope.code）
+     * @param window 时间窗口编号
+     * @return 热词矩阵键名
+     */
+    public static String searchHotSketch(String scope, long window) {
+        return "search:hot:sketch:" + scope + ":" + window;
+    }
+
+    /**
+     * 生成搜索热词候选集的键名（ZSet，成员为关键词，分数为合并后的估计次数）。
+     *
+     * 格式：search:hot:top:{scope}:{window}
+     * 用途：保存时间窗口内估计次数最高的关键词，计算热搜榜时按窗口累加。
+     *
+     * @param scope  统计范围（SearchScope.code）
+     * @param window 时间窗口编号
+     * @return 热词候选集键名
+     */
+    public static String searchHotTop(String scope, long window) {
+        return "search:hot:top:" + scope + ":" + window;
+    }
+
+    /**
+     * 生成热门搜索预热锁的键名。
+     *
+     * 格式：lock:search:hot:warm
+     * 用途：多节点部署时每个周期只有一个节点执行缓存预热，锁不主动释放，到期后下一周期重新竞争。
+     *
+     * @return 预热锁键名
+     */
+    public static String searchHotWarmLock() {
+        return "lock:search:hot:warm";
+    }
+
+    /**
+     * 生成笔记检索列增量回写任务分布式锁的键名。
+     *
+     * 格式：lock:search:vector:pending
+     * 用途：多节点部署时同一时间只有一个节点读取并分词待处理的笔记。
+     *
+     * @return 回写锁键名
+     */
+    public static String searchVectorPendingLock() {
+        return "lock:search:vector:pending";
+    }
+
+    /**
+     * 生成笔记检索列分词词典指纹的键名。
+     *
+     * 格式：search:vector:dictionary，value 为最近一次全部标记待处理时使用的词典指纹
+     * 用途：启动后词典指纹与其不同时，将全部笔记的 search_vector 标记为待处理，按新词典重新分词。
+     *
+     * @return 词典指纹键名
+     */
+    public static String searchVectorDictionary() {
+        return "search:vector:dictionary";
+    }
 }
@@ -0,0 +1,48 @@
+package com.kama.notes.model.enums.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * SearchScope
+ *
+ * 搜索热词的统计范围，不同范围的热词分开统计。
+ *
+ * 说明：
+ * - code 同时作为 Redis 键的一部分与热搜接口的参数，修改后已有的统计数据将无法被读取。
+ */
+@Getter
+@AllArgsConstructor
+public enum SearchScope {
+
+    /**
+     * 笔记搜索（含按标签搜索）
+     */
+    NOTE("note"),
+
+    /**
+     * 用户搜索
+     */
+    USER("user"),
+
+    /**
+     * 问题搜索
+     */
+    QUESTION("question");
+
+    private final String code;
+
+    /**
+     * 按 code 查找，忽略大小写
+     *
+     * @return 不存在时返回 null
+     */
+    public static SearchScope fromCode(String code) {
+        return Arrays.stream(values())
+                .filter(scope -> scope.code.equalsIgnoreCase(code))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,42 @@
+package com.kama.notes.model.vo.message;
+
+import com.kama.notes.event.MessageEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MessagePushVO
+ *
+ * 通过 WebSocket（STOMP）推送给客户端的消息通知载体，订阅地址为 /user/queue/notifications。
+ *
+ * 说明：
+ * - eventType 与 MessageEvent 的事件类型一致（COMMENT / LIKE / SYSTEM / READ）；
+ * - message 为新消息的视图对象，READ 事件时为 null；
+ * - unreadDelta 为未读数的增量，客户端在建立连接时拉取一次未读数，之后只需按增量累加；
+ * - 点赞合并到已有未读通知时 unreadDelta 为 0，message 为更新后的通知，客户端按 messageId 替换展示即可。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessagePushVO {
+
+    /**
+     * 事件类型
+     */
+    private String eventType;
+
+    /**
+     * 新消息内容，READ 事件为 null
+     */
+    private MessageVO message;
+
+    /**
+     * 未读数变化量
+     */
+    private Integer unreadDelta;
+
+    public static MessagePushVO of(MessageEvent event) {
+        return new MessagePushVO(event.getEventType(), event.getMessage(), event.getUnreadDelta());
+    }
+}
@@ -2,6 +2,7 @@ package com.kama.notes.model.vo.message;
 
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * MessageVO
@@ -16,7 +17,7 @@ import java.time.LocalDateTime;
 @Data
 public class MessageVO {
     /**
-     * 消息 ID（主键或业务唯一标识）
+     * 消息 ID（主键或业务唯一标识），系统广播为 -broadcastId
      */
     private Integer messageId;
 
@@ -35,6 +36,16 @@ public class MessageVO {
      */
     private Target target;
 
+    /**
+     * 合并的触发人次（例如点赞人数），未合并的消息为 1
+     */
+    private Integer actorCount;
+
+    /**
+     * 最近的触发用户（最新的在前），用于展示"A、B 等 N 人赞了你的笔记"
+     */
+    private List<Sender> recentActors;
+
     /**
      * 消息主体内容（纯文本或已渲染的简单 HTML，按接口约定）
      */
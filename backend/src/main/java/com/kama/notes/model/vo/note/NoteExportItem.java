@@ -0,0 +1,55 @@
+package com.kama.notes.model.vo.note;
+
+import lombok.Data;
+
+/**
+ * NoteExportItem
+ *
+ * 笔记导出行对象：一条笔记及其所属问题、二级分类、一级分类信息。
+ *
+ * 说明：
+ * - 由 NoteMapper.findExportItemsByAuthorId 以游标方式逐行读取，按一级分类、二级分类、问题 ID 排序，
+ *   导出时只需比较相邻两行的分类即可输出标题或切换文件，无需在内存中分组。
+ */
+@Data
+public class NoteExportItem {
+    /**
+     * 笔记 ID
+     */
+    private Integer noteId;
+
+    /**
+     * 笔记内容（Markdown）
+     */
+    private String content;
+
+    /**
+     * 问题 ID
+     */
+    private Integer questionId;
+
+    /**
+     * 问题标题
+     */
+    private String questionTitle;
+
+    /**
+     * 二级分类 ID
+     */
+    private Integer categoryId;
+
+    /**
+     * 二级分类名称
+     */
+    private String categoryName;
+
+    /**
+     * 一级分类 ID
+     */
+    private Integer parentCategoryId;
+
+    /**
+     * 一级分类名称
+     */
+    private String parentCategoryName;
+}
@@ -0,0 +1,30 @@
+package com.kama.notes.model.vo.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * FacetValueVO
+ *
+ * 分面中的一个取值及命中该取值的笔记数。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetValueVO {
+    /**
+     * 取值：分类 ID、难度（1-3）或标签 ID，可直接作为筛选参数
+     */
+    private Integer id;
+
+    /**
+     * 展示名称
+     */
+    private String name;
+
+    /**
+     * 笔记数
+     */
+    private Integer count;
+}
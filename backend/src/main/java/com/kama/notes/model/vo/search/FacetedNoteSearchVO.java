@@ -0,0 +1,28 @@
+package com.kama.notes.model.vo.search;
+
+import com.kama.notes.model.entity.Note;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * FacetedNoteSearchVO
+ *
+ * 带分面统计的笔记搜索结果。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedNoteSearchVO {
+    /**
+     * 当前页的笔记
+     */
+    private List<Note> notes;
+
+    /**
+     * 应用筛选条件后全部命中笔记的分面统计
+     */
+    private NoteFacetsVO facets;
+}
@@ -0,0 +1,32 @@
+package com.kama.notes.model.vo.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * NoteFacetsVO
+ *
+ * 笔记搜索结果的分面统计，各分面按笔记数倒序。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteFacetsVO {
+    /**
+     * 按问题分类统计
+     */
+    private List<FacetValueVO> categories;
+
+    /**
+     * 按问题难度统计
+     */
+    private List<FacetValueVO> difficulties;
+
+    /**
+     * 按标签统计，一篇笔记有多个标签时计入每个标签
+     */
+    private List<FacetValueVO> tags;
+}
@@ -0,0 +1,48 @@
+package com.kama.notes.model.vo.search;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * SearchReindexStatusVO
+ *
+ * 笔记检索列全量重建的进度（仅反映本节点发起的重建）。
+ */
+@Data
+public class SearchReindexStatusVO {
+    /**
+     * 是否正在执行
+     */
+    private Boolean running;
+
+    /**
+     * ID 区间总数
+     */
+    private Integer totalRanges;
+
+    /**
+     * 已完成的 ID 区间数
+     */
+    private Integer completedRanges;
+
+    /**
+     * 已回写的笔记数
+     */
+    private Integer indexedNotes;
+
+    /**
+     * 失败的 ID 区间数
+     */
+    private Integer failedRanges;
+
+    /**
+     * 开始时间
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * 结束时间，执行中为 null
+     */
+    private LocalDateTime finishedAt;
+}
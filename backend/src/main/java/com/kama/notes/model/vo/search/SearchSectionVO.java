@@ -0,0 +1,37 @@
+package com.kama.notes.model.vo.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * SearchSectionVO
+ *
+ * 聚合搜索中单个数据源（笔记、问题、用户）的结果。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchSectionVO<T> {
+    /**
+     * 数据源：note / question / user
+     */
+    private String type;
+
+    /**
+     * 执行状态：ok（成功）、timeout（超时，items 为空）、error（失败，items 为空）
+     */
+    private String status;
+
+    /**
+     * 搜索结果，按该数据源自身的相关度排序
+     */
+    private List<T> items;
+
+    /**
+     * 该数据源的耗时（毫秒），超时时为等待的时间
+     */
+    private Long tookMillis;
+}
@@ -0,0 +1,25 @@
+package com.kama.notes.model.vo.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * TrendingKeywordVO
+ *
+ * 热门搜索词及其在统计时间范围内的估计搜索次数（各节点合并后，可能略有高估）。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingKeywordVO {
+    /**
+     * 关键词（小写，连续空白合并为一个空格）
+     */
+    private String keyword;
+
+    /**
+     * 估计搜索次数
+     */
+    private Long count;
+}
@@ -0,0 +1,32 @@
+package com.kama.notes.model.vo.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * UnifiedSearchVO
+ *
+ * 聚合搜索结果：笔记、问题、用户三个分区，按与关键词的匹配程度排序，前端按顺序展示即可。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnifiedSearchVO {
+    /**
+     * 关键词
+     */
+    private String keyword;
+
+    /**
+     * 是否有数据源超时或失败（对应分区的结果为空）
+     */
+    private Boolean partial;
+
+    /**
+     * 各数据源的结果，排序规则见 SearchService.searchAll
+     */
+    private List<SearchSectionVO<?>> sections;
+}
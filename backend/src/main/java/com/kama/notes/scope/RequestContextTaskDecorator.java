@@ -0,0 +1,55 @@
+package com.kama.notes.scope;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+
+/**
+ * RequestContextTaskDecorator
+ *
+ * 线程池任务装饰器：把提交任务时所在线程的请求上下文传递到工作线程。
+ *
+ * 传递内容：
+ * - RequestAttributes：使工作线程中访问 @RequestScope 的 RequestScopeData 时拿到的是同一个请求的实例；
+ * - MDC（包含 traceId）：使工作线程输出的日志仍能与原请求关联。
+ *
+ * 注意：
+ * - 任务执行完成后恢复工作线程原有的上下文，而不是简单清空。
+ *   当线程池饱和触发 CallerRunsPolicy 时任务会在调用线程（即请求线程）上直接执行，
+ *   若直接清空会把请求线程自身的上下文一并清掉；
+ * - 提交方应在请求结束前等待任务完成，否则请求作用域 Bean 可能已被销毁。
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        // 在提交线程中捕获上下文
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+
+        return () -> {
+            // 记录工作线程原有的上下文，执行结束后恢复
+            RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            try {
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                setMdc(mdcContext);
+                runnable.run();
+            } finally {
+                RequestContextHolder.setRequestAttributes(previousAttributes);
+                setMdc(previousMdc);
+            }
+        };
+    }
+
+    private static void setMdc(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
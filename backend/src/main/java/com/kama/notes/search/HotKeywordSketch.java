@@ -0,0 +1,133 @@
+package com.kama.notes.search;
+
+import java.util.*;
+
+/**
+ * HotKeywordSketch
+ *
+ * 搜索热词的流式统计：Count-Min Sketch 估计每个关键词的次数，小顶堆维护估计次数最高的 topK 个关键词。
+ *
+ * 结构：
+ * - counts：depth 行、width 列的计数矩阵，关键词在每一行映射到一列，估计次数取各行计数的最小值，
+ *   只会高估不会低估，内存占用与关键词的种类无关；
+ * - candidates / heap：当前估计次数最高的关键词，新关键词的估计次数超过堆顶时替换堆顶。
+ *
+ * 合并：
+ * - 关键词到列的映射只依赖 String.hashCode 与矩阵大小，各节点一致，
+ *   因此各节点的矩阵可以按单元格直接相加（见 forEachCell 与 columns），合并后仍是一个合法的 Count-Min Sketch。
+ *
+ * 并发：非线程安全，由调用方加锁。
+ */
+public class HotKeywordSketch {
+
+    private final int width;
+
+    private final int depth;
+
+    private final int topK;
+
+    private final long[][] counts;
+
+    private final Map<String, Long> candidates = new HashMap<>();
+
+    /**
+     * 按 candidates 中的估计次数排序的小顶堆，更新某个关键词的次数前须先将其移出堆
+     */
+    private final PriorityQueue<String> heap;
+
+    public HotKeywordSketch(int width, int depth, int topK) {
+        this.width = width;
+        this.depth = depth;
+        this.topK = topK;
+        this.counts = new long[depth][width];
+        this.heap = new PriorityQueue<>(Comparator.comparingLong(candidates::get));
+    }
+
+    /**
+     * 记录一次搜索
+     *
+     * @param keyword 已归一化的关键词
+     */
+    public void add(String keyword) {
+        int[] columns = columns(keyword, width, depth);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, ++counts[row][columns[row]]);
+        }
+
+        if (candidates.containsKey(keyword)) {
+            heap.remove(keyword);
+            candidates.put(keyword, estimate);
+            heap.offer(keyword);
+        } else if (candidates.size() < topK) {
+            candidates.put(keyword, estimate);
+            heap.offer(keyword);
+        } else if (estimate > candidates.get(heap.peek())) {
+            candidates.remove(heap.poll());
+            candidates.put(keyword, estimate);
+            heap.offer(keyword);
+        }
+    }
+
+    /**
+     * @return 是否没有记录过任何搜索
+     */
+    public boolean isEmpty() {
+        return candidates.isEmpty();
+    }
+
+    /**
+     * @return 估计次数最高的关键词（无序）
+     */
+    public Set<String> topKeywords() {
+        return new HashSet<>(candidates.keySet());
+    }
+
+    /**
+     * 遍历计数不为 0 的单元格
+     */
+    public void forEachCell(CellConsumer consumer) {
+        for (int row = 0; row < depth; row++) {
+            for (int column = 0; column < width; column++) {
+                if (counts[row][column] > 0) {
+                    consumer.accept(row, column, counts[row][column]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 关键词在每一行映射到的列（双重哈希：h1 + row * h2）
+     *
+     * @return 长度为 depth 的数组
+     */
+    public static int[] columns(String keyword, int width, int depth) {
+        int h1 = mix(keyword.hashCode());
+        int h2 = mix(h1 ^ 0x9E3779B9) | 1;
+        int[] columns = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            columns[row] = Math.floorMod(h1 + row * h2, width);
+        }
+        return columns;
+    }
+
+    /**
+     * MurmurHash3 的 fmix32，打散 String.hashCode 的低位
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * 单元格回调
+     */
+    @FunctionalInterface
+    public interface CellConsumer {
+        void accept(int row, int column, long count);
+    }
+}
@@ -0,0 +1,164 @@
+package com.kama.notes.search;
+
+import com.kama.notes.utils.TransactionUtils;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 进程内搜索索引的加载与跨节点增量同步
+ *
+ * 加载：在后台守护线程中建立索引，完成前 {@link #get()} 返回 null，调用方退回数据库查询；
+ * 加载期间收到的变更先记录下来，索引发布后逐一重新应用。
+ *
+ * 增量更新：
+ * - 实体变更后在事务提交后只广播实体 ID，每个节点（包括发布者自身）收到后从数据库读取该实体的当前状态
+ *   应用到索引，因此重复或乱序的通知都会收敛到最新状态；
+ * - 应用过程串行执行，避免同一实体先读到的旧数据覆盖后读到的新数据；
+ * - Redis 不可用时只更新本节点，其他节点在重启加载时追赶。
+ *
+ * @param <K> 实体 ID 类型
+ * @param <I> 索引类型
+ */
+@Log4j2
+public class IndexSynchronizer<K, I> implements MessageListener {
+
+    /**
+     * 日志中的索引名称
+     */
+    private final String name;
+
+    private final String channel;
+
+    private final Function<String, K> idParser;
+
+    /**
+     * 从数据库读取实体的当前状态并应用到索引（不存在时从索引中移除）
+     */
+    private final BiConsumer<I, K> applier;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 加载完成前为 null
+     */
+    private volatile I index;
+
+    /**
+     * 保护 index 的发布与 pendingChanges
+     */
+    private final Object stateLock = new Object();
+
+    /**
+     * 加载期间收到变更的实体 ID，加载完成后置为 null
+     */
+    private Set<K> pendingChanges = new LinkedHashSet<>();
+
+    /**
+     * 串行执行变更应用
+     */
+    private final Object applyLock = new Object();
+
+    public IndexSynchronizer(String name,
+                             String channel,
+                             Function<String, K> idParser,
+                             BiConsumer<I, K> applier,
+                             StringRedisTemplate stringRedisTemplate,
+                             RedisMessageListenerContainer listenerContainer) {
+        this.name = name;
+        this.channel = channel;
+        this.idParser = idParser;
+        this.applier = applier;
+        this.stringRedisTemplate = stringRedisTemplate;
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * 在后台守护线程中加载索引
+     *
+     * @param threadName 加载线程名
+     * @param loader     建立完整索引，失败时抛出异常（索引保持未就绪）
+     */
+    public void start(String threadName, Supplier<I> loader) {
+        Thread thread = new Thread(() -> load(loader), threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void load(Supplier<I> loader) {
+        long start = System.currentTimeMillis();
+        try {
+            I loaded = loader.get();
+            Set<K> changed;
+            synchronized (stateLock) {
+                index = loaded;
+                changed = pendingChanges;
+                pendingChanges = null;
+            }
+            changed.forEach(this::apply);
+            log.info("{}加载完成, 耗时 {} ms, 加载期间变更 {} 条", name, System.currentTimeMillis() - start, changed.size());
+        } catch (Exception e) {
+            log.error("{}加载失败，查询继续使用数据库", name, e);
+        }
+    }
+
+    /**
+     * @return 当前索引，加载完成前为 null
+     */
+    public I get() {
+        return index;
+    }
+
+    /**
+     * 通知实体已变更；在事务中调用时于提交后广播，其他节点才能读到新数据
+     */
+    public void publish(K id) {
+        TransactionUtils.afterCommit(() -> broadcast(id));
+    }
+
+    private void broadcast(K id) {
+        try {
+            // 本节点同样会收到自己发布的消息，在 onMessage 中更新
+            stringRedisTemplate.convertAndSend(channel, String.valueOf(id));
+        } catch (Exception e) {
+            log.warn("{}变更广播失败，仅更新本节点, id: {}", name, id, e);
+            apply(id);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            apply(idParser.apply(body));
+        } catch (Exception e) {
+            log.warn("{}更新失败, id: {}", name, body, e);
+        }
+    }
+
+    private void apply(K id) {
+        I current;
+        synchronized (stateLock) {
+            current = index;
+            if (current == null) {
+                if (pendingChanges != null) {
+                    pendingChanges.add(id);
+                }
+                return;
+            }
+        }
+        synchronized (applyLock) {
+            applier.accept(current, id);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.kama.notes.search;
+
+import com.huaban.analysis.jieba.JiebaSegmenter;
+import com.huaban.analysis.jieba.WordDictionary;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * JiebaTokenizer
+ *
+ * 全局共享的中文分词器，搜索（解析查询）与索引（笔记倒排索引、检索列、问题联想）使用同一实例，保证两侧词元一致。
+ *
+ * 词典：
+ * - Jieba 的主词典在 JiebaSegmenter 类初始化时加载，耗时数秒；start 在后台线程中提前加载，
+ *   并依次加载内置的技术术语词典（classpath:dict/tech_terms.dict）与配置的自定义词典；
+ * - 自定义词典写入 WordDictionary 内部的非线程安全集合，因此分词调用在词典全部加载完成前会等待，
+ *   不会用到只加载了一半的词典；
+ * - 词典内容的 CRC32 作为指纹，持久化的分词结果（例如笔记索引快照）可据此判断是否需要重建。
+ *
+ * 缓存：
+ * - 长度不超过 MAX_CACHED_LENGTH 的文本（搜索关键词、问题标题等）的分词结果保存在有界 LRU 中，
+ *   笔记正文等长文本不进入缓存；
+ * - JiebaSegmenter 本身没有可变状态，多线程共享一个实例即可，不需要实例池。
+ *
+ * 指标：分词的文本数、词元数、缓存命中与未命中次数、分词耗时，由 TokenizerConfig 注册到 Micrometer。
+ */
+@Log4j2
+public final class JiebaTokenizer {
+
+    private static final JiebaTokenizer INSTANCE = new JiebaTokenizer();
+
+    /**
+     * 标点与符号替换为空格后再分词，避免被切成词元
+     */
+    private static final Pattern SYMBOLS = Pattern.compile("[\\p{P}\\p{S}]");
+
+    /**
+     * 超过该长度的文本不缓存分词结果
+     */
+    private static final int MAX_CACHED_LENGTH = 64;
+
+    private static final int DEFAULT_CACHE_SIZE = 10000;
+
+    private static final String BUILTIN_DICTIONARY = "dict/tech_terms.dict";
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    private volatile JiebaSegmenter segmenter;
+
+    private volatile Map<String, List<String>> cache = lruCache(DEFAULT_CACHE_SIZE);
+
+    private volatile long dictionaryFingerprint;
+
+    private final LongAdder texts = new LongAdder();
+    private final LongAdder tokens = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder segmentNanos = new LongAdder();
+
+    private JiebaTokenizer() {
+    }
+
+    public static JiebaTokenizer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 在后台线程中加载词典，只有第一次调用生效；未调用时第一次分词会以默认配置触发加载
+     *
+     * @param cacheSize       分词结果缓存的最大条数，0 表示不缓存
+     * @param userDictionaries 额外的自定义词典文件（每行 "词 词频"）
+     */
+    public void start(int cacheSize, List<Path> userDictionaries) {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        cache = lruCache(cacheSize);
+        Thread loader = new Thread(() -> load(userDictionaries), "jieba-dictionary-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load(List<Path> userDictionaries) {
+        long start = System.currentTimeMillis();
+        try {
+            // 触发主词典与 HMM 模型的加载
+            JiebaSegmenter loaded = new JiebaSegmenter();
+            loaded.sentenceProcess("预热");
+
+            CRC32 crc = new CRC32();
+            loadBuiltinDictionary(crc);
+            for (Path path : userDictionaries) {
+                crc.update(Files.readAllBytes(path));
+                WordDictionary.getInstance().loadUserDict(path, StandardCharsets.UTF_8);
+            }
+            dictionaryFingerprint = crc.getValue();
+            segmenter = loaded;
+            ready.complete(null);
+            log.info("分词词典加载完成, 自定义词典 {} 个, 耗时 {} ms", userDictionaries.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // 自定义词典加载失败时仍使用主词典分词，不让搜索与索引一直等待
+            log.error("分词词典加载失败，使用默认词典", e);
+            segmenter = new JiebaSegmenter();
+            ready.complete(null);
+        } catch (Error e) {
+            // 主词典无法加载时分词不可用，让等待中的调用抛出异常而不是一直阻塞
+            log.error("分词器初始化失败", e);
+            ready.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * WordDictionary 只能从文件加载，classpath 中的词典先复制到临时文件
+     */
+    private void loadBuiltinDictionary(CRC32 crc) throws IOException {
+        try (InputStream in = JiebaTokenizer.class.getClassLoader().getResourceAsStream(BUILTIN_DICTIONARY)) {
+            if (in == null) {
+                return;
+            }
+            byte[] content = in.readAllBytes();
+            crc.update(content);
+            Path temp = Files.createTempFile("tech_terms", ".dict");
+            try {
+                Files.write(temp, content);
+                WordDictionary.getInstance().loadUserDict(temp, StandardCharsets.UTF_8);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * 等待词典加载完成
+     */
+    public void awaitReady() {
+        if (!ready.isDone()) {
+            start(DEFAULT_CACHE_SIZE, List.of());
+            ready.join();
+        }
+    }
+
+    /**
+     * @return 词典是否已加载完成
+     */
+    public boolean isReady() {
+        return ready.isDone();
+    }
+
+    /**
+     * @return 内置与自定义词典内容的指纹，词典加载完成前为 0
+     */
+    public long getDictionaryFingerprint() {
+        return dictionaryFingerprint;
+    }
+
+    /**
+     * 去除符号后分词，保留原始大小写，丢弃空白词元
+     *
+     * @param text 原始文本
+     * @return 词元列表（不可修改），输入为空时返回空列表
+     */
+    public List<String> segment(String text) {
+        if (!StringUtils.hasText(text)) {
+            return List.of();
+        }
+        awaitReady();
+        texts.increment();
+
+        boolean cacheable = text.length() <= MAX_CACHED_LENGTH;
+        Map<String, List<String>> current = cache;
+        if (cacheable) {
+            List<String> cached = current.get(text);
+            if (cached != null) {
+                cacheHits.increment();
+                tokens.add(cached.size());
+                return cached;
+            }
+            cacheMisses.increment();
+        }
+
+        long start = System.nanoTime();
+        List<String> words = segmenter.sentenceProcess(SYMBOLS.matcher(text).replaceAll(" ")).stream()
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .toList();
+        segmentNanos.add(System.nanoTime() - start);
+        tokens.add(words.size());
+
+        if (cacheable) {
+            current.put(text, words);
+        }
+        return words;
+    }
+
+    /**
+     * 分词并转为小写，作为检索词元
+     *
+     * @param text 原始文本
+     * @return 词元列表（保留重复，用于统计词频），输入为空时返回空列表
+     */
+    public List<String> tokenize(String text) {
+        return segment(text).stream()
+                .map(word -> word.toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    public long getTextCount() {
+        return texts.sum();
+    }
+
+    public long getTokenCount() {
+        return tokens.sum();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMissCount() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * @return 实际执行分词（未命中缓存）的累计耗时（纳秒）
+     */
+    public long getSegmentNanos() {
+        return segmentNanos.sum();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    private static Map<String, List<String>> lruCache(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+}
@@ -0,0 +1,238 @@
+package com.kama.notes.search;
+
+import com.kama.notes.model.dto.search.NoteFacetRow;
+import com.kama.notes.model.vo.search.FacetValueVO;
+import com.kama.notes.model.vo.search.NoteFacetsVO;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * NoteFacetIndex
+ *
+ * 笔记的分面字段（所属问题的分类、难度，笔记的标签），只读，变更后整体重建并替换。
+ *
+ * 结构：
+ * - noteIds 升序，categoryIds / difficulties 与之一一对应；
+ * - 标签按压缩行格式保存：第 i 篇笔记的标签为 tagIds[tagStarts[i], tagStarts[i + 1])，
+ *   每篇笔记只占几个 int，不为每篇笔记创建集合对象。
+ *
+ * 分类：
+ * - 分类有层级（Category.parentCategoryId），问题只挂在叶子分类上；
+ * - 按分类筛选时匹配该分类及其所有子孙分类，分类的分面计数同样累加到各级祖先分类上。
+ *
+ * 查询：
+ * - 搜索结果（笔记 ID 列表）逐个二分查找到下标后读取分面字段，完成筛选与计数，
+ *   耗时与结果数成正比，不需要按分面分别执行 GROUP BY。
+ */
+public class NoteFacetIndex {
+
+    private static final String[] DIFFICULTY_NAMES = {null, "简单", "中等", "困难"};
+
+    /**
+     * 向上查找祖先分类的最大层数，防止错误数据中的环导致死循环
+     */
+    private static final int MAX_CATEGORY_DEPTH = 8;
+
+    private final int[] noteIds;
+
+    private final int[] categoryIds;
+
+    private final byte[] difficulties;
+
+    private final int[] tagStarts;
+
+    private final int[] tagIds;
+
+    private final Map<Integer, String> categoryNames;
+
+    /**
+     * 分类 ID -> 父分类 ID，顶级分类不在其中
+     */
+    private final Map<Integer, Integer> categoryParents;
+
+    private final Map<Integer, String> tagNames;
+
+    private NoteFacetIndex(int[] noteIds, int[] categoryIds, byte[] difficulties, int[] tagStarts, int[] tagIds,
+                           Map<Integer, String> categoryNames, Map<Integer, Integer> categoryParents,
+                           Map<Integer, String> tagNames) {
+        this.noteIds = noteIds;
+        this.categoryIds = categoryIds;
+        this.difficulties = difficulties;
+        this.tagStarts = tagStarts;
+        this.tagIds = tagIds;
+        this.categoryNames = categoryNames;
+        this.categoryParents = categoryParents;
+        this.tagNames = tagNames;
+    }
+
+    /**
+     * 按笔记 ID 升序的行构建索引
+     */
+    public static class Builder {
+        private final List<int[]> notes = new ArrayList<>();
+        private final List<Integer> tags = new ArrayList<>();
+        private final Map<Integer, String> tagNames = new HashMap<>();
+        private int lastNoteId = -1;
+
+        /**
+         * 追加一行，行须按笔记 ID 升序
+         */
+        public void add(NoteFacetRow row) {
+            if (row.getNoteId() != lastNoteId) {
+                lastNoteId = row.getNoteId();
+                // noteId、categoryId、difficulty、该笔记标签在 tags 中的起始下标
+                notes.add(new int[]{row.getNoteId(),
+                        row.getCategoryId() == null ? 0 : row.getCategoryId(),
+                        row.getDifficulty() == null ? 0 : row.getDifficulty(),
+                        tags.size()});
+            }
+            if (row.getTagId() != null) {
+                tags.add(row.getTagId());
+                if (row.getTagName() != null) {
+                    tagNames.put(row.getTagId(), row.getTagName());
+                }
+            }
+        }
+
+        /**
+         * @param categoryNames   分类 ID -> 分类名称
+         * @param categoryParents 分类 ID -> 父分类 ID，顶级分类不需要包含
+         */
+        public NoteFacetIndex build(Map<Integer, String> categoryNames, Map<Integer, Integer> categoryParents) {
+            int size = notes.size();
+            int[] noteIds = new int[size];
+            int[] categoryIds = new int[size];
+            byte[] difficulties = new byte[size];
+            int[] tagStarts = new int[size + 1];
+            for (int i = 0; i < size; i++) {
+                int[] note = notes.get(i);
+                noteIds[i] = note[0];
+                categoryIds[i] = note[1];
+                difficulties[i] = (byte) note[2];
+                tagStarts[i] = note[3];
+            }
+            tagStarts[size] = tags.size();
+            int[] tagIds = tags.stream().mapToInt(Integer::intValue).toArray();
+            return new NoteFacetIndex(noteIds, categoryIds, difficulties, tagStarts, tagIds,
+                    new HashMap<>(categoryNames), new HashMap<>(categoryParents), tagNames);
+        }
+    }
+
+    /**
+     * @return 已索引的笔记数
+     */
+    public int size() {
+        return noteIds.length;
+    }
+
+    /**
+     * 名称包含 fragment 的标签 ID（忽略大小写）
+     */
+    public Set<Integer> findTagIdsByName(String fragment) {
+        String needle = fragment.toLowerCase(Locale.ROOT);
+        Set<Integer> result = new HashSet<>();
+        tagNames.forEach((tagId, name) -> {
+            if (name.toLowerCase(Locale.ROOT).contains(needle)) {
+                result.add(tagId);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 按分面筛选笔记，保持原有顺序；不在索引中的笔记（索引重建前新发布的）只在不带任何条件时保留
+     *
+     * @param noteIds    笔记 ID
+     * @param categoryId 分类 ID，匹配该分类及其子孙分类，为 null 时不限
+     * @param difficulty 难度，为 null 时不限
+     * @param anyTagIds  带有其中任一标签，为 null 时不限
+     * @return 满足全部条件的笔记 ID
+     */
+    public List<Integer> filter(List<Integer> noteIds, Integer categoryId, Integer difficulty, Set<Integer> anyTagIds) {
+        if (categoryId == null && difficulty == null && anyTagIds == null) {
+            return noteIds;
+        }
+        List<Integer> result = new ArrayList<>();
+        for (Integer noteId : noteIds) {
+            int i = Arrays.binarySearch(this.noteIds, noteId);
+            if (i < 0
+                    || categoryId != null && !inCategory(categoryIds[i], categoryId)
+                    || difficulty != null && difficulties[i] != difficulty
+                    || anyTagIds != null && !hasAnyTag(i, anyTagIds)) {
+                continue;
+            }
+            result.add(noteId);
+        }
+        return result;
+    }
+
+    /**
+     * 分类 leafId 是否为 categoryId 或其子孙分类
+     */
+    private boolean inCategory(int leafId, int categoryId) {
+        Integer current = leafId;
+        for (int depth = 0; current != null && depth < MAX_CATEGORY_DEPTH; depth++) {
+            if (current == categoryId) {
+                return true;
+            }
+            current = categoryParents.get(current);
+        }
+        return false;
+    }
+
+    private boolean hasAnyTag(int index, Set<Integer> anyTagIds) {
+        for (int k = tagStarts[index]; k < tagStarts[index + 1]; k++) {
+            if (anyTagIds.contains(tagIds[k])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 统计笔记在各分面上的分布
+     *
+     * @param noteIds   笔记 ID
+     * @param maxValues 每个分面最多返回的取值数
+     */
+    public NoteFacetsVO count(List<Integer> noteIds, int maxValues) {
+        Map<Integer, Integer> categoryCounts = new HashMap<>();
+        Map<Integer, Integer> difficultyCounts = new HashMap<>();
+        Map<Integer, Integer> tagCounts = new HashMap<>();
+        for (Integer noteId : noteIds) {
+            int i = Arrays.binarySearch(this.noteIds, noteId);
+            if (i < 0) {
+                continue;
+            }
+            // 计入所在分类及各级祖先分类
+            Integer category = categoryIds[i] == 0 ? null : categoryIds[i];
+            for (int depth = 0; category != null && depth < MAX_CATEGORY_DEPTH; depth++) {
+                categoryCounts.merge(category, 1, Integer::sum);
+                category = categoryParents.get(category);
+            }
+            if (difficulties[i] > 0 && difficulties[i] < DIFFICULTY_NAMES.length) {
+                difficultyCounts.merge((int) difficulties[i], 1, Integer::sum);
+            }
+            for (int k = tagStarts[i]; k < tagStarts[i + 1]; k++) {
+                tagCounts.merge(tagIds[k], 1, Integer::sum);
+            }
+        }
+        return new NoteFacetsVO(
+                top(categoryCounts, categoryNames::get, maxValues),
+                top(difficultyCounts, difficulty -> DIFFICULTY_NAMES[difficulty], maxValues),
+                top(tagCounts, tagNames::get, maxValues));
+    }
+
+    /**
+     * 按笔记数倒序、ID 升序取前 maxValues 个取值
+     */
+    private static List<FacetValueVO> top(Map<Integer, Integer> counts, Function<Integer, String> names, int maxValues) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(maxValues)
+                .map(entry -> new FacetValueVO(entry.getKey(), names.apply(entry.getKey()), entry.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,431 @@
+package com.kama.notes.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * NoteSearchIndex
+ *
+ * 笔记内容的内存倒排索引，按 BM25 打分。
+ *
+ * 结构：
+ * - postings：词元 -> 倒排表（笔记 ID 与词频的并行数组），查询时按词逐个累加得分（term-at-a-time）；
+ * - docTerms：笔记 ID -> 该笔记包含的不重复词元（升序）及其在各倒排表中的下标，更新或删除笔记时据此直接定位并移除旧的记录，
+ *   不需要扫描倒排表；
+ * - docLengths：笔记 ID -> 词元总数，用于 BM25 的文档长度归一化。
+ *
+ * 并发：
+ * - 读写锁保护全部结构，查询持有读锁并发执行，单篇笔记的增删持有写锁，耗时与该笔记的词元数成正比，
+ *   与倒排表长度无关（常见词的倒排表几乎覆盖全部笔记）；
+ *
+ * 快照：
+ * - writeTo 将索引写为二进制文件（先写临时文件再原子替换），readFrom 通过内存映射读取，
+ *   重启时无需重新扫描并分词全部笔记；
+ * - 格式：魔数、版本、快照时间、分词词典指纹、笔记数及每篇笔记的 (ID, 长度)、词元数及每个词元的 (UTF-8 字节、倒排表)。
+ */
+public class NoteSearchIndex {
+
+    private static final int MAGIC = 0x4B4E4958; // "KNIX"
+
+    private static final int VERSION = 2;
+
+    /**
+     * 超长的词元（例如大段无空格的编码串）没有检索价值，不进入索引
+     */
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private static final double K1 = 1.2;
+
+    private static final double B = 0.75;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    private final Map<Integer, DocTerms> docTerms = new HashMap<>();
+
+    private final Map<Integer, Integer> docLengths = new HashMap<>();
+
+    private long totalLength;
+
+    /**
+     * 索引或重新索引一篇笔记
+     *
+     * @param noteId 笔记 ID
+     * @param tokens 笔记内容的词元（保留重复）
+     */
+    public void put(int noteId, List<String> tokens) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String token : tokens) {
+            if (token.length() <= MAX_TERM_LENGTH) {
+                frequencies.merge(token, 1, Integer::sum);
+                length++;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(noteId);
+            if (length == 0) {
+                return;
+            }
+            String[] terms = frequencies.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+            int[] slots = new int[terms.length];
+            for (int k = 0; k < terms.length; k++) {
+                slots[k] = postings.computeIfAbsent(terms[k], key -> new Postings()).add(noteId, frequencies.get(terms[k]));
+            }
+            docTerms.put(noteId, new DocTerms(terms, slots));
+            docLengths.put(noteId, length);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 从索引中移除一篇笔记
+     *
+     * @param noteId 笔记 ID
+     * @return 笔记原本是否在索引中
+     */
+    public boolean remove(int noteId) {
+        lock.writeLock().lock();
+        try {
+            return removeInternal(noteId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 只保留指定的笔记，用于快照加载后剔除停机期间被删除的笔记
+     *
+     * @param liveNoteIds 仍存在的笔记 ID
+     * @return 被移除的笔记数
+     */
+    public int retainAll(Set<Integer> liveNoteIds) {
+        lock.writeLock().lock();
+        try {
+            List<Integer> stale = docLengths.keySet().stream()
+                    .filter(noteId -> !liveNoteIds.contains(noteId))
+                    .toList();
+            stale.forEach(this::removeInternal);
+            return stale.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removeInternal(int noteId) {
+        DocTerms doc = docTerms.remove(noteId);
+        if (doc == null) {
+            return false;
+        }
+        for (int k = 0; k < doc.terms.length; k++) {
+            String term = doc.terms[k];
+            Postings list = postings.get(term);
+            int slot = doc.slots[k];
+            int moved = list.removeAt(slot);
+            if (moved >= 0) {
+                // 末尾的笔记被移到了 slot，更新它记录的下标
+                DocTerms movedDoc = docTerms.get(moved);
+                movedDoc.slots[Arrays.binarySearch(movedDoc.terms, term)] = slot;
+            }
+            if (list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= docLengths.remove(noteId);
+        return true;
+    }
+
+    /**
+     * 按 BM25 得分查询，包含任一查询词的笔记都会参与排序，命中词越多、词越稀有得分越高
+     *
+     * @param terms 查询词元，重复的词只计一次
+     * @param limit 最多返回的笔记数
+     * @return 按得分倒序的笔记 ID，得分相同时 ID 大（较新）的在前
+     */
+    public List<Integer> search(Collection<String> terms, int limit) {
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int documentCount = docLengths.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : new LinkedHashSet<>(terms)) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int noteId = list.noteIds[i];
+                    int tf = list.frequencies[i];
+                    double norm = K1 * (1 - B + B * docLengths.get(noteId) / averageLength);
+                    scores.merge(noteId, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<Integer> topK(Map<Integer, Double> scores, int limit) {
+        Comparator<Map.Entry<Integer, Double>> order = Map.Entry.<Integer, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        // 小顶堆保留得分最高的 limit 个
+        PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(order);
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            if (heap.size() < limit) {
+                heap.offer(entry);
+            } else if (order.compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.offer(entry);
+            }
+        }
+        List<Integer> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().getKey());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * @return 已索引的笔记数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 将索引写入快照文件
+     *
+     * @param path       快照文件路径
+     * @param snapshotAt            快照时间（毫秒时间戳），加载时从该时间之后更新过的笔记开始追赶
+     * @param dictionaryFingerprint 建立索引时使用的分词词典指纹，词典变化后快照中的词元不再可用
+     */
+    public void writeTo(Path path, long snapshotAt, long dictionaryFingerprint) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            lock.readLock().lock();
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(snapshotAt);
+                out.writeLong(dictionaryFingerprint);
+
+                out.writeInt(docLengths.size());
+                for (Map.Entry<Integer, Integer> entry : docLengths.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    out.writeInt(entry.getValue());
+                }
+
+                out.writeInt(postings.size());
+                for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                    byte[] term = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(term.length);
+                    out.write(term);
+                    Postings list = entry.getValue();
+                    out.writeInt(list.size);
+                    for (int i = 0; i < list.size; i++) {
+                        out.writeInt(list.noteIds[i]);
+                        out.writeInt(list.frequencies[i]);
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 通过内存映射读取快照文件
+     *
+     * @param path 快照文件路径
+     * @return 快照中的索引、快照时间与分词词典指纹
+     * @throws IOException 文件不存在、格式或版本不匹配时抛出
+     */
+    public static Snapshot readFrom(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("笔记索引快照格式或版本不匹配: " + path);
+            }
+            long snapshotAt = buffer.getLong();
+            long dictionaryFingerprint = buffer.getLong();
+
+            NoteSearchIndex index = new NoteSearchIndex();
+            int documentCount = buffer.getInt();
+            Map<Integer, List<String>> terms = new HashMap<>(documentCount * 2);
+            Map<Integer, List<Integer>> slots = new HashMap<>(documentCount * 2);
+            for (int i = 0; i < documentCount; i++) {
+                int noteId = buffer.getInt();
+                int length = buffer.getInt();
+                index.docLengths.put(noteId, length);
+                index.totalLength += length;
+                terms.put(noteId, new ArrayList<>());
+                slots.put(noteId, new ArrayList<>());
+            }
+
+            int termCount = buffer.getInt();
+            for (int i = 0; i < termCount; i++) {
+                String term = readTerm(buffer);
+                int size = buffer.getInt();
+                Postings list = new Postings(size);
+                for (int j = 0; j < size; j++) {
+                    int noteId = buffer.getInt();
+                    slots.get(noteId).add(list.add(noteId, buffer.getInt()));
+                    terms.get(noteId).add(term);
+                }
+                index.postings.put(term, list);
+            }
+            terms.forEach((noteId, list) -> index.docTerms.put(noteId, DocTerms.sorted(list, slots.get(noteId))));
+            return new Snapshot(index, snapshotAt, dictionaryFingerprint);
+        } catch (RuntimeException e) {
+            // 文件被截断等情况下 ByteBuffer 抛出的 BufferUnderflowException 等
+            throw new IOException("笔记索引快照损坏: " + path, e);
+        }
+    }
+
+    private static String readTerm(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 快照加载结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        /**
+         * 索引
+         */
+        private final NoteSearchIndex index;
+
+        /**
+         * 快照时间（毫秒时间戳）
+         */
+        private final long snapshotAt;
+
+        /**
+         * 分词词典指纹
+         */
+        private final long dictionaryFingerprint;
+    }
+
+    /**
+     * 一篇笔记的不重复词元（升序，便于二分查找）与每个词元在其倒排表中的下标
+     */
+    private static final class DocTerms {
+        private final String[] terms;
+        private final int[] slots;
+
+        DocTerms(String[] terms, int[] slots) {
+            this.terms = terms;
+            this.slots = slots;
+        }
+
+        /**
+         * 按词元排序，下标随之调整
+         */
+        static DocTerms sorted(List<String> terms, List<Integer> slots) {
+            Integer[] order = new Integer[terms.size()];
+            for (int k = 0; k < order.length; k++) {
+                order[k] = k;
+            }
+            Arrays.sort(order, Comparator.comparing(terms::get));
+            String[] sortedTerms = new String[order.length];
+            int[] sortedSlots = new int[order.length];
+            for (int k = 0; k < order.length; k++) {
+                sortedTerms[k] = terms.get(order[k]);
+                sortedSlots[k] = slots.get(order[k]);
+            }
+            return new DocTerms(sortedTerms, sortedSlots);
+        }
+    }
+
+    /**
+     * 倒排表：笔记 ID 与词频的并行数组，删除时用末尾元素填补空位，顺序无意义
+     */
+    private static final class Postings {
+        private int[] noteIds;
+        private int[] frequencies;
+        private int size;
+
+        Postings() {
+            this(2);
+        }
+
+        Postings(int capacity) {
+            noteIds = new int[Math.max(capacity, 1)];
+            frequencies = new int[noteIds.length];
+        }
+
+        /**
+         * @return 新记录的下标
+         */
+        int add(int noteId, int frequency) {
+            if (size == noteIds.length) {
+                noteIds = Arrays.copyOf(noteIds, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            noteIds[size] = noteId;
+            frequencies[size] = frequency;
+            return size++;
+        }
+
+        /**
+         * 移除指定下标的记录，用末尾的记录填补
+         *
+         * @return 被移动到 slot 的笔记 ID，slot 本身就是末尾时返回 -1
+         */
+        int removeAt(int slot) {
+            size--;
+            if (slot == size) {
+                return -1;
+            }
+            noteIds[slot] = noteIds[size];
+            frequencies[slot] = frequencies[size];
+            return noteIds[slot];
+        }
+    }
+}
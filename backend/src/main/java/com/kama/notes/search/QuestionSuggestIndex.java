@@ -0,0 +1,273 @@
+package com.kama.notes.search;
+
+import com.kama.notes.model.entity.Question;
+import com.kama.notes.utils.SearchUtils;
+
+import java.util.*;
+
+/**
+ * QuestionSuggestIndex
+ *
+ * 问题标题与考点的前缀联想索引，只读，问题变更后整体重建并替换。
+ *
+ * 结构：
+ * - 以标题、考点分词后每个词的起始位置切出后缀（归一化为小写并去除空白与标点，最长 MAX_KEY_LENGTH 个字符），
+ *   因此输入标题中间的词（例如 "持久化"）也能联想到 "Redis 持久化机制"；
+ * - 全部后缀排序后构建压缩前缀树（单分支路径合并为一条边），
+ *   每个节点预先保存其子树中浏览量最高的 maxSuggestions 个问题 ID；
+ * - 查询只需沿前缀走到对应节点并返回预先排好的结果，耗时与前缀长度成正比，与问题数无关。
+ */
+public class QuestionSuggestIndex {
+
+    /**
+     * 后缀最大长度，与搜索关键词的长度上限一致，更长的前缀不会被查询到
+     */
+    private static final int MAX_KEY_LENGTH = 32;
+
+    private static final QuestionSuggestIndex EMPTY =
+            new QuestionSuggestIndex(new Node("", new char[0], new Node[0], new int[0]), new int[0]);
+
+    private final Node root;
+
+    /**
+     * 名次 -> 问题 ID，节点中保存的是名次
+     */
+    private final int[] questionIdsByRank;
+
+    private QuestionSuggestIndex(Node root, int[] questionIdsByRank) {
+        this.root = root;
+        this.questionIdsByRank = questionIdsByRank;
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param questions      全部问题（需包含标题、考点与浏览量）
+     * @param maxSuggestions 每个前缀最多保存的联想结果数
+     */
+    public static QuestionSuggestIndex build(List<Question> questions, int maxSuggestions) {
+        if (questions.isEmpty()) {
+            return EMPTY;
+        }
+
+        // 按浏览量倒序、ID 倒序（较新）排出名次，节点内按名次合并
+        List<Question> ranked = new ArrayList<>(questions);
+        ranked.sort(Comparator.comparing((Question question) -> question.getViewCount() == null ? 0 : question.getViewCount())
+                .reversed()
+                .thenComparing(Question::getQuestionId, Comparator.reverseOrder()));
+        int[] questionIds = new int[ranked.size()];
+
+        List<Key> keys = new ArrayList<>();
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            Question question = ranked.get(rank);
+            questionIds[rank] = question.getQuestionId();
+            Set<String> suffixes = new HashSet<>();
+            addSuffixes(question.getTitle(), suffixes);
+            addSuffixes(question.getExamPoint(), suffixes);
+            for (String suffix : suffixes) {
+                keys.add(new Key(suffix, rank));
+            }
+        }
+        if (keys.isEmpty()) {
+            return EMPTY;
+        }
+        keys.sort(Comparator.comparing((Key key) -> key.text).thenComparingInt(key -> key.rank));
+
+        Node root = new Builder(keys, maxSuggestions).buildRoot();
+        return new QuestionSuggestIndex(root, questionIds);
+    }
+
+    private static void addSuffixes(String text, Set<String> suffixes) {
+        List<String> tokens = SearchUtils.tokenize(text);
+        String normalized = String.join("", tokens);
+        int start = 0;
+        for (String token : tokens) {
+            suffixes.add(normalized.substring(start, Math.min(normalized.length(), start + MAX_KEY_LENGTH)));
+            start += token.length();
+        }
+    }
+
+    /**
+     * 将查询归一化为与索引键相同的形式：小写，去除空白与标点
+     */
+    public static String normalize(String keyword) {
+        return String.join("", SearchUtils.tokenize(keyword));
+    }
+
+    /**
+     * 前缀联想
+     *
+     * @param prefix 已归一化的前缀（见 normalize）
+     * @param limit  最多返回的问题数，超过构建时的 maxSuggestions 时按 maxSuggestions 返回
+     * @return 按浏览量倒序的问题 ID
+     */
+    public List<Integer> suggest(String prefix, int limit) {
+        if (prefix.isEmpty() || prefix.length() > MAX_KEY_LENGTH || limit <= 0) {
+            return List.of();
+        }
+        Node node = root;
+        int matched = 0;
+        while (matched < prefix.length()) {
+            node = node.child(prefix.charAt(matched));
+            if (node == null) {
+                return List.of();
+            }
+            int length = Math.min(node.label.length(), prefix.length() - matched);
+            if (!prefix.regionMatches(matched, node.label, 0, length)) {
+                return List.of();
+            }
+            matched += length;
+        }
+        int count = Math.min(limit, node.topRanks.length);
+        List<Integer> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(questionIdsByRank[node.topRanks[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * @return 建立索引时的问题数
+     */
+    public int size() {
+        return questionIdsByRank.length;
+    }
+
+    /**
+     * 后缀及其所属问题的名次
+     */
+    private static final class Key {
+        private final String text;
+        private final int rank;
+
+        Key(String text, int rank) {
+            this.text = text;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * 由排好序的后缀自顶向下构建压缩前缀树
+     */
+    private static final class Builder {
+        private final List<Key> keys;
+        private final int maxSuggestions;
+
+        Builder(List<Key> keys, int maxSuggestions) {
+            this.keys = keys;
+            this.maxSuggestions = maxSuggestions;
+        }
+
+        /**
+         * 根节点没有入边，直接按首字符分组
+         */
+        Node buildRoot() {
+            return buildNode(0, keys.size(), 0, 0);
+        }
+
+        /**
+         * 构建 keys[from, to) 对应的节点，这些后缀的前 depth + 1 个字符相同，入边从第 depth 个字符开始
+         */
+        Node build(int from, int to, int depth) {
+            // 有序区间的公共前缀即首尾两项的公共前缀，单分支路径合并为一条边
+            String first = keys.get(from).text;
+            String last = keys.get(to - 1).text;
+            int end = depth;
+            int limit = Math.min(first.length(), last.length());
+            while (end < limit && first.charAt(end) == last.charAt(end)) {
+                end++;
+            }
+            return buildNode(from, to, depth, end);
+        }
+
+        /**
+         * 构建入边为 [depth, end) 的节点
+         */
+        private Node buildNode(int from, int to, int depth, int end) {
+            String first = keys.get(from).text;
+            List<int[]> rankLists = new ArrayList<>();
+
+            // 恰好在此结束的后缀排在区间最前，且已按名次升序
+            int i = from;
+            while (i < to && keys.get(i).text.length() == end) {
+                i++;
+            }
+            int[] ownRanks = new int[i - from];
+            for (int k = from; k < i; k++) {
+                ownRanks[k - from] = keys.get(k).rank;
+            }
+            rankLists.add(ownRanks);
+
+            // 按下一个字符分组构建子节点
+            StringBuilder childChars = new StringBuilder();
+            List<Node> children = new ArrayList<>();
+            while (i < to) {
+                char c = keys.get(i).text.charAt(end);
+                int j = i + 1;
+                while (j < to && keys.get(j).text.charAt(end) == c) {
+                    j++;
+                }
+                Node child = build(i, j, end);
+                childChars.append(c);
+                children.add(child);
+                rankLists.add(child.topRanks);
+                i = j;
+            }
+
+            return new Node(first.substring(depth, end), childChars.toString().toCharArray(),
+                    children.toArray(new Node[0]), mergeTop(rankLists));
+        }
+
+        /**
+         * 合并若干按名次升序的列表，去重后保留前 maxSuggestions 个
+         */
+        private int[] mergeTop(List<int[]> lists) {
+            TreeSet<Integer> top = new TreeSet<>();
+            for (int[] list : lists) {
+                for (int rank : list) {
+                    if (top.size() == maxSuggestions && rank > top.last()) {
+                        break;
+                    }
+                    if (top.add(rank) && top.size() > maxSuggestions) {
+                        top.pollLast();
+                    }
+                }
+            }
+            return top.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * 前缀树节点
+     */
+    private static final class Node {
+        /**
+         * 入边上的字符（压缩后可能有多个）
+         */
+        private final String label;
+
+        /**
+         * 子节点入边的首字符，升序，与 children 一一对应
+         */
+        private final char[] childChars;
+
+        private final Node[] children;
+
+        /**
+         * 子树中名次最靠前（浏览量最高）的问题名次，升序
+         */
+        private final int[] topRanks;
+
+        Node(String label, char[] childChars, Node[] children, int[] topRanks) {
+            this.label = label;
+            this.childChars = childChars;
+            this.children = children;
+            this.topRanks = topRanks;
+        }
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(childChars, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+}
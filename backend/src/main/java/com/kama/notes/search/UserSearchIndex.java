@@ -0,0 +1,323 @@
+package com.kama.notes.search;
+
+import com.kama.notes.model.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * UserSearchIndex
+ *
+ * 用户账号、用户名、邮箱的内存 n-gram 索引，支持子串匹配（管理端用户列表）与前缀匹配（用户搜索）。
+ *
+ * 结构：
+ * - docs：内部文档号 -> 用户的检索字段（小写），文档号按加入顺序分配，用户修改时沿用原文档号；
+ * - postings：二元组、三元组 -> 包含该片段的文档号（升序数组）。
+ *
+ * 查询：
+ * - 关键词长度不少于 3 时取其全部三元组的倒排表求交集，长度为 2 时取二元组的倒排表，
+ *   长度为 1 时不经过倒排表，直接遍历全部文档（仍在内存中完成）；
+ * - n-gram 交集只是候选集，再逐个用 contains / startsWith 校验实际字段，结果与 LIKE 一致（忽略大小写）；
+ * - 返回全部命中数作为精确总数，并按用户 ID 排序后截取当前页。
+ *
+ * 并发：读写锁保护全部结构，查询持有读锁，单个用户的增删持有写锁。
+ */
+public class UserSearchIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Doc> docs = new ArrayList<>();
+
+    private final Map<Long, Integer> docIdsByUserId = new HashMap<>();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    /**
+     * 索引或重新索引一个用户
+     *
+     * @param user 用户（需包含 userId、account、username、email、isAdmin、isBanned）
+     */
+    public void put(User user) {
+        Doc doc = new Doc(user.getUserId(), lower(user.getAccount()), lower(user.getUsername()), lower(user.getEmail()),
+                user.getIsAdmin(), user.getIsBanned());
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdsByUserId.get(doc.userId);
+            if (docId == null) {
+                docId = docs.size();
+                docs.add(doc);
+                docIdsByUserId.put(doc.userId, docId);
+            } else {
+                for (String gram : grams(docs.get(docId))) {
+                    Postings list = postings.get(gram);
+                    if (list != null && list.remove(docId) && list.size == 0) {
+                        postings.remove(gram);
+                    }
+                }
+                docs.set(docId, doc);
+            }
+            for (String gram : grams(doc)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return 已索引的用户数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 管理端条件查询，语义与 UserMapper.findByQueryParam 相同：账号、用户名为子串匹配，其余为精确匹配，条件之间为 AND
+     *
+     * @param userId   用户 ID，可为 null
+     * @param account  账号子串，可为 null
+     * @param username 用户名子串，可为 null
+     * @param isAdmin  是否管理员，可为 null
+     * @param isBanned 是否封禁，可为 null
+     * @param offset   偏移量
+     * @param limit    每页条数
+     * @return 命中总数与当前页的用户 ID（按用户 ID 升序）
+     */
+    public Result query(Long userId, String account, String username, Integer isAdmin, Integer isBanned,
+                        int offset, int limit) {
+        String accountNeedle = account == null ? null : lower(account);
+        String usernameNeedle = username == null ? null : lower(username);
+
+        lock.readLock().lock();
+        try {
+            int[] candidates;
+            if (userId != null) {
+                Integer docId = docIdsByUserId.get(userId);
+                candidates = docId == null ? new int[0] : new int[]{docId};
+            } else {
+                candidates = intersect(candidates(accountNeedle), candidates(usernameNeedle));
+            }
+
+            List<Doc> matched = new ArrayList<>();
+            forEachCandidate(candidates, doc -> {
+                if ((accountNeedle == null || doc.account.contains(accountNeedle))
+                        && (usernameNeedle == null || doc.username.contains(usernameNeedle))
+                        && (isAdmin == null || isAdmin.equals(doc.isAdmin))
+                        && (isBanned == null || isBanned.equals(doc.isBanned))) {
+                    matched.add(doc);
+                }
+            });
+            matched.sort(Comparator.comparingLong(doc -> doc.userId));
+            return page(matched, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 用户搜索，语义与 UserMapper.searchUsers 相同：用户名、账号、邮箱任一以关键词开头即命中，
+     * 依次按 用户名完全相同、账号完全相同、邮箱完全相同、用户名前缀、账号前缀、邮箱前缀 排序，同级按用户 ID 升序
+     *
+     * @param keyword 关键词
+     * @param offset  偏移量
+     * @param limit   每页条数
+     * @return 命中总数与当前页的用户 ID
+     */
+    public Result searchByPrefix(String keyword, int offset, int limit) {
+        String needle = lower(keyword);
+        if (needle.isEmpty()) {
+            return new Result(0, List.of());
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Doc> matched = new ArrayList<>();
+            Map<Doc, Integer> tiers = new HashMap<>();
+            forEachCandidate(candidates(needle), doc -> {
+                int tier = tier(doc, needle);
+                if (tier > 0) {
+                    matched.add(doc);
+                    tiers.put(doc, tier);
+                }
+            });
+            matched.sort(Comparator.<Doc>comparingInt(tiers::get).thenComparingLong(doc -> doc.userId));
+            return page(matched, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int tier(Doc doc, String needle) {
+        if (doc.username.equals(needle)) return 1;
+        if (doc.account.equals(needle)) return 2;
+        if (doc.email.equals(needle)) return 3;
+        if (doc.username.startsWith(needle)) return 4;
+        if (doc.account.startsWith(needle)) return 5;
+        if (doc.email.startsWith(needle)) return 6;
+        return 0;
+    }
+
+    private static Result page(List<Doc> matched, int offset, int limit) {
+        int from = Math.min(Math.max(offset, 0), matched.size());
+        int to = Math.min(from + Math.max(limit, 0), matched.size());
+        List<Long> userIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            userIds.add(matched.get(i).userId);
+        }
+        return new Result(matched.size(), userIds);
+    }
+
+    private void forEachCandidate(int[] candidates, Consumer<Doc> action) {
+        if (candidates == null) {
+            docs.forEach(action);
+        } else {
+            for (int docId : candidates) {
+                action.accept(docs.get(docId));
+            }
+        }
+    }
+
+    /**
+     * 包含 needle 的候选文档号（升序）
+     *
+     * @return needle 为 null 或长度不足 2 时返回 null，表示不限制
+     */
+    private int[] candidates(String needle) {
+        if (needle == null || needle.length() < 2) {
+            return null;
+        }
+        int n = needle.length() >= 3 ? 3 : 2;
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : grams(needle, n, new HashSet<>())) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        // 从最短的倒排表开始求交集
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists.get(0).docIds, lists.get(0).size);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            Postings list = lists.get(i);
+            result = intersect(result, result.length, list.docIds, list.size);
+        }
+        return result;
+    }
+
+    /**
+     * 两个升序数组求交集，null 表示不限制
+     */
+    private static int[] intersect(int[] a, int[] b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return intersect(a, a.length, b, b.length);
+    }
+
+    private static int[] intersect(int[] a, int aLength, int[] b, int bLength) {
+        int[] result = new int[Math.min(aLength, bLength)];
+        int i = 0, j = 0, k = 0;
+        while (i < aLength && j < bLength) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private static Set<String> grams(Doc doc) {
+        Set<String> grams = new HashSet<>();
+        for (String field : new String[]{doc.account, doc.username, doc.email}) {
+            grams(field, 2, grams);
+            grams(field, 3, grams);
+        }
+        return grams;
+    }
+
+    private static Set<String> grams(String text, int n, Set<String> grams) {
+        for (int i = 0; i + n <= text.length(); i++) {
+            grams.add(text.substring(i, i + n));
+        }
+        return grams;
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 查询结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        /**
+         * 命中总数
+         */
+        private final int total;
+
+        /**
+         * 当前页的用户 ID
+         */
+        private final List<Long> userIds;
+    }
+
+    /**
+     * 用户的检索字段（小写）
+     */
+    @AllArgsConstructor
+    private static final class Doc {
+        private final long userId;
+        private final String account;
+        private final String username;
+        private final String email;
+        private final Integer isAdmin;
+        private final Integer isBanned;
+    }
+
+    /**
+     * 倒排表：升序的文档号数组
+     */
+    private static final class Postings {
+        private int[] docIds = new int[2];
+        private int size;
+
+        void add(int docId) {
+            int index = Arrays.binarySearch(docIds, 0, size, docId);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+            }
+            System.arraycopy(docIds, insertAt, docIds, insertAt + 1, size - insertAt);
+            docIds[insertAt] = docId;
+            size++;
+        }
+
+        boolean remove(int docId) {
+            int index = Arrays.binarySearch(docIds, 0, size, docId);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(docIds, index + 1, docIds, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
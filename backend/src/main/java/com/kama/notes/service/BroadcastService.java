@@ -0,0 +1,69 @@
+package com.kama.notes.service;
+
+import com.kama.notes.model.base.ApiResponse;
+import com.kama.notes.model.dto.message.CreateBroadcastBody;
+import com.kama.notes.model.dto.message.MessageQueryParams;
+import com.kama.notes.model.entity.Message;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 系统广播服务接口
+ *
+ * 系统广播只保存一行记录，每个用户保存一个已读水位线（已读到的最大广播 ID），
+ * 查询收件箱和未读数时在读取阶段把广播合并进来。
+ * 广播在收件箱中以 messageId = -broadcastId 的系统消息呈现，与普通消息的 ID 不会冲突。
+ */
+public interface BroadcastService {
+    /**
+     * 发布系统广播，仅管理员可调用
+     *
+     * @param body 广播内容
+     * @return 新广播的 ID
+     */
+    ApiResponse<Integer> publishBroadcast(CreateBroadcastBody body);
+
+    /**
+     * 按收件箱的游标与过滤条件查询广播，并转换为系统消息
+     *
+     * @param userId          用户 ID
+     * @param params          查询参数，type 不为空且不是系统消息时返回空列表
+     * @param cursorCreatedAt 游标中的创建时间，为 null 表示第一页
+     * @param cursorMessageId 游标中的 messageId（广播为负数）
+     * @param limit           最多返回的条数
+     * @return messageId 为 -broadcastId 的系统消息列表
+     */
+    List<Message> listAsMessages(Long userId, MessageQueryParams params,
+                                 LocalDateTime cursorCreatedAt, Long cursorMessageId, int limit);
+
+    /**
+     * 获取用户未读的广播数
+     *
+     * @param userId 用户 ID
+     * @return 未读广播数
+     */
+    int countUnread(Long userId);
+
+    /**
+     * 把水位线推进到指定广播，该广播及更早的广播均视为已读。必须在事务中调用
+     *
+     * @param userId      用户 ID
+     * @param broadcastId 广播 ID
+     * @return 本次由未读变为已读的广播数
+     */
+    int markRead(Long userId, Integer broadcastId);
+
+    /**
+     * 把水位线推进到最新的广播。必须在事务中调用
+     *
+     * @param userId 用户 ID
+     * @return 本次由未读变为已读的广播数
+     */
+    int markAllRead(Long userId);
+
+    /**
+     * 从数据库重新加载本地缓存的广播 ID 列表
+     */
+    void refreshBroadcastIds();
+}
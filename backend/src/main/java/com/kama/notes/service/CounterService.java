@@ -0,0 +1,61 @@
+package com.kama.notes.service;
+
+import com.kama.notes.model.entity.Comment;
+import com.kama.notes.model.entity.Note;
+import com.kama.notes.model.entity.Question;
+import com.kama.notes.model.enums.counter.CounterType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 计数器服务接口（写缓冲）
+ *
+ * 点赞、收藏、评论、回复、浏览等计数的增量先累加到 Redis 哈希中，由定时任务批量写回数据库，
+ * 避免热点记录上的行锁竞争；读取时把尚未写回的增量合并到数据库中的值上。
+ */
+public interface CounterService {
+    /**
+     * 累加计数增量。在事务中调用时，增量在事务提交后才会写入缓冲区
+     *
+     * @param type  计数器类型
+     * @param id    记录主键
+     * @param delta 增量，可以为负数
+     */
+    void increment(CounterType type, Integer id, long delta);
+
+    /**
+     * 将尚未写回的点赞、收藏、评论增量合并到笔记上
+     *
+     * @param notes 从数据库查询出的笔记列表
+     */
+    void mergeNoteCounts(List<Note> notes);
+
+    /**
+     * 将尚未写回的点赞、回复增量合并到评论上
+     *
+     * @param comments 从数据库查询出的评论列表
+     */
+    void mergeCommentCounts(List<Comment> comments);
+
+    /**
+     * 将尚未写回的浏览量增量合并到问题上
+     *
+     * @param questions 从数据库查询出的问题列表
+     */
+    void mergeQuestionViewCounts(List<Question> questions);
+
+    /**
+     * 将所有类型的缓冲增量批量写回数据库
+     *
+     * @return 本次写回的记录数；其他节点正在刷新时返回 0
+     */
+    int flush();
+
+    /**
+     * 清理指定时间之前的刷新批次记录
+     *
+     * @param before 截止时间
+     */
+    void cleanFlushLog(LocalDateTime before);
+}
@@ -0,0 +1,46 @@
+package com.kama.notes.service;
+
+import com.kama.notes.model.base.ApiResponse;
+import com.kama.notes.model.enums.search.SearchScope;
+import com.kama.notes.model.vo.search.TrendingKeywordVO;
+
+import java.util.List;
+
+/**
+ * 搜索热词统计服务接口
+ *
+ * 每个节点在内存中用 Count-Min Sketch 与 top-K 小顶堆统计搜索关键词，定时合并到 Redis 中按时间窗口保存的全局统计，
+ * 并据此计算热搜榜、驱动热门查询的缓存预热。
+ */
+public interface HotKeywordService {
+    /**
+     * 记录一次搜索，只在内存中累加，不访问 Redis
+     *
+     * @param scope   统计范围
+     * @param keyword 用户输入的关键词
+     */
+    void record(SearchScope scope, String keyword);
+
+    /**
+     * 将本节点自上次合并以来的统计合并到 Redis，并刷新本节点缓存的热搜榜
+     *
+     * @return 本次合并的统计范围数
+     */
+    int flush();
+
+    /**
+     * 获取热搜榜
+     *
+     * @param scope 统计范围（note / question / user），user 仅管理员可查看
+     * @param limit 最多返回的关键词数
+     * @return 按估计次数倒序的热门关键词
+     */
+    ApiResponse<List<TrendingKeywordVO>> getTrending(String scope, Integer limit);
+
+    /**
+     * 竞争本周期的缓存预热，多节点部署时每个周期只有一个节点成功
+     *
+     * @return 成功时返回需要预热的笔记搜索热词，未成功或没有热词时返回空列表
+     */
+    List<String> claimWarmUpKeywords();
+}
@@ -0,0 +1,15 @@
+package com.kama.notes.service;
+
+/**
+ * 消息归档服务接口
+ *
+ * 将超过保留期的已读消息分批迁移到 message_archive，使 message 热表只保留未读与近期消息。
+ */
+public interface MessageArchiveService {
+    /**
+     * 归档创建时间早于保留期的已读消息
+     *
+     * @return 本次归档的消息数
+     */
+    int archive();
+}
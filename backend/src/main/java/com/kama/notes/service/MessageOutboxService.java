@@ -0,0 +1,36 @@
+package com.kama.notes.service;
+
+import com.kama.notes.model.dto.message.MessageDTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * 消息发件箱服务接口（transactional outbox）
+ *
+ * 点赞、评论等业务在自己的事务中只写入一条发件箱记录，由定时任务异步批量生成消息并推送，
+ * 业务接口的延迟与行锁持有时间不再包含消息写入。
+ */
+public interface MessageOutboxService {
+    /**
+     * 写入一条待投递的消息通知。应在业务事务中调用，与业务数据一同提交或回滚
+     *
+     * @param messageDTO     消息内容
+     * @param idempotencyKey 幂等键，同一业务事件重复写入时被忽略
+     */
+    void enqueue(MessageDTO messageDTO, String idempotencyKey);
+
+    /**
+     * 投递到期的发件箱记录：批量生成消息并标记已投递，失败的记录按指数退避重试
+     *
+     * @return 本次投递成功的记录数
+     */
+    int dispatch();
+
+    /**
+     * 删除指定时间之前已投递的发件箱记录
+     *
+     * @param before 截止时间
+     * @return 删除的记录数
+     */
+    int cleanDispatched(LocalDateTime before);
+}
@@ -3,7 +3,9 @@ package com.kama.notes.service;
 import com.kama.notes.model.base.ApiResponse;
 import com.kama.notes.model.base.EmptyVO;
 import com.kama.notes.model.dto.message.MessageDTO;
+import com.kama.notes.model.dto.message.MessageQueryParams;
 import com.kama.notes.model.vo.message.MessageVO;
+import com.kama.notes.model.vo.message.UnreadCountByType;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -19,9 +21,19 @@ public interface MessageService {
     Integer createMessage(MessageDTO messageDTO);
 
     /**
-     * 获取消息列表
+     * 批量创建消息（单条多行 INSERT），由消息发件箱投递任务调用
+     *
+     * @param messageDTOs 消息列表
+     * @return 创建的消息条数
      */
-    ApiResponse<List<MessageVO>> getMessages();
+    int createMessages(List<MessageDTO> messageDTOs);
+
+    /**
+     * 获取消息列表（游标分页）
+     *
+     * @param params 过滤条件与游标，响应的 pagination.nextCursor 为 null 表示没有更多消息
+     */
+    ApiResponse<List<MessageVO>> getMessages(MessageQueryParams params);
 
     /**
      * 标记消息为已读
@@ -60,4 +72,19 @@ public interface MessageService {
      * @return 未读消息数量
      */
     ApiResponse<Integer> getUnreadCount();
+
+    /**
+     * 获取按消息类型分组的未读消息数量
+     *
+     * @return 各消息类型的未读数量
+     */
+    ApiResponse<List<UnreadCountByType>> getUnreadCountByType();
+
+    /**
+     * 获取当前用户的归档消息（超过保留期后从收件箱迁出的已读消息）
+     *
+     * @param params 查询参数，用法与 getMessages 相同
+     * @return 归档消息列表
+     */
+    ApiResponse<List<MessageVO>> getArchivedMessages(MessageQueryParams params);
 }
@@ -0,0 +1,35 @@
+package com.kama.notes.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * 笔记导出服务接口
+ *
+ * 以 MyBatis 游标逐行读取用户的笔记并直接写入输出流，内存占用与笔记数量无关。
+ * 两个方法都会自行开启只读事务以保证游标遍历期间连接不被释放，可以在 StreamingResponseBody 的异步线程中调用。
+ */
+public interface NoteExportService {
+    /**
+     * 将用户的全部笔记导出为一个 Markdown 文档
+     *
+     * 结构：# 一级分类 / ## 二级分类 / ### [问题标题](问题链接) / 笔记内容
+     *
+     * @param authorId 作者 ID
+     * @param writer   输出目标，由调用方负责关闭
+     * @return 导出的笔记数
+     * @throws IOException 写入失败（例如客户端断开连接）
+     */
+    int writeMarkdown(Long authorId, Writer writer) throws IOException;
+
+    /**
+     * 将用户的全部笔记导出为 zip 压缩包，每个二级分类一个 Markdown 文件（路径为 一级分类/二级分类.md）
+     *
+     * @param authorId     作者 ID
+     * @param outputStream 输出目标，由调用方负责关闭
+     * @return 导出的笔记数
+     * @throws IOException 写入失败（例如客户端断开连接）
+     */
+    int writeZip(Long authorId, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,23 @@
+package com.kama.notes.service;
+
+import com.kama.notes.search.NoteFacetIndex;
+
+/**
+ * 笔记分面服务接口
+ *
+ * 每个节点在内存中维护全部笔记的分面字段（问题分类、问题难度、标签），用于搜索结果的筛选与分面计数；
+ * 笔记或问题变更后整体重建，并定时重建兜底标签等没有变更通知的数据。
+ */
+public interface NoteFacetService {
+    /**
+     * 获取当前的分面索引
+     *
+     * @return 索引，建立完成前返回 null，调用方应退回不带分面的查询
+     */
+    NoteFacetIndex getIndex();
+
+    /**
+     * 立即重建本节点的分面索引
+     */
+    void rebuild();
+}
@@ -0,0 +1,45 @@
+package com.kama.notes.service;
+
+import com.kama.notes.model.vo.note.NoteRankListItem;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 每日笔记提交排行榜服务接口
+ *
+ * 排行榜以 Redis 有序集合按天保存（作者 ID -> 当天提交笔记数），
+ * 在笔记创建、删除时增量更新，读取前 N 名的复杂度为 O(log n + N)。
+ */
+public interface NoteRankService {
+    /**
+     * 笔记创建后增加作者当天的提交数。在事务中调用时，事务提交后才更新排行榜
+     *
+     * @param authorId 作者 ID
+     */
+    void onNoteCreated(Long authorId);
+
+    /**
+     * 笔记删除后减少作者在笔记创建当天的提交数（仅当天的笔记会影响排行榜）
+     *
+     * @param authorId  作者 ID
+     * @param createdAt 笔记创建时间
+     */
+    void onNoteDeleted(Long authorId, LocalDateTime createdAt);
+
+    /**
+     * 获取今天提交笔记数最多的前 N 名作者，名次规则与 SQL RANK() 一致（并列同名次，后续名次跳过）
+     *
+     * @param limit 返回条数
+     * @return 排行榜列表
+     */
+    List<NoteRankListItem> getTodayTopN(int limit);
+
+    /**
+     * 从数据库重建指定日期的排行榜，用于冷启动与定期校准
+     *
+     * @param date 日期
+     */
+    void rebuild(LocalDate date);
+}
@@ -0,0 +1,39 @@
+package com.kama.notes.service;
+
+import java.util.List;
+
+/**
+ * 笔记全文检索索引服务接口
+ *
+ * 每个节点在内存中维护一份笔记内容的倒排索引（BM25 打分），启动时从快照或数据库加载，
+ * 笔记变更后经 Redis pub/sub 通知所有节点增量更新，并定时写入磁盘快照以加快重启。
+ */
+public interface NoteSearchIndexService {
+    /**
+     * 索引是否已加载完成。未完成时调用方应退回数据库全文检索
+     *
+     * @return 是否可用
+     */
+    boolean isReady();
+
+    /**
+     * 按关键词检索笔记
+     *
+     * @param keyword 原始关键词
+     * @param limit   最多返回的笔记数
+     * @return 按相关度倒序的笔记 ID，索引未就绪时返回空列表
+     */
+    List<Integer> search(String keyword, int limit);
+
+    /**
+     * 笔记创建、修改或删除后调用，在事务提交后通知所有节点重新索引该笔记
+     *
+     * @param noteId 笔记 ID
+     */
+    void onNoteChanged(Integer noteId);
+
+    /**
+     * 索引自上次快照后有变更时写入磁盘快照
+     */
+    void snapshot();
+}
@@ -45,12 +45,6 @@ public interface NoteService {
      */
     ApiResponse<EmptyVO> deleteNote(Integer noteId);
 
-    /**
-     * 下载笔记
-     * @return 包含下载笔记
-     */
-    ApiResponse<DownloadNoteVO> downloadNote();
-
     /**
      * 笔记排行榜
      * @return 包含笔记排行榜视图对象的响应
@@ -25,6 +25,8 @@ public interface QuestionService {
     /**
      * 根据问题 ID 批量获取问题信息
      *
+     * 结果来自两级实体缓存（本地 + Redis），问题更新或删除后缓存失效。
+     *
      * @param questionIds 问题 ID 列表
      * @return 问题信息
      */
@@ -95,4 +97,13 @@ public interface QuestionService {
      * @return 返回一个携带搜索结果的 ApiResponse 对象
      */
     ApiResponse<List<QuestionVO>> searchQuestions(SearchQuestionBody body);
+
+    /**
+     * 按关键词联想问题，与 searchQuestions 相同但不统计搜索热词（供聚合搜索等内部调用）
+     *
+     * @param keyword 关键词
+     * @param limit   最多返回的问题数
+     * @return 返回一个携带搜索结果的 ApiResponse 对象
+     */
+    ApiResponse<List<QuestionVO>> suggestQuestions(String keyword, int limit);
 }
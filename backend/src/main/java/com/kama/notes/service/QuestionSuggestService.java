@@ -0,0 +1,37 @@
+package com.kama.notes.service;
+
+import java.util.List;
+
+/**
+ * 问题联想服务接口
+ *
+ * 每个节点在内存中维护一份问题标题与考点的前缀联想索引，按浏览量排序；
+ * 问题变更后经 Redis pub/sub 通知所有节点重建，并定时重建以刷新浏览量排序。
+ */
+public interface QuestionSuggestService {
+    /**
+     * 索引是否已建立。未建立时调用方应退回数据库查询
+     *
+     * @return 是否可用
+     */
+    boolean isReady();
+
+    /**
+     * 按前缀联想问题
+     *
+     * @param keyword 用户输入的关键词
+     * @param limit   最多返回的问题数
+     * @return 按浏览量倒序的问题 ID，索引未就绪时返回空列表
+     */
+    List<Integer> suggest(String keyword, int limit);
+
+    /**
+     * 问题创建、修改或删除后调用，在事务提交后通知所有节点重建索引（短时间内的多次变更合并为一次重建）
+     */
+    void onQuestionChanged();
+
+    /**
+     * 立即从数据库重建本节点的索引
+     */
+    void rebuild();
+}
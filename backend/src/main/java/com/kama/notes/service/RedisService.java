@@ -1,5 +1,11 @@
 package com.kama.notes.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
 /**
  * Redis服务接口，定义了对Redis数据库的基本操作
  */
@@ -70,4 +76,53 @@ public interface RedisService {
      * @param value 数据的值
      */
     void setHashValue(String hashKey, String key, Object value);
+
+    /**
+     * 获取分布式锁（SET NX 并设置过期时间），持有者崩溃时锁到期自动释放
+     *
+     * @param lockKey 锁的键
+     * @param ttl     锁的过期时间，应大于持锁期间的正常耗时
+     * @return 锁令牌，释放时传入；锁已被其他线程或节点持有时返回 null
+     */
+    String tryLock(String lockKey, Duration ttl);
+
+    /**
+     * 释放分布式锁，仅当锁仍由该令牌持有时才删除，不会误删过期后被其他节点重新获取的锁；
+     * 释放失败只记录日志，锁到期后自动释放
+     *
+     * @param lockKey 锁的键
+     * @param token   tryLock 返回的令牌
+     */
+    void releaseLock(String lockKey, String token);
+
+    /**
+     * 读穿透缓存：命中时直接返回，未命中时回源并写入缓存
+     *
+     * 防止缓存击穿：
+     * - 同一节点内同一个键只有一个线程回源，其他线程等待其结果；
+     * - 节点之间通过短期 Redis 锁保证只有一个节点回源，其他节点有旧值时返回旧值，没有时短暂等待结果写入；
+     * - 临近过期时按回源耗时概率性地提前刷新（回源越慢、越接近过期，越可能提前刷新），热点键不会在同一时刻集中过期；
+     * - 回源结果为 null 或空集合时按较短的过期时间缓存，避免不存在的数据反复穿透到数据库。
+     *
+     * 值以 JSON 保存（使用应用的 ObjectMapper），返回值可能被并发请求共享，调用方不应修改。
+     *
+     * @param key    缓存键
+     * @param type   值类型
+     * @param ttl    过期时间
+     * @param loader 回源函数
+     * @return 缓存值或回源结果
+     */
+    <T> T getOrLoad(String key, TypeReference<T> type, Duration ttl, Supplier<T> loader);
+
+    /**
+     * 读穿透缓存，缓存中的值不满足 usable 时按未命中处理（例如版本号已变化、覆盖范围不足）
+     *
+     * @param key    缓存键
+     * @param type   值类型
+     * @param ttl    过期时间
+     * @param loader 回源函数
+     * @param usable 判断缓存值是否可用，只作用于从 Redis 读到的值，回源结果总是直接返回
+     * @return 缓存值或回源结果
+     */
+    <T> T getOrLoad(String key, TypeReference<T> type, Duration ttl, Supplier<T> loader, Predicate<T> usable);
 }
@@ -3,6 +3,8 @@ package com.kama.notes.service;
 import com.kama.notes.model.base.ApiResponse;
 import com.kama.notes.model.entity.Note;
 import com.kama.notes.model.entity.User;
+import com.kama.notes.model.vo.search.FacetedNoteSearchVO;
+import com.kama.notes.model.vo.search.UnifiedSearchVO;
 
 import java.util.List;
 
@@ -17,6 +19,20 @@ public interface SearchService {
      */
     ApiResponse<List<Note>> searchNotes(String keyword, int page, int pageSize);
 
+    /**
+     * 带分面的笔记搜索：按问题分类、难度、标签筛选，并返回筛选后全部命中笔记在各分面上的数量
+     *
+     * @param keyword    关键词
+     * @param categoryId 问题分类 ID，可以是父分类（包含其子分类下的问题），可为 null
+     * @param difficulty 问题难度，可为 null
+     * @param tagId      标签 ID，可为 null
+     * @param page       页码
+     * @param pageSize   每页大小
+     * @return 当前页笔记与分面统计，分页信息中的 total 为筛选后的命中数
+     */
+    ApiResponse<FacetedNoteSearchVO> searchNotesWithFacets(String keyword, Integer categoryId, Integer difficulty,
+                                                           Integer tagId, int page, int pageSize);
+
     /**
      * 搜索用户
      *
@@ -27,6 +43,19 @@ public interface SearchService {
      */
     ApiResponse<List<User>> searchUsers(String keyword, int page, int pageSize);
 
+    /**
+     * 聚合搜索：并行搜索笔记、问题、用户，每个数据源单独限时，超时或失败的数据源返回空结果而不影响其他数据源。
+     *
+     * 分区排序：用户名或账号与关键词完全相同的用户分区排在最前，其次是标题包含关键词的问题分区，
+     * 其余按 笔记、问题、用户 的顺序，没有结果的分区排在最后；
+     * 一次聚合搜索只计入笔记范围的搜索热词
+     *
+     * @param keyword 关键词
+     * @param limit   每个分区的最大条数
+     * @return 聚合搜索结果
+     */
+    ApiResponse<UnifiedSearchVO> searchAll(String keyword, int limit);
+
     /**
      * 搜索笔记（带标签）
      *
@@ -37,4 +66,21 @@ public interface SearchService {
      * @return 笔记列表
      */
     ApiResponse<List<Note>> searchNotesByTag(String keyword, String tag, int page, int pageSize);
+
+    /**
+     * 笔记修改或删除后调用，递增该笔记的搜索版本号，使包含该笔记的搜索结果缓存失效。
+     * 在事务中调用时，事务提交后才会递增
+     *
+     * @param noteId 笔记 ID
+     */
+    void onNoteChanged(Integer noteId);
+
+    /**
+     * 预热笔记搜索：结果缓存缺失或即将过期时重新检索，并将首页笔记载入实体缓存。
+     * 不计入搜索热词统计
+     *
+     * @param keywords 关键词
+     * @return 成功预热的关键词数
+     */
+    int warmUp(List<String> keywords);
 } 
\ No newline at end of file
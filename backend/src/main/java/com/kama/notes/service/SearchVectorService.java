@@ -0,0 +1,33 @@
+package com.kama.notes.service;
+
+import com.kama.notes.model.base.ApiResponse;
+import com.kama.notes.model.vo.search.SearchReindexStatusVO;
+
+/**
+ * 笔记检索列（search_vector）写入服务接口
+ *
+ * 创建、修改笔记时只标记待处理，由定时任务在请求线程之外分词并批量回写；
+ * 另提供按 ID 区间并行的全量重建，用于分词规则变化或历史数据修复。
+ */
+public interface SearchVectorService {
+    /**
+     * 分批处理待更新的笔记，并刷新落后时长指标
+     *
+     * @return 本次回写的笔记数
+     */
+    int indexPending();
+
+    /**
+     * 在后台启动全量重建（仅管理员），同一节点同时只能执行一个
+     *
+     * @return 启动时的进度
+     */
+    ApiResponse<SearchReindexStatusVO> startReindex();
+
+    /**
+     * 查询本节点全量重建的进度（仅管理员）
+     *
+     * @return 进度，从未执行过时各计数为 0
+     */
+    ApiResponse<SearchReindexStatusVO> getReindexStatus();
+}
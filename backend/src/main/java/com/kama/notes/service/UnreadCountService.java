@@ -0,0 +1,50 @@
+package com.kama.notes.service;
+
+import java.util.Map;
+
+/**
+ * 未读消息计数服务接口
+ *
+ * 每个接收者的未读数按消息类型保存在 Redis 哈希中，创建消息、标记已读时增量更新，
+ * 查询未读数只需一次 Redis 读取；计数缺失时从数据库加载，定时对账修正偏差。
+ */
+public interface UnreadCountService {
+    /**
+     * 新消息未读数 +1。在事务中调用时，事务提交后才会更新
+     *
+     * @param receiverId 接收者 ID
+     * @param type       消息类型
+     */
+    void increment(Long receiverId, Integer type);
+
+    /**
+     * 按类型扣减未读数。在事务中调用时，事务提交后才会更新
+     *
+     * @param receiverId   接收者 ID
+     * @param countsByType 消息类型 -> 本次变为已读的条数
+     */
+    void decrement(Long receiverId, Map<Integer, Integer> countsByType);
+
+    /**
+     * 获取按类型分组的未读数
+     *
+     * @param userId 用户 ID
+     * @return 消息类型 -> 未读数，包含所有消息类型
+     */
+    Map<Integer, Integer> getUnreadCountByType(Long userId);
+
+    /**
+     * 获取未读消息总数
+     *
+     * @param userId 用户 ID
+     * @return 未读总数
+     */
+    int getUnreadCount(Long userId);
+
+    /**
+     * 将 Redis 中已有的未读计数与数据库对账，修正不一致的计数
+     *
+     * @return 被修正的用户数
+     */
+    int reconcile();
+}
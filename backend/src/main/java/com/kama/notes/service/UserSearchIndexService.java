@@ -0,0 +1,46 @@
+package com.kama.notes.service;
+
+import com.kama.notes.model.dto.user.UserQueryParam;
+import com.kama.notes.search.UserSearchIndex;
+
+/**
+ * 用户搜索索引服务接口
+ *
+ * 每个节点在内存中维护一份用户账号、用户名、邮箱的 n-gram 索引，启动时从数据库加载，
+ * 用户注册、修改资料后经 Redis pub/sub 通知所有节点更新该用户。
+ */
+public interface UserSearchIndexService {
+    /**
+     * 索引是否已加载完成。未完成时调用方应退回数据库查询
+     *
+     * @return 是否可用
+     */
+    boolean isReady();
+
+    /**
+     * 用户搜索：用户名、账号、邮箱前缀匹配
+     *
+     * @param keyword 关键词
+     * @param offset  偏移量
+     * @param limit   每页条数
+     * @return 命中总数与当前页的用户 ID
+     */
+    UserSearchIndex.Result searchByPrefix(String keyword, int offset, int limit);
+
+    /**
+     * 管理端用户列表：按查询参数过滤
+     *
+     * @param queryParam 查询参数
+     * @param offset     偏移量
+     * @param limit      每页条数
+     * @return 命中总数与当前页的用户 ID
+     */
+    UserSearchIndex.Result query(UserQueryParam queryParam, int offset, int limit);
+
+    /**
+     * 用户注册或修改资料后调用，在事务提交后通知所有节点重新索引该用户
+     *
+     * @param userId 用户 ID
+     */
+    void onUserChanged(Long userId);
+}
@@ -60,11 +60,23 @@ public interface UserService {
     /**
      * 根据用户 ID 列表查询并转换为 Map 格式
      *
+     * 结果来自两级实体缓存（本地 + Redis），返回的 User 不包含密码字段，仅用于展示。
+     *
      * @param authorIds 包含多个用户 ID 的列表
      * @return 一个 Map，其中键是 userId，值是对应的 User 对象
      */
     Map<Long, User> getUserMapByIds(List<Long> authorIds);
 
+    /**
+     * 判断用户是否为管理员
+     *
+     * 直接读取数据库，不经过实体缓存，取消管理员身份后立即生效。
+     *
+     * @param userId 用户 ID，为 null 时返回 false
+     * @return 是否为管理员
+     */
+    boolean isAdmin(Long userId);
+
     /**
      * 获取用户列表
      *
@@ -0,0 +1,246 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.event.MessageEvent;
+import com.kama.notes.mapper.SystemBroadcastMapper;
+import com.kama.notes.model.base.ApiResponse;
+import com.kama.notes.model.dto.message.CreateBroadcastBody;
+import com.kama.notes.model.dto.message.MessageQueryParams;
+import com.kama.notes.model.entity.Message;
+import com.kama.notes.model.entity.SystemBroadcast;
+import com.kama.notes.model.entity.User;
+import com.kama.notes.model.enums.message.MessageType;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.model.vo.message.MessageVO;
+import com.kama.notes.scope.RequestScopeData;
+import com.kama.notes.service.BroadcastService;
+import com.kama.notes.service.UserService;
+import com.kama.notes.utils.ApiResponseUtil;
+import com.kama.notes.utils.TransactionUtils;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 系统广播服务实现
+ *
+ * 存储结构：
+ * - system_broadcast：每条广播一行，发布广播只写一行，与用户数无关；
+ * - user_broadcast_watermark：每个用户已读到的最大广播 ID，ID 不超过水位线的广播视为已读；
+ *   没有记录的用户（例如新注册的用户）以注册之前发布的最大广播 ID 作为水位线，注册前的历史广播不计为未读；
+ * - message:broadcast:watermark:{userId}：水位线的 Redis 缓存（cache-aside），推进水位线后在事务提交后删除；
+ * - 本节点内存中缓存全部广播 ID（升序数组），未读广播数 = 数组中大于水位线的元素个数，二分查找即可得到。
+ *
+ * 说明：
+ * - 广播数量与用户数无关且增长缓慢，全量缓存 ID 的内存开销可以忽略；
+ * - 发布广播的节点在事务提交后立即刷新 ID 缓存，其它节点由 BroadcastIdRefreshTask 定时刷新；
+ * - 已读以水位线表示，标记某条广播已读时更早的广播也一并视为已读。
+ */
+@Log4j2
+@Service
+public class BroadcastServiceImpl implements BroadcastService {
+
+    @Autowired
+    private SystemBroadcastMapper systemBroadcastMapper;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RequestScopeData requestScopeData;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${message.broadcast.watermark-ttl-seconds:604800}")
+    private long watermarkTtlSeconds;
+
+    /**
+     * 全部广播 ID（升序），整体替换，读取无需加锁
+     */
+    private volatile int[] broadcastIds = new int[0];
+
+    @PostConstruct
+    public void init() {
+        try {
+            refreshBroadcastIds();
+        } catch (Exception e) {
+            // 启动时数据库不可用不影响启动，由定时任务重试加载
+            log.warn("加载系统广播 ID 失败", e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public ApiResponse<Integer> publishBroadcast(CreateBroadcastBody body) {
+        Long userId = requestScopeData.getUserId();
+        if (!userService.isAdmin(userId)) {
+            return ApiResponse.error(HttpStatus.FORBIDDEN.value(), "无权发布系统广播");
+        }
+
+        SystemBroadcast broadcast = new SystemBroadcast();
+        broadcast.setSenderId(userId);
+        broadcast.setContent(body.getContent());
+        systemBroadcastMapper.insert(broadcast);
+        broadcast.setCreatedAt(LocalDateTime.now());
+
+        TransactionUtils.afterCommit(this::refreshBroadcastIds);
+        User user = userService.getUserMapByIds(List.of(userId)).get(userId);
+        eventPublisher.publishEvent(MessageEvent.createBroadcastEvent(this, toMessageVO(broadcast, user)));
+        return ApiResponseUtil.success("发布系统广播成功", broadcast.getBroadcastId());
+    }
+
+    @Override
+    public List<Message> listAsMessages(Long userId, MessageQueryParams params,
+                                        LocalDateTime cursorCreatedAt, Long cursorMessageId, int limit) {
+        if (params.getType() != null && !Objects.equals(params.getType(), MessageType.SYSTEM)) {
+            return List.of();
+        }
+        int watermark = getWatermark(userId);
+        return systemBroadcastMapper.selectByCursor(params, watermark, cursorCreatedAt, cursorMessageId, limit)
+                .stream()
+                .map(broadcast -> toMessage(broadcast, userId, watermark))
+                .toList();
+    }
+
+    @Override
+    public int countUnread(Long userId) {
+        int[] ids = broadcastIds;
+        if (ids.length == 0) {
+            return 0;
+        }
+        return ids.length - upperBound(ids, getWatermark(userId));
+    }
+
+    @Override
+    public int markRead(Long userId, Integer broadcastId) {
+        // 水位线不能越过已存在的最大广播，否则之后发布的广播会被直接视为已读
+        Integer maxId = systemBroadcastMapper.selectMaxId();
+        if (maxId == null || broadcastId == null) {
+            return 0;
+        }
+        return advanceWatermark(userId, Math.min(broadcastId, maxId));
+    }
+
+    @Override
+    public int markAllRead(Long userId) {
+        Integer maxId = systemBroadcastMapper.selectMaxId();
+        if (maxId == null) {
+            return 0;
+        }
+        return advanceWatermark(userId, maxId);
+    }
+
+    /**
+     * 锁定水位线后推进，并发标记时只有一个事务会计入本次变为已读的广播数
+     */
+    private int advanceWatermark(Long userId, int broadcastId) {
+        Integer current = systemBroadcastMapper.selectWatermarkForUpdate(userId);
+        int previous = current == null ? initialWatermark(userId) : current;
+        if (broadcastId <= previous) {
+            return 0;
+        }
+        systemBroadcastMapper.upsertWatermark(userId, broadcastId);
+        TransactionUtils.afterCommit(() -> evictWatermark(userId));
+
+        int[] ids = broadcastIds;
+        return upperBound(ids, broadcastId) - upperBound(ids, previous);
+    }
+
+    @Override
+    public void refreshBroadcastIds() {
+        broadcastIds = systemBroadcastMapper.selectAllIds().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int getWatermark(Long userId) {
+        String key = RedisKey.messageBroadcastWatermark(userId);
+        try {
+            String cached = stringRedisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Integer.parseInt(cached);
+            }
+        } catch (Exception e) {
+            log.warn("读取广播水位线缓存失败，使用数据库, userId: {}", userId, e);
+            return loadWatermark(userId);
+        }
+
+        int watermark = loadWatermark(userId);
+        try {
+            stringRedisTemplate.opsForValue().set(key, String.valueOf(watermark), Duration.ofSeconds(watermarkTtlSeconds));
+        } catch (Exception e) {
+            log.warn("写入广播水位线缓存失败, userId: {}", userId, e);
+        }
+        return watermark;
+    }
+
+    private int loadWatermark(Long userId) {
+        Integer watermark = systemBroadcastMapper.selectWatermark(userId);
+        return watermark == null ? initialWatermark(userId) : watermark;
+    }
+
+    private int initialWatermark(Long userId) {
+        Integer watermark = systemBroadcastMapper.selectInitialWatermark(userId);
+        return watermark == null ? 0 : watermark;
+    }
+
+    private void evictWatermark(Long userId) {
+        try {
+            stringRedisTemplate.delete(RedisKey.messageBroadcastWatermark(userId));
+        } catch (Exception e) {
+            log.warn("删除广播水位线缓存失败, userId: {}", userId, e);
+        }
+    }
+
+    /**
+     * 升序数组中不大于 value 的元素个数
+     */
+    private static int upperBound(int[] ids, int value) {
+        int index = Arrays.binarySearch(ids, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private Message toMessage(SystemBroadcast broadcast, Long userId, int watermark) {
+        Message message = new Message();
+        message.setMessageId(-broadcast.getBroadcastId());
+        message.setReceiverId(userId);
+        message.setSenderId(broadcast.getSenderId());
+        message.setType(MessageType.SYSTEM);
+        message.setContent(broadcast.getContent());
+        message.setIsRead(broadcast.getBroadcastId() <= watermark);
+        message.setCreatedAt(broadcast.getCreatedAt());
+        message.setUpdatedAt(broadcast.getUpdatedAt());
+        return message;
+    }
+
+    private MessageVO toMessageVO(SystemBroadcast broadcast, User sender) {
+        MessageVO messageVO = new MessageVO();
+        messageVO.setMessageId(-broadcast.getBroadcastId());
+        messageVO.setType(MessageType.SYSTEM);
+        messageVO.setContent(broadcast.getContent());
+        messageVO.setIsRead(false);
+        messageVO.setActorCount(1);
+        messageVO.setRecentActors(List.of());
+        messageVO.setCreatedAt(broadcast.getCreatedAt());
+
+        MessageVO.Sender senderVO = new MessageVO.Sender();
+        senderVO.setUserId(sender.getUserId());
+        senderVO.setUsername(sender.getUsername());
+        senderVO.setAvatarUrl(sender.getAvatarUrl());
+        messageVO.setSender(senderVO);
+        return messageVO;
+    }
+}
@@ -1,5 +1,7 @@
 package com.kama.notes.service.impl;
 
+import com.kama.notes.cache.EntityCacheInvalidator;
+import com.kama.notes.config.EntityCacheConfig;
 import com.kama.notes.mapper.CategoryMapper;
 import com.kama.notes.mapper.QuestionMapper;
 import com.kama.notes.model.base.ApiResponse;
@@ -10,6 +12,7 @@ import com.kama.notes.model.entity.Category;
 import com.kama.notes.model.vo.category.CategoryVO;
 import com.kama.notes.model.vo.category.CreateCategoryVO;
 import com.kama.notes.service.CategoryService;
+import com.kama.notes.service.QuestionSuggestService;
 import com.kama.notes.utils.ApiResponseUtil;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,6 +47,12 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private QuestionMapper QuestionMapper;
 
+    @Autowired
+    private QuestionSuggestService questionSuggestService;
+
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
     /**
      * 构建分类树（只包含一级父分类及其直接子分类）。
      *
@@ -94,6 +103,7 @@ public class CategoryServiceImpl implements CategoryService {
      *
      * 事务说明：
      * - 使用 @Transactional 保证删除分类与删除问题操作在同一事务中执行；
+     * - 被删除问题的实体缓存在事务提交后清除；
      * - 发生异常时抛出 RuntimeException 以触发回滚。
      *
      * @param categoryId 要删除的分类 ID
@@ -125,7 +135,11 @@ public class CategoryServiceImpl implements CategoryService {
             // 删除这些分类下的所有题目
             // TODO: 如果用户做了笔记，笔记和问题是对应的，删除了问题，笔记对应的问题就不存在了
             //   需要额外考虑讨论在删除分类的时候是否需要删除对应的笔记信息
+            List<Integer> questionIds = QuestionMapper.findIdsByCategoryIdBatch(categoryIds);
             QuestionMapper.deleteByCategoryIdBatch(categoryIds);
+            // 事务提交后清除被删除问题的实体缓存，避免继续从本地缓存或 Redis 读到
+            entityCacheInvalidator.invalidateAll(EntityCacheConfig.QUESTION_CACHE, questionIds);
+            questionSuggestService.onQuestionChanged();
             return ApiResponseUtil.success("删除分类成功");
         } catch (Exception e) {
             // 这里不能处理异常，需要抛出异常，让事务自动回滚
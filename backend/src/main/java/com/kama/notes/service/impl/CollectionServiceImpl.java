@@ -11,10 +11,12 @@ import com.kama.notes.model.dto.collection.CreateCollectionBody;
 import com.kama.notes.model.dto.collection.UpdateCollectionBody;
 import com.kama.notes.model.entity.Collection;
 import com.kama.notes.model.entity.CollectionNote;
+import com.kama.notes.model.enums.counter.CounterType;
 import com.kama.notes.model.vo.collection.CollectionVO;
 import com.kama.notes.model.vo.collection.CreateCollectionVO;
 import com.kama.notes.scope.RequestScopeData;
 import com.kama.notes.service.CollectionService;
+import com.kama.notes.service.CounterService;
 import com.kama.notes.utils.ApiResponseUtil;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,6 +56,9 @@ public class CollectionServiceImpl implements CollectionService {
     @Autowired
     private NoteMapper noteMapper;
 
+    @Autowired
+    private CounterService counterService;
+
     /**
      * 获取指定用户的收藏夹列表，并可根据传入的 noteId 标注每个收藏夹是否包含该笔记。
      *
@@ -172,8 +177,9 @@ public class CollectionServiceImpl implements CollectionService {
      * 行为说明：
      * - 需要登录；当前用户必须对所操作的每个收藏夹拥有删除/修改权限（即为创建者）；
      * - 对每个 UpdateItem，根据 action 字段执行 create / delete 操作；
-     * - 在 create 操作中，如果用户之前未在任何收藏夹收藏过该 note，会调用 noteMapper.collectNote 增加笔记收藏数；
-     * - 在 delete 操作中，如果用户在所有收藏夹中都已移除该 note，会调用 noteMapper.unCollectNote 减少笔记收藏数；
+     * - 在 create 操作中，如果用户之前未在任何收藏夹收藏过该 note，会通过 CounterService 记录笔记收藏数 +1 的增量；
+     * - 在 delete 操作中，如果用户在所有收藏夹中都已移除该 note，会通过 CounterService 记录笔记收藏数 -1 的增量；
+     * - 收藏数增量在事务提交后写入 Redis 缓冲，由定时任务批量写回 note.collect_count；
      *
      * 并发/幂等性考虑：
      * - 当前实现为逐条处理并捕获异常返回错误信息；在高并发或需要严格幂等性的场景下应改为乐观锁或幂等检查。
@@ -207,7 +213,7 @@ public class CollectionServiceImpl implements CollectionService {
                     // 获取用户是否收藏过该笔记
                     if (collectionMapper.countByCreatorIdAndNoteId(userId, noteId) == 0) {
                         // 笔记不存在，给笔记增加收藏量
-                        noteMapper.collectNote(noteId);
+                        counterService.increment(CounterType.NOTE_COLLECT, noteId, 1);
                     }
                     CollectionNote collectionNote = new CollectionNote();
                     collectionNote.setCollectionId(collectionId);
@@ -223,7 +229,7 @@ public class CollectionServiceImpl implements CollectionService {
                     collectionNoteMapper.deleteByCollectionIdAndNoteId(collectionId, noteId);
                     if (collectionMapper.countByCreatorIdAndNoteId(userId, noteId) == 0) {
                         // 笔记不存在，给笔记减少收藏量
-                        noteMapper.unCollectNote(noteId);
+                        counterService.increment(CounterType.NOTE_COLLECT, noteId, -1);
                     }
                 } catch (Exception e) {
                     return ApiResponseUtil.error("取消收藏失败");
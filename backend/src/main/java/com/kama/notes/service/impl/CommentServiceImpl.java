@@ -16,13 +16,15 @@ import com.kama.notes.model.entity.User;
 import com.kama.notes.model.dto.comment.CommentQueryParams;
 import com.kama.notes.model.dto.comment.CreateCommentRequest;
 import com.kama.notes.model.dto.comment.UpdateCommentRequest;
+import com.kama.notes.model.enums.counter.CounterType;
 import com.kama.notes.model.enums.message.MessageTargetType;
 import com.kama.notes.model.enums.message.MessageType;
 import com.kama.notes.model.vo.comment.CommentVO;
 import com.kama.notes.model.vo.user.UserActionVO;
 import com.kama.notes.scope.RequestScopeData;
 import com.kama.notes.service.CommentService;
-import com.kama.notes.service.MessageService;
+import com.kama.notes.service.CounterService;
+import com.kama.notes.service.MessageOutboxService;
 import com.kama.notes.utils.ApiResponseUtil;
 import com.kama.notes.utils.PaginationUtils;
 import lombok.RequiredArgsConstructor;
@@ -45,7 +47,7 @@ import java.util.stream.Collectors;
  * - 创建、更新、删除评论并维护相关计数（笔记评论数、父评论回复数等）；
  * - 点赞/取消点赞操作并记录用户点赞关系；
  * - 获取指定笔记的评论列表（支持分页），将实体组装成 CommentVO 返回给前端；
- * - 在适当时机发送通知（MessageService）。
+ * - 在适当时机发送通知（写入 MessageOutboxService 发件箱，异步生成消息）。
  *
  * 事务与安全：
  * - 写操作（创建、更新、删除、点赞/取消点赞）使用 @Transactional 以保证数据一致性；
@@ -62,7 +64,8 @@ public class CommentServiceImpl implements CommentService {
     private final NoteMapper noteMapper;
     private final UserMapper userMapper;
     private final CommentLikeMapper commentLikeMapper;
-    private final MessageService messageService;
+    private final MessageOutboxService messageOutboxService;
+    private final CounterService counterService;
     private final RequestScopeData requestScopeData;
 
     /**
@@ -71,7 +74,7 @@ public class CommentServiceImpl implements CommentService {
      * 行为：
      * - 校验笔记是否存在，构造 Comment 并插入；
      * - 增加笔记的评论计数，若为回复则增加父评论的回复计数；
-     * - 发送评论通知给笔记作者（通过 MessageService）。
+     * - 发送评论通知给笔记作者（写入发件箱，与评论在同一事务中提交）。
      *
      * 权限与事务：
      * - 需要登录；方法在事务中执行，出现异常会回滚。
@@ -110,11 +113,11 @@ public class CommentServiceImpl implements CommentService {
             log.info("评论创建结果: commentId={}", comment.getCommentId());
 
             // 增加笔记评论数
-            noteMapper.incrementCommentCount(request.getNoteId());
+            counterService.increment(CounterType.NOTE_COMMENT, request.getNoteId(), 1);
 
             // 如果是回复评论，增加父评论的回复数
             if (request.getParentId() != null) {
-                commentMapper.incrementReplyCount(request.getParentId());
+                counterService.increment(CounterType.COMMENT_REPLY, request.getParentId(), 1);
             }
 
             // 发送评论通知
@@ -128,7 +131,7 @@ public class CommentServiceImpl implements CommentService {
             messageDTO.setContent(request.getContent());
             messageDTO.setIsRead(false);
 
-            messageService.createMessage(messageDTO);
+            messageOutboxService.enqueue(messageDTO, "COMMENT:" + comment.getCommentId());
 
             return ApiResponse.success(comment.getCommentId());
         } catch (Exception e) {
@@ -228,6 +231,7 @@ public class CommentServiceImpl implements CommentService {
         try {
             // 拉取整棵评论树（一个 note 通常也就几百条，足够了）
             List<Comment> comments = commentMapper.findByNoteId(params.getNoteId());
+            counterService.mergeCommentCounts(comments);
 
             System.out.println(comments);
 
@@ -374,7 +378,7 @@ public class CommentServiceImpl implements CommentService {
 
         try {
             // 增加评论点赞数
-            commentMapper.incrementLikeCount(commentId);
+            counterService.increment(CounterType.COMMENT_LIKE, commentId, 1);
             CommentLike commentLike = new CommentLike();
 
             commentLike.setCommentId(commentId);
@@ -391,7 +395,7 @@ public class CommentServiceImpl implements CommentService {
             messageDTO.setTargetId(comment.getNoteId());
             messageDTO.setIsRead(false);
 
-            messageService.createMessage(messageDTO);
+            messageOutboxService.enqueue(messageDTO, "LIKE:COMMENT:" + commentId + ":" + userId);
             return ApiResponse.success(new EmptyVO());
         } catch (Exception e) {
             log.error("点赞评论失败", e);
@@ -422,7 +426,7 @@ public class CommentServiceImpl implements CommentService {
 
         try {
             // 减少评论点赞数
-            commentMapper.decrementLikeCount(commentId);
+            counterService.increment(CounterType.COMMENT_LIKE, commentId, -1);
             commentLikeMapper.delete(commentId, userId);
             return ApiResponse.success(new EmptyVO());
         } catch (Exception e) {
@@ -0,0 +1,322 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.cache.EntityCacheInvalidator;
+import com.kama.notes.config.EntityCacheConfig;
+import com.kama.notes.mapper.CounterMapper;
+import com.kama.notes.model.dto.counter.CounterDelta;
+import com.kama.notes.model.entity.Comment;
+import com.kama.notes.model.entity.Note;
+import com.kama.notes.model.entity.Question;
+import com.kama.notes.model.enums.counter.CounterType;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.service.CounterService;
+import com.kama.notes.service.RedisService;
+import com.kama.notes.utils.TransactionUtils;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 计数器服务实现（写缓冲 + 定时批量写回）
+ *
+ * 缓冲结构：
+ * - counter:delta:{type}：Redis 哈希，field 为记录主键，value 为累计增量（HINCRBY 原子累加）；
+ * - counter:flushing:{type}：正在写回的一批增量，额外带有 _batch 字段保存批次号。
+ *
+ * 写回流程（flush）：
+ * 1. 获取刷新锁，保证同一时间只有一个节点在写回；
+ * 2. 若不存在上次遗留的 flushing 哈希，则 RENAMENX 把 delta 哈希整体换出，之后的新增量写入新的 delta 哈希；
+ * 3. 为 flushing 哈希分配批次号，在同一个数据库事务中先 INSERT IGNORE 批次记录，再分批执行 UPDATE ... CASE；
+ *    批次记录已存在说明该批次已经写入过（上次写库成功但删除 flushing 哈希前崩溃），直接跳过；
+ * 4. 事务提交后按批次号条件删除 flushing 哈希。
+ *
+ * 崩溃恢复：
+ * - 增量保存在 Redis 中，应用进程崩溃不会丢失；重启后下一次 flush 会先处理遗留的 flushing 哈希；
+ * - 批次记录保证同一批增量最多写入数据库一次；
+ * - 累加增量时 Redis 不可用（通常发生在业务事务提交之后），增量暂存在本节点内存中，
+ *   下一次 flush 直接累加到数据库，不经过 Redis，也不影响已提交的业务请求。
+ *
+ * 读取合并：
+ * - 列表查询时通过一次 pipeline 读取 delta 与 flushing 两个哈希中的增量，加到数据库中的值上；
+ * - 批次写库成功到删除 flushing 哈希之间的极短窗口内，读取结果可能偏大，下一次读取即恢复。
+ */
+@Log4j2
+@Service
+public class CounterServiceImpl implements CounterService {
+
+    /**
+     * flushing 哈希中保存批次号的字段
+     */
+    private static final String BATCH_FIELD = "_batch";
+
+    /**
+     * 仅当 flushing 哈希的批次号与预期一致时才删除，避免误删其他节点新换出的批次
+     */
+    private static final RedisScript<Long> DELETE_IF_BATCH_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('hget', KEYS[1], ARGV[1]) == ARGV[2] then return redis.call('del', KEYS[1]) end return 0",
+            Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private CounterMapper counterMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
+    /**
+     * 写入 Redis 失败的增量：类型 -> (记录主键 -> 增量)，由 flush 直接写入数据库
+     */
+    private final Map<CounterType, Map<Integer, Long>> failedDeltas = new ConcurrentHashMap<>();
+
+    @Value("${counter.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${counter.flush-lock-seconds:60}")
+    private long flushLockSeconds;
+
+    @Override
+    public void increment(CounterType type, Integer id, long delta) {
+        // 业务事务回滚时不应计数，因此在提交后再累加
+        TransactionUtils.afterCommit(() -> doIncrement(type, id, delta));
+    }
+
+    private void doIncrement(CounterType type, Integer id, long delta) {
+        try {
+            stringRedisTemplate.opsForHash().increment(RedisKey.counterDelta(type.name()), String.valueOf(id), delta);
+        } catch (Exception e) {
+            // 业务写入已提交，不能再让调用方失败；增量留在本节点，由下一次 flush 写入数据库
+            log.warn("计数器增量写入 Redis 失败，暂存待写回, type: {}, id: {}, delta: {}", type, id, delta, e);
+            failedDeltas.computeIfAbsent(type, key -> new ConcurrentHashMap<>()).merge(id, delta, Long::sum);
+        }
+    }
+
+    @Override
+    public void mergeNoteCounts(List<Note> notes) {
+        if (notes.isEmpty()) return;
+
+        List<Integer> noteIds = notes.stream().map(Note::getNoteId).toList();
+        Map<CounterType, Map<Integer, Long>> pending = readPendingDeltas(
+                List.of(CounterType.NOTE_LIKE, CounterType.NOTE_COLLECT, CounterType.NOTE_COMMENT), noteIds);
+
+        for (Note note : notes) {
+            note.setLikeCount(merge(note.getLikeCount(), pending.get(CounterType.NOTE_LIKE).get(note.getNoteId())));
+            note.setCollectCount(merge(note.getCollectCount(), pending.get(CounterType.NOTE_COLLECT).get(note.getNoteId())));
+            note.setCommentCount(merge(note.getCommentCount(), pending.get(CounterType.NOTE_COMMENT).get(note.getNoteId())));
+        }
+    }
+
+    @Override
+    public void mergeCommentCounts(List<Comment> comments) {
+        if (comments.isEmpty()) return;
+
+        List<Integer> commentIds = comments.stream().map(Comment::getCommentId).toList();
+        Map<CounterType, Map<Integer, Long>> pending = readPendingDeltas(
+                List.of(CounterType.COMMENT_LIKE, CounterType.COMMENT_REPLY), commentIds);
+
+        for (Comment comment : comments) {
+            comment.setLikeCount(merge(comment.getLikeCount(), pending.get(CounterType.COMMENT_LIKE).get(comment.getCommentId())));
+            comment.setReplyCount(merge(comment.getReplyCount(), pending.get(CounterType.COMMENT_REPLY).get(comment.getCommentId())));
+        }
+    }
+
+    @Override
+    public void mergeQuestionViewCounts(List<Question> questions) {
+        if (questions.isEmpty()) return;
+
+        List<Integer> questionIds = questions.stream().map(Question::getQuestionId).toList();
+        Map<Integer, Long> pending = readPendingDeltas(List.of(CounterType.QUESTION_VIEW), questionIds)
+                .get(CounterType.QUESTION_VIEW);
+
+        for (Question question : questions) {
+            question.setViewCount(merge(question.getViewCount(), pending.get(question.getQuestionId())));
+        }
+    }
+
+    /**
+     * 通过一次 pipeline 读取多种计数器在 delta 与 flushing 哈希中的增量并求和。
+     * Redis 不可用时返回空增量，读取结果退化为数据库中的值。
+     */
+    private Map<CounterType, Map<Integer, Long>> readPendingDeltas(List<CounterType> types, List<Integer> ids) {
+        Map<CounterType, Map<Integer, Long>> result = new EnumMap<>(CounterType.class);
+        types.forEach(type -> result.put(type, new HashMap<>()));
+
+        List<Integer> distinctIds = ids.stream().distinct().toList();
+        String[] fields = distinctIds.stream().map(String::valueOf).toArray(String[]::new);
+
+        List<Object> replies;
+        try {
+            replies = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (CounterType type : types) {
+                    stringConnection.hMGet(RedisKey.counterDelta(type.name()), fields);
+                    stringConnection.hMGet(RedisKey.counterFlushing(type.name()), fields);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("读取计数器增量失败，使用数据库中的计数", e);
+            return result;
+        }
+
+        for (int t = 0; t < types.size(); t++) {
+            Map<Integer, Long> deltas = result.get(types.get(t));
+            for (int r = 0; r < 2; r++) {
+                @SuppressWarnings("unchecked")
+                List<Object> values = (List<Object>) replies.get(t * 2 + r);
+                for (int i = 0; i < distinctIds.size(); i++) {
+                    Object value = values.get(i);
+                    if (value != null) {
+                        deltas.merge(distinctIds.get(i), Long.parseLong(value.toString()), Long::sum);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private Integer merge(Integer stored, Long delta) {
+        long base = stored == null ? 0 : stored;
+        return (int) Math.max(0, base + (delta == null ? 0 : delta));
+    }
+
+    @Override
+    public int flush() {
+        // 本节点暂存的增量与 Redis 无关，不需要刷新锁
+        int total = flushFailedDeltas();
+
+        String lockKey = RedisKey.counterFlushLock();
+        String token = redisService.tryLock(lockKey, Duration.ofSeconds(flushLockSeconds));
+        if (token == null) {
+            return total;
+        }
+
+        try {
+            for (CounterType type : CounterType.values()) {
+                try {
+                    total += flushType(type);
+                } catch (Exception e) {
+                    // 单个类型失败不影响其他类型，未写回的增量保留在 flushing 哈希中下次重试
+                    log.error("计数器写回失败, type: {}", type, e);
+                }
+            }
+        } finally {
+            redisService.releaseLock(lockKey, token);
+        }
+        return total;
+    }
+
+    /**
+     * 将写入 Redis 失败的增量直接累加到数据库；写库失败时放回，下次重试
+     */
+    private int flushFailedDeltas() {
+        int total = 0;
+        for (Map.Entry<CounterType, Map<Integer, Long>> entry : failedDeltas.entrySet()) {
+            CounterType type = entry.getKey();
+            Map<Integer, Long> pending = entry.getValue();
+            List<CounterDelta> deltas = new ArrayList<>();
+            for (Integer id : new ArrayList<>(pending.keySet())) {
+                // remove 原子地取走当前值，之后的新增量会重新放入
+                Long delta = pending.remove(id);
+                if (delta != null && delta != 0) {
+                    deltas.add(new CounterDelta(id, delta));
+                }
+            }
+            if (deltas.isEmpty()) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (int from = 0; from < deltas.size(); from += flushBatchSize) {
+                        counterMapper.applyDeltas(type, deltas.subList(from, Math.min(from + flushBatchSize, deltas.size())));
+                    }
+                });
+            } catch (Exception e) {
+                log.error("暂存的计数器增量写回失败，下次重试, type: {}", type, e);
+                deltas.forEach(delta -> pending.merge(delta.getId(), delta.getDelta(), Long::sum));
+                continue;
+            }
+            if ("note".equals(type.getTable())) {
+                entityCacheInvalidator.invalidateAll(EntityCacheConfig.NOTE_CACHE,
+                        deltas.stream().map(CounterDelta::getId).toList());
+            }
+            total += deltas.size();
+        }
+        return total;
+    }
+
+    private int flushType(CounterType type) {
+        String deltaKey = RedisKey.counterDelta(type.name());
+        String flushingKey = RedisKey.counterFlushing(type.name());
+
+        // 没有遗留批次时，把当前增量整体换出为新的批次
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(flushingKey))) {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(deltaKey))) {
+                return 0;
+            }
+            stringRedisTemplate.renameIfAbsent(deltaKey, flushingKey);
+        }
+
+        stringRedisTemplate.opsForHash().putIfAbsent(flushingKey, BATCH_FIELD, UUID.randomUUID().toString());
+        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(flushingKey);
+        String batchId = (String) entries.remove(BATCH_FIELD);
+        if (batchId == null) {
+            return 0;
+        }
+
+        List<CounterDelta> deltas = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            long delta = Long.parseLong(entry.getValue().toString());
+            if (delta != 0) {
+                deltas.add(new CounterDelta(Integer.valueOf(entry.getKey().toString()), delta));
+            }
+        }
+
+        Boolean applied = transactionTemplate.execute(status -> {
+            if (counterMapper.insertFlushLog(batchId, type.name()) == 0) {
+                return false;
+            }
+            for (int from = 0; from < deltas.size(); from += flushBatchSize) {
+                counterMapper.applyDeltas(type, deltas.subList(from, Math.min(from + flushBatchSize, deltas.size())));
+            }
+            return true;
+        });
+
+        stringRedisTemplate.execute(DELETE_IF_BATCH_SCRIPT, List.of(flushingKey), BATCH_FIELD, batchId);
+
+        if (!Boolean.TRUE.equals(applied)) {
+            log.info("计数器批次已写回过，跳过, type: {}, batchId: {}", type, batchId);
+            return 0;
+        }
+        if ("note".equals(type.getTable())) {
+            // 笔记实体缓存中的计数已落后于数据库，清除后下次读取重新加载
+            entityCacheInvalidator.invalidateAll(EntityCacheConfig.NOTE_CACHE,
+                    deltas.stream().map(CounterDelta::getId).toList());
+        }
+        return deltas.size();
+    }
+
+    @Override
+    public void cleanFlushLog(LocalDateTime before) {
+        counterMapper.deleteFlushLogBefore(before);
+    }
+}
@@ -0,0 +1,286 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.model.base.ApiResponse;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.model.enums.search.SearchScope;
+import com.kama.notes.model.vo.search.TrendingKeywordVO;
+import com.kama.notes.scope.RequestScopeData;
+import com.kama.notes.search.HotKeywordSketch;
+import com.kama.notes.service.HotKeywordService;
+import com.kama.notes.service.UserService;
+import com.kama.notes.utils.ApiResponseUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索热词统计服务实现
+ *
+ * 统计：
+ * - 请求线程只在本地 Count-Min Sketch 中累加（加锁，耗时与矩阵行数成正比），不访问 Redis；
+ * - 定时任务取出本地统计，按单元格 HINCRBY 到当前时间窗口的全局矩阵，
+ *   再用全局矩阵估计本地 top-K 关键词的次数，写入该窗口的候选集（ZSet，只保留 topK 个）；
+ * - 时间窗口按 window-minutes 划分，Redis 中的数据保留 window-count + 1 个窗口后自动过期。
+ *
+ * 热搜榜：
+ * - 每次合并后，各节点读取最近 window-count 个窗口的候选集并累加次数，结果缓存在本节点内存中，接口直接返回；
+ * - Redis 不可用时本地统计被丢弃，热搜榜保持上一次的结果；
+ * - 用户搜索的关键词多为邮箱、账号等个人信息，该范围的热搜榜只对管理员开放。
+ */
+@Log4j2
+@Service
+public class HotKeywordServiceImpl implements HotKeywordService {
+
+    /**
+     * 超过该长度的关键词不参与统计
+     */
+    private static final int MAX_KEYWORD_LENGTH = 32;
+
+    private static final int DEFAULT_TRENDING_LIMIT = 10;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final UserService userService;
+
+    private final RequestScopeData requestScopeData;
+
+    /**
+     * Count-Min Sketch 的列数，越大碰撞越少、高估越小
+     */
+    @Value("${search.hot.sketch-width:2048}")
+    private int sketchWidth;
+
+    /**
+     * Count-Min Sketch 的行数（哈希函数个数）
+     */
+    @Value("${search.hot.sketch-depth:4}")
+    private int sketchDepth;
+
+    /**
+     * 每个窗口保留的热词数，同时是热搜榜的最大长度
+     */
+    @Value("${search.hot.top-k:50}")
+    private int topK;
+
+    /**
+     * 时间窗口长度（分钟）
+     */
+    @Value("${search.hot.window-minutes:10}")
+    private int windowMinutes;
+
+    /**
+     * 热搜榜统计的窗口数（含当前窗口）
+     */
+    @Value("${search.hot.window-count:6}")
+    private int windowCount;
+
+    /**
+     * 每个周期预热的笔记搜索热词数，0 表示不预热
+     */
+    @Value("${search.hot.warm-up-count:10}")
+    private int warmUpCount;
+
+    /**
+     * 预热周期（毫秒），与 HotKeywordTask 的调度间隔一致
+     */
+    @Value("${search.hot.warm-up-interval-ms:60000}")
+    private long warmUpIntervalMillis;
+
+    /**
+     * 本节点自上次合并以来的统计，以自身为锁
+     */
+    private final Map<SearchScope, HotKeywordSketch> sketches = new EnumMap<>(SearchScope.class);
+
+    /**
+     * 本节点缓存的热搜榜
+     */
+    private volatile Map<SearchScope, List<TrendingKeywordVO>> trending = new EnumMap<>(SearchScope.class);
+
+    public HotKeywordServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                 UserService userService,
+                                 RequestScopeData requestScopeData) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.userService = userService;
+        this.requestScopeData = requestScopeData;
+    }
+
+    @Override
+    public void record(SearchScope scope, String keyword) {
+        String normalized = normalize(keyword);
+        if (normalized == null) {
+            return;
+        }
+        synchronized (sketches) {
+            sketches.computeIfAbsent(scope, key -> new HotKeywordSketch(sketchWidth, sketchDepth, topK)).add(normalized);
+        }
+    }
+
+    /**
+     * 小写并合并连续空白，空串或过长时返回 null
+     */
+    private static String normalize(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        String normalized = keyword.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() || normalized.length() > MAX_KEYWORD_LENGTH ? null : normalized;
+    }
+
+    @Override
+    public int flush() {
+        Map<SearchScope, HotKeywordSketch> drained;
+        synchronized (sketches) {
+            drained = new EnumMap<>(sketches);
+            sketches.clear();
+        }
+
+        long window = currentWindow();
+        int merged = 0;
+        for (Map.Entry<SearchScope, HotKeywordSketch> entry : drained.entrySet()) {
+            try {
+                merge(entry.getKey(), window, entry.getValue());
+                merged++;
+            } catch (Exception e) {
+                log.warn("合并搜索热词统计失败，丢弃本周期的本地统计, scope: {}", entry.getKey(), e);
+            }
+        }
+
+        try {
+            refreshTrending(window);
+        } catch (Exception e) {
+            log.warn("刷新热搜榜失败，继续使用上一次的结果", e);
+        }
+        return merged;
+    }
+
+    private long currentWindow() {
+        return System.currentTimeMillis() / Duration.ofMinutes(windowMinutes).toMillis();
+    }
+
+    /**
+     * 将本地矩阵累加到全局矩阵，并以全局估计次数更新候选集
+     */
+    private void merge(SearchScope scope, long window, HotKeywordSketch sketch) {
+        if (sketch.isEmpty()) {
+            return;
+        }
+        String sketchKey = RedisKey.searchHotSketch(scope.getCode(), window);
+        String topKey = RedisKey.searchHotTop(scope.getCode(), window);
+        long ttlSeconds = Duration.ofMinutes((long) windowMinutes * (windowCount + 1)).getSeconds();
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            sketch.forEachCell((row, column, count) -> stringConnection.hIncrBy(sketchKey, cell(row, column), count));
+            stringConnection.expire(sketchKey, ttlSeconds);
+            return null;
+        });
+
+        // 本地 top-K 关键词在全局矩阵中的估计次数：各行取最小值
+        List<String> keywords = new ArrayList<>(sketch.topKeywords());
+        List<Object> fields = new ArrayList<>(keywords.size() * sketchDepth);
+        for (String keyword : keywords) {
+            int[] columns = HotKeywordSketch.columns(keyword, sketchWidth, sketchDepth);
+            for (int row = 0; row < sketchDepth; row++) {
+                fields.add(cell(row, columns[row]));
+            }
+        }
+        List<Object> values = stringRedisTemplate.opsForHash().multiGet(sketchKey, fields);
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+        for (int i = 0; i < keywords.size(); i++) {
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < sketchDepth; row++) {
+                Object value = values.get(i * sketchDepth + row);
+                estimate = Math.min(estimate, value == null ? 0 : Long.parseLong(value.toString()));
+            }
+            tuples.add(new DefaultTypedTuple<>(keywords.get(i), (double) estimate));
+        }
+
+        stringRedisTemplate.opsForZSet().add(topKey, tuples);
+        // 只保留分数最高的 topK 个
+        stringRedisTemplate.opsForZSet().removeRange(topKey, 0, -(topK + 1));
+        stringRedisTemplate.expire(topKey, Duration.ofSeconds(ttlSeconds));
+    }
+
+    private static String cell(int row, int column) {
+        return row + ":" + column;
+    }
+
+    /**
+     * 累加最近 windowCount 个窗口的候选集，计算各统计范围的热搜榜
+     */
+    private void refreshTrending(long window) {
+        Map<SearchScope, List<TrendingKeywordVO>> refreshed = new EnumMap<>(SearchScope.class);
+        for (SearchScope scope : SearchScope.values()) {
+            Map<String, Long> totals = new HashMap<>();
+            for (long w = window - windowCount + 1; w <= window; w++) {
+                Set<ZSetOperations.TypedTuple<String>> top = stringRedisTemplate.opsForZSet()
+                        .rangeWithScores(RedisKey.searchHotTop(scope.getCode(), w), 0, -1);
+                if (top == null) {
+                    continue;
+                }
+                for (ZSetOperations.TypedTuple<String> tuple : top) {
+                    if (tuple.getValue() != null && tuple.getScore() != null) {
+                        totals.merge(tuple.getValue(), tuple.getScore().longValue(), Long::sum);
+                    }
+                }
+            }
+            refreshed.put(scope, totals.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(topK)
+                    .map(entry -> new TrendingKeywordVO(entry.getKey(), entry.getValue()))
+                    .collect(Collectors.toList()));
+        }
+        trending = refreshed;
+    }
+
+    @Override
+    public ApiResponse<List<TrendingKeywordVO>> getTrending(String scope, Integer limit) {
+        SearchScope searchScope = SearchScope.fromCode(scope);
+        if (searchScope == null) {
+            return ApiResponseUtil.error("不支持的搜索范围");
+        }
+        if (searchScope == SearchScope.USER && !userService.isAdmin(requestScopeData.getUserId())) {
+            return ApiResponse.error(HttpStatus.FORBIDDEN.value(), "无权查看用户搜索热词");
+        }
+        int count = limit == null ? DEFAULT_TRENDING_LIMIT : limit;
+        List<TrendingKeywordVO> keywords = trending.getOrDefault(searchScope, List.of());
+        return ApiResponseUtil.success("获取热门搜索成功",
+                new ArrayList<>(keywords.subList(0, Math.min(count, keywords.size()))));
+    }
+
+    @Override
+    public List<String> claimWarmUpKeywords() {
+        if (warmUpCount <= 0) {
+            return List.of();
+        }
+        List<TrendingKeywordVO> keywords = trending.getOrDefault(SearchScope.NOTE, List.of());
+        if (keywords.isEmpty()) {
+            return List.of();
+        }
+        try {
+            // 锁不主动释放，过期时间略短于预热周期，下一周期重新竞争
+            if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(RedisKey.searchHotWarmLock(),
+                    "1", Duration.ofMillis(warmUpIntervalMillis * 9 / 10)))) {
+                return List.of();
+            }
+        } catch (Exception e) {
+            log.warn("竞争搜索预热锁失败，跳过本周期预热", e);
+            return List.of();
+        }
+        return keywords.stream()
+                .limit(warmUpCount)
+                .map(TrendingKeywordVO::getKeyword)
+                .collect(Collectors.toList());
+    }
+}
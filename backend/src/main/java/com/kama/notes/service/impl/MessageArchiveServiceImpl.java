@@ -0,0 +1,82 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.mapper.MessageArchiveMapper;
+import com.kama.notes.model.entity.Message;
+import com.kama.notes.service.MessageArchiveService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 消息归档服务实现
+ *
+ * 每一批：
+ * 1. 不加锁地沿 idx_created_at 找出一批已读的过期消息，并记录扫描位置，下一批从该位置之后继续；
+ * 2. 在一个短事务中按主键 SELECT ... FOR UPDATE SKIP LOCKED 重新确认并锁定，
+ *    正被用户删除或其他节点归档的行会被跳过；
+ * 3. INSERT IGNORE ... SELECT 复制到归档表，再从 message 删除。
+ *
+ * 说明：
+ * - 只归档已读消息，未读计数不受影响；
+ * - 每批事务只锁定一批主键，不阻塞收件箱的读写；
+ * - 多节点同时执行时通过 SKIP LOCKED 互不重复，无需分布式锁。
+ */
+@Log4j2
+@Service
+public class MessageArchiveServiceImpl implements MessageArchiveService {
+
+    @Autowired
+    private MessageArchiveMapper messageArchiveMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${message.archive.retention-days:90}")
+    private long retentionDays;
+
+    @Value("${message.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${message.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Override
+    public int archive() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        LocalDateTime afterCreatedAt = null;
+        Integer afterMessageId = null;
+        int total = 0;
+
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<Message> candidates = messageArchiveMapper.selectArchivable(before, afterCreatedAt, afterMessageId, batchSize);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            Message last = candidates.get(candidates.size() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterMessageId = last.getMessageId();
+
+            List<Integer> messageIds = candidates.stream().map(Message::getMessageId).toList();
+            Integer archived = transactionTemplate.execute(status -> {
+                List<Integer> locked = messageArchiveMapper.lockReadByIds(messageIds);
+                if (locked.isEmpty()) {
+                    return 0;
+                }
+                messageArchiveMapper.copyToArchive(locked);
+                return messageArchiveMapper.deleteFromMessage(locked);
+            });
+            total += archived == null ? 0 : archived;
+
+            // 未取满一批说明已扫描到保留期边界
+            if (candidates.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,169 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.mapper.MessageOutboxMapper;
+import com.kama.notes.model.dto.message.MessageDTO;
+import com.kama.notes.model.entity.MessageOutbox;
+import com.kama.notes.service.MessageOutboxService;
+import com.kama.notes.service.MessageService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 消息发件箱服务实现
+ *
+ * 写入（enqueue）：
+ * - 在业务事务中 INSERT IGNORE 一条记录，幂等键冲突说明同一业务事件已经记录过，直接忽略；
+ *
+ * 投递（dispatch）：
+ * 1. 在一个事务中以 SELECT ... FOR UPDATE SKIP LOCKED 领取一批到期记录，其他节点会跳过这些记录；
+ * 2. 通过 MessageService.createMessages 一条多行 INSERT 生成全部消息，再标记为已投递；
+ *    消息写入与状态更新在同一事务中提交，因此每条记录最多生成一次消息；
+ * 3. 事务提交后由 MessageService 注册的回调更新未读计数并推送；
+ * 4. 批量投递失败时整批回滚，再逐条投递以隔离出错的记录，出错记录的下次投递时间按指数退避推迟，
+ *    超过最大次数后标记为失败，不再投递。
+ */
+@Log4j2
+@Service
+public class MessageOutboxServiceImpl implements MessageOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    @Autowired
+    private MessageOutboxMapper messageOutboxMapper;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${message.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${message.outbox.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    @Value("${message.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${message.outbox.retry-base-delay-seconds:5}")
+    private long retryBaseDelaySeconds;
+
+    @Value("${message.outbox.retry-max-delay-seconds:600}")
+    private long retryMaxDelaySeconds;
+
+    @Override
+    public void enqueue(MessageDTO messageDTO, String idempotencyKey) {
+        MessageOutbox outbox = new MessageOutbox();
+        BeanUtils.copyProperties(messageDTO, outbox);
+        outbox.setIdempotencyKey(idempotencyKey);
+        if (messageOutboxMapper.insertIgnore(outbox) == 0) {
+            log.debug("消息通知已存在，忽略, idempotencyKey: {}", idempotencyKey);
+        }
+    }
+
+    @Override
+    public int dispatch() {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<MessageOutbox> claimed = new ArrayList<>();
+            int dispatched;
+            try {
+                dispatched = dispatchBatch(claimed);
+            } catch (Exception e) {
+                log.warn("批量投递消息通知失败，逐条重试, 共 {} 条", claimed.size(), e);
+                dispatched = 0;
+                for (MessageOutbox outbox : claimed) {
+                    if (dispatchOne(outbox)) {
+                        dispatched++;
+                    }
+                }
+            }
+            total += dispatched;
+            // 未领满一批说明积压已处理完
+            if (claimed.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 在一个事务中领取并投递一批记录
+     *
+     * @param claimed 输出参数，保存本次领取到的记录，事务回滚后用于逐条重试
+     * @return 投递成功的记录数
+     */
+    private int dispatchBatch(List<MessageOutbox> claimed) {
+        Integer dispatched = transactionTemplate.execute(status -> {
+            claimed.addAll(messageOutboxMapper.claimPending(batchSize));
+            if (claimed.isEmpty()) {
+                return 0;
+            }
+            messageService.createMessages(claimed.stream().map(this::toMessageDTO).toList());
+            messageOutboxMapper.markDispatched(claimed.stream().map(MessageOutbox::getOutboxId).toList());
+            return claimed.size();
+        });
+        return dispatched == null ? 0 : dispatched;
+    }
+
+    /**
+     * 在独立事务中投递单条记录，失败时记录失败次数并推迟下次投递
+     */
+    private boolean dispatchOne(MessageOutbox outbox) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                MessageOutbox current = messageOutboxMapper.claimById(outbox.getOutboxId());
+                if (current == null) {
+                    // 已被其他节点投递或正在投递
+                    return false;
+                }
+                messageService.createMessages(List.of(toMessageDTO(current)));
+                messageOutboxMapper.markDispatched(List.of(current.getOutboxId()));
+                return true;
+            }));
+        } catch (Exception e) {
+            int attempts = outbox.getAttempts() == null ? 0 : outbox.getAttempts();
+            long delaySeconds = Math.min(retryBaseDelaySeconds << Math.min(attempts, 20), retryMaxDelaySeconds);
+            String error = String.valueOf(e.getMessage());
+            if (error.length() > MAX_ERROR_LENGTH) {
+                error = error.substring(0, MAX_ERROR_LENGTH);
+            }
+            messageOutboxMapper.markAttemptFailed(outbox.getOutboxId(),
+                    LocalDateTime.now().plusSeconds(delaySeconds), maxAttempts, error);
+
+            if (attempts + 1 >= maxAttempts) {
+                log.error("消息通知投递失败且超过最大重试次数, outboxId: {}, idempotencyKey: {}",
+                        outbox.getOutboxId(), outbox.getIdempotencyKey(), e);
+            } else {
+                log.warn("消息通知投递失败，{} 秒后重试, outboxId: {}", delaySeconds, outbox.getOutboxId(), e);
+            }
+            return false;
+        }
+    }
+
+    private MessageDTO toMessageDTO(MessageOutbox outbox) {
+        MessageDTO messageDTO = new MessageDTO();
+        messageDTO.setReceiverId(outbox.getReceiverId());
+        messageDTO.setSenderId(outbox.getSenderId());
+        messageDTO.setType(outbox.getType());
+        messageDTO.setTargetId(outbox.getTargetId());
+        messageDTO.setTargetType(outbox.getTargetType());
+        messageDTO.setContent(outbox.getContent());
+        messageDTO.setIsRead(false);
+        return messageDTO;
+    }
+
+    @Override
+    public int cleanDispatched(LocalDateTime before) {
+        return messageOutboxMapper.deleteDispatchedBefore(before);
+    }
+}
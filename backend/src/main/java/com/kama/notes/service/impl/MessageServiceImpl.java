@@ -1,25 +1,38 @@
 package com.kama.notes.service.impl;
 
+import com.kama.notes.event.MessageEvent;
+import com.kama.notes.mapper.MessageArchiveMapper;
 import com.kama.notes.mapper.MessageMapper;
 import com.kama.notes.model.base.ApiResponse;
 import com.kama.notes.model.base.EmptyVO;
+import com.kama.notes.model.base.Pagination;
 import com.kama.notes.model.dto.message.MessageDTO;
+import com.kama.notes.model.dto.message.MessageQueryParams;
 import com.kama.notes.model.entity.Message;
 import com.kama.notes.model.entity.User;
 import com.kama.notes.model.enums.message.MessageType;
 import com.kama.notes.model.vo.message.MessageVO;
+import com.kama.notes.model.vo.message.UnreadCountByType;
 import com.kama.notes.scope.RequestScopeData;
+import com.kama.notes.service.BroadcastService;
 import com.kama.notes.service.MessageService;
+import com.kama.notes.service.UnreadCountService;
 import com.kama.notes.service.UserService;
+import com.kama.notes.utils.ApiResponseUtil;
+import com.kama.notes.utils.CursorUtils;
 import com.kama.notes.utils.SecurityUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 消息服务实现类
@@ -31,99 +44,429 @@ public class MessageServiceImpl implements MessageService {
     @Autowired
     private MessageMapper messageMapper;
 
+    @Autowired
+    private MessageArchiveMapper messageArchiveMapper;
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private RequestScopeData requestScopeData;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UnreadCountService unreadCountService;
+
+    @Autowired
+    private BroadcastService broadcastService;
+
+    @Value("${message.coalesce.like-window-hours:24}")
+    private long likeCoalesceWindowHours;
+
+    @Value("${message.coalesce.recent-actors:3}")
+    private int recentActorLimit;
+
     @Override
     public Integer createMessage(MessageDTO messageDTO) {
         try {
-            Message message = new Message();
-            BeanUtils.copyProperties(messageDTO, message);
-
-            if (messageDTO.getContent() == null) {
-                message.setContent("");
+            Message message = toMessage(messageDTO);
+            int rows = messageMapper.insert(message);
+            if (rows > 0) {
+                publishMessageEvents(List.of(message), List.of());
             }
-
-            return messageMapper.insert(message);
+            return rows;
         } catch (Exception e) {
             throw new RuntimeException("创建消息通知失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 批量创建消息，点赞通知在此合并：
+     * 1. 本批内同一 (接收者, 目标) 的点赞先在内存中合并为一条；
+     * 2. 再查找该接收者在合并窗口内尚未读的同目标点赞通知，存在则原地更新触发人次与最近触发用户，不再插入新行；
+     * 3. 其余消息一条多行 INSERT 写入。
+     * 合并到已有通知时接收者的未读数不变，只推送更新后的通知内容。
+     */
     @Override
-    public ApiResponse<List<MessageVO>> getMessages() {
+    public int createMessages(List<MessageDTO> messageDTOs) {
+        if (messageDTOs.isEmpty()) {
+            return 0;
+        }
+        List<Message> inserts = new ArrayList<>();
+        // 分组键 -> 本批合并后的点赞通知，按投递顺序（即点赞时间）合并，后到的为最新
+        Map<String, Message> likeGroups = new LinkedHashMap<>();
+        for (MessageDTO messageDTO : messageDTOs) {
+            Message message = toMessage(messageDTO);
+            if (!Objects.equals(message.getType(), MessageType.LIKE) || message.getTargetId() == null) {
+                inserts.add(message);
+                continue;
+            }
+            message.setAggregateKey("LIKE:" + message.getTargetType() + ":" + message.getTargetId());
+            message.setActorCount(1);
+            message.setRecentActorIds(String.valueOf(message.getSenderId()));
+            likeGroups.merge(aggregateGroupKey(message), message, (group, latest) -> {
+                group.setSenderId(latest.getSenderId());
+                group.setActorCount(group.getActorCount() + 1);
+                group.setRecentActorIds(mergeActorIds(latest.getRecentActorIds(), group.getRecentActorIds()));
+                return group;
+            });
+        }
 
-        Long currentUserId = requestScopeData.getUserId();
+        List<Message> coalesced = new ArrayList<>();
+        if (!likeGroups.isEmpty()) {
+            Map<String, Message> openAggregates = messageMapper.selectOpenAggregatesForUpdate(
+                            new ArrayList<>(likeGroups.values()),
+                            LocalDateTime.now().minusHours(likeCoalesceWindowHours))
+                    .stream()
+                    .collect(Collectors.toMap(this::aggregateGroupKey, Function.identity()));
+
+            for (Map.Entry<String, Message> entry : likeGroups.entrySet()) {
+                Message group = entry.getValue();
+                Message existing = openAggregates.get(entry.getKey());
+                if (existing == null) {
+                    inserts.add(group);
+                    continue;
+                }
+                existing.setSenderId(group.getSenderId());
+                existing.setActorCount(existing.getActorCount() + group.getActorCount());
+                existing.setRecentActorIds(mergeActorIds(group.getRecentActorIds(), existing.getRecentActorIds()));
+                messageMapper.updateAggregate(existing);
+                existing.setCreatedAt(LocalDateTime.now());
+                coalesced.add(existing);
+            }
+        }
 
-        // 获取用户所有的消息对象
-        List<Message> messages = messageMapper.selectByUserId(currentUserId);
+        int rows = inserts.isEmpty() ? 0 : messageMapper.insertBatch(inserts);
+        publishMessageEvents(inserts, coalesced);
+        return rows + coalesced.size();
+    }
 
-        List<Long> senderIds = messages.stream().map(Message::getSenderId).toList();
+    private String aggregateGroupKey(Message message) {
+        return message.getReceiverId() + "|" + message.getAggregateKey();
+    }
 
-        // 将 message 专成 messageVO
-        Map<Long, User> userMap = userService.getUserMapByIds(senderIds);
-
-        List<MessageVO> messageVOS = messages.stream().map(message -> {
-            MessageVO messageVO = new MessageVO();
-            BeanUtils.copyProperties(message, messageVO);
-
-            // 设置发送者信息
-            MessageVO.Sender sender = new MessageVO.Sender();
-            sender.setUserId(message.getSenderId());
-            sender.setUsername(userMap.get(message.getSenderId()).getUsername());
-            sender.setAvatarUrl(userMap.get(message.getSenderId()).getAvatarUrl());
-            messageVO.setSender(sender);
-
-            // 设置 target 信息
-            if (!Objects.equals(message.getType(), MessageType.SYSTEM)) {
-                MessageVO.Target target = new MessageVO.Target();
-                target.setTargetId(message.getTargetId());
-                target.setTargetType(message.getTargetType());
-                // TODO: 获取评论/点赞 对应的 note 的 question 信息
+    /**
+     * 合并最近触发用户列表：newer 在前，去重后保留前 recentActorLimit 个
+     */
+    private String mergeActorIds(String newer, String older) {
+        return Stream.of(newer, older)
+                .filter(Objects::nonNull)
+                .flatMap(ids -> Arrays.stream(ids.split(",")))
+                .filter(id -> !id.isEmpty())
+                .distinct()
+                .limit(recentActorLimit)
+                .collect(Collectors.joining(","));
+    }
 
+    private List<Long> parseActorIds(String actorIds) {
+        if (actorIds == null || actorIds.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(actorIds.split(",")).map(Long::valueOf).toList();
+    }
+
+    /**
+     * 消息展示需要的用户：发送者与合并通知中的最近触发用户
+     */
+    private Map<Long, User> loadUsers(Collection<Message> messages) {
+        List<Long> userIds = messages.stream()
+                .flatMap(message -> Stream.concat(Stream.of(message.getSenderId()),
+                        parseActorIds(message.getRecentActorIds()).stream()))
+                .distinct()
+                .toList();
+        return userService.getUserMapByIds(userIds);
+    }
+
+    private Message toMessage(MessageDTO messageDTO) {
+        Message message = new Message();
+        BeanUtils.copyProperties(messageDTO, message);
+
+        if (messageDTO.getContent() == null) {
+            message.setContent("");
+        }
+        if (messageDTO.getIsRead() == null) {
+            message.setIsRead(false);
+        }
+        return message;
+    }
+
+    /**
+     * 消息写入后发布事件，由 MessagePushListener 在事务提交后推送给接收者：
+     * - 新插入的消息累加未读计数，推送的未读数变化量为 +1；
+     * - 合并到已有通知的点赞不改变未读数，只推送更新后的通知内容
+     *
+     * @param created   新插入的消息
+     * @param coalesced 合并后被原地更新的通知
+     */
+    private void publishMessageEvents(List<Message> created, List<Message> coalesced) {
+        if (created.isEmpty() && coalesced.isEmpty()) {
+            return;
+        }
+        Map<Long, User> userMap = loadUsers(Stream.concat(created.stream(), coalesced.stream()).toList());
+
+        for (Message message : created) {
+            unreadCountService.increment(message.getReceiverId(), message.getType());
+
+            // insert 不回填数据库默认值，推送内容按新建消息补齐
+            if (message.getCreatedAt() == null) {
+                message.setCreatedAt(LocalDateTime.now());
+            }
+            MessageVO messageVO = toMessageVO(message, userMap);
+
+            MessageEvent event;
+            if (Objects.equals(message.getType(), MessageType.LIKE)) {
+                event = MessageEvent.createLikeEvent(this, messageVO, message.getReceiverId());
+            } else if (Objects.equals(message.getType(), MessageType.COMMENT)) {
+                event = MessageEvent.createCommentEvent(this, messageVO, message.getReceiverId());
+            } else {
+                event = MessageEvent.createSystemEvent(this, messageVO, message.getReceiverId());
             }
+            eventPublisher.publishEvent(event);
+        }
+
+        for (Message message : coalesced) {
+            eventPublisher.publishEvent(MessageEvent.createLikeMergedEvent(
+                    this, toMessageVO(message, userMap), message.getReceiverId()));
+        }
+    }
+
+    /**
+     * 消息由未读变为已读后：扣减未读计数，并发布已读事件同步接收者其它页面/设备上的未读数
+     *
+     * @param userId      接收者 ID
+     * @param unreadTypes 本次变为已读的每条消息的类型
+     */
+    private void onMessagesRead(Long userId, List<Integer> unreadTypes) {
+        Map<Integer, Integer> countsByType = unreadTypes.stream()
+                .collect(Collectors.groupingBy(type -> type, Collectors.summingInt(type -> 1)));
+        unreadCountService.decrement(userId, countsByType);
+        eventPublisher.publishEvent(MessageEvent.createReadEvent(this, userId, unreadTypes.size()));
+    }
+
+    /**
+     * 系统广播被标记为已读后，发布已读事件同步接收者其它页面/设备上的未读数
+     *
+     * @param userId    用户 ID
+     * @param readCount 本次变为已读的广播数
+     */
+    private void onBroadcastsRead(Long userId, int readCount) {
+        if (readCount > 0) {
+            eventPublisher.publishEvent(MessageEvent.createReadEvent(this, userId, readCount));
+        }
+    }
+
+    /**
+     * 查询收件箱：消息与系统广播各按游标取 pageSize + 1 条，
+     * 再按 (created_at, messageId) 倒序归并，广播的 messageId 为负数，同一时间排在普通消息之后。
+     */
+    @Override
+    public ApiResponse<List<MessageVO>> getMessages(MessageQueryParams params) {
 
-            return messageVO;
-        }).toList();
+        Long currentUserId = requestScopeData.getUserId();
+
+        CursorUtils.Cursor cursor;
+        try {
+            cursor = CursorUtils.decode(params.getCursor());
+        } catch (IllegalArgumentException e) {
+            return ApiResponseUtil.error("cursor 非法");
+        }
+
+        // 按 (created_at, message_id) 游标分页，多取一条用于判断是否还有下一页
+        LocalDateTime cursorCreatedAt = cursor == null ? null : cursor.getCreatedAt();
+        Long cursorMessageId = cursor == null ? null : cursor.getId();
+        int limit = params.getPageSize() + 1;
+        List<Message> messages = messageMapper.selectByCursor(currentUserId, params,
+                cursorCreatedAt, cursorMessageId, limit);
+
+        List<Message> broadcasts = broadcastService.listAsMessages(currentUserId, params,
+                cursorCreatedAt, cursorMessageId, limit);
+        if (!broadcasts.isEmpty()) {
+            messages = Stream.concat(messages.stream(), broadcasts.stream())
+                    .sorted(Comparator.comparing(Message::getCreatedAt)
+                            .thenComparing(Message::getMessageId)
+                            .reversed())
+                    .limit(limit)
+                    .toList();
+        }
 
-        return ApiResponse.success(messageVOS);
+        return toMessagePage("获取消息列表成功", messages, params.getPageSize());
+    }
+
+    @Override
+    public ApiResponse<List<MessageVO>> getArchivedMessages(MessageQueryParams params) {
+
+        Long currentUserId = requestScopeData.getUserId();
+
+        CursorUtils.Cursor cursor;
+        try {
+            cursor = CursorUtils.decode(params.getCursor());
+        } catch (IllegalArgumentException e) {
+            return ApiResponseUtil.error("cursor 非法");
+        }
+
+        List<Message> messages = messageArchiveMapper.selectByCursor(currentUserId, params,
+                cursor == null ? null : cursor.getCreatedAt(),
+                cursor == null ? null : cursor.getId(),
+                params.getPageSize() + 1);
+
+        return toMessagePage("获取归档消息列表成功", messages, params.getPageSize());
+    }
+
+    /**
+     * 将多取一条的查询结果转换为分页响应：超过 pageSize 说明还有下一页，以本页最后一条生成 nextCursor
+     */
+    private ApiResponse<List<MessageVO>> toMessagePage(String msg, List<Message> messages, int pageSize) {
+        String nextCursor = null;
+        if (messages.size() > pageSize) {
+            messages = messages.subList(0, pageSize);
+            Message last = messages.get(messages.size() - 1);
+            nextCursor = CursorUtils.encode(last.getCreatedAt(), last.getMessageId());
+        }
+        Pagination pagination = new Pagination(null, pageSize, null, nextCursor);
+
+        // 将 message 专成 messageVO
+        Map<Long, User> userMap = loadUsers(messages);
+
+        List<MessageVO> messageVOS = messages.stream()
+                .map(message -> toMessageVO(message, userMap))
+                .toList();
+
+        return ApiResponseUtil.success(msg, messageVOS, pagination);
     }
 
     @Override
     public ApiResponse<EmptyVO> markAsRead(Integer messageId) {
         Long currentUserId = requestScopeData.getUserId();
-        messageMapper.markAsRead(messageId, currentUserId);
+        if (messageId < 0) {
+            onBroadcastsRead(currentUserId, broadcastService.markRead(currentUserId, -messageId));
+            return ApiResponse.success();
+        }
+        // 锁定未读行后再更新，并发重复标记时只有一个事务会扣减未读计数
+        List<Integer> unreadTypes = messageMapper.selectUnreadTypesForUpdate(currentUserId, List.of(messageId));
+        if (!unreadTypes.isEmpty()) {
+            messageMapper.markAsRead(messageId, currentUserId);
+            onMessagesRead(currentUserId, unreadTypes);
+        }
         return ApiResponse.success();
     }
 
     @Override
     public ApiResponse<EmptyVO> markAsReadBatch(List<Integer> messageIds) {
         Long currentUserId = requestScopeData.getUserId();
-        messageMapper.markAsReadBatch(messageIds, currentUserId);
+        if (messageIds == null || messageIds.isEmpty()) {
+            return ApiResponse.success();
+        }
+        // 广播以水位线记录已读，推进到本批中最新的一条即可
+        messageIds.stream()
+                .filter(messageId -> messageId != null && messageId < 0)
+                .min(Integer::compare)
+                .ifPresent(messageId -> onBroadcastsRead(currentUserId,
+                        broadcastService.markRead(currentUserId, -messageId)));
+        messageIds = messageIds.stream().filter(messageId -> messageId != null && messageId > 0).toList();
+        if (messageIds.isEmpty()) {
+            return ApiResponse.success();
+        }
+        List<Integer> unreadTypes = messageMapper.selectUnreadTypesForUpdate(currentUserId, messageIds);
+        if (!unreadTypes.isEmpty()) {
+            messageMapper.markAsReadBatch(messageIds, currentUserId);
+            onMessagesRead(currentUserId, unreadTypes);
+        }
         return ApiResponse.success();
     }
 
     @Override
     public ApiResponse<EmptyVO> markAllAsRead() {
         Long currentUserId = requestScopeData.getUserId();
-        messageMapper.markAllAsRead(currentUserId);
+        List<Integer> unreadTypes = messageMapper.selectUnreadTypesForUpdate(currentUserId, null);
+        if (!unreadTypes.isEmpty()) {
+            messageMapper.markAllAsRead(currentUserId);
+            onMessagesRead(currentUserId, unreadTypes);
+        }
+        onBroadcastsRead(currentUserId, broadcastService.markAllRead(currentUserId));
         return ApiResponse.success();
     }
 
     @Override
     public ApiResponse<EmptyVO> deleteMessage(Integer messageId) {
         Long currentUserId = requestScopeData.getUserId();
-        messageMapper.deleteMessage(messageId, currentUserId);
+        // 广播为全体用户共享，不能按用户删除，删除操作只将其标记为已读
+        if (messageId < 0) {
+            onBroadcastsRead(currentUserId, broadcastService.markRead(currentUserId, -messageId));
+            return ApiResponse.success();
+        }
+        // 删除未读消息时同样需要扣减未读计数
+        List<Integer> unreadTypes = messageMapper.selectUnreadTypesForUpdate(currentUserId, List.of(messageId));
+        if (messageMapper.deleteMessage(messageId, currentUserId) > 0 && !unreadTypes.isEmpty()) {
+            onMessagesRead(currentUserId, unreadTypes);
+        }
         return ApiResponse.success();
     }
 
     @Override
     public ApiResponse<Integer> getUnreadCount() {
         Long currentUserId = requestScopeData.getUserId();
-        Integer count = messageMapper.countUnread(currentUserId);
-        return ApiResponse.success(count);
+        if (currentUserId == null) {
+            return ApiResponse.success(0);
+        }
+        return ApiResponse.success(unreadCountService.getUnreadCount(currentUserId));
+    }
+
+    @Override
+    public ApiResponse<List<UnreadCountByType>> getUnreadCountByType() {
+        Long currentUserId = requestScopeData.getUserId();
+        List<UnreadCountByType> counts = unreadCountService.getUnreadCountByType(currentUserId)
+                .entrySet().stream()
+                .map(entry -> {
+                    UnreadCountByType count = new UnreadCountByType();
+                    count.setType(String.valueOf(entry.getKey()));
+                    count.setCount(entry.getValue());
+                    return count;
+                }).toList();
+        return ApiResponse.success(counts);
+    }
+
+    private MessageVO toMessageVO(Message message, Map<Long, User> userMap) {
+        MessageVO messageVO = new MessageVO();
+        BeanUtils.copyProperties(message, messageVO);
+
+        // 设置发送者信息
+        MessageVO.Sender sender = new MessageVO.Sender();
+        sender.setUserId(message.getSenderId());
+        User senderUser = userMap.get(message.getSenderId());
+        if (senderUser != null) {
+            sender.setUsername(senderUser.getUsername());
+            sender.setAvatarUrl(senderUser.getAvatarUrl());
+        }
+        messageVO.setSender(sender);
+
+        // 合并通知的最近触发用户
+        List<MessageVO.Sender> recentActors = new ArrayList<>();
+        for (Long actorId : parseActorIds(message.getRecentActorIds())) {
+            MessageVO.Sender actor = new MessageVO.Sender();
+            actor.setUserId(actorId);
+            User actorUser = userMap.get(actorId);
+            if (actorUser != null) {
+                actor.setUsername(actorUser.getUsername());
+                actor.setAvatarUrl(actorUser.getAvatarUrl());
+            }
+            recentActors.add(actor);
+        }
+        messageVO.setRecentActors(recentActors);
+        if (messageVO.getActorCount() == null) {
+            messageVO.setActorCount(1);
+        }
+
+        // 设置 target 信息
+        if (!Objects.equals(message.getType(), MessageType.SYSTEM)) {
+            MessageVO.Target target = new MessageVO.Target();
+            target.setTargetId(message.getTargetId());
+            target.setTargetType(message.getTargetType());
+            // TODO: 获取评论/点赞 对应的 note 的 question 信息
+
+        }
+
+        return messageVO;
     }
 }
@@ -0,0 +1,156 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.mapper.NoteMapper;
+import com.kama.notes.model.vo.note.NoteExportItem;
+import com.kama.notes.service.NoteExportService;
+import lombok.extern.log4j.Log4j2;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 笔记导出服务实现
+ *
+ * 说明：
+ * - 查询结果已按 一级分类、二级分类、问题 ID 排序，只需与上一行比较分类 ID 即可决定是否输出标题或切换 zip 条目；
+ * - 游标必须在事务内遍历（Spring 管理的 SqlSession 在事务结束时才关闭），因此使用只读事务包裹整个导出过程；
+ * - 写入过程中客户端断开会抛出 IOException，事务随之回滚（只读，无副作用）并释放连接。
+ */
+@Log4j2
+@Service
+public class NoteExportServiceImpl implements NoteExportService {
+
+    private static final String QUESTION_URL_PREFIX = "https://notes.kamacoder.com/questions/";
+
+    @Autowired
+    private NoteMapper noteMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public int writeMarkdown(Long authorId, Writer writer) throws IOException {
+        return export(authorId, new ExportHandler() {
+            private Integer parentCategoryId;
+            private Integer categoryId;
+
+            @Override
+            public void accept(NoteExportItem item) throws IOException {
+                if (!Objects.equals(parentCategoryId, item.getParentCategoryId())) {
+                    parentCategoryId = item.getParentCategoryId();
+                    writer.write("# " + item.getParentCategoryName() + "\n");
+                }
+                if (!Objects.equals(categoryId, item.getCategoryId())) {
+                    categoryId = item.getCategoryId();
+                    writer.write("## " + item.getCategoryName() + "\n");
+                }
+                writeQuestion(writer, item);
+            }
+
+            @Override
+            public void finish() throws IOException {
+                writer.flush();
+            }
+        });
+    }
+
+    @Override
+    public int writeZip(Long authorId, OutputStream outputStream) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        // zip 条目之间共用同一个 writer，切换条目前先 flush
+        Writer writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+
+        return export(authorId, new ExportHandler() {
+            private Integer categoryId;
+
+            @Override
+            public void accept(NoteExportItem item) throws IOException {
+                if (!Objects.equals(categoryId, item.getCategoryId())) {
+                    if (categoryId != null) {
+                        writer.flush();
+                        zip.closeEntry();
+                    }
+                    categoryId = item.getCategoryId();
+                    zip.putNextEntry(new ZipEntry(sanitize(item.getParentCategoryName()) + "/"
+                            + sanitize(item.getCategoryName()) + "_" + item.getCategoryId() + ".md"));
+                    writer.write("# " + item.getParentCategoryName() + "\n");
+                    writer.write("## " + item.getCategoryName() + "\n");
+                }
+                writeQuestion(writer, item);
+            }
+
+            @Override
+            public void finish() throws IOException {
+                writer.flush();
+                if (categoryId != null) {
+                    zip.closeEntry();
+                }
+                // finish 只写出 zip 目录，不关闭调用方的输出流
+                zip.finish();
+            }
+        });
+    }
+
+    /**
+     * 在只读事务中遍历游标，逐条交给 handler 写出
+     */
+    private int export(Long authorId, ExportHandler handler) throws IOException {
+        try {
+            Integer count = readOnlyTransactionTemplate.execute(status -> {
+                int written = 0;
+                try (Cursor<NoteExportItem> cursor = noteMapper.findExportItemsByAuthorId(authorId)) {
+                    for (NoteExportItem item : cursor) {
+                        handler.accept(item);
+                        written++;
+                    }
+                    handler.finish();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return written;
+            });
+            return count == null ? 0 : count;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeQuestion(Writer writer, NoteExportItem item) throws IOException {
+        writer.write("### [" + item.getQuestionTitle() + "](" + QUESTION_URL_PREFIX + item.getQuestionId() + ")\n");
+        writer.write(item.getContent());
+        writer.write("\n");
+    }
+
+    /**
+     * 去掉分类名中不能出现在文件名里的字符
+     */
+    private String sanitize(String name) {
+        return name == null ? "未命名" : name.replaceAll("[\\\\/:*?\"<>|]", "_");
+    }
+
+    /**
+     * 导出过程的回调：逐条处理导出行，遍历结束后收尾
+     */
+    private interface ExportHandler {
+        void accept(NoteExportItem item) throws IOException;
+
+        void finish() throws IOException;
+    }
+}
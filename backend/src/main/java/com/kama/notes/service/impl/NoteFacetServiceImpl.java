@@ -0,0 +1,129 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.mapper.CategoryMapper;
+import com.kama.notes.mapper.NoteMapper;
+import com.kama.notes.model.dto.search.NoteFacetRow;
+import com.kama.notes.model.entity.Category;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.search.NoteFacetIndex;
+import com.kama.notes.service.NoteFacetService;
+import lombok.extern.log4j.Log4j2;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 笔记分面服务实现
+ *
+ * 说明：
+ * - 一次流式查询读取全部笔记的问题分类、难度与标签，构建紧凑的数组索引（每篇笔记几个 int），
+ *   新索引建好后原子替换，查询无需加锁；
+ * - 不单独发布变更通知，而是订阅笔记索引与问题联想索引的变更频道：笔记创建、修改、删除与问题变更后，
+ *   延迟 rebuild-delay-ms 重建一次，期间的多次变更只触发一次重建；
+ * - 标签目前没有写入接口，定时重建兜底直接修改数据库的情况。
+ */
+@Log4j2
+@Service
+public class NoteFacetServiceImpl implements NoteFacetService, MessageListener {
+
+    private final NoteMapper noteMapper;
+
+    private final CategoryMapper categoryMapper;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final TaskScheduler taskScheduler;
+
+    private final long rebuildDelayMillis;
+
+    /**
+     * 建立完成前为 null
+     */
+    private volatile NoteFacetIndex index;
+
+    /**
+     * 是否已有一次延迟重建在等待执行
+     */
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    public NoteFacetServiceImpl(NoteMapper noteMapper,
+                                CategoryMapper categoryMapper,
+                                PlatformTransactionManager transactionManager,
+                                TaskScheduler taskScheduler,
+                                RedisMessageListenerContainer listenerContainer,
+                                @Value("${search.facet.rebuild-delay-ms:5000}") long rebuildDelayMillis) {
+        this.noteMapper = noteMapper;
+        this.categoryMapper = categoryMapper;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.taskScheduler = taskScheduler;
+        this.rebuildDelayMillis = rebuildDelayMillis;
+        listenerContainer.addMessageListener(this, List.of(
+                new ChannelTopic(RedisKey.noteSearchIndexChannel()),
+                new ChannelTopic(RedisKey.questionSuggestChannel())));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskScheduler.schedule(this::rebuild, Instant.now());
+    }
+
+    @Override
+    public NoteFacetIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                // 先清除标记再重建，重建期间到达的变更会再触发一次
+                rebuildScheduled.set(false);
+                rebuild();
+            }, Instant.now().plusMillis(rebuildDelayMillis));
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            List<Category> categories = categoryMapper.categoryList();
+            Map<Integer, String> categoryNames = categories.stream()
+                    .collect(Collectors.toMap(Category::getCategoryId, Category::getName, (a, b) -> a));
+            Map<Integer, Integer> categoryParents = categories.stream()
+                    .filter(category -> category.getParentCategoryId() != null && category.getParentCategoryId() > 0)
+                    .collect(Collectors.toMap(Category::getCategoryId, Category::getParentCategoryId, (a, b) -> a));
+            NoteFacetIndex.Builder builder = new NoteFacetIndex.Builder();
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                try (Cursor<NoteFacetRow> cursor = noteMapper.scanForFacetIndex()) {
+                    cursor.forEach(builder::add);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            NoteFacetIndex rebuilt = builder.build(categoryNames, categoryParents);
+            index = rebuilt;
+            log.debug("笔记分面索引重建完成, 笔记数: {}, 耗时 {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("笔记分面索引重建失败", e);
+        }
+    }
+}
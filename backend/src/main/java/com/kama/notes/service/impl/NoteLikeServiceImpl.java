@@ -8,10 +8,12 @@ import com.kama.notes.model.base.EmptyVO;
 import com.kama.notes.model.dto.message.MessageDTO;
 import com.kama.notes.model.entity.Note;
 import com.kama.notes.model.entity.NoteLike;
+import com.kama.notes.model.enums.counter.CounterType;
 import com.kama.notes.model.enums.message.MessageTargetType;
 import com.kama.notes.model.enums.message.MessageType;
 import com.kama.notes.scope.RequestScopeData;
-import com.kama.notes.service.MessageService;
+import com.kama.notes.service.CounterService;
+import com.kama.notes.service.MessageOutboxService;
 import com.kama.notes.service.NoteLikeService;
 import com.kama.notes.utils.ApiResponseUtil;
 import lombok.RequiredArgsConstructor;
@@ -30,7 +32,8 @@ public class NoteLikeServiceImpl implements NoteLikeService {
     private final NoteLikeMapper noteLikeMapper;
     private final NoteMapper noteMapper;
     private final RequestScopeData requestScopeData;
-    private final MessageService messageService;
+    private final MessageOutboxService messageOutboxService;
+    private final CounterService counterService;
 
     @Override
     @NeedLogin
@@ -53,7 +56,7 @@ public class NoteLikeServiceImpl implements NoteLikeService {
             noteLikeMapper.insert(noteLike);
 
             // 增加笔记点赞数
-            noteMapper.likeNote(noteId);
+            counterService.increment(CounterType.NOTE_LIKE, noteId, 1);
 
             MessageDTO messageDTO = new MessageDTO();
             messageDTO.setType(MessageType.LIKE);
@@ -64,9 +67,8 @@ public class NoteLikeServiceImpl implements NoteLikeService {
             messageDTO.setTargetId(noteId);
             messageDTO.setIsRead(false);
 
-            System.out.println(messageDTO);
-
-            messageService.createMessage(messageDTO);
+            // 通知写入发件箱，由 MessageOutboxTask 异步生成消息，同一用户对同一笔记只通知一次
+            messageOutboxService.enqueue(messageDTO, "LIKE:NOTE:" + noteId + ":" + userId);
 
             return ApiResponseUtil.success("点赞成功");
         } catch (Exception e) {
@@ -92,7 +94,7 @@ public class NoteLikeServiceImpl implements NoteLikeService {
             if (noteLike != null) {
                 noteLikeMapper.delete(noteLike);
                 // 减少笔记点赞数
-                noteMapper.unlikeNote(noteId);
+                counterService.increment(CounterType.NOTE_LIKE, noteId, -1);
             }
             return ApiResponseUtil.success("取消点赞成功");
         } catch (Exception e) {
@@ -0,0 +1,181 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.mapper.NoteMapper;
+import com.kama.notes.model.entity.User;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.model.vo.note.NoteRankListItem;
+import com.kama.notes.service.NoteRankService;
+import com.kama.notes.service.UserService;
+import com.kama.notes.utils.TransactionUtils;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 每日笔记提交排行榜服务实现
+ *
+ * 数据结构：
+ * - rank:note:daily:{date}：有序集合，member 为作者 ID，score 为当天提交的笔记数；
+ * - rank:note:daily:{date}:ready：重建完成标记。
+ * 两者都按日期命名并设置 2 天过期，跨天时自然切换到新键，旧数据自动过期，无需额外的轮换操作。
+ *
+ * 一致性：
+ * - 创建、删除笔记时在事务提交后增量更新；
+ * - 标记不存在（冷启动、Redis 数据丢失）时，读取前先按 created_at 范围从数据库重建，
+ *   范围查询可以使用 (created_at, note_id) 索引，不再对 DATE(created_at) 做函数计算；
+ * - 重建与增量更新之间存在极小的竞争窗口，由 NoteRankTask 定期重建校准；
+ * - Redis 不可用时直接返回数据库聚合结果。
+ */
+@Log4j2
+@Service
+public class NoteRankServiceImpl implements NoteRankService {
+
+    /**
+     * 排行榜键过期时间（秒）
+     */
+    private static final long RANK_TTL_SECONDS = 2 * 24 * 3600;
+
+    /**
+     * 减少提交数，减到 0 时移除该作者，避免排行榜中出现 0 篇的作者
+     */
+    private static final RedisScript<Long> DECREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local v = tonumber(redis.call('zincrby', KEYS[1], -1, ARGV[1])) "
+                    + "if v <= 0 then redis.call('zrem', KEYS[1], ARGV[1]) end return v",
+            Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private NoteMapper noteMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Override
+    public void onNoteCreated(Long authorId) {
+        runAfterCommit(() -> {
+            String key = RedisKey.noteDailyRank(LocalDate.now().toString());
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.zIncrBy(key, 1, String.valueOf(authorId));
+                stringConnection.expire(key, RANK_TTL_SECONDS);
+                return null;
+            });
+        });
+    }
+
+    @Override
+    public void onNoteDeleted(Long authorId, LocalDateTime createdAt) {
+        if (createdAt == null || !createdAt.toLocalDate().equals(LocalDate.now())) {
+            return;
+        }
+        runAfterCommit(() -> stringRedisTemplate.execute(DECREMENT_SCRIPT,
+                List.of(RedisKey.noteDailyRank(createdAt.toLocalDate().toString())), String.valueOf(authorId)));
+    }
+
+    /**
+     * 在事务提交后执行排行榜更新；排行榜更新失败只记录日志，不影响笔记的创建与删除
+     */
+    private void runAfterCommit(Runnable action) {
+        Runnable safeAction = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.warn("更新每日笔记排行榜失败", e);
+            }
+        };
+        TransactionUtils.afterCommit(safeAction);
+    }
+
+    @Override
+    public List<NoteRankListItem> getTodayTopN(int limit) {
+        LocalDate today = LocalDate.now();
+        String date = today.toString();
+
+        List<NoteRankListItem> items = new ArrayList<>();
+        try {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(RedisKey.noteDailyRankReady(date)))) {
+                rebuild(today);
+            }
+            Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet()
+                    .reverseRangeWithScores(RedisKey.noteDailyRank(date), 0, limit - 1);
+            if (tuples != null) {
+                for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                    NoteRankListItem item = new NoteRankListItem();
+                    item.setUserId(Long.valueOf(Objects.requireNonNull(tuple.getValue())));
+                    item.setNoteCount(Objects.requireNonNull(tuple.getScore()).intValue());
+                    items.add(item);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("读取 Redis 每日笔记排行榜失败，回退到数据库聚合", e);
+            items = noteMapper.countNotesByAuthorBetween(today.atStartOfDay(), today.plusDays(1).atStartOfDay());
+            items.sort(Comparator.comparing(NoteRankListItem::getNoteCount).reversed());
+            items = new ArrayList<>(items.subList(0, Math.min(limit, items.size())));
+        }
+
+        fillRankAndUser(items);
+        return items;
+    }
+
+    /**
+     * 按 RANK() 规则计算名次，并批量填充作者的用户名与头像
+     *
+     * @param items 已按笔记数降序排列的排行榜条目
+     */
+    private void fillRankAndUser(List<NoteRankListItem> items) {
+        Map<Long, User> userMap = userService.getUserMapByIds(
+                items.stream().map(NoteRankListItem::getUserId).toList());
+
+        for (int i = 0; i < items.size(); i++) {
+            NoteRankListItem item = items.get(i);
+            if (i > 0 && Objects.equals(item.getNoteCount(), items.get(i - 1).getNoteCount())) {
+                item.setRank(items.get(i - 1).getRank());
+            } else {
+                item.setRank(i + 1);
+            }
+
+            User user = userMap.get(item.getUserId());
+            if (user != null) {
+                item.setUsername(user.getUsername());
+                item.setAvatarUrl(user.getAvatarUrl());
+            }
+        }
+    }
+
+    @Override
+    public void rebuild(LocalDate date) {
+        List<NoteRankListItem> counts = noteMapper.countNotesByAuthorBetween(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+
+        String key = RedisKey.noteDailyRank(date.toString());
+        String tempKey = key + ":rebuild:" + UUID.randomUUID();
+
+        // 先写入临时键再 RENAME，读取方不会看到重建到一半的排行榜
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            if (counts.isEmpty()) {
+                stringConnection.del(key);
+            } else {
+                for (NoteRankListItem count : counts) {
+                    stringConnection.zAdd(tempKey, count.getNoteCount(), String.valueOf(count.getUserId()));
+                }
+                stringConnection.rename(tempKey, key);
+                stringConnection.expire(key, RANK_TTL_SECONDS);
+            }
+            stringConnection.setEx(RedisKey.noteDailyRankReady(date.toString()), RANK_TTL_SECONDS, "1");
+            return null;
+        });
+    }
+}
@@ -0,0 +1,214 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.mapper.NoteMapper;
+import com.kama.notes.model.entity.Note;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.search.IndexSynchronizer;
+import com.kama.notes.search.JiebaTokenizer;
+import com.kama.notes.search.NoteSearchIndex;
+import com.kama.notes.service.NoteSearchIndexService;
+import com.kama.notes.utils.SearchUtils;
+import lombok.extern.log4j.Log4j2;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 笔记全文检索索引服务实现
+ *
+ * 加载与增量同步由 {@link IndexSynchronizer} 完成，加载期间搜索退回数据库全文检索：
+ * 1. 存在快照时通过内存映射读取，再追赶快照时间之后更新过的笔记，并剔除停机期间被删除的笔记；
+ * 2. 没有快照或快照损坏时，以 MyBatis 游标流式扫描全部笔记建立索引；
+ * 3. 收到变更通知后从数据库读取笔记的当前内容重新索引，笔记已删除时从索引中移除。
+ *
+ * 快照：
+ * - 定时任务与应用关闭时，若索引有变更则写入快照；
+ * - 快照时间向前预留一段余量再追赶，覆盖通知延迟与应用、数据库之间的时钟偏差；
+ * - 快照记录分词词典指纹，词典变化后快照中的词元与新的分词结果不一致，丢弃快照重新建立索引。
+ */
+@Log4j2
+@Service
+public class NoteSearchIndexServiceImpl implements NoteSearchIndexService {
+
+    /**
+     * 加载快照后追赶更新时，在快照时间之前额外预留的余量
+     */
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(5);
+
+    private final NoteMapper noteMapper;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final JiebaTokenizer tokenizer;
+
+    private final Path snapshotPath;
+
+    private final IndexSynchronizer<Integer, NoteSearchIndex> synchronizer;
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public NoteSearchIndexServiceImpl(NoteMapper noteMapper,
+                                      StringRedisTemplate stringRedisTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      RedisMessageListenerContainer listenerContainer,
+                                      JiebaTokenizer tokenizer,
+                                      @Value("${search.index.snapshot-path:data/note-search-index.bin}") String snapshotPath) {
+        this.noteMapper = noteMapper;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.tokenizer = tokenizer;
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.synchronizer = new IndexSynchronizer<>("笔记全文检索索引", RedisKey.noteSearchIndexChannel(),
+                Integer::valueOf, this::reindex, stringRedisTemplate, listenerContainer);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        synchronizer.start("note-search-index-loader", this::load);
+    }
+
+    private NoteSearchIndex load() {
+        // 快照校验与重新分词都依赖加载完成的词典
+        tokenizer.awaitReady();
+        NoteSearchIndex loaded = loadSnapshot();
+        if (loaded == null) {
+            loaded = new NoteSearchIndex();
+            scanInto(loaded, null);
+            dirty.set(true);
+        }
+        log.info("笔记全文检索索引已建立, 笔记数: {}", loaded.size());
+        return loaded;
+    }
+
+    /**
+     * 读取快照并追赶到当前状态
+     *
+     * @return 快照不存在或无法读取时返回 null
+     */
+    private NoteSearchIndex loadSnapshot() {
+        if (!Files.exists(snapshotPath)) {
+            return null;
+        }
+        NoteSearchIndex.Snapshot snapshot;
+        try {
+            snapshot = NoteSearchIndex.readFrom(snapshotPath);
+        } catch (IOException e) {
+            log.warn("读取笔记索引快照失败，重新建立索引, path: {}", snapshotPath, e);
+            return null;
+        }
+        if (snapshot.getDictionaryFingerprint() != tokenizer.getDictionaryFingerprint()) {
+            log.info("分词词典已变化，丢弃笔记索引快照并重新建立索引, path: {}", snapshotPath);
+            return null;
+        }
+
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(snapshot.getSnapshotAt()), ZoneId.systemDefault())
+                .minus(CATCH_UP_MARGIN);
+        NoteSearchIndex loaded = snapshot.getIndex();
+        int updated = scanInto(loaded, since);
+        int removed = loaded.retainAll(liveNoteIds());
+        if (updated > 0 || removed > 0) {
+            dirty.set(true);
+        }
+        log.info("从快照加载笔记索引, 快照时间: {}, 追赶更新 {} 篇, 移除 {} 篇", since.plus(CATCH_UP_MARGIN), updated, removed);
+        return loaded;
+    }
+
+    private int scanInto(NoteSearchIndex target, LocalDateTime updatedSince) {
+        Integer count = readOnlyTransactionTemplate.execute(status -> {
+            int scanned = 0;
+            try (Cursor<Note> cursor = noteMapper.scanForSearchIndex(updatedSince)) {
+                for (Note note : cursor) {
+                    target.put(note.getNoteId(), SearchUtils.tokenize(note.getContent()));
+                    scanned++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return scanned;
+        });
+        return count == null ? 0 : count;
+    }
+
+    private Set<Integer> liveNoteIds() {
+        return readOnlyTransactionTemplate.execute(status -> {
+            Set<Integer> noteIds = new HashSet<>();
+            try (Cursor<Integer> cursor = noteMapper.scanNoteIds()) {
+                cursor.forEach(noteIds::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return noteIds;
+        });
+    }
+
+    @Override
+    public boolean isReady() {
+        return synchronizer.get() != null;
+    }
+
+    @Override
+    public List<Integer> search(String keyword, int limit) {
+        NoteSearchIndex current = synchronizer.get();
+        if (current == null) {
+            return List.of();
+        }
+        return current.search(SearchUtils.tokenize(keyword), limit);
+    }
+
+    @Override
+    public void onNoteChanged(Integer noteId) {
+        synchronizer.publish(noteId);
+    }
+
+    private void reindex(NoteSearchIndex current, Integer noteId) {
+        Note note = noteMapper.findById(noteId);
+        if (note == null) {
+            current.remove(noteId);
+        } else {
+            current.put(noteId, SearchUtils.tokenize(note.getContent()));
+        }
+        dirty.set(true);
+    }
+
+    @Override
+    public void snapshot() {
+        NoteSearchIndex current = synchronizer.get();
+        if (current == null || !dirty.getAndSet(false)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            current.writeTo(snapshotPath, start, tokenizer.getDictionaryFingerprint());
+            log.info("写入笔记索引快照, 笔记数: {}, 耗时 {} ms", current.size(), System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("写入笔记索引快照失败, path: {}", snapshotPath, e);
+        }
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        snapshot();
+    }
+}
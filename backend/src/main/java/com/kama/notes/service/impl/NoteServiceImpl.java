@@ -1,7 +1,9 @@
 package com.kama.notes.service.impl;
 
 import com.kama.notes.annotation.NeedLogin;
-import com.kama.notes.mapper.QuestionMapper;
+import com.kama.notes.cache.EntityCacheInvalidator;
+import com.kama.notes.config.EntityCacheConfig;
+import com.kama.notes.mapper.NoteDailyAuthorStatsMapper;
 import com.kama.notes.model.base.ApiResponse;
 import com.kama.notes.model.base.EmptyVO;
 import com.kama.notes.model.base.Pagination;
@@ -12,20 +14,25 @@ import com.kama.notes.model.entity.Note;
 import com.kama.notes.mapper.NoteMapper;
 import com.kama.notes.model.entity.Question;
 import com.kama.notes.model.entity.User;
-import com.kama.notes.model.vo.category.CategoryVO;
 import com.kama.notes.model.vo.note.*;
 import com.kama.notes.scope.RequestScopeData;
 import com.kama.notes.service.*;
 import com.kama.notes.utils.ApiResponseUtil;
+import com.kama.notes.utils.CursorUtils;
 import com.kama.notes.utils.MarkdownUtil;
 import com.kama.notes.utils.PaginationUtils;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Log4j2
 @Service
@@ -50,49 +57,110 @@ public class NoteServiceImpl implements NoteService {
     private RequestScopeData requestScopeData;
 
     @Autowired
-    private CategoryService categoryService;
+    private CounterService counterService;
 
     @Autowired
-    private QuestionMapper questionMapper;
+    private NoteRankService noteRankService;
+
+    @Autowired
+    private NoteDailyAuthorStatsMapper noteDailyAuthorStatsMapper;
+
+    @Autowired
+    private NoteSearchIndexService noteSearchIndexService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
+    @Autowired
+    @Qualifier("queryExecutor")
+    private Executor queryExecutor;
 
     @Override
     public ApiResponse<List<NoteVO>> getNotes(NoteQueryParams params) {
 
-        // 计算分页参数
-        int offset = PaginationUtils.calculateOffset(params.getPage(), params.getPageSize());
+        Pagination pagination;
+        List<Note> notes;
 
-        // 查询当前查询条件下的笔记总数
-        int total = noteMapper.countNotes(params);
+        if (params.getCursor() != null) {
+            // 游标分页：按 (created_at, note_id) keyset 翻页，不计算总数
+            CursorUtils.Cursor cursor;
+            try {
+                cursor = CursorUtils.decode(params.getCursor());
+            } catch (IllegalArgumentException e) {
+                return ApiResponseUtil.error("cursor 非法");
+            }
+
+            // 多取一条用于判断是否还有下一页
+            notes = noteMapper.findByCursor(params,
+                    cursor == null ? null : cursor.getCreatedAt(),
+                    cursor == null ? null : cursor.getId(),
+                    params.getPageSize() + 1);
+
+            String nextCursor = null;
+            if (notes.size() > params.getPageSize()) {
+                notes = notes.subList(0, params.getPageSize());
+                Note last = notes.get(notes.size() - 1);
+                nextCursor = CursorUtils.encode(last.getCreatedAt(), last.getNoteId());
+            }
 
-        Pagination pagination = new Pagination(params.getPage(), params.getPageSize(), total);
+            pagination = new Pagination(null, params.getPageSize(), null, nextCursor);
+        } else {
+            // 计算分页参数
+            int offset = PaginationUtils.calculateOffset(params.getPage(), params.getPageSize());
 
-        // 获取笔记列表
-        List<Note> notes = noteMapper.findByQueryParams(params, offset, params.getPageSize());
+            // 查询当前查询条件下的笔记总数
+            int total = noteMapper.countNotes(params);
+
+            pagination = new Pagination(params.getPage(), params.getPageSize(), total);
+
+            // 获取笔记列表
+            notes = noteMapper.findByQueryParams(params, offset, params.getPageSize());
+        }
 
         // 从 笔记列表 中提取 questionIds 和 authorIds，并去重
         List<Integer> questionIds = notes.stream().map(Note::getQuestionId).distinct().toList();
         List<Long> authorIds = notes.stream().map(Note::getAuthorId).distinct().toList();
         List<Integer> noteIds = notes.stream().map(Note::getNoteId).toList();
 
+        // 以下查询彼此独立，提交到 queryExecutor 并行执行，总耗时取决于最慢的一次查询
+        // 合并计数缓冲中尚未写回数据库的点赞、收藏、评论增量
+        List<Note> noteList = notes;
+        CompletableFuture<Void> countsFuture = CompletableFuture.runAsync(
+                () -> counterService.mergeNoteCounts(noteList), queryExecutor);
         // 笔记的作者信息
-        Map<Long, User> userMapByIds = userService.getUserMapByIds(authorIds);
+        CompletableFuture<Map<Long, User>> userMapFuture = CompletableFuture.supplyAsync(
+                () -> userService.getUserMapByIds(authorIds), queryExecutor);
         // 笔记的问题信息
-        Map<Integer, Question> questionMapByIds = questionService.getQuestionMapByIds(questionIds);
+        CompletableFuture<Map<Integer, Question>> questionMapFuture = CompletableFuture.supplyAsync(
+                () -> questionService.getQuestionMapByIds(questionIds), queryExecutor);
 
         // 当前登录用户点赞的笔记列表和收藏的笔记列表
-        Set<Integer> userLikedNoteIds;
-        Set<Integer> userCollectedNoteIds;
+        CompletableFuture<Set<Integer>> likedFuture;
+        CompletableFuture<Set<Integer>> collectedFuture;
 
         // 如果是登录状态，则对当前查询的笔记列表进行是否点赞过 / 收藏过的判断
         if (requestScopeData.isLogin() && requestScopeData.getUserId() != null) {
             Long currentUserId = requestScopeData.getUserId();
-            userLikedNoteIds = noteLikeService.findUserLikedNoteIds(currentUserId, noteIds);
-            userCollectedNoteIds = collectionNoteService.findUserCollectedNoteIds(currentUserId, noteIds);
+            likedFuture = CompletableFuture.supplyAsync(
+                    () -> noteLikeService.findUserLikedNoteIds(currentUserId, noteIds), queryExecutor);
+            collectedFuture = CompletableFuture.supplyAsync(
+                    () -> collectionNoteService.findUserCollectedNoteIds(currentUserId, noteIds), queryExecutor);
         } else {  // 未登录状态直接设置为空集合
-            userLikedNoteIds = Collections.emptySet();
-            userCollectedNoteIds = Collections.emptySet();
+            likedFuture = CompletableFuture.completedFuture(Collections.emptySet());
+            collectedFuture = CompletableFuture.completedFuture(Collections.emptySet());
         }
 
+        // 等待所有查询完成（任一查询失败时 join 抛出 CompletionException）
+        CompletableFuture.allOf(countsFuture, userMapFuture, questionMapFuture, likedFuture, collectedFuture).join();
+
+        Map<Long, User> userMapByIds = userMapFuture.join();
+        Map<Integer, Question> questionMapByIds = questionMapFuture.join();
+        Set<Integer> userLikedNoteIds = likedFuture.join();
+        Set<Integer> userCollectedNoteIds = collectedFuture.join();
+
         // 用户的点赞信息
         // 用户的收藏信息
         try {
@@ -125,12 +193,11 @@ public class NoteServiceImpl implements NoteService {
                     userActionsVO.setIsCollected(true);
                 }
 
-                // 处理笔记内容折叠内容
-                if (MarkdownUtil.needCollapsed(note.getContent())) {
-                    noteVO.setNeedCollapsed(true);
-                    noteVO.setDisplayContent(MarkdownUtil.extractIntroduction(note.getContent()));
-                } else {
-                    noteVO.setNeedCollapsed(false);
+                // 折叠标记与简介在写入时已计算好，这里只有尚未回填的历史数据才需要解析 Markdown
+                if (note.getNeedCollapsed() == null) {
+                    String introduction = MarkdownUtil.collapsedIntroduction(note.getContent());
+                    noteVO.setNeedCollapsed(introduction != null);
+                    noteVO.setDisplayContent(introduction);
                 }
 
                 noteVO.setUserActions(userActionsVO);
@@ -147,6 +214,7 @@ public class NoteServiceImpl implements NoteService {
 
     @Override
     @NeedLogin
+    @Transactional(rollbackFor = Exception.class)
     public ApiResponse<CreateNoteVO> createNote(CreateNoteRequest request) {
         Long userId = requestScopeData.getUserId();
         Integer questionId = request.getQuestionId();
@@ -161,13 +229,20 @@ public class NoteServiceImpl implements NoteService {
         Note note = new Note();
         BeanUtils.copyProperties(request, note);
         note.setAuthorId(userId);
+        fillDisplayFields(note);
 
         try {
             noteMapper.insert(note);
+            noteSearchIndexService.onNoteChanged(note.getNoteId());
+            noteRankService.onNoteCreated(userId);
+            noteDailyAuthorStatsMapper.incrementNoteCount(LocalDate.now(), userId);
             CreateNoteVO createNoteVO = new CreateNoteVO();
             createNoteVO.setNoteId(note.getNoteId());
             return ApiResponseUtil.success("创建笔记成功", createNoteVO);
         } catch (Exception e) {
+            // 笔记与作者日统计一起回滚，返回失败时笔记确实没有创建
+            log.error("创建笔记失败", e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ApiResponseUtil.error("创建笔记失败");
         }
     }
@@ -190,7 +265,11 @@ public class NoteServiceImpl implements NoteService {
 
         try {
             note.setContent(request.getContent());
+            fillDisplayFields(note);
             noteMapper.update(note);
+            noteSearchIndexService.onNoteChanged(noteId);
+            searchService.onNoteChanged(noteId);
+            entityCacheInvalidator.invalidate(EntityCacheConfig.NOTE_CACHE, noteId);
             return ApiResponseUtil.success("更新笔记成功");
         } catch (Exception e) {
             return ApiResponseUtil.error("更新笔记失败");
@@ -199,6 +278,7 @@ public class NoteServiceImpl implements NoteService {
 
     @Override
     @NeedLogin
+    @Transactional(rollbackFor = Exception.class)
     public ApiResponse<EmptyVO> deleteNote(Integer noteId) {
 
         Long userId = requestScopeData.getUserId();
@@ -216,108 +296,42 @@ public class NoteServiceImpl implements NoteService {
 
         try {
             noteMapper.deleteById(noteId);
+            noteSearchIndexService.onNoteChanged(noteId);
+            searchService.onNoteChanged(noteId);
+            entityCacheInvalidator.invalidate(EntityCacheConfig.NOTE_CACHE, noteId);
+            noteRankService.onNoteDeleted(note.getAuthorId(), note.getCreatedAt());
+            noteDailyAuthorStatsMapper.decrementNoteCount(note.getCreatedAt().toLocalDate(), note.getAuthorId());
             return ApiResponseUtil.success("删除笔记成功");
         } catch (Exception e) {
+            log.error("删除笔记失败, noteId: {}", noteId, e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ApiResponseUtil.error("删除笔记失败");
         }
     }
 
-    // 下载笔记
-    @Override
-    @NeedLogin
-    public ApiResponse<DownloadNoteVO> downloadNote() {
-
-        Long userId = requestScopeData.getUserId();
-
-        // 获取所有笔记
-        List<Note> userNotes = noteMapper.findByAuthorId(userId);
-
-        // 将笔记转为 key = questionId, value = note 的 map 对象
-        Map<Integer, Note> questionNoteMap = userNotes.stream()
-                .collect(Collectors.toMap(Note::getQuestionId, note -> note));
-
-        if (userNotes.isEmpty()) {
-            return ApiResponseUtil.error("不存在任何笔记");
-        }
-
-        // 获取分类树
-        List<CategoryVO> categoryTree = categoryService.buildCategoryTree();
-
-        // 根据分类树，创建 markdown 文件
-        StringBuilder markdownContent = new StringBuilder();
-
-        // 将 note 中的所有 questionId 提取出来
-        List<Integer> questionIds = userNotes.stream()
-                .map(Note::getQuestionId)
-                .toList();
-
-        List<Question> questions = questionMapper.findByIdBatch(questionIds);
-
-        for (CategoryVO categoryVO : categoryTree) {
-
-            boolean hasTopLevelToc = false;
-
-            if (categoryVO.getChildren().isEmpty()) {
-                continue;
-            }
-
-            for (CategoryVO.ChildrenCategoryVO childrenCategoryVO : categoryVO.getChildren()) {
-
-                boolean hasSubLevelToc = false;
-                Integer categoryId = childrenCategoryVO.getCategoryId();
-
-                // 用户在该分类下的笔记对应的所有问题
-                List<Question> categoryQuestionList = questions.stream()
-                        .filter(question -> question.getCategoryId().equals(categoryId))
-                        .toList();
-
-                if (categoryQuestionList.isEmpty()) {
-                    continue;
-                }
-
-                for (Question question : categoryQuestionList) {
-
-                    if (!hasTopLevelToc) {  // 设置一级标题
-                        markdownContent.append("# ").append(categoryVO.getName()).append("\n");
-                        hasTopLevelToc = true;
-                    }
-
-                    if (!hasSubLevelToc) {  // 设置二级标题
-                        markdownContent.append("## ").append(childrenCategoryVO.getName()).append("\n");
-                        hasSubLevelToc = true;
-                    }
-
-                    markdownContent.append("### [")
-                            .append(question.getTitle())
-                            .append("]")
-                            .append("(https://notes.kamacoder.com/questions/")
-                            .append(question.getQuestionId())
-                            .append(")\n");
-
-                    Note note = questionNoteMap.get(question.getQuestionId());
-
-                    markdownContent.append(note.getContent()).append("\n");
-                }
-            }
-        }
-
-        // 设置笔记内容
-        DownloadNoteVO downloadNoteVO = new DownloadNoteVO();
-        downloadNoteVO.setMarkdown(markdownContent.toString());
-
-        return ApiResponseUtil.success("生成笔记成功", downloadNoteVO);
+    /**
+     * 根据笔记内容计算列表展示用的折叠标记与简介（只解析一次 Markdown）
+     *
+     * @param note 已设置 content 的笔记
+     */
+    private void fillDisplayFields(Note note) {
+        String introduction = MarkdownUtil.collapsedIntroduction(note.getContent());
+        note.setNeedCollapsed(introduction != null);
+        note.setDisplayContent(introduction);
     }
 
     @Override
     public ApiResponse<List<NoteRankListItem>> submitNoteRank() {
-        return ApiResponseUtil.success("获取笔记排行榜成功", noteMapper.submitNoteRank());
+        return ApiResponseUtil.success("获取笔记排行榜成功", noteRankService.getTodayTopN(10));
     }
 
     @Override
     @NeedLogin
     public ApiResponse<List<NoteHeatMapItem>> submitNoteHeatMap() {
         Long userId = requestScopeData.getUserId();
-        return ApiResponseUtil.success("获取笔记热力图成功", noteMapper.submitNoteHeatMap(userId));
+        // 近 94 天的数据，直接按 (author_id, stat_date) 主键范围读取汇总表
+        List<NoteHeatMapItem> heatMap = noteDailyAuthorStatsMapper.findHeatMap(userId, LocalDate.now().minusDays(94));
+        return ApiResponseUtil.success("获取笔记热力图成功", heatMap);
     }
 
     @Override
@@ -326,7 +340,8 @@ public class NoteServiceImpl implements NoteService {
 
         Long userId = requestScopeData.getUserId();
 
-        Top3Count top3Count = noteMapper.submitNoteTop3Count(userId);
+        LocalDate thisMonthStart = LocalDate.now().withDayOfMonth(1);
+        Top3Count top3Count = noteDailyAuthorStatsMapper.findTop3Count(userId, thisMonthStart.minusMonths(1), thisMonthStart);
 
         return ApiResponseUtil.success("获取笔记top3成功", top3Count);
     }
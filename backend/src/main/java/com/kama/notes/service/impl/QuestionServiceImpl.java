@@ -1,5 +1,8 @@
 package com.kama.notes.service.impl;
 
+import com.kama.notes.cache.EntityCacheInvalidator;
+import com.kama.notes.cache.TwoTierCache;
+import com.kama.notes.config.EntityCacheConfig;
 import com.kama.notes.mapper.CategoryMapper;
 import com.kama.notes.mapper.NoteMapper;
 import com.kama.notes.mapper.QuestionMapper;
@@ -10,13 +13,18 @@ import com.kama.notes.model.dto.question.*;
 import com.kama.notes.model.entity.Category;
 import com.kama.notes.model.entity.Note;
 import com.kama.notes.model.entity.Question;
+import com.kama.notes.model.enums.counter.CounterType;
+import com.kama.notes.model.enums.search.SearchScope;
 import com.kama.notes.model.vo.question.CreateQuestionVO;
 import com.kama.notes.model.vo.question.QuestionNoteVO;
 import com.kama.notes.model.vo.question.QuestionUserVO;
 import com.kama.notes.model.vo.question.QuestionVO;
 import com.kama.notes.scope.RequestScopeData;
 import com.kama.notes.service.CategoryService;
+import com.kama.notes.service.CounterService;
+import com.kama.notes.service.HotKeywordService;
 import com.kama.notes.service.QuestionService;
+import com.kama.notes.service.QuestionSuggestService;
 import com.kama.notes.utils.ApiResponseUtil;
 import com.kama.notes.utils.MarkdownAST;
 import com.kama.notes.utils.PaginationUtils;
@@ -55,6 +63,21 @@ public class QuestionServiceImpl implements QuestionService {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private TwoTierCache<Integer, Question> questionCache;
+
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
+    @Autowired
+    private QuestionSuggestService questionSuggestService;
+
+    @Autowired
+    private HotKeywordService hotKeywordService;
+
     // -------------------------------
     // 正则：匹配形如：
     //   (考点: XXX) 或 （考点：XXX）
@@ -66,6 +89,11 @@ public class QuestionServiceImpl implements QuestionService {
             Pattern.compile("【(.*?)】");
     // -------------------------------
 
+    /**
+     * 搜索问题（联想）默认返回的条数
+     */
+    private static final int DEFAULT_SUGGEST_LIMIT = 10;
+
     @Override
     public Question findById(Integer questionId) {
         return questionMapper.findById(questionId);
@@ -77,8 +105,11 @@ public class QuestionServiceImpl implements QuestionService {
         // 处理空数组的情况
         if (questionIds.isEmpty()) return Collections.emptyMap();
 
-        List<Question> questions = questionMapper.findByIdBatch(questionIds);
-        return questions.stream().collect(Collectors.toMap(Question::getQuestionId, question -> question));
+        // 依次查询本地缓存、Redis，未命中的再批量查询数据库
+        return questionCache.getAll(questionIds, missedIds -> {
+            List<Question> questions = questionMapper.findByIdBatch(missedIds);
+            return questions.stream().collect(Collectors.toMap(Question::getQuestionId, question -> question));
+        });
     }
 
     @Override
@@ -89,6 +120,7 @@ public class QuestionServiceImpl implements QuestionService {
 
         Pagination pagination = new Pagination(queryParams.getPage(), queryParams.getPageSize(), total);
         List<Question> questions = questionMapper.findByQueryParam(queryParams, offset, queryParams.getPageSize());
+        counterService.mergeQuestionViewCounts(questions);
 
         List<QuestionVO> questionVOs = questions.stream().map(question -> {
             QuestionVO questionVO = new QuestionVO();
@@ -113,6 +145,7 @@ public class QuestionServiceImpl implements QuestionService {
 
         try {
             questionMapper.insert(question);
+            questionSuggestService.onQuestionChanged();
             CreateQuestionVO createQuestionVO = new CreateQuestionVO();
             createQuestionVO.setQuestionId(question.getQuestionId());
             return ApiResponseUtil.success("创建问题成功", createQuestionVO);
@@ -237,6 +270,8 @@ public class QuestionServiceImpl implements QuestionService {
             }
         }
 
+        // 事务提交后重建联想索引
+        questionSuggestService.onQuestionChanged();
         return ApiResponseUtil.success("创建问题成功");
     }
 
@@ -248,6 +283,8 @@ public class QuestionServiceImpl implements QuestionService {
         // 更新问题
         try {
             questionMapper.update(question);
+            entityCacheInvalidator.invalidate(EntityCacheConfig.QUESTION_CACHE, questionId);
+            questionSuggestService.onQuestionChanged();
             return ApiResponseUtil.success("更新问题成功");
         } catch (Exception e) {
             return ApiResponseUtil.error("更新问题失败");
@@ -257,6 +294,8 @@ public class QuestionServiceImpl implements QuestionService {
     @Override
     public ApiResponse<EmptyVO> deleteQuestion(Integer questionId) {
         if (questionMapper.deleteById(questionId) > 0) {
+            entityCacheInvalidator.invalidate(EntityCacheConfig.QUESTION_CACHE, questionId);
+            questionSuggestService.onQuestionChanged();
             return ApiResponseUtil.success("删除问题成功");
         } else {
             return ApiResponseUtil.error("删除问题失败");
@@ -274,6 +313,7 @@ public class QuestionServiceImpl implements QuestionService {
 
         // 根据 queryParams 查询出符合条件的问题列表
         List<Question> questions = questionMapper.findByQueryParam(queryParams, offset, queryParams.getPageSize());
+        counterService.mergeQuestionViewCounts(questions);
 
         // 提取出 questionId
         List<Integer> questionIds = questions.stream().map(Question::getQuestionId).toList();
@@ -315,6 +355,7 @@ public class QuestionServiceImpl implements QuestionService {
         if (question == null) {
             return ApiResponseUtil.error("questionId 非法");
         }
+        counterService.mergeQuestionViewCounts(List.of(question));
 
         QuestionNoteVO questionNoteVO = new QuestionNoteVO();
         QuestionNoteVO.UserNote userNote = new QuestionNoteVO.UserNote();
@@ -331,9 +372,8 @@ public class QuestionServiceImpl implements QuestionService {
         BeanUtils.copyProperties(question, questionNoteVO);
         questionNoteVO.setUserNote(userNote);
 
-        // 增加问题的点击量
-        // TODO: 有待优化
-        questionMapper.incrementViewCount(questionId);
+        // 增加问题的点击量（写入计数缓冲，由定时任务批量写回）
+        counterService.increment(CounterType.QUESTION_VIEW, questionId, 1);
 
         return ApiResponseUtil.success("获取问题成功", questionNoteVO);
     }
@@ -341,9 +381,23 @@ public class QuestionServiceImpl implements QuestionService {
     @Override
     public ApiResponse<List<QuestionVO>> searchQuestions(SearchQuestionBody body) {
         String keyword = body.getKeyword();
+        int limit = body.getLimit() == null ? DEFAULT_SUGGEST_LIMIT : body.getLimit();
+        hotKeywordService.record(SearchScope.QUESTION, keyword);
+        return suggestQuestions(keyword, limit);
+    }
 
-        // TODO: 简单实现搜索问题功能，后续需要优化
-        List<Question> questionList = questionMapper.findByKeyword(keyword);
+    @Override
+    public ApiResponse<List<QuestionVO>> suggestQuestions(String keyword, int limit) {
+
+        // 优先使用内存联想索引（前缀匹配，按浏览量排序），索引建立前退回数据库模糊查询
+        List<Question> questionList;
+        if (questionSuggestService.isReady()) {
+            List<Integer> questionIds = questionSuggestService.suggest(keyword, limit);
+            Map<Integer, Question> questionMap = getQuestionMapByIds(questionIds);
+            questionList = questionIds.stream().map(questionMap::get).filter(Objects::nonNull).toList();
+        } else {
+            questionList = questionMapper.findByKeyword(keyword, limit);
+        }
 
         List<QuestionVO> questionVOList = questionList.stream().map(question -> {
             QuestionVO questionVO = new QuestionVO();
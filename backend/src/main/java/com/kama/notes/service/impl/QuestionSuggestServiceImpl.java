@@ -0,0 +1,139 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.mapper.QuestionMapper;
+import com.kama.notes.model.entity.Question;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.search.QuestionSuggestIndex;
+import com.kama.notes.service.CounterService;
+import com.kama.notes.service.QuestionSuggestService;
+import com.kama.notes.utils.TransactionUtils;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 问题联想服务实现
+ *
+ * 说明：
+ * - 问题数量有限（千级），每次变更整体重建索引（毫秒级），新索引建好后原子替换，查询无需加锁；
+ * - 收到变更通知后延迟 rebuild-delay-ms 再重建，批量导入问题时的大量通知只触发一次重建；
+ * - 浏览量包含尚未写回数据库的计数增量，定时重建使排序跟上浏览量的变化；
+ * - Redis 不可用时只重建本节点，其他节点在下次定时重建时跟上。
+ */
+@Log4j2
+@Service
+public class QuestionSuggestServiceImpl implements QuestionSuggestService, MessageListener {
+
+    private final QuestionMapper questionMapper;
+
+    private final CounterService counterService;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final TaskScheduler taskScheduler;
+
+    private final int maxSuggestions;
+
+    private final long rebuildDelayMillis;
+
+    /**
+     * 建立完成前为 null
+     */
+    private volatile QuestionSuggestIndex index;
+
+    /**
+     * 是否已有一次延迟重建在等待执行
+     */
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    public QuestionSuggestServiceImpl(QuestionMapper questionMapper,
+                                      CounterService counterService,
+                                      StringRedisTemplate stringRedisTemplate,
+                                      TaskScheduler taskScheduler,
+                                      RedisMessageListenerContainer listenerContainer,
+                                      @Value("${search.suggest.max-suggestions:10}") int maxSuggestions,
+                                      @Value("${search.suggest.rebuild-delay-ms:1000}") long rebuildDelayMillis) {
+        this.questionMapper = questionMapper;
+        this.counterService = counterService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.taskScheduler = taskScheduler;
+        this.maxSuggestions = maxSuggestions;
+        this.rebuildDelayMillis = rebuildDelayMillis;
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKey.questionSuggestChannel()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @Override
+    public boolean isReady() {
+        return index != null;
+    }
+
+    @Override
+    public List<Integer> suggest(String keyword, int limit) {
+        QuestionSuggestIndex current = index;
+        if (current == null) {
+            return List.of();
+        }
+        return current.suggest(QuestionSuggestIndex.normalize(keyword), limit);
+    }
+
+    @Override
+    public void onQuestionChanged() {
+        TransactionUtils.afterCommit(this::publishChange);
+    }
+
+    private void publishChange() {
+        try {
+            // 本节点同样会收到自己发布的消息，在 onMessage 中重建
+            stringRedisTemplate.convertAndSend(RedisKey.questionSuggestChannel(), "changed");
+        } catch (Exception e) {
+            log.warn("问题联想索引变更广播失败，仅重建本节点", e);
+            scheduleRebuild();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                // 先清除标记再重建，重建期间到达的变更会再触发一次
+                rebuildScheduled.set(false);
+                rebuild();
+            }, Instant.now().plusMillis(rebuildDelayMillis));
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            List<Question> questions = questionMapper.findAllForSuggest();
+            counterService.mergeQuestionViewCounts(questions);
+            QuestionSuggestIndex rebuilt = QuestionSuggestIndex.build(questions, maxSuggestions);
+            index = rebuilt;
+            log.debug("问题联想索引重建完成, 问题数: {}, 耗时 {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("问题联想索引重建失败", e);
+        }
+    }
+}
@@ -1,18 +1,97 @@
 package com.kama.notes.service.impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.kama.notes.model.enums.redisKey.RedisKey;
 import com.kama.notes.service.RedisService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
+@Log4j2
 @Service
 public class RedisServiceImpl implements RedisService {
 
+    /**
+     * 读穿透缓存值的 JSON 字段：缓存值、回源耗时（毫秒）、逻辑过期时间（毫秒时间戳）
+     */
+    private static final String FIELD_VALUE = "value";
+    private static final String FIELD_LOAD_MILLIS = "loadMillis";
+    private static final String FIELD_EXPIRE_AT = "expireAt";
+
+    /**
+     * 仅当锁仍由自己持有时才释放
+     */
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+            Long.class);
+
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 回源结果为空时的缓存时间（秒）
+     */
+    @Value("${cache.read-through.negative-ttl-seconds:60}")
+    private long negativeTtlSeconds;
+
+    /**
+     * 回源锁的过期时间（毫秒），应大于回源的正常耗时
+     */
+    @Value("${cache.read-through.lock-ttl-ms:5000}")
+    private long lockTtlMillis;
+
+    /**
+     * 等待其他线程或节点回源的最长时间（毫秒），超时后自行回源
+     */
+    @Value("${cache.read-through.wait-timeout-ms:1000}")
+    private long waitTimeoutMillis;
+
+    /**
+     * 等待其他节点回源时轮询 Redis 的间隔（毫秒）
+     */
+    @Value("${cache.read-through.wait-interval-ms:50}")
+    private long waitIntervalMillis;
+
+    /**
+     * 提前刷新系数，越大越早刷新，0 表示不提前刷新
+     */
+    @Value("${cache.read-through.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta;
+
+    /**
+     * 本节点正在回源的缓存键 -> 回源结果
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
     // 保存数据
     public void set(String key, Object value) {
         redisTemplate.opsForValue().set(key, value);
@@ -52,4 +131,212 @@ public class RedisServiceImpl implements RedisService {
     public void setHashValue(String hashKey, String key, Object value) {
         redisTemplate.opsForHash().put(hashKey, key, value);
     }
+
+    @Override
+    public String tryLock(String lockKey, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, ttl)) ? token : null;
+    }
+
+    @Override
+    public void releaseLock(String lockKey, String token) {
+        try {
+            stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), token);
+        } catch (Exception e) {
+            log.warn("释放分布式锁失败, key: {}", lockKey, e);
+        }
+    }
+
+    // 读穿透缓存
+    @Override
+    public <T> T getOrLoad(String key, TypeReference<T> type, Duration ttl, Supplier<T> loader) {
+        return getOrLoad(key, type, ttl, loader, value -> true);
+    }
+
+    // 读穿透缓存（带可用性判断）
+    @Override
+    public <T> T getOrLoad(String key, TypeReference<T> type, Duration ttl, Supplier<T> loader, Predicate<T> usable) {
+        JavaType javaType = objectMapper.getTypeFactory().constructType(type);
+
+        CachedEntry<T> cached = read(key, javaType, usable);
+        if (cached != null && !shouldRefreshEarly(cached)) {
+            count("hit");
+            return cached.value;
+        }
+
+        // 本节点内同一个键只有一个线程回源
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loading.putIfAbsent(key, future);
+        if (inFlight != null) {
+            if (cached != null) {
+                count("stale");
+                return cached.value;
+            }
+            return awaitInFlight(inFlight, key, javaType, ttl, loader, usable);
+        }
+
+        try {
+            T value = loadWithLock(key, javaType, ttl, loader, usable, cached);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    /**
+     * 获取节点间回源锁后回源并写入缓存；锁被其他节点持有时，有旧值返回旧值，没有则等待其写入
+     */
+    private <T> T loadWithLock(String key, JavaType javaType, Duration ttl, Supplier<T> loader,
+                               Predicate<T> usable, CachedEntry<T> stale) {
+        String lockKey = RedisKey.cacheLoadLock(key);
+        String token = null;
+        boolean locked;
+        try {
+            token = tryLock(lockKey, Duration.ofMillis(lockTtlMillis));
+            locked = token != null;
+        } catch (Exception e) {
+            // Redis 不可用时缓存本身也不可用，直接回源
+            locked = true;
+        }
+        if (!locked) {
+            if (stale != null) {
+                count("stale");
+                return stale.value;
+            }
+            CachedEntry<T> filled = waitForFill(key, javaType, usable);
+            if (filled != null) {
+                count("coalesced");
+                return filled.value;
+            }
+        }
+
+        try {
+            count("load");
+            long start = System.currentTimeMillis();
+            T value = loader.get();
+            write(key, value, System.currentTimeMillis() - start, ttl);
+            return value;
+        } finally {
+            if (token != null) {
+                releaseLock(lockKey, token);
+            }
+        }
+    }
+
+    /**
+     * 等待本节点正在进行的回源；其结果不满足本次调用的 usable 时（例如分页覆盖范围不够）自行回源
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T awaitInFlight(CompletableFuture<Object> inFlight, String key, JavaType javaType, Duration ttl,
+                                Supplier<T> loader, Predicate<T> usable) {
+        try {
+            T value = (T) inFlight.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            if (value != null && !usable.test(value)) {
+                return loadWithLock(key, javaType, ttl, loader, usable, null);
+            }
+            count("coalesced");
+            return value;
+        } catch (TimeoutException e) {
+            // 回源过慢时不再等待，避免请求线程长时间阻塞
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return loader.get();
+        } catch (ExecutionException e) {
+            // 回源失败（通常是数据库异常）直接抛出，不让等待中的请求再各自重试一遍
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> CachedEntry<T> waitForFill(String key, JavaType javaType, Predicate<T> usable) {
+        long deadline = System.currentTimeMillis() + waitTimeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(waitIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            CachedEntry<T> entry = read(key, javaType, usable);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 概率性提前刷新：剩余时间越短、回源越慢，越可能提前刷新
+     */
+    private boolean shouldRefreshEarly(CachedEntry<?> entry) {
+        double random = 1 - ThreadLocalRandom.current().nextDouble();
+        double earlyMillis = -entry.loadMillis * earlyRefreshBeta * Math.log(random);
+        return System.currentTimeMillis() + earlyMillis >= entry.expireAt;
+    }
+
+    /**
+     * 读取缓存值，不存在、格式不符、不满足 usable 或 Redis 不可用时返回 null
+     */
+    private <T> CachedEntry<T> read(String key, JavaType javaType, Predicate<T> usable) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(key);
+            if (json == null) {
+                return null;
+            }
+            JsonNode node = objectMapper.readTree(json);
+            if (!node.has(FIELD_EXPIRE_AT)) {
+                return null;
+            }
+            T value = objectMapper.convertValue(node.get(FIELD_VALUE), javaType);
+            if (value != null && !usable.test(value)) {
+                return null;
+            }
+            return new CachedEntry<>(value, node.path(FIELD_LOAD_MILLIS).asLong(), node.get(FIELD_EXPIRE_AT).asLong());
+        } catch (Exception e) {
+            log.warn("读取读穿透缓存失败，按未命中处理, key: {}", key, e);
+            return null;
+        }
+    }
+
+    private void write(String key, Object value, long loadMillis, Duration ttl) {
+        Duration effectiveTtl = isEmpty(value) && ttl.getSeconds() > negativeTtlSeconds
+                ? Duration.ofSeconds(negativeTtlSeconds)
+                : ttl;
+        try {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.set(FIELD_VALUE, objectMapper.valueToTree(value));
+            node.put(FIELD_LOAD_MILLIS, loadMillis);
+            node.put(FIELD_EXPIRE_AT, System.currentTimeMillis() + effectiveTtl.toMillis());
+            stringRedisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(node), effectiveTtl);
+        } catch (Exception e) {
+            log.warn("写入读穿透缓存失败, key: {}", key, e);
+        }
+    }
+
+    private static boolean isEmpty(Object value) {
+        return value == null
+                || value instanceof Collection<?> collection && collection.isEmpty()
+                || value instanceof Map<?, ?> map && map.isEmpty();
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("cache.read.through", "result", result).increment();
+    }
+
+    /**
+     * 读取到的缓存值
+     */
+    @AllArgsConstructor
+    private static class CachedEntry<T> {
+        private final T value;
+        private final long loadMillis;
+        private final long expireAt;
+    }
 }
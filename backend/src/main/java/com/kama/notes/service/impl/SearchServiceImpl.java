@@ -1,20 +1,64 @@
 package com.kama.notes.service.impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.kama.notes.cache.TwoTierCache;
 import com.kama.notes.mapper.NoteMapper;
 import com.kama.notes.mapper.UserMapper;
 import com.kama.notes.model.base.ApiResponse;
+import com.kama.notes.model.base.Pagination;
+import com.kama.notes.model.dto.question.SearchQuestionBody;
+import com.kama.notes.model.dto.search.NoteSearchIds;
 import com.kama.notes.model.entity.Note;
 import com.kama.notes.model.entity.User;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.model.enums.search.SearchScope;
+import com.kama.notes.model.vo.question.QuestionVO;
+import com.kama.notes.model.vo.search.FacetedNoteSearchVO;
+import com.kama.notes.model.vo.search.SearchSectionVO;
+import com.kama.notes.model.vo.search.UnifiedSearchVO;
+import com.kama.notes.search.NoteFacetIndex;
+import com.kama.notes.search.UserSearchIndex;
+import com.kama.notes.service.CounterService;
+import com.kama.notes.service.HotKeywordService;
+import com.kama.notes.service.NoteFacetService;
+import com.kama.notes.service.NoteSearchIndexService;
+import com.kama.notes.service.QuestionService;
+import com.kama.notes.service.RedisService;
 import com.kama.notes.service.SearchService;
+import com.kama.notes.service.UserSearchIndexService;
+import com.kama.notes.service.UserService;
 import com.kama.notes.utils.ApiResponseUtil;
 import com.kama.notes.utils.SearchUtils;
+import com.kama.notes.utils.TransactionUtils;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Log4j2
 @Service
@@ -27,36 +71,127 @@ public class SearchServiceImpl implements SearchService {
     private UserMapper userMapper;
 
     @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
+    private NoteSearchIndexService noteSearchIndexService;
+
+    @Autowired
+    private UserSearchIndexService userSearchIndexService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private TwoTierCache<Integer, Note> noteCache;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private HotKeywordService hotKeywordService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private NoteFacetService noteFacetService;
+
+    @Autowired
+    @Qualifier("federatedSearchExecutor")
+    private Executor federatedSearchExecutor;
+
+    /**
+     * 笔记搜索结果缓存的过期时间（秒），新发布的笔记最迟在该时间后出现在已缓存查询的结果中
+     */
+    @Value("${search.result-cache.ttl-seconds:600}")
+    private long resultCacheTtlSeconds;
+
+    /**
+     * 每次检索至少取出并缓存的笔记 ID 数，覆盖常见的翻页范围
+     */
+    @Value("${search.result-cache.size:200}")
+    private int resultCacheSize;
+
+    /**
+     * 分面统计与标签筛选覆盖的最大命中数：按相关度取前 max-docs 篇笔记进行筛选和计数
+     */
+    @Value("${search.facet.max-docs:500}")
+    private int facetMaxDocs;
+
+    /**
+     * 每个分面最多返回的取值数
+     */
+    @Value("${search.facet.max-values:20}")
+    private int facetMaxValues;
+
+    /**
+     * 聚合搜索中笔记数据源的超时时间（毫秒），缓存未命中时需要检索并回填笔记，给得比其他数据源宽裕
+     */
+    @Value("${search.federated.note-timeout-ms:800}")
+    private long noteTimeoutMillis;
+
+    /**
+     * 聚合搜索中问题数据源的超时时间（毫秒）
+     */
+    @Value("${search.federated.question-timeout-ms:300}")
+    private long questionTimeoutMillis;
+
+    /**
+     * 聚合搜索中用户数据源的超时时间（毫秒）
+     */
+    @Value("${search.federated.user-timeout-ms:300}")
+    private long userTimeoutMillis;
+
+    private static final String SECTION_OK = "ok";
+    private static final String SECTION_TIMEOUT = "timeout";
+    private static final String SECTION_ERROR = "error";
+
+    /**
+     * 预热时载入实体缓存的笔记数，与搜索接口的默认每页条数一致
+     */
+    private static final int WARM_UP_PAGE_SIZE = 20;
 
-    private static final String NOTE_SEARCH_CACHE_KEY = "search:note:%s:%d:%d";
     private static final String USER_SEARCH_CACHE_KEY = "search:user:%s:%d:%d";
     private static final String NOTE_TAG_SEARCH_CACHE_KEY = "search:note:tag:%s:%s:%d:%d";
-    private static final long CACHE_EXPIRE_TIME = 30; // 分钟
+    private static final Duration CACHE_EXPIRE_TIME = Duration.ofMinutes(30);
+
+    private static final TypeReference<NoteSearchIds> NOTE_SEARCH_IDS_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<User>> USER_LIST_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Note>> NOTE_LIST_TYPE = new TypeReference<>() {
+    };
 
     @Override
     public ApiResponse<List<Note>> searchNotes(String keyword, int page, int pageSize) {
+        // 翻页不是新的搜索，只统计首页
+        if (page == 1) {
+            hotKeywordService.record(SearchScope.NOTE, keyword);
+        }
+        return doSearchNotes(keyword, page, pageSize);
+    }
+
+    /**
+     * 笔记搜索，不统计热词
+     */
+    private ApiResponse<List<Note>> doSearchNotes(String keyword, int page, int pageSize) {
         try {
-            String cacheKey = String.format(NOTE_SEARCH_CACHE_KEY, keyword, page, pageSize);
-            
-            // 尝试从缓存获取
-            List<Note> cachedResult = (List<Note>) redisTemplate.opsForValue().get(cacheKey);
-            if (cachedResult != null) {
-                return ApiResponseUtil.success("搜索成功", cachedResult);
+            String normalizedQuery = SearchUtils.normalizeQuery(keyword);
+            if (normalizedQuery.isEmpty()) {
+                return ApiResponseUtil.success("搜索成功", new ArrayList<>());
             }
 
-            // 处理关键词
-            keyword = SearchUtils.preprocessKeyword(keyword);
-            
             // 计算偏移量
-            int offset = (page - 1) * pageSize;
-            
-            // 执行搜索
-            List<Note> notes = noteMapper.searchNotes(keyword, pageSize, offset);
-            
-            // 存入缓存
-            redisTemplate.opsForValue().set(cacheKey, notes, CACHE_EXPIRE_TIME, TimeUnit.MINUTES);
-            
+            int offset = SearchUtils.calculateOffset(page, pageSize);
+            int end = offset + pageSize;
+
+            List<Integer> noteIds = getRankedNoteIds(keyword, normalizedQuery, end);
+            List<Note> notes = hydrateNotes(noteIds.subList(Math.min(offset, noteIds.size()), Math.min(end, noteIds.size())));
+
             return ApiResponseUtil.success("搜索成功", notes);
         } catch (Exception e) {
             log.error("搜索笔记失败", e);
@@ -64,26 +199,202 @@ public class SearchServiceImpl implements SearchService {
         }
     }
 
+    /**
+     * 获取按相关度排序的笔记 ID，至少覆盖前 end 名（检索结果不足时为全部结果）
+     *
+     * 缓存项按归一化查询共享，一次检索至少取 resultCacheSize 个 ID，后续翻页直接从缓存中截取；
+     * 缓存项覆盖不到请求的页，或其中排在该页及之前的笔记版本号发生变化时，按未命中重新检索并覆盖缓存项。
+     */
+    private List<Integer> getRankedNoteIds(String keyword, String normalizedQuery, int end) {
+        String cacheKey = RedisKey.noteSearchIds(
+                DigestUtils.md5DigestAsHex(normalizedQuery.getBytes(StandardCharsets.UTF_8)));
+
+        NoteSearchIds result = redisService.getOrLoad(cacheKey, NOTE_SEARCH_IDS_TYPE,
+                Duration.ofSeconds(resultCacheTtlSeconds),
+                () -> {
+                    // 执行搜索：优先使用内存倒排索引，索引加载完成前退回数据库全文检索
+                    int limit = Math.max(resultCacheSize, end);
+                    List<Integer> noteIds = noteSearchIndexService.isReady()
+                            ? noteSearchIndexService.search(keyword, limit)
+                            : noteMapper.searchNoteIds(SearchUtils.preprocessKeyword(keyword), limit);
+                    // 版本号在检索之后读取：检索与读取之间被修改的笔记会以新版本号写入，其排名最多在缓存过期前不准确，
+                    // 笔记内容始终从实体缓存回填，不受影响
+                    return new NoteSearchIds(noteIds, readVersions(noteIds), noteIds.size() < limit);
+                },
+                cached -> cached.getNoteIds() != null
+                        && cached.getVersions() != null
+                        && cached.getNoteIds().size() == cached.getVersions().size()
+                        && (cached.isComplete() || cached.getNoteIds().size() >= end)
+                        && versionsMatch(cached, Math.min(end, cached.getNoteIds().size())));
+        return result.getNoteIds();
+    }
+
+    /**
+     * 比对缓存项中前 count 个笔记的版本号与当前版本号
+     */
+    private boolean versionsMatch(NoteSearchIds cached, int count) {
+        if (count == 0) {
+            return true;
+        }
+        List<Long> current = readVersions(cached.getNoteIds().subList(0, count));
+        return current != null && current.equals(cached.getVersions().subList(0, count));
+    }
+
+    /**
+     * 通过一次 MGET 读取笔记的搜索版本号，键不存在时为 0
+     *
+     * @return 与 noteIds 一一对应的版本号，Redis 不可用时返回 null
+     */
+    private List<Long> readVersions(List<Integer> noteIds) {
+        if (noteIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> values;
+        try {
+            values = stringRedisTemplate.opsForValue()
+                    .multiGet(noteIds.stream().map(RedisKey::noteSearchVersion).toList());
+        } catch (Exception e) {
+            log.warn("读取笔记搜索版本号失败", e);
+            return null;
+        }
+        List<Long> versions = new ArrayList<>(noteIds.size());
+        for (int i = 0; i < noteIds.size(); i++) {
+            String value = values == null ? null : values.get(i);
+            versions.add(value == null ? 0L : Long.parseLong(value));
+        }
+        return versions;
+    }
+
+    /**
+     * 按给定 ID 顺序从实体缓存回填笔记，并合并尚未写回数据库的计数；已被删除的笔记会被跳过
+     */
+    private List<Note> hydrateNotes(List<Integer> noteIds) {
+        if (noteIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, Note> noteMap = noteCache.getAll(noteIds, missedIds -> noteMapper.findByIds(missedIds).stream()
+                .collect(Collectors.toMap(Note::getNoteId, Function.identity())));
+        List<Note> notes = noteIds.stream()
+                .map(noteMap::get)
+                .filter(Objects::nonNull)
+                .map(cachedNote -> {
+                    // 缓存中的实体在本节点内共享，合并计数前先复制
+                    Note note = new Note();
+                    BeanUtils.copyProperties(cachedNote, note);
+                    return note;
+                })
+                .collect(Collectors.toList());
+        counterService.mergeNoteCounts(notes);
+        return notes;
+    }
+
     @Override
-    public ApiResponse<List<User>> searchUsers(String keyword, int page, int pageSize) {
+    public int warmUp(List<String> keywords) {
+        int warmed = 0;
+        for (String keyword : keywords) {
+            try {
+                String normalizedQuery = SearchUtils.normalizeQuery(keyword);
+                if (normalizedQuery.isEmpty()) {
+                    continue;
+                }
+                // 缓存项可用时只是一次命中，缺失、失效或进入提前刷新区间时重新检索
+                List<Integer> noteIds = getRankedNoteIds(keyword, normalizedQuery, WARM_UP_PAGE_SIZE);
+                List<Integer> firstPage = noteIds.subList(0, Math.min(WARM_UP_PAGE_SIZE, noteIds.size()));
+                if (!firstPage.isEmpty()) {
+                    noteCache.getAll(firstPage, missedIds -> noteMapper.findByIds(missedIds).stream()
+                            .collect(Collectors.toMap(Note::getNoteId, Function.identity())));
+                }
+                warmed++;
+            } catch (Exception e) {
+                log.warn("预热笔记搜索失败, keyword: {}", keyword, e);
+            }
+        }
+        return warmed;
+    }
+
+    @Override
+    public void onNoteChanged(Integer noteId) {
+        TransactionUtils.afterCommit(() -> incrementVersion(noteId));
+    }
+
+    private void incrementVersion(Integer noteId) {
+        String key = RedisKey.noteSearchVersion(noteId);
         try {
-            String cacheKey = String.format(USER_SEARCH_CACHE_KEY, keyword, page, pageSize);
-            
-            // 尝试从缓存获取
-            List<User> cachedResult = (List<User>) redisTemplate.opsForValue().get(cacheKey);
-            if (cachedResult != null) {
-                return ApiResponseUtil.success("搜索成功", cachedResult);
+            stringRedisTemplate.opsForValue().increment(key);
+            // 版本号键的存活时间长于结果缓存：引用某个版本号的缓存项总会先于该版本号过期，避免版本号归零后误判为一致
+            stringRedisTemplate.expire(key, Duration.ofSeconds(resultCacheTtlSeconds * 2));
+        } catch (Exception e) {
+            log.warn("递增笔记搜索版本号失败, noteId: {}", noteId, e);
+        }
+    }
+
+    @Override
+    public ApiResponse<FacetedNoteSearchVO> searchNotesWithFacets(String keyword, Integer categoryId, Integer difficulty,
+                                                                  Integer tagId, int page, int pageSize) {
+        if (page == 1) {
+            hotKeywordService.record(SearchScope.NOTE, keyword);
+        }
+        try {
+            NoteFacetIndex facetIndex = noteFacetService.getIndex();
+            if (facetIndex == null) {
+                return ApiResponseUtil.error("搜索筛选暂不可用，请稍后再试");
+            }
+            String normalizedQuery = SearchUtils.normalizeQuery(keyword);
+            if (normalizedQuery.isEmpty()) {
+                return ApiResponseUtil.success("搜索成功",
+                        new FacetedNoteSearchVO(new ArrayList<>(), facetIndex.count(List.of(), facetMaxValues)),
+                        new Pagination(page, pageSize, 0));
             }
 
+            // 在按相关度排序的前 max-docs 个命中中筛选与计数，与普通搜索共用排序结果缓存
+            List<Integer> rankedIds = getRankedNoteIds(keyword, normalizedQuery, facetMaxDocs);
+            List<Integer> matched = facetIndex.filter(rankedIds.subList(0, Math.min(facetMaxDocs, rankedIds.size())),
+                    categoryId, difficulty, tagId == null ? null : Set.of(tagId));
+
+            int offset = SearchUtils.calculateOffset(page, pageSize);
+            List<Note> notes = hydrateNotes(matched.subList(Math.min(offset, matched.size()),
+                    Math.min(offset + pageSize, matched.size())));
+            FacetedNoteSearchVO result = new FacetedNoteSearchVO(notes, facetIndex.count(matched, facetMaxValues));
+            return ApiResponseUtil.success("搜索成功", result, new Pagination(page, pageSize, matched.size()));
+        } catch (Exception e) {
+            log.error("搜索笔记失败", e);
+            return ApiResponseUtil.error("搜索失败");
+        }
+    }
+
+    @Override
+    public ApiResponse<List<User>> searchUsers(String keyword, int page, int pageSize) {
+        if (page == 1) {
+            hotKeywordService.record(SearchScope.USER, keyword);
+        }
+        return doSearchUsers(keyword, page, pageSize);
+    }
+
+    /**
+     * 用户搜索，不统计热词
+     */
+    private ApiResponse<List<User>> doSearchUsers(String keyword, int page, int pageSize) {
+        try {
             // 计算偏移量
             int offset = (page - 1) * pageSize;
-            
-            // 执行搜索
-            List<User> users = userMapper.searchUsers(keyword, pageSize, offset);
-            
-            // 存入缓存
-            redisTemplate.opsForValue().set(cacheKey, users, CACHE_EXPIRE_TIME, TimeUnit.MINUTES);
-            
+
+            // 索引就绪时在内存中匹配与排序，按 ID 从用户缓存读取当前页（不含密码），并返回精确的命中总数
+            if (userSearchIndexService.isReady()) {
+                UserSearchIndex.Result result = userSearchIndexService.searchByPrefix(keyword, offset, pageSize);
+                Map<Long, User> userMap = userService.getUserMapByIds(result.getUserIds());
+                List<User> users = result.getUserIds().stream()
+                        .map(userMap::get)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList());
+                return ApiResponseUtil.success("搜索成功", users, new Pagination(page, pageSize, result.getTotal()));
+            }
+
+            String cacheKey = String.format(USER_SEARCH_CACHE_KEY, keyword, page, pageSize);
+
+            // 执行搜索，结果缓存；同一查询并发未命中时只查询一次数据库
+            List<User> users = redisService.getOrLoad(cacheKey, USER_LIST_TYPE, CACHE_EXPIRE_TIME,
+                    () -> userMapper.searchUsers(keyword, pageSize, offset));
+
             return ApiResponseUtil.success("搜索成功", users);
         } catch (Exception e) {
             log.error("搜索用户失败", e);
@@ -91,29 +402,128 @@ public class SearchServiceImpl implements SearchService {
         }
     }
 
+    @Override
+    public ApiResponse<UnifiedSearchVO> searchAll(String keyword, int limit) {
+        String trimmed = keyword == null ? "" : keyword.trim();
+        if (trimmed.isEmpty()) {
+            return ApiResponseUtil.error("关键词不能为空");
+        }
+
+        // 一次聚合搜索只按笔记范围统计一次热词；各数据源使用不统计热词的内部方法，
+        // 避免同一次搜索被重复计入三个范围，也避免关键词进入用户搜索的热词
+        hotKeywordService.record(SearchScope.NOTE, trimmed);
+
+        // 三个数据源同时提交到 federatedSearchExecutor，总耗时取决于最慢且未超时的数据源
+        long start = System.nanoTime();
+        Future<List<Note>> notesFuture = submitSection(() -> doSearchNotes(trimmed, 1, limit));
+        Future<List<QuestionVO>> questionsFuture = submitSection(() -> questionService.suggestQuestions(trimmed, limit));
+        Future<List<User>> usersFuture = submitSection(() -> doSearchUsers(trimmed, 1, limit));
+
+        // 各数据源的超时均从提交时刻起算，依次等待不会叠加
+        SearchSectionVO<Note> notes = awaitSection(SearchScope.NOTE, notesFuture, start, noteTimeoutMillis);
+        SearchSectionVO<QuestionVO> questions = awaitSection(SearchScope.QUESTION, questionsFuture, start, questionTimeoutMillis);
+        SearchSectionVO<User> users = awaitSection(SearchScope.USER, usersFuture, start, userTimeoutMillis);
+
+        String needle = trimmed.toLowerCase();
+        boolean exactUser = !users.getItems().isEmpty()
+                && (needle.equalsIgnoreCase(users.getItems().get(0).getUsername())
+                || needle.equalsIgnoreCase(users.getItems().get(0).getAccount()));
+        boolean questionTitleHit = !questions.getItems().isEmpty()
+                && questions.getItems().get(0).getTitle() != null
+                && questions.getItems().get(0).getTitle().toLowerCase().contains(needle);
+
+        // 分数越高越靠前，同分时保持 笔记、问题、用户 的顺序
+        // 分区对象的 equals 基于内容，按引用区分
+        Map<SearchSectionVO<?>, Integer> scores = new IdentityHashMap<>();
+        scores.put(notes, notes.getItems().isEmpty() ? 0 : 3);
+        scores.put(questions, questions.getItems().isEmpty() ? 0 : (questionTitleHit ? 20 : 2));
+        scores.put(users, users.getItems().isEmpty() ? 0 : (exactUser ? 30 : 1));
+        List<SearchSectionVO<?>> sections = new ArrayList<>(List.of(notes, questions, users));
+        sections.sort(Comparator.comparing(scores::get, Comparator.reverseOrder()));
+
+        boolean partial = sections.stream().anyMatch(section -> !SECTION_OK.equals(section.getStatus()));
+        return ApiResponseUtil.success("搜索成功", new UnifiedSearchVO(trimmed, partial, sections));
+    }
+
+    /**
+     * 在 federatedSearchExecutor 中执行单个数据源的搜索，接口返回错误码时按失败处理；
+     * 线程池饱和拒绝提交时直接按失败处理，不在请求线程中同步执行
+     */
+    private <T> Future<List<T>> submitSection(Supplier<ApiResponse<List<T>>> search) {
+        FutureTask<List<T>> task = new FutureTask<>(() -> {
+            ApiResponse<List<T>> response = search.get();
+            if (response.getCode() != 200 || response.getData() == null) {
+                throw new IllegalStateException(response.getMessage());
+            }
+            return response.getData();
+        });
+        try {
+            federatedSearchExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return task;
+    }
+
+    /**
+     * 等待单个数据源，最多等到 start + timeoutMillis；超时或失败时返回空结果；
+     * 超时的任务被取消：尚未开始的不再执行，执行中的被中断，不继续占用查询线程池
+     */
+    private <T> SearchSectionVO<T> awaitSection(SearchScope scope, Future<List<T>> future,
+                                                long start, long timeoutMillis) {
+        long remaining = timeoutMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        String status;
+        List<T> items = new ArrayList<>();
+        try {
+            items = future.get(Math.max(remaining, 0), TimeUnit.MILLISECONDS);
+            status = SECTION_OK;
+        } catch (TimeoutException e) {
+            log.warn("聚合搜索数据源超时, source: {}, timeout: {} ms", scope.getCode(), timeoutMillis);
+            future.cancel(true);
+            status = SECTION_TIMEOUT;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            status = SECTION_ERROR;
+        } catch (ExecutionException e) {
+            log.warn("聚合搜索数据源失败, source: {}", scope.getCode(), e.getCause());
+            status = SECTION_ERROR;
+        }
+        long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new SearchSectionVO<>(scope.getCode(), status, items, tookMillis);
+    }
+
     @Override
     public ApiResponse<List<Note>> searchNotesByTag(String keyword, String tag, int page, int pageSize) {
+        if (page == 1) {
+            hotKeywordService.record(SearchScope.NOTE, keyword);
+        }
         try {
-            String cacheKey = String.format(NOTE_TAG_SEARCH_CACHE_KEY, keyword, tag, page, pageSize);
-            
-            // 尝试从缓存获取
-            List<Note> cachedResult = (List<Note>) redisTemplate.opsForValue().get(cacheKey);
-            if (cachedResult != null) {
-                return ApiResponseUtil.success("搜索成功", cachedResult);
+            // 分面索引就绪时，从按相关度排序的命中中筛选带有该标签的笔记，不再关联查询 note_tag / tag
+            NoteFacetIndex facetIndex = noteFacetService.getIndex();
+            String normalizedQuery = SearchUtils.normalizeQuery(keyword);
+            if (facetIndex != null && !normalizedQuery.isEmpty()) {
+                List<Integer> rankedIds = getRankedNoteIds(keyword, normalizedQuery, facetMaxDocs);
+                List<Integer> matched = facetIndex.filter(rankedIds.subList(0, Math.min(facetMaxDocs, rankedIds.size())),
+                        null, null, facetIndex.findTagIdsByName(tag));
+                int offset = SearchUtils.calculateOffset(page, pageSize);
+                List<Note> notes = hydrateNotes(matched.subList(Math.min(offset, matched.size()),
+                        Math.min(offset + pageSize, matched.size())));
+                return ApiResponseUtil.success("搜索成功", notes);
             }
 
+            String cacheKey = String.format(NOTE_TAG_SEARCH_CACHE_KEY, keyword, tag, page, pageSize);
+
             // 处理关键词
-            keyword = SearchUtils.preprocessKeyword(keyword);
-            
+            String processedKeyword = SearchUtils.preprocessKeyword(keyword);
+
             // 计算偏移量
             int offset = (page - 1) * pageSize;
-            
-            // 执行搜索
-            List<Note> notes = noteMapper.searchNotesByTag(keyword, tag, pageSize, offset);
-            
-            // 存入缓存
-            redisTemplate.opsForValue().set(cacheKey, notes, CACHE_EXPIRE_TIME, TimeUnit.MINUTES);
-            
+
+            // 执行搜索，结果缓存；同一查询并发未命中时只查询一次数据库
+            List<Note> notes = redisService.getOrLoad(cacheKey, NOTE_LIST_TYPE, CACHE_EXPIRE_TIME,
+                    () -> noteMapper.searchNotesByTag(processedKeyword, tag, pageSize, offset));
+
             return ApiResponseUtil.success("搜索成功", notes);
         } catch (Exception e) {
             log.error("搜索笔记失败", e);
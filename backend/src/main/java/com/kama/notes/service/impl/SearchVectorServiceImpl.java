@@ -0,0 +1,309 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.mapper.NoteMapper;
+import com.kama.notes.model.base.ApiResponse;
+import com.kama.notes.model.dto.search.NoteSearchVector;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.model.vo.search.SearchReindexStatusVO;
+import com.kama.notes.search.JiebaTokenizer;
+import com.kama.notes.scope.RequestScopeData;
+import com.kama.notes.service.RedisService;
+import com.kama.notes.service.SearchVectorService;
+import com.kama.notes.service.UserService;
+import com.kama.notes.utils.ApiResponseUtil;
+import com.kama.notes.utils.SearchUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 笔记检索列写入服务实现
+ *
+ * 增量写入（indexPending）：
+ * - 沿 idx_search_pending 读取等待最久的一批笔记，分词后一条 CASE 语句批量回写；
+ * - 回写以 (note_id, content_version) 为条件，分词期间被再次修改的笔记保持待处理，下一批重新分词；
+ * - 每轮先获取分布式锁，多节点部署时同一时间只有一个节点读取并分词待处理的笔记，其他节点只刷新指标；
+ *   锁过期后其他节点接手，即使偶尔重复分词同一批笔记，回写结果也相同，不影响正确性。
+ *
+ * 词典变化：
+ * - 已写入的 search_vector 按当时的词典分词，内置或自定义词典变化后，数据库全文检索的查询词元与其不再一致；
+ * - 启动后第一次持有锁时比较当前词典指纹与 Redis 中记录的指纹，不同（包括首次部署没有记录）则按 ID 区间
+ *   将全部笔记标记为待处理，由增量写入逐步按新词典重新分词，再记录新的指纹；
+ * - 标记中途失败时不记录指纹，下一轮重新标记，已处于待处理状态的笔记保留原标记时间。
+ *
+ * 全量重建（startReindex）：
+ * - 将 [1, max(note_id)] 按 search.vector.reindex-range-size 切分为区间，提交到 searchIndexExecutor 并行处理，
+ *   并行度由线程池大小限制；单个区间失败只记录失败数，不影响其他区间。
+ *
+ * 指标：
+ * - search.vector.lag.seconds：最早的待处理笔记已等待的秒数，即检索列落后于写入的时长；
+ * - search.vector.pending：待处理的笔记数。
+ */
+@Log4j2
+@Service
+public class SearchVectorServiceImpl implements SearchVectorService {
+
+    private static final JiebaTokenizer tokenizer = JiebaTokenizer.getInstance();
+
+    private final NoteMapper noteMapper;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final RedisService redisService;
+
+    private final UserService userService;
+
+    private final RequestScopeData requestScopeData;
+
+    private final Executor searchIndexExecutor;
+
+    @Value("${search.vector.batch-size:100}")
+    private int batchSize;
+
+    @Value("${search.vector.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${search.vector.pending-lock-seconds:60}")
+    private long pendingLockSeconds;
+
+    @Value("${search.vector.reindex-range-size:200}")
+    private int reindexRangeSize;
+
+    /**
+     * 最早的待处理时间，没有待处理笔记时为 null
+     */
+    private volatile LocalDateTime oldestPending;
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    /**
+     * 本节点是否已确认 search_vector 与当前词典一致
+     */
+    private volatile boolean dictionaryChecked;
+
+    private final AtomicBoolean reindexRunning = new AtomicBoolean();
+
+    private volatile SearchReindexStatusVO reindexStatus = emptyStatus();
+
+    public SearchVectorServiceImpl(NoteMapper noteMapper,
+                                   StringRedisTemplate stringRedisTemplate,
+                                   RedisService redisService,
+                                   UserService userService,
+                                   RequestScopeData requestScopeData,
+                                   @Qualifier("searchIndexExecutor") Executor searchIndexExecutor,
+                                   MeterRegistry meterRegistry) {
+        this.noteMapper = noteMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisService = redisService;
+        this.userService = userService;
+        this.requestScopeData = requestScopeData;
+        this.searchIndexExecutor = searchIndexExecutor;
+
+        Gauge.builder("search.vector.lag.seconds", this, SearchVectorServiceImpl::lagSeconds)
+                .description("最早的待写入 search_vector 的笔记已等待的秒数")
+                .register(meterRegistry);
+        Gauge.builder("search.vector.pending", pendingCount, AtomicInteger::get)
+                .description("待写入 search_vector 的笔记数")
+                .register(meterRegistry);
+    }
+
+    private double lagSeconds() {
+        LocalDateTime oldest = oldestPending;
+        return oldest == null ? 0 : Math.max(Duration.between(oldest, LocalDateTime.now()).toSeconds(), 0);
+    }
+
+    @Override
+    public int indexPending() {
+        String lockKey = RedisKey.searchVectorPendingLock();
+        String token = redisService.tryLock(lockKey, Duration.ofSeconds(pendingLockSeconds));
+        if (token == null) {
+            refreshPendingMetrics();
+            return 0;
+        }
+
+        int total = 0;
+        try {
+            if (!dictionaryChecked) {
+                markAllPendingIfDictionaryChanged();
+            }
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                List<NoteSearchVector> notes = noteMapper.findSearchPending(batchSize);
+                if (notes.isEmpty()) {
+                    break;
+                }
+                total += writeSearchVectors(notes);
+                if (notes.size() < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            redisService.releaseLock(lockKey, token);
+            refreshPendingMetrics();
+        }
+        return total;
+    }
+
+    /**
+     * 词典指纹与上次记录的不同时，将全部笔记标记为待处理；词典尚未加载完成时留到下一轮
+     */
+    private void markAllPendingIfDictionaryChanged() {
+        if (!tokenizer.isReady()) {
+            return;
+        }
+        long fingerprint = tokenizer.getDictionaryFingerprint();
+        if (fingerprint == 0) {
+            // 词典加载失败，回退到主词典时不据此重新分词
+            dictionaryChecked = true;
+            return;
+        }
+
+        String key = RedisKey.searchVectorDictionary();
+        String current = String.valueOf(fingerprint);
+        if (!current.equals(stringRedisTemplate.opsForValue().get(key))) {
+            Integer maxNoteId = noteMapper.findMaxNoteId();
+            int marked = 0;
+            if (maxNoteId != null) {
+                for (int fromNoteId = 1; fromNoteId <= maxNoteId; fromNoteId += reindexRangeSize) {
+                    marked += noteMapper.markSearchPendingRange(fromNoteId, fromNoteId + reindexRangeSize - 1);
+                }
+            }
+            stringRedisTemplate.opsForValue().set(key, current);
+            log.info("分词词典已变化，笔记检索列全部标记为待处理, 笔记数: {}", marked);
+        }
+        dictionaryChecked = true;
+    }
+
+    private void refreshPendingMetrics() {
+        oldestPending = noteMapper.findOldestSearchPending();
+        pendingCount.set(noteMapper.countSearchPending());
+    }
+
+    private int writeSearchVectors(List<NoteSearchVector> notes) {
+        for (NoteSearchVector note : notes) {
+            note.setSearchVector(SearchUtils.preprocessKeyword(note.getContent()));
+            // 回写不需要携带内容，减小 SQL 体积
+            note.setContent(null);
+        }
+        return noteMapper.updateSearchVectorBatch(notes);
+    }
+
+    @Override
+    public ApiResponse<SearchReindexStatusVO> startReindex() {
+        if (!isAdmin()) {
+            return ApiResponse.error(HttpStatus.FORBIDDEN.value(), "无权重建检索索引");
+        }
+        if (!reindexRunning.compareAndSet(false, true)) {
+            return ApiResponseUtil.error("检索索引重建正在执行");
+        }
+
+        Integer maxNoteId = noteMapper.findMaxNoteId();
+        int ranges = maxNoteId == null ? 0 : (maxNoteId + reindexRangeSize - 1) / reindexRangeSize;
+        SearchReindexStatusVO status = emptyStatus();
+        status.setRunning(true);
+        status.setTotalRanges(ranges);
+        status.setStartedAt(LocalDateTime.now());
+        reindexStatus = status;
+
+        Thread coordinator = new Thread(() -> runReindex(ranges), "search-reindex");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return ApiResponseUtil.success("检索索引重建已启动", snapshot(status));
+    }
+
+    private void runReindex(int ranges) {
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger indexed = new AtomicInteger();
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(ranges);
+            for (int i = 0; i < ranges; i++) {
+                int fromNoteId = i * reindexRangeSize + 1;
+                int toNoteId = (i + 1) * reindexRangeSize;
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        List<NoteSearchVector> notes = noteMapper.findSearchVectorRange(fromNoteId, toNoteId);
+                        if (!notes.isEmpty()) {
+                            indexed.addAndGet(writeSearchVectors(notes));
+                        }
+                        completed.incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        log.warn("重建笔记检索列失败, noteId: [{}, {}]", fromNoteId, toNoteId, e);
+                    }
+                    updateProgress(completed, failed, indexed);
+                }, searchIndexExecutor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            log.info("笔记检索列重建完成, 区间: {}, 失败: {}, 回写: {}", ranges, failed.get(), indexed.get());
+        } catch (Exception e) {
+            log.error("笔记检索列重建中断", e);
+        } finally {
+            updateProgress(completed, failed, indexed);
+            SearchReindexStatusVO status = reindexStatus;
+            synchronized (status) {
+                status.setFinishedAt(LocalDateTime.now());
+                status.setRunning(false);
+            }
+            reindexRunning.set(false);
+        }
+    }
+
+    private void updateProgress(AtomicInteger completed, AtomicInteger failed, AtomicInteger indexed) {
+        SearchReindexStatusVO status = reindexStatus;
+        synchronized (status) {
+            status.setCompletedRanges(completed.get());
+            status.setFailedRanges(failed.get());
+            status.setIndexedNotes(indexed.get());
+        }
+    }
+
+    @Override
+    public ApiResponse<SearchReindexStatusVO> getReindexStatus() {
+        if (!isAdmin()) {
+            return ApiResponse.error(HttpStatus.FORBIDDEN.value(), "无权查看检索索引重建进度");
+        }
+        return ApiResponse.success(snapshot(reindexStatus));
+    }
+
+    private SearchReindexStatusVO snapshot(SearchReindexStatusVO status) {
+        SearchReindexStatusVO copy = new SearchReindexStatusVO();
+        synchronized (status) {
+            copy.setRunning(status.getRunning());
+            copy.setTotalRanges(status.getTotalRanges());
+            copy.setCompletedRanges(status.getCompletedRanges());
+            copy.setFailedRanges(status.getFailedRanges());
+            copy.setIndexedNotes(status.getIndexedNotes());
+            copy.setStartedAt(status.getStartedAt());
+            copy.setFinishedAt(status.getFinishedAt());
+        }
+        return copy;
+    }
+
+    private static SearchReindexStatusVO emptyStatus() {
+        SearchReindexStatusVO status = new SearchReindexStatusVO();
+        status.setRunning(false);
+        status.setTotalRanges(0);
+        status.setCompletedRanges(0);
+        status.setFailedRanges(0);
+        status.setIndexedNotes(0);
+        return status;
+    }
+
+    private boolean isAdmin() {
+        return userService.isAdmin(requestScopeData.getUserId());
+    }
+}
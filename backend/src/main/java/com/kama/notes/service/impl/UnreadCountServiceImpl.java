@@ -0,0 +1,280 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.mapper.MessageMapper;
+import com.kama.notes.model.dto.message.ReceiverUnreadCount;
+import com.kama.notes.model.enums.message.MessageType;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.model.vo.message.UnreadCountByType;
+import com.kama.notes.service.BroadcastService;
+import com.kama.notes.service.RedisService;
+import com.kama.notes.service.UnreadCountService;
+import com.kama.notes.utils.TransactionUtils;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 未读消息计数服务实现
+ *
+ * 存储结构：
+ * - message:unread:{userId}：Redis 哈希，field 为消息类型，value 为该类型的未读数；
+ *   加载时写入全部消息类型（包括 0），因此键存在即代表计数完整。
+ *
+ * 更新规则：
+ * - 创建消息、标记已读的增量在业务事务提交后通过 Lua 脚本原子更新，且仅在键存在时更新：
+ *   键不存在说明尚未加载（或已过期），下次读取时会从数据库加载完整计数，避免写入不完整的哈希；
+ * - 标记已读时由调用方在事务内 SELECT ... FOR UPDATE 锁定未读行，保证同一条消息只扣减一次；
+ * - 读取时顺带续期，长期不活跃用户的计数自然过期，不占用内存。
+ *
+ * 系统广播：
+ * - 广播不写入每个用户的计数哈希，读取时由 BroadcastService 按已读水位线计算未读广播数并计入系统消息，
+ *   对账只比较 message 表中的消息。
+ *
+ * 对账：
+ * - 懒加载与增量更新之间存在极短的竞争窗口（例如加载期间恰好有新消息提交），
+ *   定时任务扫描已有的计数哈希，与数据库分组统计结果比较并覆盖不一致的计数。
+ */
+@Log4j2
+@Service
+public class UnreadCountServiceImpl implements UnreadCountService {
+
+    private static final List<Integer> MESSAGE_TYPES = List.of(MessageType.LIKE, MessageType.COMMENT, MessageType.SYSTEM);
+
+    /**
+     * 仅当计数哈希存在时累加增量，结果小于 0 时归零。ARGV 为 field/增量 对
+     */
+    private static final RedisScript<Long> INCREMENT_IF_EXISTS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 0 then return 0 end "
+                    + "for i = 1, #ARGV, 2 do "
+                    + "if redis.call('hincrby', KEYS[1], ARGV[i], ARGV[i + 1]) < 0 then "
+                    + "redis.call('hset', KEYS[1], ARGV[i], 0) end "
+                    + "end return 1",
+            Long.class);
+
+    /**
+     * 计数哈希不存在时写入完整计数。ARGV[1] 为过期秒数，其后为 field/value 对
+     */
+    private static final RedisScript<Long> INIT_IF_ABSENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 1 then return 0 end "
+                    + "for i = 2, #ARGV, 2 do redis.call('hset', KEYS[1], ARGV[i], ARGV[i + 1]) end "
+                    + "redis.call('expire', KEYS[1], ARGV[1]) return 1",
+            Long.class);
+
+    /**
+     * 对账覆盖：仅当计数哈希仍存在时整体替换，已过期的不再重建。参数同 INIT_IF_ABSENT_SCRIPT
+     */
+    private static final RedisScript<Long> OVERWRITE_IF_EXISTS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 0 then return 0 end "
+                    + "redis.call('del', KEYS[1]) "
+                    + "for i = 2, #ARGV, 2 do redis.call('hset', KEYS[1], ARGV[i], ARGV[i + 1]) end "
+                    + "redis.call('expire', KEYS[1], ARGV[1]) return 1",
+            Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisService redisService;
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    @Autowired
+    private BroadcastService broadcastService;
+
+    @Value("${message.unread.ttl-seconds:604800}")
+    private long ttlSeconds;
+
+    @Value("${message.unread.reconcile-batch-size:200}")
+    private int reconcileBatchSize;
+
+    @Value("${message.unread.reconcile-lock-seconds:600}")
+    private long reconcileLockSeconds;
+
+    @Override
+    public void increment(Long receiverId, Integer type) {
+        applyAfterCommit(receiverId, Map.of(type, 1));
+    }
+
+    @Override
+    public void decrement(Long receiverId, Map<Integer, Integer> countsByType) {
+        Map<Integer, Integer> deltas = new HashMap<>();
+        countsByType.forEach((type, count) -> deltas.put(type, -count));
+        applyAfterCommit(receiverId, deltas);
+    }
+
+    private void applyAfterCommit(Long receiverId, Map<Integer, Integer> deltas) {
+        if (receiverId == null || deltas.isEmpty()) return;
+
+        // 业务事务回滚时不应计数，因此在提交后再更新
+        TransactionUtils.afterCommit(() -> apply(receiverId, deltas));
+    }
+
+    private void apply(Long receiverId, Map<Integer, Integer> deltas) {
+        List<String> args = new ArrayList<>();
+        deltas.forEach((type, delta) -> {
+            args.add(String.valueOf(type));
+            args.add(String.valueOf(delta));
+        });
+        try {
+            stringRedisTemplate.execute(INCREMENT_IF_EXISTS_SCRIPT,
+                    List.of(RedisKey.messageUnread(receiverId)), args.toArray());
+        } catch (Exception e) {
+            // 消息本身已提交，计数偏差由对账任务修正
+            log.warn("更新未读消息计数失败, receiverId: {}, deltas: {}", receiverId, deltas, e);
+        }
+    }
+
+    @Override
+    public Map<Integer, Integer> getUnreadCountByType(Long userId) {
+        Map<Integer, Integer> counts = getMessageUnreadCountByType(userId);
+        // 系统广播不写入每个用户的计数，读取时按已读水位线计入系统消息
+        counts.merge(MessageType.SYSTEM, broadcastService.countUnread(userId), Integer::sum);
+        return counts;
+    }
+
+    /**
+     * 读取 message 表中消息的未读计数（不含系统广播）
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Integer, Integer> getMessageUnreadCountByType(Long userId) {
+        String key = RedisKey.messageUnread(userId);
+        try {
+            List<Object> replies = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.hGetAll(key);
+                stringConnection.expire(key, ttlSeconds);
+                return null;
+            });
+            Map<String, String> hash = (Map<String, String>) replies.get(0);
+            if (hash != null && !hash.isEmpty()) {
+                Map<Integer, Integer> counts = new TreeMap<>();
+                hash.forEach((type, count) -> counts.put(Integer.valueOf(type), Integer.valueOf(count)));
+                return counts;
+            }
+        } catch (Exception e) {
+            log.warn("读取未读消息计数失败，使用数据库统计, userId: {}", userId, e);
+            return loadFromDatabase(userId);
+        }
+
+        Map<Integer, Integer> counts = loadFromDatabase(userId);
+        try {
+            stringRedisTemplate.execute(INIT_IF_ABSENT_SCRIPT, List.of(key), toScriptArgs(counts));
+        } catch (Exception e) {
+            log.warn("写入未读消息计数失败, userId: {}", userId, e);
+        }
+        return counts;
+    }
+
+    @Override
+    public int getUnreadCount(Long userId) {
+        return getUnreadCountByType(userId).values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private Map<Integer, Integer> loadFromDatabase(Long userId) {
+        Map<Integer, Integer> counts = emptyCounts();
+        for (UnreadCountByType row : messageMapper.countUnreadByType(userId)) {
+            counts.put(Integer.valueOf(row.getType()), row.getCount());
+        }
+        return counts;
+    }
+
+    private Map<Integer, Integer> emptyCounts() {
+        Map<Integer, Integer> counts = new TreeMap<>();
+        MESSAGE_TYPES.forEach(type -> counts.put(type, 0));
+        return counts;
+    }
+
+    private Object[] toScriptArgs(Map<Integer, Integer> counts) {
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(ttlSeconds));
+        counts.forEach((type, count) -> {
+            args.add(String.valueOf(type));
+            args.add(String.valueOf(count));
+        });
+        return args.toArray();
+    }
+
+    @Override
+    public int reconcile() {
+        String lockKey = RedisKey.messageUnreadReconcileLock();
+        String token = redisService.tryLock(lockKey, Duration.ofSeconds(reconcileLockSeconds));
+        if (token == null) {
+            return 0;
+        }
+
+        int fixed = 0;
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisKey.messageUnreadPattern())
+                .count(reconcileBatchSize)
+                .build();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            List<Long> batch = new ArrayList<>(reconcileBatchSize);
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                batch.add(Long.valueOf(key.substring(key.lastIndexOf(':') + 1)));
+                if (batch.size() >= reconcileBatchSize) {
+                    fixed += reconcileBatch(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                fixed += reconcileBatch(batch);
+            }
+        } finally {
+            redisService.releaseLock(lockKey, token);
+        }
+        return fixed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int reconcileBatch(List<Long> userIds) {
+        // 两次读取之间的并发更新可能造成误判，覆盖后残留的偏差会在下一轮对账中修正
+        List<Object> replies = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (Long userId : userIds) {
+                stringConnection.hGetAll(RedisKey.messageUnread(userId));
+            }
+            return null;
+        });
+
+        Map<Long, Map<Integer, Integer>> expected = new HashMap<>();
+        userIds.forEach(userId -> expected.put(userId, emptyCounts()));
+        for (ReceiverUnreadCount row : messageMapper.countUnreadByReceivers(userIds)) {
+            expected.get(row.getReceiverId()).put(row.getType(), row.getCount());
+        }
+
+        int fixed = 0;
+        for (int i = 0; i < userIds.size(); i++) {
+            Long userId = userIds.get(i);
+            Map<String, String> hash = (Map<String, String>) replies.get(i);
+            if (hash == null || hash.isEmpty()) {
+                continue;
+            }
+            Map<Integer, Integer> actual = new TreeMap<>();
+            hash.forEach((type, count) -> actual.put(Integer.valueOf(type), Integer.valueOf(count)));
+
+            Map<Integer, Integer> counts = expected.get(userId);
+            if (!counts.equals(actual)) {
+                Long result = stringRedisTemplate.execute(OVERWRITE_IF_EXISTS_SCRIPT,
+                        List.of(RedisKey.messageUnread(userId)), toScriptArgs(counts));
+                if (Long.valueOf(1).equals(result)) {
+                    log.info("修正未读消息计数, userId: {}, redis: {}, db: {}", userId, actual, counts);
+                    fixed++;
+                }
+            }
+        }
+        return fixed;
+    }
+}
@@ -0,0 +1,108 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.mapper.UserMapper;
+import com.kama.notes.model.dto.user.UserQueryParam;
+import com.kama.notes.model.entity.User;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.search.IndexSynchronizer;
+import com.kama.notes.search.UserSearchIndex;
+import com.kama.notes.service.UserSearchIndexService;
+import lombok.extern.log4j.Log4j2;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * 用户搜索索引服务实现
+ *
+ * 加载与增量同步由 {@link IndexSynchronizer} 完成，加载期间查询退回数据库：
+ * - 加载时以 MyBatis 游标流式扫描全部用户建立索引；
+ * - 收到变更通知后从数据库读取该用户的当前字段重新索引。
+ *
+ * 注意：is_admin / is_banned 目前没有修改接口，直接修改数据库后需重启节点才能反映到管理端的过滤结果中。
+ */
+@Log4j2
+@Service
+public class UserSearchIndexServiceImpl implements UserSearchIndexService {
+
+    private final UserMapper userMapper;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final IndexSynchronizer<Long, UserSearchIndex> synchronizer;
+
+    public UserSearchIndexServiceImpl(UserMapper userMapper,
+                                      StringRedisTemplate stringRedisTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      RedisMessageListenerContainer listenerContainer) {
+        this.userMapper = userMapper;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.synchronizer = new IndexSynchronizer<>("用户搜索索引", RedisKey.userSearchIndexChannel(),
+                Long::valueOf, this::reindex, stringRedisTemplate, listenerContainer);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        synchronizer.start("user-search-index-loader", this::load);
+    }
+
+    private UserSearchIndex load() {
+        UserSearchIndex loaded = new UserSearchIndex();
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Cursor<User> cursor = userMapper.scanForSearchIndex()) {
+                cursor.forEach(loaded::put);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("用户搜索索引已建立, 用户数: {}", loaded.size());
+        return loaded;
+    }
+
+    @Override
+    public boolean isReady() {
+        return synchronizer.get() != null;
+    }
+
+    @Override
+    public UserSearchIndex.Result searchByPrefix(String keyword, int offset, int limit) {
+        UserSearchIndex current = synchronizer.get();
+        if (current == null) {
+            return new UserSearchIndex.Result(0, List.of());
+        }
+        return current.searchByPrefix(keyword, offset, limit);
+    }
+
+    @Override
+    public UserSearchIndex.Result query(UserQueryParam queryParam, int offset, int limit) {
+        UserSearchIndex current = synchronizer.get();
+        if (current == null) {
+            return new UserSearchIndex.Result(0, List.of());
+        }
+        return current.query(queryParam.getUserId(), queryParam.getAccount(), queryParam.getUsername(),
+                queryParam.getIsAdmin(), queryParam.getIsBanned(), offset, limit);
+    }
+
+    @Override
+    public void onUserChanged(Long userId) {
+        synchronizer.publish(userId);
+    }
+
+    private void reindex(UserSearchIndex current, Long userId) {
+        // 用户不会被删除，查不到只可能是注册事务尚未对本节点可见的极端情况，忽略即可
+        User user = userMapper.findById(userId);
+        if (user != null) {
+            current.put(user);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.kama.notes.service.impl;
 
 import com.kama.notes.annotation.NeedLogin;
+import com.kama.notes.cache.EntityCacheInvalidator;
+import com.kama.notes.cache.TwoTierCache;
+import com.kama.notes.config.EntityCacheConfig;
 import com.kama.notes.model.base.ApiResponse;
 import com.kama.notes.model.base.Pagination;
 import com.kama.notes.model.dto.user.LoginRequest;
@@ -8,14 +11,17 @@ import com.kama.notes.model.dto.user.RegisterRequest;
 import com.kama.notes.model.dto.user.UpdateUserRequest;
 import com.kama.notes.model.dto.user.UserQueryParam;
 import com.kama.notes.model.entity.User;
+import com.kama.notes.model.enums.user.UserRole;
 import com.kama.notes.mapper.UserMapper;
 import com.kama.notes.model.vo.user.AvatarVO;
 import com.kama.notes.model.vo.user.RegisterVO;
 import com.kama.notes.model.vo.user.LoginUserVO;
 import com.kama.notes.model.vo.user.UserVO;
 import com.kama.notes.scope.RequestScopeData;
+import com.kama.notes.search.UserSearchIndex;
 import com.kama.notes.service.EmailService;
 import com.kama.notes.service.FileService;
+import com.kama.notes.service.UserSearchIndexService;
 import com.kama.notes.service.UserService;
 import com.kama.notes.utils.ApiResponseUtil;
 import com.kama.notes.utils.JwtUtil;
@@ -53,6 +59,15 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private TwoTierCache<Long, User> userCache;
+
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
+    @Autowired
+    private UserSearchIndexService userSearchIndexService;
+
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -91,6 +106,7 @@ public class UserServiceImpl implements UserService {
         try {
             // 保存用户
             userMapper.insert(user);
+            userSearchIndexService.onUserChanged(user.getUserId());
             String token = jwtUtil.generateToken(user.getUserId());
 
             RegisterVO registerVO = new RegisterVO();
@@ -201,6 +217,8 @@ public class UserServiceImpl implements UserService {
 
         try {
             userMapper.update(user);
+            entityCacheInvalidator.invalidate(EntityCacheConfig.USER_CACHE, userId);
+            userSearchIndexService.onUserChanged(userId);
             return ApiResponseUtil.success("更新成功");
         } catch (Exception e) {
             return ApiResponseUtil.error("更新失败");
@@ -213,16 +231,41 @@ public class UserServiceImpl implements UserService {
         // 处理空数组的情况
         if (authorIds.isEmpty()) return Collections.emptyMap();
 
-        // 查询用户列表
-        List<User> users = userMapper.findByIdBatch(authorIds);
+        // 依次查询本地缓存、Redis，未命中的再批量查询数据库
+        return userCache.getAll(authorIds, missedIds -> {
+            List<User> users = userMapper.findByIdBatch(missedIds);
+            // 缓存中不保存密码哈希
+            users.forEach(user -> user.setPassword(null));
+            return users.stream()
+                    .collect(Collectors.toMap(User::getUserId, user -> user));
+        });
+    }
 
-        return users.stream()
-                .collect(Collectors.toMap(User::getUserId, user -> user));
+    @Override
+    public boolean isAdmin(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        User user = userMapper.findById(userId);
+        return user != null && Objects.equals(user.getIsAdmin(), UserRole.IS_ADMIN);
     }
 
     @Override
     public ApiResponse<List<User>> getUserList(UserQueryParam userQueryParam) {
 
+        // 索引就绪时在内存中过滤、计数与分页，只按 ID 读取当前页的用户
+        if (userSearchIndexService.isReady()) {
+            int offset = PaginationUtils.calculateOffset(userQueryParam.getPage(), userQueryParam.getPageSize());
+            UserSearchIndex.Result result = userSearchIndexService.query(userQueryParam, offset, userQueryParam.getPageSize());
+            Map<Long, User> userMap = getUserMapByIds(result.getUserIds());
+            List<User> users = result.getUserIds().stream()
+                    .map(userMap::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            Pagination pagination = new Pagination(userQueryParam.getPage(), userQueryParam.getPageSize(), result.getTotal());
+            return ApiResponseUtil.success("获取用户列表成功", users, pagination);
+        }
+
         // 分页数据
         int total = userMapper.countByQueryParam(userQueryParam);
         int offset = PaginationUtils.calculateOffset(userQueryParam.getPage(), userQueryParam.getPageSize());
@@ -0,0 +1,59 @@
+package com.kama.notes.task.counter;
+
+import com.kama.notes.service.CounterService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+
+/**
+ * CounterFlushTask
+ *
+ * 定时任务组件：把 Redis 中缓冲的计数增量批量写回数据库。
+ *
+ * 职责：
+ * - 按固定间隔（counter.flush-interval-ms，默认 5 秒）调用 CounterService.flush；
+ * - 应用关闭时再写回一次，尽量不把增量留在 Redis 中；
+ * - 每天凌晨清理 7 天前的刷新批次记录。
+ *
+ * 注意：
+ * - 关闭时若其他节点正持有刷新锁，本次写回会被跳过，增量仍保存在 Redis 中由其他节点或下次启动时写回；
+ * - 进程被强制终止时同理，Redis 中的增量与遗留批次会在下一次 flush 时处理。
+ */
+@Log4j2
+@Component
+public class CounterFlushTask {
+
+    @Autowired
+    private CounterService counterService;
+
+    @Scheduled(initialDelay = 5_000, fixedDelayString = "${counter.flush-interval-ms:5000}")
+    public void flush() {
+        try {
+            int count = counterService.flush();
+            if (count > 0) {
+                log.debug("写回计数器增量 {} 条", count);
+            }
+        } catch (Exception e) {
+            log.error("写回计数器增量失败", e);
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void cleanFlushLog() {
+        try {
+            counterService.cleanFlushLog(LocalDateTime.now().minusDays(7));
+        } catch (Exception e) {
+            log.error("清理计数器刷新批次记录失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("应用关闭，写回计数器增量");
+        flush();
+    }
+}
@@ -0,0 +1,30 @@
+package com.kama.notes.task.message;
+
+import com.kama.notes.service.BroadcastService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定时刷新本节点缓存的系统广播 ID 列表
+ *
+ * 发布广播的节点会立即刷新，其它节点最迟在一个刷新周期后看到新广播计入未读数；
+ * 在线用户通过 WebSocket 推送的增量即时更新角标，不受刷新周期影响。
+ */
+@Log4j2
+@Component
+public class BroadcastIdRefreshTask {
+
+    @Autowired
+    private BroadcastService broadcastService;
+
+    @Scheduled(fixedDelayString = "${message.broadcast.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            broadcastService.refreshBroadcastIds();
+        } catch (Exception e) {
+            log.warn("刷新系统广播 ID 缓存失败", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.kama.notes.task.message;
+
+import com.kama.notes.service.MessageArchiveService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * MessageArchiveTask
+ *
+ * 定时任务组件：将超过保留期（message.archive.retention-days，默认 90 天）的已读消息迁移到归档表。
+ *
+ * 注意：
+ * - 默认每天凌晨 4:10 执行，避开业务高峰；
+ * - 每轮最多处理 message.archive.max-batches-per-run 批，积压较多时分多天完成，避免长时间占用数据库。
+ */
+@Log4j2
+@Component
+public class MessageArchiveTask {
+
+    @Autowired
+    private MessageArchiveService messageArchiveService;
+
+    @Scheduled(cron = "${message.archive.cron:0 10 4 * * ?}")
+    public void archive() {
+        try {
+            long start = System.currentTimeMillis();
+            int count = messageArchiveService.archive();
+            log.info("归档已读消息 {} 条, 耗时 {} ms", count, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("归档已读消息失败", e);
+        }
+    }
+}
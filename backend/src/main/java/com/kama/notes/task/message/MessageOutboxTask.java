@@ -0,0 +1,51 @@
+package com.kama.notes.task.message;
+
+import com.kama.notes.service.MessageOutboxService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * MessageOutboxTask
+ *
+ * 定时任务组件：投递消息发件箱中的通知。
+ *
+ * 职责：
+ * - 按固定间隔（message.outbox.poll-interval-ms，默认 1 秒）调用 MessageOutboxService.dispatch；
+ * - 每天凌晨清理 7 天前已投递的发件箱记录。
+ *
+ * 注意：
+ * - 多节点部署时各节点同时投递，通过 SKIP LOCKED 领取不同的记录，无需分布式锁；
+ * - 投递失败的记录保留在发件箱中，按退避时间在后续轮次重试。
+ */
+@Log4j2
+@Component
+public class MessageOutboxTask {
+
+    @Autowired
+    private MessageOutboxService messageOutboxService;
+
+    @Scheduled(initialDelay = 5_000, fixedDelayString = "${message.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        try {
+            int count = messageOutboxService.dispatch();
+            if (count > 0) {
+                log.debug("投递消息通知 {} 条", count);
+            }
+        } catch (Exception e) {
+            log.error("投递消息通知失败", e);
+        }
+    }
+
+    @Scheduled(cron = "0 40 3 * * ?")
+    public void cleanDispatched() {
+        try {
+            messageOutboxService.cleanDispatched(LocalDateTime.now().minusDays(7));
+        } catch (Exception e) {
+            log.error("清理已投递的消息发件箱记录失败", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.kama.notes.task.message;
+
+import com.kama.notes.service.UnreadCountService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * UnreadCountReconcileTask
+ *
+ * 定时任务组件：将 Redis 中的未读消息计数与数据库对账。
+ *
+ * 职责：
+ * - 按 message.unread.reconcile-cron（默认每小时一次）扫描已有的未读计数哈希；
+ * - 与数据库按类型分组统计的结果比较，覆盖不一致的计数。
+ *
+ * 注意：
+ * - 通过分布式锁保证多节点部署时同一时间只有一个节点在对账；
+ * - 已过期的计数不会被重建，用户下次查询时再从数据库加载。
+ */
+@Log4j2
+@Component
+public class UnreadCountReconcileTask {
+
+    @Autowired
+    private UnreadCountService unreadCountService;
+
+    @Scheduled(cron = "${message.unread.reconcile-cron:0 20 * * * ?}")
+    public void reconcile() {
+        try {
+            int fixed = unreadCountService.reconcile();
+            if (fixed > 0) {
+                log.info("未读消息计数对账完成，修正 {} 个用户", fixed);
+            }
+        } catch (Exception e) {
+            log.error("未读消息计数对账失败", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.kama.notes.task.note;
+
+import com.kama.notes.cache.EntityCacheInvalidator;
+import com.kama.notes.config.EntityCacheConfig;
+import com.kama.notes.mapper.NoteMapper;
+import com.kama.notes.model.entity.Note;
+import com.kama.notes.utils.MarkdownUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * NoteDisplayBackfillTask
+ *
+ * 定时任务组件：为历史笔记回填列表展示用的折叠标记（need_collapsed）与简介（display_content）。
+ *
+ * 职责：
+ * - 新写入/更新的笔记在 Service 层已同步计算展示字段，本任务只处理上线前遗留的 need_collapsed 为 NULL 的记录；
+ * - 按 note_id 升序分批读取、解析 Markdown 并批量回写，单批大小固定，避免长事务与大结果集；
+ * - 一轮遍历未发现任何待回填记录后即标记完成，之后不再访问数据库。
+ *
+ * 注意：
+ * - 回填期间列表查询遇到 need_collapsed 为 NULL 的笔记会现场计算，结果与回填一致；
+ * - 回填不修改 updated_at，不影响笔记的更新时间展示。
+ */
+@Log4j2
+@Component
+public class NoteDisplayBackfillTask {
+
+    /**
+     * 每批处理的笔记条数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private NoteMapper noteMapper;
+
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
+    /**
+     * 是否已完成全部回填（仅在内存中记录，重启后会重新检查一次）
+     */
+    private volatile boolean finished = false;
+
+    /**
+     * backfill
+     *
+     * 应用启动 30 秒后首次执行，此后每 10 分钟执行一次，直到没有待回填的笔记。
+     *
+     * 异常处理：
+     * - 捕获所有异常并记录错误日志，下一周期从头重新扫描（已回填的记录不会再被查出）。
+     */
+    @Scheduled(initialDelay = 30_000, fixedDelay = 600_000)
+    public void backfill() {
+        if (finished) {
+            return;
+        }
+
+        int lastNoteId = 0;
+        int total = 0;
+
+        try {
+            while (true) {
+                List<Note> notes = noteMapper.findDisplayPending(lastNoteId, BATCH_SIZE);
+                if (notes.isEmpty()) {
+                    break;
+                }
+
+                for (Note note : notes) {
+                    String introduction = MarkdownUtil.collapsedIntroduction(note.getContent());
+                    note.setNeedCollapsed(introduction != null);
+                    note.setDisplayContent(introduction);
+                }
+                noteMapper.updateDisplayBatch(notes);
+                entityCacheInvalidator.invalidateAll(EntityCacheConfig.NOTE_CACHE,
+                        notes.stream().map(Note::getNoteId).toList());
+
+                total += notes.size();
+                lastNoteId = notes.get(notes.size() - 1).getNoteId();
+
+                if (notes.size() < BATCH_SIZE) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("回填笔记展示字段失败, lastNoteId: {}", lastNoteId, e);
+            return;
+        }
+
+        if (total == 0) {
+            finished = true;
+            log.info("笔记展示字段回填完成");
+        } else {
+            log.info("本轮回填笔记展示字段 {} 条", total);
+        }
+    }
+}
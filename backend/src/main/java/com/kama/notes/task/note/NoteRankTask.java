@@ -0,0 +1,39 @@
+package com.kama.notes.task.note;
+
+import com.kama.notes.service.NoteRankService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * NoteRankTask
+ *
+ * 定时任务组件：定期从数据库重建当天的笔记提交排行榜。
+ *
+ * 职责：
+ * - 每天 00:00:05 执行一次，提前为新的一天建立（空的）排行榜并写入重建完成标记，
+ *   避免零点后第一个请求触发重建；
+ * - 之后每 30 分钟执行一次，校准增量更新可能产生的偏差（例如 Redis 写入失败、重建与增量更新的竞争）。
+ *
+ * 注意：
+ * - 多节点部署时每个节点都会执行，重建结果相同，重复执行只带来一次范围查询的开销。
+ */
+@Log4j2
+@Component
+public class NoteRankTask {
+
+    @Autowired
+    private NoteRankService noteRankService;
+
+    @Scheduled(cron = "5 0/30 * * * ?")
+    public void rebuildTodayRank() {
+        try {
+            noteRankService.rebuild(LocalDate.now());
+        } catch (Exception e) {
+            log.error("重建每日笔记排行榜失败", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.kama.notes.task.search;
+
+import com.kama.notes.service.HotKeywordService;
+import com.kama.notes.service.SearchService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * HotKeywordTask
+ *
+ * 定时任务组件：合并搜索热词统计，并预热热门笔记搜索的结果缓存。
+ *
+ * 职责：
+ * - 按固定间隔（search.hot.flush-interval-ms，默认 10 秒）把本节点的热词统计合并到 Redis 并刷新热搜榜；
+ * - 按固定间隔（search.hot.warm-up-interval-ms，默认 60 秒）预热笔记搜索热词的排序结果与首页笔记。
+ *
+ * 注意：
+ * - 合并由每个节点各自执行；预热通过 Redis 锁保证每个周期只有一个节点执行；
+ * - 预热不经过搜索接口，不会计入热词统计。
+ */
+@Log4j2
+@Component
+public class HotKeywordTask {
+
+    @Autowired
+    private HotKeywordService hotKeywordService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Scheduled(initialDelay = 10_000, fixedDelayString = "${search.hot.flush-interval-ms:10000}")
+    public void flush() {
+        try {
+            hotKeywordService.flush();
+        } catch (Exception e) {
+            log.error("合并搜索热词统计失败", e);
+        }
+    }
+
+    @Scheduled(initialDelay = 30_000, fixedDelayString = "${search.hot.warm-up-interval-ms:60000}")
+    public void warmUp() {
+        try {
+            List<String> keywords = hotKeywordService.claimWarmUpKeywords();
+            if (!keywords.isEmpty()) {
+                int warmed = searchService.warmUp(keywords);
+                log.debug("预热热门笔记搜索 {} 个", warmed);
+            }
+        } catch (Exception e) {
+            log.error("预热热门笔记搜索失败", e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.kama.notes.task.search;
+
+import com.kama.notes.service.NoteFacetService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * NoteFacetRefreshTask
+ *
+ * 定时任务组件：重建本节点的笔记分面索引，兜底标签等没有变更通知的数据以及变更广播丢失的情况。
+ *
+ * 注意：
+ * - 默认每 5 分钟执行一次；
+ * - 每个节点各自重建，不需要分布式锁。
+ */
+@Log4j2
+@Component
+public class NoteFacetRefreshTask {
+
+    @Autowired
+    private NoteFacetService noteFacetService;
+
+    @Scheduled(cron = "${search.facet.refresh-cron:0 */5 * * * ?}")
+    public void refresh() {
+        noteFacetService.rebuild();
+    }
+}
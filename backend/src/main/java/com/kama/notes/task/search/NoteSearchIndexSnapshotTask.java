@@ -0,0 +1,33 @@
+package com.kama.notes.task.search;
+
+import com.kama.notes.service.NoteSearchIndexService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * NoteSearchIndexSnapshotTask
+ *
+ * 定时任务组件：将本节点的笔记全文检索索引写入磁盘快照，重启时从快照加载，只需追赶快照之后的变更。
+ *
+ * 注意：
+ * - 默认每 10 分钟执行一次，索引没有变更时跳过；
+ * - 快照写入本地磁盘，每个节点各自维护。
+ */
+@Log4j2
+@Component
+public class NoteSearchIndexSnapshotTask {
+
+    @Autowired
+    private NoteSearchIndexService noteSearchIndexService;
+
+    @Scheduled(cron = "${search.index.snapshot-cron:0 */10 * * * ?}")
+    public void snapshot() {
+        try {
+            noteSearchIndexService.snapshot();
+        } catch (Exception e) {
+            log.error("写入笔记索引快照失败", e);
+        }
+    }
+}
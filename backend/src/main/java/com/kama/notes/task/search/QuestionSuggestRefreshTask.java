@@ -0,0 +1,30 @@
+package com.kama.notes.task.search;
+
+import com.kama.notes.service.QuestionSuggestService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * QuestionSuggestRefreshTask
+ *
+ * 定时任务组件：重建本节点的问题联想索引，使联想结果的排序跟上浏览量的变化，
+ * 同时兜底变更广播丢失的情况。
+ *
+ * 注意：
+ * - 默认每 5 分钟执行一次；
+ * - 每个节点各自重建，不需要分布式锁。
+ */
+@Log4j2
+@Component
+public class QuestionSuggestRefreshTask {
+
+    @Autowired
+    private QuestionSuggestService questionSuggestService;
+
+    @Scheduled(cron = "${search.suggest.refresh-cron:0 */5 * * * ?}")
+    public void refresh() {
+        questionSuggestService.rebuild();
+    }
+}
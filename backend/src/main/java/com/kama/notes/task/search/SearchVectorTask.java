@@ -0,0 +1,36 @@
+package com.kama.notes.task.search;
+
+import com.kama.notes.service.SearchVectorService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * SearchVectorTask
+ *
+ * 定时任务组件：为新建或修改过的笔记分词并回写 search_vector。
+ *
+ * 注意：
+ * - 按固定间隔（search.vector.poll-interval-ms，默认 2 秒）执行，笔记保存后通常在一个间隔内即可被数据库全文检索查到；
+ * - 每轮最多处理 search.vector.max-batches-per-run 批，历史笔记的回填分多轮完成。
+ */
+@Log4j2
+@Component
+public class SearchVectorTask {
+
+    @Autowired
+    private SearchVectorService searchVectorService;
+
+    @Scheduled(initialDelay = 10_000, fixedDelayString = "${search.vector.poll-interval-ms:2000}")
+    public void indexPending() {
+        try {
+            int count = searchVectorService.indexPending();
+            if (count > 0) {
+                log.debug("回写笔记检索列 {} 条", count);
+            }
+        } catch (Exception e) {
+            log.error("回写笔记检索列失败", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.kama.notes.task.statistic;
+
+import com.kama.notes.mapper.NoteDailyAuthorStatsMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * NoteDailyAuthorStatsTask
+ *
+ * 定时任务组件：每日定稿作者提交统计表（note_daily_author_stats）。
+ *
+ * 职责：
+ * - 每天 00:10 执行，对今天之前所有尚未定稿（daily_rank 为 NULL）的日期：
+ *   1. 从笔记表按 created_at 范围重新统计每个作者的提交数，校准白天增量维护可能产生的偏差；
+ *   2. 使用 RANK() 计算当天排名并写入 daily_rank；
+ * - 通常只有昨天一天需要定稿；应用停机错过执行时，下次执行会一并补齐。
+ *
+ * 注意：
+ * - 每个日期的"删除 + 重新统计 + 排名"在同一事务中完成，读取方不会看到中间状态；
+ * - 多节点部署时各节点都会执行，结果相同。
+ */
+@Log4j2
+@Component
+public class NoteDailyAuthorStatsTask {
+
+    @Autowired
+    private NoteDailyAuthorStatsMapper noteDailyAuthorStatsMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "0 10 0 * * ?")
+    public void finalizeDailyStats() {
+        LocalDate today = LocalDate.now();
+        List<LocalDate> dates = noteDailyAuthorStatsMapper.findUnfinalizedDates(today);
+        LocalDate yesterday = today.minusDays(1);
+        if (!dates.contains(yesterday)) {
+            // 昨天没有任何统计记录时也从笔记表重新统计一次，防止增量维护遗漏
+            dates.add(yesterday);
+        }
+
+        for (LocalDate date : dates) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    noteDailyAuthorStatsMapper.deleteByDate(date);
+                    noteDailyAuthorStatsMapper.insertFromNotes(date, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+                    noteDailyAuthorStatsMapper.updateRanks(date);
+                });
+                log.info("作者每日提交统计定稿完成: {}", date);
+            } catch (Exception e) {
+                log.error("作者每日提交统计定稿失败: {}", date, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.kama.notes.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * CursorUtils
+ *
+ * 游标（keyset）分页工具类，负责 (createdAt, id) 游标的编码与解码。
+ *
+ * 说明：
+ * - 游标格式为 "createdAt|id" 经 Base64URL（无填充）编码后的字符串，对客户端不透明；
+ * - 客户端只需要原样回传上一页返回的 nextCursor，服务端据此生成
+ *   "created_at &lt; ? OR (created_at = ? AND id &lt; ?)" 形式的条件，配合 (created_at, id) 联合索引，
+ *   翻到任意深度的页面都只需扫描 pageSize 行，不受 OFFSET 影响；
+ * - 解码失败时抛出 IllegalArgumentException，调用方应捕获并返回参数错误。
+ */
+public class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 将 (createdAt, id) 编码为游标字符串
+     *
+     * @param createdAt 当前页最后一条记录的创建时间
+     * @param id        当前页最后一条记录的主键
+     * @return 编码后的游标字符串
+     */
+    public static String encode(LocalDateTime createdAt, Number id) {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标字符串
+     *
+     * @param cursor 客户端回传的游标，为空表示从第一页开始
+     * @return 解码后的游标对象，cursor 为空时返回 null
+     * @throws IllegalArgumentException 游标格式非法
+     */
+    public static Cursor decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0) {
+                throw new IllegalArgumentException("游标 (cursor) 格式非法");
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, index));
+            long id = Long.parseLong(raw.substring(index + 1));
+            return new Cursor(createdAt, id);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("游标 (cursor) 格式非法", e);
+        }
+    }
+
+    /**
+     * 解码后的游标：上一页最后一条记录的 (createdAt, id)
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+        private final LocalDateTime createdAt;
+        private final Long id;
+    }
+}
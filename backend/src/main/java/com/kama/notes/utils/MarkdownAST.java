@@ -27,6 +27,9 @@ import java.util.List;
  */
 @Getter
 public class MarkdownAST {
+    // flexmark 的 Parser 构建后不可变且线程安全，全局复用一个实例，避免每次解析都重新构建
+    private static final Parser PARSER = Parser.builder().build();
+
     private final Document markdownAST;
     private final String markdownText;
 
@@ -38,9 +41,8 @@ public class MarkdownAST {
     public MarkdownAST(String markdownText) {
         this.markdownText = markdownText == null ? "" : markdownText;
 
-        // 创建解析器实例并解析 Markdown 文本生成 AST
-        Parser parser = Parser.builder().build();
-        this.markdownAST = parser.parse(this.markdownText);
+        // 使用共享的解析器实例解析 Markdown 文本生成 AST
+        this.markdownAST = PARSER.parse(this.markdownText);
     }
 
     /**
@@ -9,7 +9,8 @@ package com.kama.notes.utils;
  *
  * 说明：
  * - 两个方法内部都通过构造 MarkdownAST 来复用解析逻辑；
- * - 若频繁处理同一篇 Markdown，建议复用 MarkdownAST 的实例以避免重复解析开销。
+ * - 若频繁处理同一篇 Markdown，建议复用 MarkdownAST 的实例以避免重复解析开销；
+ * - 笔记的折叠标记与简介在写入时通过 collapsedIntroduction 一次解析同时算出并落库，读路径不再解析 Markdown。
  */
 public class MarkdownUtil {
 
@@ -38,4 +39,17 @@ public class MarkdownUtil {
         MarkdownAST ast = new MarkdownAST(markdown);
         return ast.extractIntroduction(250);
     }
+
+    /**
+     * 只解析一次 markdown，同时完成折叠判断与简介提取。
+     *
+     * 规则与 needCollapsed / extractIntroduction 保持一致。
+     *
+     * @param markdown 原始 Markdown 文本（可为 null）
+     * @return 需要折叠时返回简介字符串；不需要折叠时返回 null
+     */
+    public static String collapsedIntroduction(String markdown) {
+        MarkdownAST ast = new MarkdownAST(markdown);
+        return ast.shouldCollapse(250) ? ast.extractIntroduction(250) : null;
+    }
 }
\ No newline at end of file
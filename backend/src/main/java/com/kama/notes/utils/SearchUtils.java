@@ -1,11 +1,10 @@
 package com.kama.notes.utils;
 
-import com.huaban.analysis.jieba.JiebaSegmenter;
-import com.huaban.analysis.jieba.SegToken;
+import com.kama.notes.search.JiebaTokenizer;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.TreeSet;
 
 /**
  * SearchUtils
@@ -15,16 +14,17 @@ import java.util.stream.Collectors;
  * 主要功能：
  * - preprocessKeyword：对原始搜索关键字做清洗与分词，返回适合查询的词串（空格分隔）；
  *   步骤包括去除标点/符号、分词并用空格连接分词结果，适用于全文检索/搜索引擎/数据库 like 分词组合等场景。
+ * - tokenize：将文本切分为小写词元列表，供笔记倒排索引的建立与查询共用；
+ * - normalizeQuery：将查询归一化为去重、排序后的词元串，作为搜索结果缓存的键；
  * - calculateOffset：根据页码与每页大小计算 SQL/查询的偏移量（offset），保证非负。
  *
  * 注意：
- * - 分词使用的是 JiebaSegmenter（中文分词），依赖第三方库；在非中文或不同分词策略的场景应调整实现；
+ * - 分词委托给全局共享的 JiebaTokenizer（词典在启动时后台加载，短文本的分词结果有 LRU 缓存）；
  * - preprocessKeyword 会把所有标点/符号替换为空格，再交由分词器处理，避免分词器将标点当作词元；
  * - 对输入为空或仅空白字符串会返回空串。
  */
 public class SearchUtils {
-    // Jieba 分词器实例（线程安全性取决于实现，此处作为单例复用）
-    private static final JiebaSegmenter segmenter = new JiebaSegmenter();
+    private static final JiebaTokenizer tokenizer = JiebaTokenizer.getInstance();
 
     /**
      * 预处理搜索关键词
@@ -46,16 +46,34 @@ public class SearchUtils {
             return "";
         }
 
-        // 1. 去除特殊字符（标点、符号等），统一替换为空格
-        keyword = keyword.replaceAll("[\\p{P}\\p{S}]", " ");
+        // 去除符号、分词并丢弃空项后，用单个空格连接
+        return String.join(" ", tokenizer.segment(keyword));
+    }
 
-        // 2. 分词（Jieba 返回分词列表）
-        List<String> words = segmenter.sentenceProcess(keyword);
+    /**
+     * 将文本切分为检索词元，笔记建立倒排索引与解析查询使用同一规则，保证两侧的词元一致
+     *
+     * 处理流程：与 preprocessKeyword 相同地去除符号并分词，再统一转为小写，丢弃空白词元。
+     *
+     * @param text 原始文本
+     * @return 词元列表（保留重复，用于统计词频），输入为空时返回空列表
+     */
+    public static List<String> tokenize(String text) {
+        return tokenizer.tokenize(text);
+    }
 
-        // 3. 组合搜索词：用单个空格连接，去除可能的空项
-        return words.stream()
-                .filter(StringUtils::hasText)
-                .collect(Collectors.joining(" "));
+    /**
+     * 将查询归一化为缓存键使用的词元串
+     *
+     * 说明：
+     * - 词元去重并按字典序排序后以空格连接，"Java 面试"、"面试，java" 等词元集合相同的查询得到同一结果；
+     * - 倒排索引按词元集合打分，与词序和重复无关，因此归一化不改变检索结果。
+     *
+     * @param keyword 原始关键词
+     * @return 归一化的词元串，没有有效词元时返回空字符串
+     */
+    public static String normalizeQuery(String keyword) {
+        return String.join(" ", new TreeSet<>(tokenize(keyword)));
     }
 
     /**
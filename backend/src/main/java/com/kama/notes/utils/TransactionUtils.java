@@ -0,0 +1,35 @@
+package com.kama.notes.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * TransactionUtils
+ *
+ * 事务相关的工具类。
+ *
+ * 说明：
+ * - 缓存失效、跨节点广播、Redis 计数等副作用必须在业务事务提交之后执行：
+ *   提交前执行时其他节点可能读到旧数据，事务回滚时副作用也无法撤销；
+ * - 当前线程没有活动的事务同步（不在事务中调用）时立即执行。
+ */
+public class TransactionUtils {
+
+    /**
+     * 在当前事务提交后执行 action；事务回滚时不执行；不在事务中时立即执行
+     *
+     * @param action 提交后执行的操作
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
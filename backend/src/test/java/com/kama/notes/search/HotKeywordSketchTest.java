@@ -0,0 +1,86 @@
+package com.kama.notes.search;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class HotKeywordSketchTest {
+
+    @Test
+    public void keepsMostFrequentKeywords() {
+        HotKeywordSketch sketch = new HotKeywordSketch(1024, 4, 3);
+        assertTrue(sketch.isEmpty());
+
+        add(sketch, "redis", 50);
+        add(sketch, "mysql", 40);
+        add(sketch, "kafka", 30);
+        for (int i = 0; i < 200; i++) {
+            sketch.add("rare-" + i);
+        }
+
+        assertFalse(sketch.isEmpty());
+        assertEquals(Set.of("redis", "mysql", "kafka"), sketch.topKeywords());
+    }
+
+    @Test
+    public void newKeywordReplacesHeapTopOnceItOvertakes() {
+        HotKeywordSketch sketch = new HotKeywordSketch(1024, 4, 2);
+        add(sketch, "redis", 5);
+        add(sketch, "mysql", 3);
+        add(sketch, "kafka", 4);
+
+        assertEquals(Set.of("redis", "kafka"), sketch.topKeywords());
+    }
+
+    @Test
+    public void estimatesNeverUnderCount() {
+        int width = 64;
+        int depth = 4;
+        HotKeywordSketch sketch = new HotKeywordSketch(width, depth, 10);
+        Map<String, Integer> actual = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            String keyword = "k" + (i % 97);
+            sketch.add(keyword);
+            actual.merge(keyword, 1, Integer::sum);
+        }
+
+        long[][] counts = new long[depth][width];
+        sketch.forEachCell((row, column, count) -> counts[row][column] = count);
+        long total = 0;
+        for (long count : counts[0]) {
+            total += count;
+        }
+        assertEquals(500, total);
+
+        actual.forEach((keyword, count) -> {
+            int[] columns = HotKeywordSketch.columns(keyword, width, depth);
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                estimate = Math.min(estimate, counts[row][columns[row]]);
+            }
+            assertTrue(keyword, estimate >= count);
+        });
+    }
+
+    @Test
+    public void columnsAreStableAndInRange() {
+        int[] first = HotKeywordSketch.columns("redis", 100, 5);
+        int[] second = HotKeywordSketch.columns("redis", 100, 5);
+
+        assertArrayEquals(first, second);
+        assertEquals(5, first.length);
+        for (int column : first) {
+            assertTrue(column >= 0 && column < 100);
+        }
+    }
+
+    private static void add(HotKeywordSketch sketch, String keyword, int times) {
+        for (int i = 0; i < times; i++) {
+            sketch.add(keyword);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.kama.notes.search;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class IndexSynchronizerTest {
+
+    private static final String CHANNEL = "test:index";
+
+    private StringRedisTemplate redis;
+
+    private RedisMessageListenerContainer container;
+
+    private IndexSynchronizer<Integer, List<Integer>> synchronizer;
+
+    @Before
+    public void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        container = mock(RedisMessageListenerContainer.class);
+        synchronizer = new IndexSynchronizer<>("测试索引", CHANNEL, Integer::valueOf,
+                List::add, redis, container);
+    }
+
+    @Test
+    public void registersOnItsChannel() {
+        verify(container).addMessageListener(synchronizer, new ChannelTopic(CHANNEL));
+    }
+
+    @Test
+    public void changesDuringLoadAreReplayedOnceIndexIsPublished() {
+        synchronizer.onMessage(message("3"), null);
+        synchronizer.onMessage(message("5"), null);
+        synchronizer.onMessage(message("3"), null);
+        assertNull(synchronizer.get());
+
+        synchronizer.load(() -> new ArrayList<>(List.of(1)));
+
+        assertEquals(List.of(1, 3, 5), synchronizer.get());
+        synchronizer.onMessage(message("7"), null);
+        assertEquals(List.of(1, 3, 5, 7), synchronizer.get());
+    }
+
+    @Test
+    public void failedLoadLeavesIndexUnavailable() {
+        synchronizer.load(() -> {
+            throw new IllegalStateException("db down");
+        });
+
+        assertNull(synchronizer.get());
+    }
+
+    @Test
+    public void publishOutsideTransactionBroadcastsId() {
+        synchronizer.load(ArrayList::new);
+
+        synchronizer.publish(9);
+
+        verify(redis).convertAndSend(CHANNEL, "9");
+        // 本节点等待自己的消息再更新
+        assertEquals(List.of(), synchronizer.get());
+    }
+
+    @Test
+    public void publishAppliesLocallyWhenBroadcastFails() {
+        doThrow(new RedisConnectionFailureException("down")).when(redis).convertAndSend(anyString(), anyString());
+        synchronizer.load(ArrayList::new);
+
+        synchronizer.publish(9);
+
+        assertEquals(List.of(9), synchronizer.get());
+    }
+
+    @Test
+    public void malformedMessageIsIgnored() {
+        synchronizer.load(ArrayList::new);
+
+        synchronizer.onMessage(message("not-a-number"), null);
+
+        assertEquals(List.of(), synchronizer.get());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,65 @@
+package com.kama.notes.search;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JiebaTokenizerTest {
+
+    private final JiebaTokenizer tokenizer = JiebaTokenizer.getInstance();
+
+    @Test
+    public void shortTextIsSegmentedOnceThenServedFromCache() {
+        String text = "Redis 缓存穿透 " + System.nanoTime();
+        long hits = tokenizer.getCacheHitCount();
+        long misses = tokenizer.getCacheMissCount();
+
+        List<String> first = tokenizer.segment(text);
+        List<String> second = tokenizer.segment(text);
+
+        assertSame(first, second);
+        assertEquals(misses + 1, tokenizer.getCacheMissCount());
+        assertEquals(hits + 1, tokenizer.getCacheHitCount());
+    }
+
+    @Test
+    public void longTextIsNotCached() {
+        String text = "分布式系统".repeat(20) + System.nanoTime();
+        long hits = tokenizer.getCacheHitCount();
+        long misses = tokenizer.getCacheMissCount();
+
+        tokenizer.segment(text);
+        tokenizer.segment(text);
+
+        assertEquals(hits, tokenizer.getCacheHitCount());
+        assertEquals(misses, tokenizer.getCacheMissCount());
+    }
+
+    @Test
+    public void segmentDropsSymbolsAndBlanks() {
+        List<String> words = tokenizer.segment("Redis，缓存！ ");
+
+        assertTrue(words.contains("Redis"));
+        for (String word : words) {
+            assertFalse(word.isBlank());
+            assertFalse(word.matches(".*[\\p{P}\\p{S}].*"));
+        }
+        assertTrue(tokenizer.segment("  ").isEmpty());
+        assertTrue(tokenizer.segment(null).isEmpty());
+    }
+
+    @Test
+    public void tokenizeLowerCasesAndKeepsDuplicates() {
+        assertEquals(List.of("redis", "redis"), tokenizer.tokenize("Redis REDIS"));
+    }
+
+    @Test
+    public void dictionaryFingerprintIsSetAfterLoading() {
+        tokenizer.awaitReady();
+
+        assertTrue(tokenizer.isReady());
+        assertNotEquals(0L, tokenizer.getDictionaryFingerprint());
+    }
+}
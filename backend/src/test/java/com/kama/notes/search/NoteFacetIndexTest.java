@@ -0,0 +1,115 @@
+package com.kama.notes.search;
+
+import com.kama.notes.model.dto.search.NoteFacetRow;
+import com.kama.notes.model.vo.search.FacetValueVO;
+import com.kama.notes.model.vo.search.NoteFacetsVO;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class NoteFacetIndexTest {
+
+    /**
+     * 分类：1 后端 -> 2 数据库 -> 3 MySQL，4 前端
+     */
+    private NoteFacetIndex index;
+
+    @Before
+    public void setUp() {
+        NoteFacetIndex.Builder builder = new NoteFacetIndex.Builder();
+        builder.add(row(1, 3, 1, 10, "索引"));
+        builder.add(row(1, 3, 1, 11, "事务"));
+        builder.add(row(2, 2, 2, 10, "索引"));
+        builder.add(row(3, 1, 3, null, null));
+        builder.add(row(4, 4, 1, 12, "React"));
+        index = builder.build(
+                Map.of(1, "后端", 2, "数据库", 3, "MySQL", 4, "前端"),
+                Map.of(2, 1, 3, 2));
+    }
+
+    @Test
+    public void filterWithoutConditionsKeepsAllNotes() {
+        List<Integer> noteIds = List.of(4, 99, 1);
+
+        assertSame(noteIds, index.filter(noteIds, null, null, null));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void filterByCategoryMatchesDescendants() {
+        List<Integer> noteIds = List.of(4, 3, 2, 1, 99);
+
+        assertEquals(List.of(3, 2, 1), index.filter(noteIds, 1, null, null));
+        assertEquals(List.of(2, 1), index.filter(noteIds, 2, null, null));
+        assertEquals(List.of(1), index.filter(noteIds, 3, null, null));
+        assertEquals(List.of(4), index.filter(noteIds, 4, null, null));
+    }
+
+    @Test
+    public void filterCombinesDifficultyAndTags() {
+        List<Integer> noteIds = List.of(1, 2, 3, 4);
+
+        assertEquals(List.of(1, 4), index.filter(noteIds, null, 1, null));
+        assertEquals(List.of(1, 2), index.filter(noteIds, null, null, Set.of(10)));
+        assertEquals(List.of(1), index.filter(noteIds, 1, 1, Set.of(10, 12)));
+        assertTrue(index.filter(noteIds, null, null, Set.of()).isEmpty());
+    }
+
+    @Test
+    public void countRollsCategoriesUpToAncestors() {
+        NoteFacetsVO facets = index.count(List.of(1, 2, 3, 4, 99), 10);
+
+        assertEquals(List.of(
+                new FacetValueVO(1, "后端", 3),
+                new FacetValueVO(2, "数据库", 2),
+                new FacetValueVO(3, "MySQL", 1),
+                new FacetValueVO(4, "前端", 1)), facets.getCategories());
+        assertEquals(List.of(
+                new FacetValueVO(1, "简单", 2),
+                new FacetValueVO(2, "中等", 1),
+                new FacetValueVO(3, "困难", 1)), facets.getDifficulties());
+        assertEquals(List.of(
+                new FacetValueVO(10, "索引", 2),
+                new FacetValueVO(11, "事务", 1),
+                new FacetValueVO(12, "React", 1)), facets.getTags());
+    }
+
+    @Test
+    public void countLimitsValuesPerFacet() {
+        NoteFacetsVO facets = index.count(List.of(1, 2, 3, 4), 1);
+
+        assertEquals(List.of(new FacetValueVO(1, "后端", 3)), facets.getCategories());
+        assertEquals(List.of(new FacetValueVO(10, "索引", 2)), facets.getTags());
+    }
+
+    @Test
+    public void categoryCycleDoesNotLoopForever() {
+        NoteFacetIndex.Builder builder = new NoteFacetIndex.Builder();
+        builder.add(row(1, 5, 1, null, null));
+        NoteFacetIndex cyclic = builder.build(Map.of(5, "A", 6, "B"), Map.of(5, 6, 6, 5));
+
+        assertTrue(cyclic.filter(List.of(1), 7, null, null).isEmpty());
+        assertEquals(2, cyclic.count(List.of(1), 10).getCategories().size());
+    }
+
+    @Test
+    public void findsTagsByNameIgnoringCase() {
+        assertEquals(Set.of(12), index.findTagIdsByName("react"));
+        assertEquals(Set.of(10), index.findTagIdsByName("索"));
+    }
+
+    private static NoteFacetRow row(int noteId, int categoryId, int difficulty, Integer tagId, String tagName) {
+        NoteFacetRow row = new NoteFacetRow();
+        row.setNoteId(noteId);
+        row.setCategoryId(categoryId);
+        row.setDifficulty(difficulty);
+        row.setTagId(tagId);
+        row.setTagName(tagName);
+        return row;
+    }
+}
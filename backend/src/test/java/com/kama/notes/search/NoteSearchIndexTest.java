@@ -0,0 +1,172 @@
+package com.kama.notes.search;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class NoteSearchIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void searchRanksNotesMatchingMoreTermsFirst() {
+        NoteSearchIndex index = new NoteSearchIndex();
+        index.put(1, List.of("redis", "缓存"));
+        index.put(2, List.of("redis", "缓存", "穿透"));
+        index.put(3, List.of("mysql", "索引"));
+
+        assertEquals(List.of(2, 1), index.search(List.of("redis", "穿透"), 10));
+        assertEquals(List.of(3), index.search(List.of("mysql"), 10));
+        assertTrue(index.search(List.of("kafka"), 10).isEmpty());
+    }
+
+    @Test
+    public void searchRespectsLimitAndBreaksTiesByNewerNote() {
+        NoteSearchIndex index = new NoteSearchIndex();
+        for (int noteId = 1; noteId <= 5; noteId++) {
+            index.put(noteId, List.of("java"));
+        }
+
+        assertEquals(List.of(5, 4), index.search(List.of("java"), 2));
+        assertTrue(index.search(List.of("java"), 0).isEmpty());
+        assertTrue(index.search(List.of(), 10).isEmpty());
+    }
+
+    @Test
+    public void putReplacesPreviousTokens() {
+        NoteSearchIndex index = new NoteSearchIndex();
+        index.put(1, List.of("redis"));
+        index.put(1, List.of("mysql"));
+
+        assertEquals(1, index.size());
+        assertTrue(index.search(List.of("redis"), 10).isEmpty());
+        assertEquals(List.of(1), index.search(List.of("mysql"), 10));
+    }
+
+    @Test
+    public void putWithoutTokensRemovesNote() {
+        NoteSearchIndex index = new NoteSearchIndex();
+        index.put(1, List.of("redis"));
+        index.put(1, List.of());
+
+        assertEquals(0, index.size());
+        assertTrue(index.search(List.of("redis"), 10).isEmpty());
+    }
+
+    @Test
+    public void removeKeepsOtherNotesSearchable() {
+        NoteSearchIndex index = new NoteSearchIndex();
+        index.put(1, List.of("redis", "缓存"));
+        index.put(2, List.of("redis", "集群"));
+        index.put(3, List.of("redis", "缓存"));
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        // 笔记 3 在倒排表中被移到笔记 1 的位置后，仍能被正确更新和删除
+        index.put(3, List.of("mysql"));
+        assertEquals(List.of(2), index.search(List.of("redis"), 10));
+        assertTrue(index.search(List.of("缓存"), 10).isEmpty());
+        assertTrue(index.remove(3));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void randomUpdatesMatchBruteForce() {
+        Random random = new Random(42);
+        String[] vocabulary = {"a", "b", "c", "d", "e", "f"};
+        NoteSearchIndex index = new NoteSearchIndex();
+        Map<Integer, Set<String>> expected = new HashMap<>();
+        for (int round = 0; round < 2000; round++) {
+            int noteId = random.nextInt(30);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(noteId) != null, index.remove(noteId));
+                continue;
+            }
+            List<String> tokens = new ArrayList<>();
+            for (int k = random.nextInt(5); k > 0; k--) {
+                tokens.add(vocabulary[random.nextInt(vocabulary.length)]);
+            }
+            index.put(noteId, tokens);
+            if (tokens.isEmpty()) {
+                expected.remove(noteId);
+            } else {
+                expected.put(noteId, new HashSet<>(tokens));
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (String term : vocabulary) {
+            Set<Integer> matched = new HashSet<>(index.search(List.of(term), Integer.MAX_VALUE));
+            Set<Integer> brute = new HashSet<>();
+            expected.forEach((noteId, terms) -> {
+                if (terms.contains(term)) {
+                    brute.add(noteId);
+                }
+            });
+            assertEquals(term, brute, matched);
+        }
+    }
+
+    @Test
+    public void retainAllRemovesDeletedNotes() {
+        NoteSearchIndex index = new NoteSearchIndex();
+        index.put(1, List.of("redis"));
+        index.put(2, List.of("redis"));
+        index.put(3, List.of("redis"));
+
+        assertEquals(2, index.retainAll(Set.of(2)));
+        assertEquals(List.of(2), index.search(List.of("redis"), 10));
+    }
+
+    @Test
+    public void snapshotRoundTripKeepsResultsAndMetadata() throws IOException {
+        NoteSearchIndex index = new NoteSearchIndex();
+        index.put(1, List.of("redis", "缓存", "缓存"));
+        index.put(2, List.of("redis", "持久化"));
+        index.put(3, List.of("mysql", "索引"));
+        Path path = folder.getRoot().toPath().resolve("notes.idx");
+
+        index.writeTo(path, 123L, 456L);
+        NoteSearchIndex.Snapshot snapshot = NoteSearchIndex.readFrom(path);
+
+        assertEquals(123L, snapshot.getSnapshotAt());
+        assertEquals(456L, snapshot.getDictionaryFingerprint());
+        NoteSearchIndex loaded = snapshot.getIndex();
+        assertEquals(index.size(), loaded.size());
+        for (List<String> query : List.of(List.of("redis"), List.of("缓存", "持久化"), List.of("索引"))) {
+            assertEquals(index.search(query, 10), loaded.search(query, 10));
+        }
+
+        // 加载后的索引可以继续增删
+        loaded.put(1, List.of("mysql"));
+        assertTrue(loaded.remove(2));
+        assertEquals(List.of(1, 3), sorted(loaded.search(List.of("mysql"), 10)));
+        assertTrue(loaded.search(List.of("redis"), 10).isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void readFromRejectsTruncatedSnapshot() throws IOException {
+        NoteSearchIndex index = new NoteSearchIndex();
+        index.put(1, List.of("redis", "缓存"));
+        Path path = folder.getRoot().toPath().resolve("notes.idx");
+        index.writeTo(path, 0L, 0L);
+        byte[] content = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(content, content.length - 4));
+
+        NoteSearchIndex.readFrom(path);
+    }
+
+    private static List<Integer> sorted(List<Integer> noteIds) {
+        List<Integer> result = new ArrayList<>(noteIds);
+        Collections.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,234 @@
+package com.kama.notes.service.impl;
+
+import com.kama.notes.cache.EntityCacheInvalidator;
+import com.kama.notes.config.EntityCacheConfig;
+import com.kama.notes.mapper.CounterMapper;
+import com.kama.notes.model.dto.counter.CounterDelta;
+import com.kama.notes.model.entity.Note;
+import com.kama.notes.model.enums.counter.CounterType;
+import com.kama.notes.model.enums.redisKey.RedisKey;
+import com.kama.notes.service.RedisService;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CounterServiceImplTest {
+
+    private static final String DELTA_KEY = RedisKey.counterDelta(CounterType.NOTE_LIKE.name());
+
+    private static final String FLUSHING_KEY = RedisKey.counterFlushing(CounterType.NOTE_LIKE.name());
+
+    private StringRedisTemplate redis;
+
+    private HashOperations<String, Object, Object> hashOps;
+
+    private RedisService redisService;
+
+    private CounterMapper counterMapper;
+
+    private EntityCacheInvalidator invalidator;
+
+    private CounterServiceImpl counterService;
+
+    /**
+     * 每次 applyDeltas 调用的增量副本（调用方传入的是 subList）
+     */
+    private final List<List<CounterDelta>> applied = new ArrayList<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        hashOps = mock(HashOperations.class);
+        when(redis.opsForHash()).thenReturn(hashOps);
+        when(redis.hasKey(anyString())).thenReturn(false);
+        redisService = mock(RedisService.class);
+        when(redisService.tryLock(eq(RedisKey.counterFlushLock()), any(Duration.class))).thenReturn("token");
+
+        counterMapper = mock(CounterMapper.class);
+        when(counterMapper.applyDeltas(any(), anyList())).thenAnswer(invocation -> {
+            List<CounterDelta> deltas = invocation.getArgument(1);
+            applied.add(new ArrayList<>(deltas));
+            return deltas.size();
+        });
+        invalidator = mock(EntityCacheInvalidator.class);
+
+        counterService = new CounterServiceImpl();
+        ReflectionTestUtils.setField(counterService, "stringRedisTemplate", redis);
+        ReflectionTestUtils.setField(counterService, "redisService", redisService);
+        ReflectionTestUtils.setField(counterService, "counterMapper", counterMapper);
+        ReflectionTestUtils.setField(counterService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(counterService, "entityCacheInvalidator", invalidator);
+        ReflectionTestUtils.setField(counterService, "flushBatchSize", 500);
+        ReflectionTestUtils.setField(counterService, "flushLockSeconds", 60L);
+    }
+
+    @Test
+    public void flushSwapsDeltaHashOutAndAppliesItOnce() {
+        when(redis.hasKey(DELTA_KEY)).thenReturn(true);
+        givenFlushingHash("batch-1", Map.of("7", "2", "8", "0"));
+        when(counterMapper.insertFlushLog("batch-1", CounterType.NOTE_LIKE.name())).thenReturn(1);
+
+        assertEquals(1, counterService.flush());
+
+        verify(redis).renameIfAbsent(DELTA_KEY, FLUSHING_KEY);
+        assertEquals(List.of(List.of(new CounterDelta(7, 2L))), applied);
+        verify(counterMapper).applyDeltas(eq(CounterType.NOTE_LIKE), anyList());
+        verifyBatchDeleted("batch-1");
+        verify(invalidator).invalidateAll(EntityCacheConfig.NOTE_CACHE, List.of(7));
+        verify(redisService).releaseLock(RedisKey.counterFlushLock(), "token");
+    }
+
+    @Test
+    public void replayedBatchIdIsNoOp() {
+        // 上次写库成功但删除 flushing 哈希前崩溃：批次号已在 counter_flush_log 中
+        when(redis.hasKey(FLUSHING_KEY)).thenReturn(true);
+        givenFlushingHash("batch-2", Map.of("7", "2"));
+        when(counterMapper.insertFlushLog("batch-2", CounterType.NOTE_LIKE.name())).thenReturn(0);
+
+        assertEquals(0, counterService.flush());
+
+        verify(counterMapper, never()).applyDeltas(any(), anyList());
+        verifyBatchDeleted("batch-2");
+        verifyNoInteractions(invalidator);
+    }
+
+    @Test
+    public void leftoverFlushingHashIsRecoveredBeforeNewDeltas() {
+        // 上次写库前崩溃：flushing 哈希仍在，新的增量已写入 delta 哈希
+        when(redis.hasKey(FLUSHING_KEY)).thenReturn(true);
+        when(redis.hasKey(DELTA_KEY)).thenReturn(true);
+        givenFlushingHash("batch-3", Map.of("9", "-1"));
+        when(counterMapper.insertFlushLog("batch-3", CounterType.NOTE_LIKE.name())).thenReturn(1);
+
+        assertEquals(1, counterService.flush());
+
+        verify(redis, never()).renameIfAbsent(anyString(), anyString());
+        assertEquals(List.of(List.of(new CounterDelta(9, -1L))), applied);
+        verifyBatchDeleted("batch-3");
+    }
+
+    @Test
+    public void flushSkipsWhenAnotherNodeHoldsTheLock() {
+        when(redisService.tryLock(eq(RedisKey.counterFlushLock()), any(Duration.class))).thenReturn(null);
+        when(redis.hasKey(DELTA_KEY)).thenReturn(true);
+
+        assertEquals(0, counterService.flush());
+
+        verify(redis, never()).renameIfAbsent(anyString(), anyString());
+        verify(counterMapper, never()).insertFlushLog(anyString(), anyString());
+        verify(redisService, never()).releaseLock(anyString(), anyString());
+    }
+
+    @Test
+    public void mergeAddsDeltaAndFlushingValues() {
+        Note first = note(1, 10, 5, 0);
+        Note second = note(2, 3, 0, 1);
+        // 每种类型依次读取 delta、flushing 两个哈希，字段顺序为笔记 1、2
+        givenPipelineReplies(List.of(
+                Arrays.asList("2", null), Arrays.asList("1", "-1"),
+                Arrays.asList(null, "4"), Arrays.asList(null, null),
+                Arrays.asList(null, "-5"), Arrays.asList(null, null)));
+
+        counterService.mergeNoteCounts(List.of(first, second));
+
+        assertEquals(Integer.valueOf(13), first.getLikeCount());
+        assertEquals(Integer.valueOf(5), first.getCollectCount());
+        assertEquals(Integer.valueOf(0), first.getCommentCount());
+        assertEquals(Integer.valueOf(2), second.getLikeCount());
+        assertEquals(Integer.valueOf(4), second.getCollectCount());
+        // 增量使计数小于 0 时按 0 返回
+        assertEquals(Integer.valueOf(0), second.getCommentCount());
+    }
+
+    @Test
+    public void mergeFallsBackToStoredCountsWhenRedisFails() {
+        Note note = note(1, 10, 5, 2);
+        when(redis.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        counterService.mergeNoteCounts(List.of(note));
+
+        assertEquals(Integer.valueOf(10), note.getLikeCount());
+        assertEquals(Integer.valueOf(5), note.getCollectCount());
+        assertEquals(Integer.valueOf(2), note.getCommentCount());
+    }
+
+    @Test
+    public void failedIncrementsAreReplayedToDatabase() {
+        when(hashOps.increment(anyString(), anyString(), anyLong()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        when(redisService.tryLock(eq(RedisKey.counterFlushLock()), any(Duration.class))).thenReturn(null);
+
+        counterService.increment(CounterType.NOTE_LIKE, 7, 1);
+        counterService.increment(CounterType.NOTE_LIKE, 7, 1);
+
+        // 暂存的增量不需要刷新锁，直接写入数据库且只写一次
+        assertEquals(1, counterService.flush());
+        assertEquals(List.of(List.of(new CounterDelta(7, 2L))), applied);
+        verify(invalidator).invalidateAll(EntityCacheConfig.NOTE_CACHE, List.of(7));
+        assertEquals(0, counterService.flush());
+        assertEquals(1, applied.size());
+    }
+
+    @Test
+    public void failedReplayIsKeptForNextFlush() {
+        when(hashOps.increment(anyString(), anyString(), anyLong()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        counterService.increment(CounterType.COMMENT_LIKE, 3, 1);
+        doThrow(new RuntimeException("db down"))
+                .doAnswer(invocation -> {
+                    applied.add(new ArrayList<>(invocation.<List<CounterDelta>>getArgument(1)));
+                    return 1;
+                })
+                .when(counterMapper).applyDeltas(any(), anyList());
+
+        assertEquals(0, counterService.flush());
+        counterService.increment(CounterType.COMMENT_LIKE, 3, 1);
+        assertEquals(1, counterService.flush());
+
+        assertEquals(List.of(List.of(new CounterDelta(3, 2L))), applied);
+        verifyNoInteractions(invalidator);
+    }
+
+    private void givenFlushingHash(String batchId, Map<String, String> deltas) {
+        when(hashOps.entries(FLUSHING_KEY)).thenAnswer(invocation -> {
+            Map<Object, Object> entries = new HashMap<>(deltas);
+            entries.put("_batch", batchId);
+            return entries;
+        });
+    }
+
+    private void verifyBatchDeleted(String batchId) {
+        verify(redis).execute(any(RedisScript.class), eq(List.of(FLUSHING_KEY)), eq("_batch"), eq(batchId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenPipelineReplies(List<List<String>> replies) {
+        when(redis.executePipelined(any(RedisCallback.class))).thenReturn(new ArrayList<Object>(replies));
+    }
+
+    private static Note note(int noteId, int likeCount, int collectCount, int commentCount) {
+        Note note = new Note();
+        note.setNoteId(noteId);
+        note.setLikeCount(likeCount);
+        note.setCollectCount(collectCount);
+        note.setCommentCount(commentCount);
+        return note;
+    }
+}
@@ -0,0 +1,60 @@
+package com.kama.notes.utils;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+public class CursorUtilsTest {
+
+    @Test
+    public void encodeThenDecodeReturnsSameCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 12, 16, 14, 21, 5, 123000000);
+
+        CursorUtils.Cursor cursor = CursorUtils.decode(CursorUtils.encode(createdAt, 42));
+
+        assertEquals(createdAt, cursor.getCreatedAt());
+        assertEquals(Long.valueOf(42), cursor.getId());
+    }
+
+    @Test
+    public void encodedCursorIsUrlSafe() {
+        String cursor = CursorUtils.encode(LocalDateTime.of(2024, 1, 1, 0, 0), Long.MAX_VALUE);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    public void blankCursorMeansFirstPage() {
+        assertNull(CursorUtils.decode(null));
+        assertNull(CursorUtils.decode(""));
+        assertNull(CursorUtils.decode("  "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidBase64() {
+        CursorUtils.decode("not base64!");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingSeparator() {
+        CursorUtils.decode(encodeRaw("2024-01-01T00:00"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidTime() {
+        CursorUtils.decode(encodeRaw("yesterday|1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidId() {
+        CursorUtils.decode(encodeRaw("2024-01-01T00:00|abc"));
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -16,6 +16,7 @@ import { ColumnDivider } from '../../../../base/components'
 import DownloadNoteItem from '../../../../domain/note/components/DownloadNoteItem.tsx'
 import { BellOutlined } from '@ant-design/icons'
 import { messageService } from '../../../../domain/message/service/messageService.ts'
+import { connectMessagePush } from '../../../../domain/message/service/messagePushClient.ts'
 
 type MenuItem = Required<MenuProps>['items'][number]
 
@@ -60,7 +61,7 @@ const NavBar: React.FC = () => {
   }, [location.pathname])
 
   /**
-   * 定时获取未读消息数量
+   * 获取未读消息数量，之后通过 WebSocket 推送的增量实时更新
    */
   useEffect(() => {
     // 如果用户未登录，不获取消息数量
@@ -69,7 +70,6 @@ const NavBar: React.FC = () => {
       return
     }
 
-    // 立即获取一次未读消息数量
     const fetchUnreadCount = async () => {
       try {
         const response = await messageService.getUnreadCount()
@@ -79,14 +79,20 @@ const NavBar: React.FC = () => {
       }
     }
 
-    fetchUnreadCount()
+    // 每次（重新）建立连接时拉取一次未读数作为基准，断线期间错过的推送由此校正
+    const disconnect = connectMessagePush({
+      onConnect: fetchUnreadCount,
+      onPush: (push) => {
+        setUnreadCount((count) => Math.max(count + push.unreadDelta, 0))
+      },
+    })
 
-    // 设置5秒定时器
-    const interval = setInterval(fetchUnreadCount, 5000)
+    // 推送连接建立前先展示一次未读数
+    fetchUnreadCount()
 
-    // 清理定时器
+    // 断开推送连接
     return () => {
-      clearInterval(interval)
+      disconnect()
     }
   }, [app.isLogin])
 
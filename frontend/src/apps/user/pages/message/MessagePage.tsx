@@ -65,6 +65,9 @@ const MessagePage: React.FC = () => {
     markMessagesAsRead,
     markAllMessagesAsRead,
     loading,
+    loadingMore,
+    hasMore,
+    loadMore,
   } = useMessages()
 
   const [activeTab, setActiveTab] = useState<string>('all')
@@ -129,6 +132,17 @@ const MessagePage: React.FC = () => {
     }
   }
 
+  // 获取发送者描述：合并的点赞通知展示为 "A、B 等 N 人"
+  const getSenderText = (msg: (typeof messages)[number]) => {
+    const actorCount = msg.actorCount ?? 1
+    const actors = msg.recentActors ?? []
+    if (actorCount <= 1 || actors.length === 0) {
+      return msg.sender.username
+    }
+    const names = actors.map((actor) => actor.username).join('、')
+    return actorCount > actors.length ? `${names} 等 ${actorCount} 人` : names
+  }
+
   // 渲染消息列表
   const renderMessageList = (messageList: typeof messages) => {
     if (loading) {
@@ -160,6 +174,15 @@ const MessagePage: React.FC = () => {
         className="rounded-lg bg-white"
         itemLayout="horizontal"
         split={false}
+        loadMore={
+          hasMore && (
+            <div className="mt-2 flex justify-center">
+              <Button onClick={loadMore} loading={loadingMore}>
+                加载更多
+              </Button>
+            </div>
+          )
+        }
       />
     )
   }
@@ -211,7 +234,7 @@ const MessagePage: React.FC = () => {
           <div className="mb-1 flex flex-wrap items-center gap-2">
             {/* 发送者昵称 */}
             <span className="text-base font-semibold text-gray-900">
-              {isSystem ? '系统通知' : message.sender.username}
+              {isSystem ? '系统通知' : getSenderText(message)}
             </span>
             {/* 操作描述 */}
             {!isSystem && <span className="text-gray-700">{actionText}</span>}
@@ -2,17 +2,25 @@ import { useEffect, useState } from 'react'
 import { Message } from '@/domain/message/types.ts'
 import { messageService } from '@/domain/message/service/messageService.ts'
 
+const PAGE_SIZE = 20
+
 export function useMessages() {
   const [messages, setMessages] = useState<Message[]>([])
   const [loading, setLoading] = useState(false)
+  const [loadingMore, setLoadingMore] = useState(false)
+  // 下一页的游标，为 null 表示已经加载到最后一页
+  const [nextCursor, setNextCursor] = useState<string | null>(null)
 
   useEffect(() => {
     // messages
     async function fetchData() {
       try {
         setLoading(true)
-        const response = await messageService.getMessages()
+        const response = await messageService.getMessages({
+          pageSize: PAGE_SIZE,
+        })
         setMessages(response.data)
+        setNextCursor(response.pagination?.nextCursor ?? null)
       } catch (error) {
         console.log(error)
       } finally {
@@ -23,6 +31,25 @@ export function useMessages() {
     fetchData().then()
   }, [])
 
+  async function loadMore() {
+    if (!nextCursor || loadingMore) {
+      return
+    }
+    try {
+      setLoadingMore(true)
+      const response = await messageService.getMessages({
+        pageSize: PAGE_SIZE,
+        cursor: nextCursor,
+      })
+      setMessages((prev) => [...prev, ...response.data])
+      setNextCursor(response.pagination?.nextCursor ?? null)
+    } catch (error) {
+      console.log(error)
+    } finally {
+      setLoadingMore(false)
+    }
+  }
+
   async function markMessagesAsRead(messageIds: number[]) {
     setMessages(
       messages.map((message) =>
@@ -46,6 +73,9 @@ export function useMessages() {
 
   return {
     loading,
+    loadingMore,
+    hasMore: nextCursor !== null,
+    loadMore,
     messages,
     deleteMessage,
     markMessagesAsRead,
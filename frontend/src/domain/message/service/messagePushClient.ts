@@ -0,0 +1,117 @@
+import { kamanoteUserToken } from '@/base/constants'
+import { MessagePush } from '@/domain/message/types.ts'
+
+/**
+ * 消息实时推送客户端（STOMP over WebSocket）
+ *
+ * 只实现本项目用到的 STOMP 子集：CONNECT、SUBSCRIBE、心跳与断线重连。
+ * token 放在 CONNECT 帧的 Authorization 头中，与 HTTP 请求保持一致。
+ */
+
+const WS_URL =
+  import.meta.env.VITE_API_BASE_URL.replace(/^http/, 'ws') + '/api/ws'
+
+const DESTINATION = '/user/queue/notifications'
+
+const HEARTBEAT_MS = 25000
+
+const MAX_RECONNECT_DELAY_MS = 30000
+
+interface PushHandlers {
+  /**
+   * 连接（含重连）成功，可在此拉取一次未读数作为基准
+   */
+  onConnect: () => void
+  /**
+   * 收到推送
+   */
+  onPush: (push: MessagePush) => void
+}
+
+function frame(command: string, headers: Record<string, string>) {
+  const lines = Object.entries(headers).map(
+    ([key, value]) => `${key}:${value}`,
+  )
+  return `${command}\n${lines.join('\n')}\n\n\0`
+}
+
+/**
+ * 建立推送连接，返回断开连接的函数
+ */
+export function connectMessagePush(handlers: PushHandlers): () => void {
+  let socket: WebSocket | null = null
+  let heartbeat: ReturnType<typeof setInterval> | undefined
+  let reconnectTimer: ReturnType<typeof setTimeout> | undefined
+  let reconnectDelay = 1000
+  let closed = false
+
+  const scheduleReconnect = () => {
+    if (closed) return
+    reconnectTimer = setTimeout(open, reconnectDelay)
+    reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MS)
+  }
+
+  const handleFrame = (raw: string) => {
+    const headerEnd = raw.indexOf('\n\n')
+    const head = headerEnd === -1 ? raw : raw.substring(0, headerEnd)
+    const body = headerEnd === -1 ? '' : raw.substring(headerEnd + 2)
+    const command = head.split('\n')[0]
+
+    if (command === 'CONNECTED') {
+      reconnectDelay = 1000
+      socket?.send(
+        frame('SUBSCRIBE', { id: 'sub-0', destination: DESTINATION }),
+      )
+      heartbeat = setInterval(() => socket?.send('\n'), HEARTBEAT_MS)
+      handlers.onConnect()
+    } else if (command === 'MESSAGE') {
+      try {
+        handlers.onPush(JSON.parse(body) as MessagePush)
+      } catch (error) {
+        console.error('解析消息推送失败:', error)
+      }
+    } else if (command === 'ERROR') {
+      // 鉴权失败等错误由服务端关闭连接，不再重连，等待重新登录后再建立
+      closed = true
+      console.error('消息推送连接错误:', head)
+    }
+  }
+
+  function open() {
+    const token = localStorage.getItem(kamanoteUserToken)
+    if (!token || closed) return
+
+    socket = new WebSocket(WS_URL)
+    socket.onopen = () => {
+      socket?.send(
+        frame('CONNECT', {
+          'accept-version': '1.2',
+          'heart-beat': `${HEARTBEAT_MS},${HEARTBEAT_MS}`,
+          Authorization: `Bearer ${token}`,
+        }),
+      )
+    }
+    socket.onmessage = (event) => {
+      // 一个 WebSocket 消息中可能包含多个帧，心跳为单独的换行符
+      String(event.data)
+        .split('\0')
+        .map((raw) => raw.replace(/^\n+/, ''))
+        .filter((raw) => raw.length > 0)
+        .forEach(handleFrame)
+    }
+    socket.onclose = () => {
+      clearInterval(heartbeat)
+      socket = null
+      scheduleReconnect()
+    }
+  }
+
+  open()
+
+  return () => {
+    closed = true
+    clearTimeout(reconnectTimer)
+    clearInterval(heartbeat)
+    socket?.close()
+  }
+}
@@ -1,13 +1,15 @@
 import { httpClient } from '@/request'
 import { messageApi } from '@/domain/message/api/messageApi.ts'
-import { Message } from '@/domain/message/types.ts'
+import { Message, MessageQueryParams } from '@/domain/message/types.ts'
 
 export const messageService = {
   /**
-   * 获取消息列表
+   * 获取消息列表（游标分页，按时间倒序）
    */
-  getMessages: () => {
-    return httpClient.request<Message[]>(messageApi.messages, {})
+  getMessages: (params: MessageQueryParams) => {
+    return httpClient.request<Message[]>(messageApi.messages, {
+      queryParams: params,
+    })
   },
 
   /**
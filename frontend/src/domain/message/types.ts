@@ -30,4 +30,33 @@ export interface Message {
   isRead: boolean
   content: string
   createdAt: string
+  // 合并通知（目前仅点赞）的触发人次与最近触发用户，未合并的消息 actorCount 为 1
+  actorCount?: number
+  recentActors?: {
+    userId: string
+    username: string
+    avatarUrl: string
+  }[]
+}
+
+/**
+ * 消息列表查询参数
+ * - cursor: 为空表示第一页，之后原样回传上一页返回的 pagination.nextCursor
+ */
+export interface MessageQueryParams {
+  type?: MessageType
+  isRead?: boolean
+  pageSize?: number
+  cursor?: string
+}
+
+/**
+ * WebSocket 推送的消息通知
+ * - eventType: COMMENT / LIKE / SYSTEM 表示新消息，READ 表示在其它页面标记了已读
+ * - unreadDelta: 未读数变化量，新消息为 1，标记已读为负数
+ */
+export interface MessagePush {
+  eventType: 'COMMENT' | 'LIKE' | 'SYSTEM' | 'READ'
+  message: Message | null
+  unreadDelta: number
 }
@@ -8,5 +8,5 @@ export const noteApiList: ApiList = {
   getNoteRankList: ['GET', '/api/notes/ranklist'],
   getHeatMap: ['GET', '/api/notes/heatmap'],
   getTop3Count: ['GET', '/api/notes/top3count'],
-  downloadNote: ['GET', '/api/notes/download'],
+  exportNotes: ['GET', '/api/notes/export'],
 }
@@ -21,12 +21,8 @@ const DownloadNoteItem: React.FC = () => {
 
     setLoading(true)
 
-    const { data } = await noteService.downloadNoteService()
-
-    const markdown = data.markdown
-
     try {
-      const blob = new Blob([markdown], { type: 'text/markdown' })
+      const blob = await noteService.exportNotesService('md')
       const url = URL.createObjectURL(blob)
       const link = document.createElement('a')
       link.href = url
@@ -35,8 +31,9 @@ const DownloadNoteItem: React.FC = () => {
       document.body.appendChild(link)
       link.click()
       document.body.removeChild(link)
+      URL.revokeObjectURL(url)
     } catch (e: any) {
-      message.error(e.getMessage())
+      message.error(e.message)
     } finally {
       setLoading(false)
     }
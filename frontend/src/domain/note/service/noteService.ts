@@ -2,7 +2,7 @@ import { httpClient } from '@/request'
 import { noteApiList } from '../api/noteApi.ts'
 import {
   CreateNoteParams,
-  DownloadNote,
+  NoteExportFormat,
   NoteHeatMapItem,
   NoteQueryParams,
   NoteRankListItem,
@@ -70,9 +70,11 @@ export const noteService = {
   },
 
   /**
-   * 下载笔记
+   * 导出笔记（服务端流式生成文件）
    */
-  downloadNoteService: () => {
-    return httpClient.request<DownloadNote>(noteApiList.downloadNote)
+  exportNotesService: (format: NoteExportFormat = 'md') => {
+    return httpClient.download(noteApiList.exportNotes, {
+      queryParams: { format },
+    })
   },
 }
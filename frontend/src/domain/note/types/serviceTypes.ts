@@ -70,8 +70,6 @@ export interface NoteTop3Count {
 }
 
 /**
- * 下载笔记类型
+ * 导出笔记格式：md 为单个 Markdown 文件，zip 为按分类拆分的压缩包
  */
-export interface DownloadNote {
-  markdown: string
-}
+export type NoteExportFormat = 'md' | 'zip'
@@ -100,4 +100,46 @@ export default class FetchClient implements HttpClient {
       throw new Error(error instanceof Error ? error.message : 'Unknown error')
     }
   }
+
+  /**
+   * 下载文件：接口返回的是文件流而非统一响应格式，成功时返回文件内容
+   */
+  async download(
+    requestTuple: RequestTuple,
+    options?: Options,
+  ): Promise<Blob> {
+    const [method, requestPath] = requestTuple
+
+    let requestURL = `${this.baseURL}${requestPath}`
+
+    const headers: HeadersInit = { ...(options?.headers || {}) }
+    if (localStorage.getItem(kamanoteUserToken)) {
+      headers['Authorization'] =
+        `Bearer ${localStorage.getItem(kamanoteUserToken)}`
+    }
+
+    if (options?.pathParams) {
+      requestURL = this.processPathParams(requestURL, options.pathParams)
+    }
+
+    if (options?.queryParams) {
+      const queryParams = Object.fromEntries(
+        Object.entries(options.queryParams).filter(
+          ([, value]) => value !== undefined,
+        ),
+      )
+      const queryString = new URLSearchParams(queryParams).toString()
+      requestURL += queryString ? `?${queryString}` : ''
+    }
+
+    const response = await fetch(requestURL, { method, headers })
+    if (!response.ok) {
+      // 参数校验等错误仍以统一响应格式返回
+      const result = (await response
+        .json()
+        .catch(() => null)) as Response<unknown> | null
+      throw new Error(result?.msg || `下载失败（${response.status}）`)
+    }
+    return response.blob()
+  }
 }
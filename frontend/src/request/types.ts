@@ -32,6 +32,7 @@ export interface HttpClient {
     requestTuple: RequestTuple,
     options?: Options,
   ) => Promise<Response<T>>
+  download: (requestTuple: RequestTuple, options?: Options) => Promise<Blob>
 }
 
 /**
@@ -49,6 +50,8 @@ export type Pagination = {
   page: number
   pageSize: number
   total: number
+  // 游标分页时下一页的游标，为 null 表示没有更多数据
+  nextCursor?: string | null
 }
 
 /**
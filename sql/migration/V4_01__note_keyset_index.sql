@@ -0,0 +1,11 @@
+-- 笔记列表游标（keyset）分页索引
+--
+-- 说明：
+-- - 在导入 kamanote_tech_v3.sql 之后按文件名版本顺序执行本目录下的脚本；
+-- - GET /api/notes?cursor=... 按 (created_at, note_id) 排序并使用
+--   created_at < ? OR (created_at = ? AND note_id < ?) 翻页，需要对应的联合索引才能避免排序与深度扫描；
+-- - 个人主页按 author_id 过滤后同样按 (created_at, note_id) 翻页，因此额外建立带 author_id 前缀的索引。
+
+ALTER TABLE `note`
+    ADD KEY `idx_created_note` (`created_at`, `note_id`),
+    ADD KEY `idx_author_created_note` (`author_id`, `created_at`, `note_id`);
@@ -0,0 +1,10 @@
+-- 笔记列表展示字段预计算
+--
+-- 说明：
+-- - 在导入 kamanote_tech_v3.sql 之后按文件名版本顺序执行本目录下的脚本；
+-- - need_collapsed / display_content 在创建、更新笔记时由服务端计算写入，列表查询不再逐条解析 Markdown；
+-- - 历史数据保持 NULL，由 NoteDisplayBackfillTask 在应用启动后分批回填。
+
+ALTER TABLE `note`
+    ADD COLUMN `need_collapsed` tinyint(1) DEFAULT NULL COMMENT '列表展示时是否折叠，NULL 表示尚未计算' AFTER `content`,
+    ADD COLUMN `display_content` varchar(1024) DEFAULT NULL COMMENT '折叠时展示的简介' AFTER `need_collapsed`;
@@ -0,0 +1,15 @@
+-- 计数器写回批次记录表
+--
+-- 说明：
+-- - 在导入 kamanote_tech_v3.sql 之后按文件名版本顺序执行本目录下的脚本；
+-- - 点赞、收藏、评论、回复、浏览计数先缓冲在 Redis 中，由 CounterFlushTask 批量写回；
+-- - 每个批次写回时在同一事务中插入一条记录，主键冲突说明该批次已写回过，用于崩溃后重试时避免重复累加；
+-- - 7 天前的记录由定时任务清理。
+
+CREATE TABLE IF NOT EXISTS `counter_flush_log` (
+    `batch_id` varchar(64) NOT NULL COMMENT '批次号',
+    `counter_type` varchar(32) NOT NULL COMMENT '计数器类型',
+    `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '写回时间',
+    PRIMARY KEY (`batch_id`),
+    KEY `idx_created_at` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='计数器写回批次记录表';
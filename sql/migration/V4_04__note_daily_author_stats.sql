@@ -0,0 +1,32 @@
+-- 作者每日笔记提交统计汇总表
+--
+-- 说明：
+-- - 在导入 kamanote_tech_v3.sql 之后按文件名版本顺序执行本目录下的脚本；
+-- - 提交热力图（/api/notes/heatmap）与 Top3 次数（/api/notes/top3count）改为按 (author_id, stat_date) 主键范围读取本表，
+--   不再每次对近 94 天 / 两个月的全部笔记做分组与窗口函数计算；
+-- - note_count 在创建、删除笔记时与笔记写入在同一事务中增量维护；
+-- - daily_rank 由 NoteDailyAuthorStatsTask 每天凌晨对前一天重新统计并计算 RANK() 后写入，
+--   当天的 daily_rank 为 NULL，查询时利用 idx_date_count 现场计算；
+-- - 下方 INSERT 用于初始化历史数据，当天的排名置为 NULL 以便继续增量维护。
+
+CREATE TABLE IF NOT EXISTS `note_daily_author_stats` (
+    `stat_date` date NOT NULL COMMENT '统计日期',
+    `author_id` bigint unsigned NOT NULL COMMENT '作者 ID',
+    `note_count` int unsigned NOT NULL DEFAULT '0' COMMENT '当天提交笔记数',
+    `daily_rank` int unsigned DEFAULT NULL COMMENT '当天提交数排名（RANK()），NULL 表示尚未定稿',
+    PRIMARY KEY (`author_id`, `stat_date`),
+    KEY `idx_date_count` (`stat_date`, `note_count`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='作者每日笔记提交统计表';
+
+INSERT INTO `note_daily_author_stats` (`stat_date`, `author_id`, `note_count`, `daily_rank`)
+SELECT note_date,
+       author_id,
+       note_count,
+       RANK() OVER (PARTITION BY note_date ORDER BY note_count DESC)
+FROM (SELECT DATE(created_at) AS note_date, author_id, COUNT(note_id) AS note_count
+      FROM note
+      GROUP BY DATE(created_at), author_id) t;
+
+UPDATE `note_daily_author_stats`
+SET `daily_rank` = NULL
+WHERE `stat_date` = CURDATE();
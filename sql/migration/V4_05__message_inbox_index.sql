@@ -0,0 +1,12 @@
+-- 消息收件箱游标（keyset）分页索引
+--
+-- 说明：
+-- - 在导入 kamanote_tech_v3.sql 之后按文件名版本顺序执行本目录下的脚本；
+-- - GET /api/messages 按 (created_at, message_id) 倒序游标翻页，条件为
+--   receiver_id = ? AND (created_at < ? OR (created_at = ? AND message_id < ?))，
+--   需要 (receiver_id, created_at, message_id) 联合索引才能避免排序，每页只扫描 pageSize 行附近的数据；
+-- - 原 idx_receiver_id 是新索引的最左前缀，予以删除。
+
+ALTER TABLE `message`
+    ADD KEY `idx_receiver_created_message` (`receiver_id`, `created_at`, `message_id`),
+    DROP KEY `idx_receiver_id`;
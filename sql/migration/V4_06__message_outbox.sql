@@ -0,0 +1,31 @@
+-- 消息通知发件箱（transactional outbox）表
+--
+-- 说明：
+-- - 在导入 kamanote_tech_v3.sql 之后按文件名版本顺序执行本目录下的脚本；
+-- - 点赞、评论等业务在自己的事务中只写入一条发件箱记录，由 NotificationOutboxTask 异步批量生成 message 记录并推送，
+--   业务接口的延迟与行锁持有时间不再包含消息写入；
+-- - idempotency_key 唯一，同一业务事件（例如同一用户对同一笔记的点赞）重复写入时被忽略；
+-- - 投递时以 SELECT ... FOR UPDATE SKIP LOCKED 领取待投递记录（需要 MySQL 8.0+），多节点可并行投递互不重复；
+-- - 生成 message 与标记已投递在同一事务中完成，失败时按指数退避重试，超过最大次数后标记为失败；
+-- - 已投递超过 7 天的记录由定时任务清理。
+
+CREATE TABLE IF NOT EXISTS `message_outbox` (
+    `outbox_id` bigint unsigned NOT NULL AUTO_INCREMENT COMMENT '发件箱记录ID',
+    `idempotency_key` varchar(128) NOT NULL COMMENT '幂等键，同一业务事件只投递一次',
+    `receiver_id` bigint unsigned NOT NULL COMMENT '接收者ID',
+    `sender_id` bigint unsigned NOT NULL COMMENT '发送者ID',
+    `type` int NOT NULL COMMENT '消息类型: 1-点赞, 2-评论, 3-系统',
+    `target_id` int DEFAULT NULL COMMENT '目标ID',
+    `target_type` int DEFAULT NULL COMMENT '目标类型',
+    `content` text COMMENT '消息内容',
+    `status` tinyint NOT NULL DEFAULT '0' COMMENT '状态: 0-待投递, 1-已投递, 2-投递失败',
+    `attempts` int NOT NULL DEFAULT '0' COMMENT '已失败的投递次数',
+    `next_attempt_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '下次可投递时间',
+    `last_error` varchar(512) DEFAULT NULL COMMENT '最近一次投递失败原因',
+    `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`outbox_id`),
+    UNIQUE KEY `uk_idempotency_key` (`idempotency_key`),
+    KEY `idx_status_next_attempt` (`status`, `next_attempt_at`, `outbox_id`),
+    KEY `idx_updated_at` (`updated_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='消息通知发件箱表';
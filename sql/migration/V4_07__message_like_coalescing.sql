@@ -0,0 +1,15 @@
+-- 点赞通知合并
+--
+-- 说明：
+-- - 在导入 kamanote_tech_v3.sql 之后按文件名版本顺序执行本目录下的脚本；
+-- - 同一接收者对同一目标（aggregate_key = LIKE:{target_type}:{target_id}）的点赞通知，
+--   在合并窗口内且尚未读时合并到同一行：更新 actor_count、recent_actor_ids 与最近一次点赞的 sender_id，
+--   而不是每个点赞插入一行；
+-- - idx_receiver_aggregate 用于投递时查找可合并的通知行；
+-- - 存量消息 aggregate_key 为 NULL、actor_count 为 1，不参与合并。
+
+ALTER TABLE `message`
+    ADD COLUMN `aggregate_key` varchar(64) DEFAULT NULL COMMENT '合并键，非 NULL 表示可合并的通知（目前仅点赞）',
+    ADD COLUMN `actor_count` int NOT NULL DEFAULT '1' COMMENT '合并的触发人次',
+    ADD COLUMN `recent_actor_ids` varchar(255) DEFAULT NULL COMMENT '最近的触发用户ID，逗号分隔，最新的在前',
+    ADD KEY `idx_receiver_aggregate` (`receiver_id`, `aggregate_key`, `is_read`, `created_at`);
@@ -0,0 +1,25 @@
+-- 系统广播（读时扇出）
+--
+-- 说明：
+-- - 在导入 kamanote_tech_v3.sql 之后按文件名版本顺序执行本目录下的脚本；
+-- - 面向全体用户的系统通知只在 system_broadcast 中写入一行，不再为每个用户插入 message 记录；
+-- - user_broadcast_watermark 保存每个用户已读到的最大广播 ID，ID 不超过水位线的广播视为已读，
+--   没有记录的用户水位线为 0；
+-- - 查询收件箱与未读数时在读取阶段把广播合并进来，发布一条广播的写入量为 O(1)。
+
+CREATE TABLE IF NOT EXISTS `system_broadcast` (
+    `broadcast_id` int NOT NULL AUTO_INCREMENT COMMENT '广播ID',
+    `sender_id` bigint unsigned NOT NULL COMMENT '发布者ID',
+    `content` text CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '广播内容',
+    `created_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '发布时间',
+    `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`broadcast_id`),
+    KEY `idx_created_broadcast` (`created_at`, `broadcast_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='系统广播表';
+
+CREATE TABLE IF NOT EXISTS `user_broadcast_watermark` (
+    `user_id` bigint unsigned NOT NULL COMMENT '用户ID',
+    `last_read_broadcast_id` int NOT NULL DEFAULT '0' COMMENT '已读到的最大广播ID',
+    `updated_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户系统广播已读水位线表';
@@ -0,0 +1,30 @@
+-- 消息归档表
+--
+-- 说明：
+-- - 在导入 kamanote_tech_v3.sql 之后按文件名版本顺序执行本目录下的脚本；
+-- - message 表只保留未读消息与最近 N 天（message.archive.retention-days，默认 90）的已读消息，
+--   更早的已读消息由 MessageArchiveTask 分批迁移到本表，热表大小保持有界，收件箱索引页可以常驻缓冲池；
+-- - 归档表只追加、很少读取，使用 InnoDB 压缩行格式（需要 innodb_file_per_table，MySQL 8.0 默认开启）降低磁盘占用；
+-- - 没有对 message 做按月 RANGE 分区：分区键必须包含在每个唯一索引中，需要把主键改为 (message_id, created_at)，
+--   而消息的标记已读、点赞合并等操作都按 message_id 定位，无法按分区裁剪；
+-- - 归档消息通过 GET /api/messages/archive 按 (created_at, message_id) 倒序游标分页查询。
+
+CREATE TABLE IF NOT EXISTS `message_archive` (
+    `message_id` int NOT NULL COMMENT '消息ID（沿用 message 表中的ID）',
+    `receiver_id` bigint unsigned NOT NULL COMMENT '接收者ID',
+    `sender_id` bigint unsigned NOT NULL COMMENT '发送者ID',
+    `type` varchar(20) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '消息类型',
+    `target_id` int NOT NULL COMMENT '目标ID',
+    `target_type` int DEFAULT NULL COMMENT '目标类型',
+    `content` text CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL COMMENT '消息内容',
+    `is_read` tinyint(1) NOT NULL DEFAULT '1' COMMENT '是否已读（归档消息均为已读）',
+    `aggregate_key` varchar(64) DEFAULT NULL COMMENT '合并分组键',
+    `actor_count` int NOT NULL DEFAULT '1' COMMENT '合并的触发人次',
+    `recent_actor_ids` varchar(255) DEFAULT NULL COMMENT '最近触发用户ID，逗号分隔',
+    `created_at` datetime NOT NULL COMMENT '创建时间',
+    `updated_at` datetime NOT NULL COMMENT '更新时间',
+    `archived_at` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '归档时间',
+    PRIMARY KEY (`message_id`),
+    KEY `idx_receiver_created_message` (`receiver_id`, `created_at`, `message_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+  ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8 COMMENT='消息归档表';
@@ -0,0 +1,17 @@
+-- 笔记 search_vector 异步写入
+--
+-- 说明：
+-- - 在导入 kamanote_tech_v3.sql 之后按文件名版本顺序执行本目录下的脚本；
+-- - search_vector 是数据库全文检索（MATCH ... AGAINST）的检索列，保存 Jieba 分词后以空格连接的词元；
+--   分词不在请求线程中执行，创建、修改笔记时只标记 search_pending_since，由 SearchVectorTask 分批分词并回写；
+-- - content_version 在每次修改内容时加 1，回写时以 (note_id, content_version) 为条件，
+--   分词期间笔记又被修改则本次回写不生效，笔记保持待处理状态，避免旧内容的词元覆盖新内容；
+-- - search_pending_since 为 NULL 表示 search_vector 已是最新，最早的待处理时间即检索列落后于写入的时长；
+-- - 新增列默认值为当前时间，历史笔记全部进入待处理状态，由任务逐步回填；
+-- - InnoDB 全文索引默认忽略少于 3 个字符的词元（innodb_ft_min_token_size），
+--   中文双字词需要将其调整为 1 或 2 并重建 idx_search_vector 才能被检索到。
+
+ALTER TABLE `note`
+    ADD COLUMN `content_version` int NOT NULL DEFAULT '0' COMMENT '内容版本，每次修改内容加 1' AFTER `search_vector`,
+    ADD COLUMN `search_pending_since` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '等待写入 search_vector 的起始时间，NULL 表示已是最新' AFTER `content_version`,
+    ADD KEY `idx_search_pending` (`search_pending_since`);